@@ -0,0 +1,52 @@
+package com.TCC.Prato_Justo.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo de BCrypt por fator de trabalho, para calibrar app.security.bcrypt.cost.
+ * Rode na máquina de produção e escolha o maior custo cujo "verificar" fique abaixo de ~100 ms:
+ * com uma thread de hash por núcleo, o pool atende núcleos / tempo logins por segundo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class BcryptCustoBenchmark {
+
+    @Param({"8", "10", "11", "12"})
+    private int custo;
+
+    private BCryptPasswordEncoder encoder;
+    private String hash;
+
+    @Setup
+    public void preparar() {
+        encoder = new BCryptPasswordEncoder(custo);
+        hash = encoder.encode("senha-de-teste-123");
+    }
+
+    @Benchmark
+    public boolean verificar() {
+        return encoder.matches("senha-de-teste-123", hash);
+    }
+
+    @Benchmark
+    public String codificar() {
+        return encoder.encode("senha-de-teste-123");
+    }
+}
@@ -0,0 +1,348 @@
+package com.TCC.Prato_Justo.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import java.io.File;
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Gerador de carga repetível contra uma instância já no ar (popular antes com GeradorDados). Cada cliente HTTP
+ * autentica como um usuário sintético e repete o roteiro sorteado pelo mix: listagem e detalhe de doações,
+ * /doacoes/proximas em torno das capitais, envio de mensagem e login. Os clientes STOMP (SockJS em /ws-chat)
+ * trocam mensagens entre si e medem o tempo até o próprio eco chegar em /user/{id}/queue/messages.
+ * Ao fim imprime vazão e percentis por operação e grava o mesmo em JSON (--saida).
+ * Suba a aplicação com --app.ratelimit.enabled=false e um limite de login alto
+ * (--app.security.login.max-per-ip-per-minute=1000000), senão os 429 dominam o resultado:
+ * <pre>
+ * mvn -P benchmark test-compile exec:exec -Dbenchmark.main="com.TCC.Prato_Justo.benchmark.CargaMista \
+ *     --base=http://localhost:8080 --usuarios=100000 --clientes=64 --stomp=16 --duracao=120"
+ * </pre>
+ */
+public class CargaMista {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final String base;
+    private final String prefixo;
+    private final int usuarios;
+    private final int doacoes;
+    private final int clientes;
+    private final int clientesStomp;
+    private final long intervaloStompMs;
+    private final long aquecimentoMs;
+    private final long duracaoMs;
+    private final Map<String, Integer> mix;
+    private final int pesoTotal;
+
+    private final HttpClient http;
+    private final Map<String, Operacao> operacoes = new LinkedHashMap<>();
+    private volatile boolean medindo;
+    private volatile boolean parar;
+
+    private final List<Long> idsClientes = new ArrayList<>();
+
+    CargaMista(Map<String, String> args) {
+        this.base = args.getOrDefault("base", "http://localhost:8080");
+        this.prefixo = args.getOrDefault("prefixo", "carga");
+        this.clientes = Integer.parseInt(args.getOrDefault("clientes", "32"));
+        this.clientesStomp = Integer.parseInt(args.getOrDefault("stomp", "8"));
+        this.usuarios = Integer.parseInt(args.getOrDefault("usuarios", String.valueOf(clientes + clientesStomp)));
+        // Ids sorteados no detalhe de doação (1..doacoes); o padrão é o mesmo do GeradorDados
+        this.doacoes = Integer.parseInt(args.getOrDefault("doacoes", String.valueOf(usuarios * 10)));
+        this.intervaloStompMs = Long.parseLong(args.getOrDefault("intervalo-stomp-ms", "500"));
+        this.aquecimentoMs = Long.parseLong(args.getOrDefault("aquecimento", "10")) * 1000;
+        this.duracaoMs = Long.parseLong(args.getOrDefault("duracao", "60")) * 1000;
+        this.mix = lerMix(args.getOrDefault("mix", "doacoes=35,detalhe=15,proximas=30,chat=15,login=5"));
+        this.pesoTotal = mix.values().stream().mapToInt(Integer::intValue).sum();
+        if (clientes + clientesStomp > usuarios) {
+            throw new IllegalArgumentException("Cada cliente precisa de um usuário sintético distinto (--usuarios)");
+        }
+        mix.keySet().forEach(nome -> operacoes.put(nome, new Operacao()));
+        if (clientesStomp > 0) {
+            operacoes.put("stomp", new Operacao());
+        }
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    public static void main(String[] argumentos) throws Exception {
+        Map<String, String> args = GeradorDados.lerArgumentos(argumentos);
+        CargaMista carga = new CargaMista(args);
+        Map<String, Object> resultado = carga.executar();
+        String saida = args.getOrDefault("saida", "target/carga-resultado.json");
+        JSON.writerWithDefaultPrettyPrinter().writeValue(new File(saida), resultado);
+        System.out.println("Resultado em " + saida);
+        System.exit(0);
+    }
+
+    Map<String, Object> executar() throws Exception {
+        // Usuários distintos por cliente (o limite de login por e-mail vale mesmo com o rate limit desligado)
+        int total = clientes + clientesStomp;
+        List<Sessao> sessoes = new ArrayList<>();
+        for (int i = 0; i < total; i++) {
+            sessoes.add(autenticar(GeradorDados.email(prefixo, (int) ((long) i * usuarios / total))));
+            idsClientes.add(sessoes.get(i).usuarioId);
+        }
+
+        ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor();
+        for (int i = 0; i < clientes; i++) {
+            Sessao sessao = sessoes.get(i);
+            threads.submit(() -> clienteHttp(sessao));
+        }
+        WebSocketStompClient stomp = null;
+        if (clientesStomp > 0) {
+            stomp = new WebSocketStompClient(new SockJsClient(List.of(new WebSocketTransport(new StandardWebSocketClient()))));
+            stomp.setMessageConverter(new MappingJackson2MessageConverter());
+            for (int i = clientes; i < total; i++) {
+                Sessao sessao = sessoes.get(i);
+                WebSocketStompClient cliente = stomp;
+                threads.submit(() -> clienteStomp(cliente, sessao));
+            }
+        }
+
+        System.out.printf("Aquecendo %d s com %d clientes HTTP e %d STOMP...%n", aquecimentoMs / 1000, clientes, clientesStomp);
+        Thread.sleep(aquecimentoMs);
+        operacoes.values().forEach(Operacao::zerar);
+        medindo = true;
+        long inicio = System.nanoTime();
+        Thread.sleep(duracaoMs);
+        medindo = false;
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        parar = true;
+        threads.shutdown();
+        threads.awaitTermination(30, TimeUnit.SECONDS);
+        if (stomp != null) {
+            stomp.stop();
+        }
+        return relatorio(segundos);
+    }
+
+    private void clienteHttp(Sessao sessao) {
+        Random random = ThreadLocalRandom.current();
+        double[] coordenada = new double[2];
+        while (!parar) {
+            String nome = sortear(random);
+            long inicio = System.nanoTime();
+            int status;
+            try {
+                status = switch (nome) {
+                    case "doacoes" -> {
+                        Object[] capital = DadosSinteticos.CAPITAIS[random.nextInt(DadosSinteticos.CAPITAIS.length)];
+                        String tipo = DadosSinteticos.TIPOS[random.nextInt(DadosSinteticos.TIPOS.length)];
+                        yield get("/doacoes?tipo=" + codificar(tipo) + "&cidade=" + codificar((String) capital[0]), null);
+                    }
+                    case "detalhe" -> get("/doacoes/" + (1 + random.nextInt(Math.max(1, doacoes))), null);
+                    case "proximas" -> {
+                        DadosSinteticos.coordenada(random, coordenada);
+                        yield get("/doacoes/proximas?lat=" + coordenada[0] + "&lng=" + coordenada[1] + "&raio_km=5", null);
+                    }
+                    case "chat" -> {
+                        ObjectNode corpo = JSON.createObjectNode()
+                                .put("destinatarioId", idsClientes.get(random.nextInt(idsClientes.size())))
+                                .put("conteudo", "Mensagem de carga");
+                        yield post("/api/chat/messages", corpo, sessao.autorizacao);
+                    }
+                    case "login" -> post("/auth/login", JSON.createObjectNode()
+                            .put("email", GeradorDados.email(prefixo, random.nextInt(usuarios)))
+                            .put("password", GeradorDados.SENHA), null);
+                    default -> throw new IllegalArgumentException("Operação desconhecida no mix: " + nome);
+                };
+            } catch (Exception e) {
+                status = -1;
+            }
+            registrar(operacoes.get(nome), inicio, status);
+        }
+    }
+
+    private void clienteStomp(WebSocketStompClient cliente, Sessao sessao) {
+        Operacao operacao = operacoes.get("stomp");
+        // Envios pendentes: marcador no conteúdo -> instante do envio
+        Map<String, Long> pendentes = new ConcurrentHashMap<>();
+        StompHeaders conexao = new StompHeaders();
+        conexao.add("Authorization", sessao.autorizacao);
+        try {
+            StompSession stomp = cliente.connectAsync(base + "/ws-chat", new WebSocketHttpHeaders(), conexao,
+                    new StompSessionHandlerAdapter() {
+                    }).get(10, TimeUnit.SECONDS);
+            // Mesmo destino que o chat.js assina
+            stomp.subscribe("/user/" + sessao.usuarioId + "/queue/messages", new StompFrameHandler() {
+                @Override
+                public Type getPayloadType(StompHeaders headers) {
+                    return JsonNode.class;
+                }
+
+                @Override
+                public void handleFrame(StompHeaders headers, Object payload) {
+                    JsonNode mensagem = (JsonNode) payload;
+                    Long enviadoEm = pendentes.remove(mensagem.path("content").asText());
+                    if (enviadoEm != null) {
+                        registrar(operacao, enviadoEm, 200);
+                    }
+                }
+            });
+            Random random = ThreadLocalRandom.current();
+            while (!parar) {
+                String marcador = "carga " + sessao.usuarioId + " " + System.nanoTime();
+                pendentes.put(marcador, System.nanoTime());
+                stomp.send("/app/chat.sendMessage", Map.of(
+                        "destinatarioId", idsClientes.get(random.nextInt(idsClientes.size())),
+                        "content", marcador,
+                        "type", "CHAT"));
+                Thread.sleep(intervaloStompMs);
+                // Sem eco depois de 10 s conta como erro
+                long limite = System.nanoTime() - TimeUnit.SECONDS.toNanos(10);
+                pendentes.entrySet().removeIf(e -> {
+                    if (e.getValue() < limite) {
+                        registrar(operacao, e.getValue(), -1);
+                        return true;
+                    }
+                    return false;
+                });
+            }
+            stomp.disconnect();
+        } catch (Exception e) {
+            if (!parar) {
+                System.err.println("Cliente STOMP " + sessao.usuarioId + " falhou: " + e.getMessage());
+            }
+        }
+    }
+
+    private void registrar(Operacao operacao, long inicioNanos, int status) {
+        if (!medindo) return;
+        if (status >= 200 && status < 400) {
+            operacao.latencias.recordValue(Math.max(1, (System.nanoTime() - inicioNanos) / 1000));
+        } else {
+            operacao.erros.increment();
+            operacao.status.computeIfAbsent(status, s -> new LongAdder()).increment();
+        }
+    }
+
+    private Map<String, Object> relatorio(double segundos) {
+        Map<String, Object> resultado = new LinkedHashMap<>();
+        System.out.printf("%n%-10s %10s %8s %10s %9s %9s %9s %9s %9s%n",
+                "operacao", "ok", "erros", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        operacoes.forEach((nome, op) -> {
+            Histogram h = op.latencias;
+            Map<String, Object> linha = new LinkedHashMap<>();
+            linha.put("ok", h.getTotalCount());
+            linha.put("erros", op.erros.sum());
+            linha.put("errosPorStatus", op.status);
+            linha.put("porSegundo", h.getTotalCount() / segundos);
+            linha.put("p50Ms", h.getValueAtPercentile(50) / 1000.0);
+            linha.put("p90Ms", h.getValueAtPercentile(90) / 1000.0);
+            linha.put("p99Ms", h.getValueAtPercentile(99) / 1000.0);
+            linha.put("p999Ms", h.getValueAtPercentile(99.9) / 1000.0);
+            linha.put("maxMs", h.getMaxValue() / 1000.0);
+            resultado.put(nome, linha);
+            System.out.printf("%-10s %10d %8d %10.1f %9.1f %9.1f %9.1f %9.1f %9.1f%n", nome, h.getTotalCount(),
+                    op.erros.sum(), linha.get("porSegundo"), linha.get("p50Ms"), linha.get("p90Ms"),
+                    linha.get("p99Ms"), linha.get("p999Ms"), linha.get("maxMs"));
+        });
+        return resultado;
+    }
+
+    private Sessao autenticar(String email) throws Exception {
+        HttpResponse<String> resposta = http.send(HttpRequest.newBuilder(URI.create(base + "/auth/login"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(JSON.createObjectNode()
+                                .put("email", email).put("password", GeradorDados.SENHA).toString()))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (resposta.statusCode() != 200) {
+            throw new IllegalStateException("Login de " + email + " falhou com HTTP " + resposta.statusCode()
+                    + " (a base foi populada com GeradorDados?)");
+        }
+        JsonNode corpo = JSON.readTree(resposta.body());
+        return new Sessao(corpo.path("user").path("id").asLong(), "Bearer " + corpo.path("token").asText());
+    }
+
+    private int get(String caminho, String autorizacao) throws Exception {
+        HttpRequest.Builder requisicao = HttpRequest.newBuilder(URI.create(base + caminho)).GET();
+        if (autorizacao != null) requisicao.header("Authorization", autorizacao);
+        return http.send(requisicao.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private int post(String caminho, JsonNode corpo, String autorizacao) throws Exception {
+        HttpRequest.Builder requisicao = HttpRequest.newBuilder(URI.create(base + caminho))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(corpo.toString()));
+        if (autorizacao != null) requisicao.header("Authorization", autorizacao);
+        return http.send(requisicao.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private String sortear(Random random) {
+        int sorteio = random.nextInt(pesoTotal);
+        for (Map.Entry<String, Integer> e : mix.entrySet()) {
+            sorteio -= e.getValue();
+            if (sorteio < 0) return e.getKey();
+        }
+        throw new IllegalStateException();
+    }
+
+    private static String codificar(String valor) {
+        return URLEncoder.encode(valor, StandardCharsets.UTF_8);
+    }
+
+    private static Map<String, Integer> lerMix(String mix) {
+        Map<String, Integer> pesos = new LinkedHashMap<>();
+        for (String parte : mix.split(",")) {
+            String[] chaveValor = parte.split("=");
+            int peso = Integer.parseInt(chaveValor[1].trim());
+            if (peso > 0) pesos.put(chaveValor[0].trim(), peso);
+        }
+        if (pesos.isEmpty()) {
+            throw new IllegalArgumentException("Mix vazio: " + mix);
+        }
+        return pesos;
+    }
+
+    private record Sessao(long usuarioId, String autorizacao) {
+    }
+
+    private static class Operacao {
+        // Microssegundos com 3 dígitos significativos; a faixa cresce sob demanda
+        final Histogram latencias = new ConcurrentHistogram(3);
+        final LongAdder erros = new LongAdder();
+        final Map<Integer, LongAdder> status = new ConcurrentHashMap<>();
+
+        void zerar() {
+            latencias.reset();
+            erros.reset();
+            status.clear();
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.TCC.Prato_Justo.benchmark;
+
+import com.TCC.Prato_Justo.Model.Doacao;
+import com.TCC.Prato_Justo.Model.Usuario;
+import com.TCC.Prato_Justo.Prato_JustoApplication;
+import com.TCC.Prato_Justo.Security.JwtUtil;
+import com.TCC.Prato_Justo.Service.DoacaoService;
+import com.TCC.Prato_Justo.Service.UsuarioService;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Carga HTTP real contra a aplicação (Tomcat + H2 em memória) com threads de plataforma e com threads virtuais.
+ * O grupo "misto" mistura leituras que esperam o banco (GET /doacoes/{id}, com latência simulada por consulta)
+ * e leituras servidas do cache de segundo nível (GET /api/user/{id}), com mais clientes que threads no Tomcat.
+ * Rode numa máquina com vários núcleos (num núcleo só a CPU limita os dois modos); -tg ajusta os clientes
+ * por método e -jvmArgs -Djdk.tracePinnedThreads=short denuncia pinning. O p99 sai do modo SampleTime:
+ * mvn -P benchmark test-compile exec:exec -Djmh.args="CargaThreadsBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class CargaThreadsBenchmark {
+
+    private static final int DOACOES = 200;
+
+    @Param({"false", "true"})
+    private boolean threadsVirtuais;
+
+    // Latência de rede até o banco, somada a cada consulta
+    @Param({"5"})
+    private int latenciaBancoMs;
+
+    @Param({"10"})
+    private int tamanhoPool;
+
+    private ConfigurableApplicationContext contexto;
+    private HttpClient cliente;
+    private String base;
+    private String autorizacao;
+    private long[] idsDoacao;
+    private long idUsuario;
+
+    @Setup(Level.Trial)
+    public void subir() {
+        int latencia = latenciaBancoMs;
+        contexto = new SpringApplicationBuilder(Prato_JustoApplication.class)
+                .initializers(ctx -> ctx.getBeanFactory().addBeanPostProcessor(atrasarConsultas(latencia)))
+                // Como argumentos de linha de comando, para sobrepor o application.properties
+                .run(
+                        "--server.port=0",
+                        "--spring.threads.virtual.enabled=" + threadsVirtuais,
+                        "--spring.datasource.url=jdbc:h2:mem:carga;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.datasource.hikari.maximum-pool-size=" + tamanhoPool,
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--app.ratelimit.enabled=false",
+                        "--app.archive.enabled=false",
+                        "--logging.level.root=WARN");
+
+        UsuarioService usuarioService = contexto.getBean(UsuarioService.class);
+        DoacaoService doacaoService = contexto.getBean(DoacaoService.class);
+        Usuario doador = usuarioService.fazerCadastro("Carga", "senha-de-carga-123", "carga@exemplo.com");
+        idUsuario = doador.getId();
+        idsDoacao = new long[DOACOES];
+        for (int i = 0; i < DOACOES; i++) {
+            Doacao d = new Doacao();
+            d.setTitulo("Doação de carga " + i);
+            d.setTipoAlimento("hortifruti");
+            d.setQuantidade(2.0);
+            d.setCidade("Recife");
+            idsDoacao[i] = doacaoService.criar(d, doador).getId();
+        }
+        autorizacao = "Bearer " + contexto.getBean(JwtUtil.class).gerarTokenAcesso(doador);
+
+        int porta = ((WebServerApplicationContext) contexto).getWebServer().getPort();
+        base = "http://localhost:" + porta;
+        cliente = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void derrubar() {
+        if (contexto != null) {
+            contexto.close();
+        }
+    }
+
+    private static BeanPostProcessor atrasarConsultas(int latenciaMs) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && latenciaMs > 0) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .beforeQuery((execucao, consultas) -> dormir(latenciaMs))
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    private static void dormir(int ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Benchmark
+    @Group("misto")
+    @GroupThreads(192)
+    public int doacao() throws Exception {
+        long id = idsDoacao[ThreadLocalRandom.current().nextInt(idsDoacao.length)];
+        return enviar(HttpRequest.newBuilder(URI.create(base + "/doacoes/" + id)).build());
+    }
+
+    @Benchmark
+    @Group("misto")
+    @GroupThreads(64)
+    public int perfil() throws Exception {
+        return enviar(HttpRequest.newBuilder(URI.create(base + "/api/user/" + idUsuario))
+                .header("Authorization", autorizacao)
+                .build());
+    }
+
+    private int enviar(HttpRequest requisicao) throws Exception {
+        HttpResponse<byte[]> resposta = cliente.send(requisicao, HttpResponse.BodyHandlers.ofByteArray());
+        if (resposta.statusCode() != 200) {
+            throw new IllegalStateException("HTTP " + resposta.statusCode() + " em " + requisicao.uri());
+        }
+        return resposta.body().length;
+    }
+}
@@ -0,0 +1,99 @@
+package com.TCC.Prato_Justo.benchmark;
+
+import com.TCC.Prato_Justo.Model.Doacao;
+import com.TCC.Prato_Justo.Model.TipoUsuario;
+import com.TCC.Prato_Justo.Model.Usuario;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Doações sintéticas para os benchmarks, com semente fixa. A maior parte fica concentrada em torno
+ * das capitais (como as doações reais); o restante se espalha pelo retângulo do território brasileiro.
+ */
+final class DadosSinteticos {
+
+    // Capital, UF, latitude, longitude
+    static final Object[][] CAPITAIS = {
+            {"São Paulo", "SP", -23.5505, -46.6333},
+            {"Rio de Janeiro", "RJ", -22.9068, -43.1729},
+            {"Belo Horizonte", "MG", -19.9167, -43.9345},
+            {"Salvador", "BA", -12.9714, -38.5014},
+            {"Fortaleza", "CE", -3.7319, -38.5267},
+            {"Recife", "PE", -8.0476, -34.8770},
+            {"Brasília", "DF", -15.7939, -47.8828},
+            {"Curitiba", "PR", -25.4284, -49.2733},
+            {"Porto Alegre", "RS", -30.0346, -51.2177},
+            {"Manaus", "AM", -3.1190, -60.0217},
+            {"Belém", "PA", -1.4558, -48.4902},
+            {"Goiânia", "GO", -16.6869, -49.2648},
+    };
+
+    static final String[] TIPOS = {"hortifruti", "padaria", "laticínios", "grãos", "enlatados", "refeição pronta"};
+
+    static final double LAT_MIN = -33.7, LAT_MAX = 5.3, LNG_MIN = -73.9, LNG_MAX = -34.8;
+
+    // Fração das doações em torno de uma capital e dispersão (em graus, ~35 km) em volta dela
+    private static final double FRACAO_URBANA = 0.8;
+    private static final double DISPERSAO_GRAUS = 0.3;
+
+    private DadosSinteticos() {
+    }
+
+    static List<Doacao> doacoes(int quantidade, long semente) {
+        Random random = new Random(semente);
+        LocalDateTime base = LocalDateTime.of(2026, 1, 1, 0, 0);
+        LocalDate validade = LocalDate.of(2026, 12, 31);
+        List<Usuario> doadores = new ArrayList<>();
+        for (long i = 0; i < 1000; i++) {
+            Usuario u = new Usuario();
+            u.setId(i);
+            u.setNome("Doador " + i);
+            u.setEmail("doador" + i + "@exemplo.com");
+            u.setTipoUsuario(TipoUsuario.INDIVIDUAL);
+            doadores.add(u);
+        }
+
+        List<Doacao> doacoes = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            Doacao d = new Doacao();
+            d.setId((long) i);
+            d.setDoador(doadores.get(random.nextInt(doadores.size())));
+            String tipo = TIPOS[random.nextInt(TIPOS.length)];
+            d.setTitulo("Doação de " + tipo);
+            d.setTipoAlimento(tipo);
+            d.setQuantidade(1.0 + random.nextInt(20));
+            d.setUnidade("kg");
+            d.setDataValidade(validade);
+            double[] coordenada = new double[2];
+            Object[] capital = coordenada(random, coordenada);
+            d.setLatitude(coordenada[0]);
+            d.setLongitude(coordenada[1]);
+            d.setCidade(capital != null ? (String) capital[0] : "Interior");
+            d.setEstado(capital != null ? (String) capital[1] : null);
+            d.setCriadoEm(base.plusMinutes(random.nextInt(60 * 24 * 290)));
+            d.setAtivo(random.nextInt(10) != 0);
+            doacoes.add(d);
+        }
+        return doacoes;
+    }
+
+    /**
+     * Preenche latitude/longitude e devolve a capital sorteada, ou nulo para um ponto no interior
+     */
+    static Object[] coordenada(Random random, double[] destino) {
+        if (random.nextDouble() < FRACAO_URBANA) {
+            // Peso maior para as primeiras capitais (mais populosas)
+            Object[] capital = CAPITAIS[(int) (CAPITAIS.length * Math.pow(random.nextDouble(), 2))];
+            destino[0] = (double) capital[2] + random.nextGaussian() * DISPERSAO_GRAUS;
+            destino[1] = (double) capital[3] + random.nextGaussian() * DISPERSAO_GRAUS;
+            return capital;
+        }
+        destino[0] = LAT_MIN + random.nextDouble() * (LAT_MAX - LAT_MIN);
+        destino[1] = LNG_MIN + random.nextDouble() * (LNG_MAX - LNG_MIN);
+        return null;
+    }
+}
@@ -0,0 +1,400 @@
+package com.TCC.Prato_Justo.benchmark;
+
+import com.TCC.Prato_Justo.Model.StatusSolicitacao;
+import com.TCC.Prato_Justo.Model.TipoUsuario;
+import com.TCC.Prato_Justo.Prato_JustoApplication;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Popula H2 ou MySQL com usuários, doações, solicitações, mensagens e avaliações sintéticas em lotes JDBC,
+ * sem passar pelo Hibernate, com as coordenadas de DadosSinteticos (capitais + interior). Os agregados
+ * usuario_estatistica e reputacao_usuario são gravados no fim, consistentes com as linhas geradas.
+ * Todos os usuários entram com a senha "carga123" e e-mail {prefixo}{n}@carga.test, que é o que o
+ * CargaMista usa para autenticar. Se o esquema não existir, sobe a aplicação sem web para o Hibernate criá-lo.
+ * <pre>
+ * mvn -P benchmark test-compile exec:exec -Dbenchmark.main="com.TCC.Prato_Justo.benchmark.GeradorDados \
+ *     --url=jdbc:h2:file:./target/carga;MODE=MySQL;AUTO_SERVER=TRUE --usuarios=100000 --doacoes=1000000"
+ * </pre>
+ * No MySQL, acrescente rewriteBatchedStatements=true à URL para os lotes virarem INSERTs de várias linhas.
+ */
+public class GeradorDados {
+
+    private static final Logger log = LoggerFactory.getLogger(GeradorDados.class);
+
+    static final String SENHA = "carga123";
+
+    private static final String[] CONVERSA = {
+            "Olá! A doação ainda está disponível?",
+            "Sim, pode retirar hoje até as 18h.",
+            "Consigo passar amanhã de manhã, tudo bem?",
+            "Combinado, te espero na portaria.",
+            "Obrigado pela doação!",
+    };
+
+    private final Connection conexao;
+    private final Random random;
+    private final int lote;
+    private final String prefixo;
+
+    private final int usuarios;
+    private final int doacoes;
+    private final int solicitacoes;
+    private final int mensagens;
+    private final int avaliacoes;
+
+    // Primeiro id de cada tabela nesta execução (os ids são explícitos para as chaves estrangeiras)
+    private long baseUsuario;
+    private long baseDoacao;
+    private long baseSolicitacao;
+
+    // Índices locais (0..n-1) das relações, para gerar as tabelas seguintes sem consultar o banco
+    private int[] doadorDaDoacao;
+    private int[] solicitanteDaSolicitacao;
+    private int[] doacaoDaSolicitacao;
+
+    // Agregados por usuário
+    private int[] totalDoacoes;
+    private int[] doacoesAtivas;
+    private long[][] notasRecebidas;
+
+    GeradorDados(Connection conexao, Map<String, String> args) {
+        this.conexao = conexao;
+        this.random = new Random(Long.parseLong(args.getOrDefault("semente", "42")));
+        this.lote = Integer.parseInt(args.getOrDefault("lote", "1000"));
+        this.prefixo = args.getOrDefault("prefixo", "carga");
+        this.usuarios = Integer.parseInt(args.getOrDefault("usuarios", "10000"));
+        this.doacoes = Integer.parseInt(args.getOrDefault("doacoes", String.valueOf(usuarios * 10)));
+        this.solicitacoes = Integer.parseInt(args.getOrDefault("solicitacoes", String.valueOf(doacoes / 2)));
+        this.mensagens = Integer.parseInt(args.getOrDefault("mensagens", String.valueOf(solicitacoes * 4)));
+        this.avaliacoes = Math.min(solicitacoes,
+                Integer.parseInt(args.getOrDefault("avaliacoes", String.valueOf(solicitacoes / 3))));
+        if (usuarios < 2) {
+            throw new IllegalArgumentException("São necessários pelo menos 2 usuários");
+        }
+        if (doacoes > 0 && (long) solicitacoes > (long) doacoes * (usuarios - 1)) {
+            throw new IllegalArgumentException("Solicitações demais para o número de doações e usuários");
+        }
+    }
+
+    public static void main(String[] argumentos) throws Exception {
+        Map<String, String> args = lerArgumentos(argumentos);
+        String url = args.getOrDefault("url", "jdbc:h2:file:./target/carga;MODE=MySQL;AUTO_SERVER=TRUE");
+        String usuario = args.getOrDefault("usuario", "sa");
+        String senha = args.getOrDefault("senha", "");
+
+        try (Connection conexao = DriverManager.getConnection(url, usuario, senha)) {
+            if (!tabelaExiste(conexao, "usuario")) {
+                criarEsquema(url, usuario, senha);
+            }
+            conexao.setAutoCommit(false);
+            long inicio = System.nanoTime();
+            new GeradorDados(conexao, args).gerar();
+            log.info("seed_completed duracao_s={}", (System.nanoTime() - inicio) / 1_000_000_000);
+        }
+    }
+
+    void gerar() throws SQLException {
+        baseUsuario = proximoId("usuario", "id_usuario");
+        baseDoacao = proximoId("doacao", "id_doacao");
+        baseSolicitacao = proximoId("solicitacao", "id_solicitacao");
+        long baseMensagem = proximoId("mensagem", "id_mensagem");
+        long baseAvaliacao = proximoId("avaliacao_solicitacao", "id_avaliacao");
+
+        totalDoacoes = new int[usuarios];
+        doacoesAtivas = new int[usuarios];
+        notasRecebidas = new long[usuarios][5];
+
+        gerarUsuarios();
+        gerarDoacoes();
+        gerarSolicitacoes();
+        gerarMensagens(baseMensagem);
+        gerarAvaliacoes(baseAvaliacao);
+        gerarAgregados();
+
+        reiniciarIdentidade("usuario", "id_usuario", baseUsuario + usuarios);
+        reiniciarIdentidade("doacao", "id_doacao", baseDoacao + doacoes);
+        reiniciarIdentidade("solicitacao", "id_solicitacao", baseSolicitacao + solicitacoes);
+        reiniciarIdentidade("mensagem", "id_mensagem", baseMensagem + mensagens);
+        reiniciarIdentidade("avaliacao_solicitacao", "id_avaliacao", baseAvaliacao + avaliacoes);
+        conexao.commit();
+    }
+
+    private void gerarUsuarios() throws SQLException {
+        // Um único hash para todos: BCrypt por linha tornaria a carga limitada pela CPU do gerador
+        String hash = new BCryptPasswordEncoder(10).encode(SENHA);
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 0, 0);
+        String sql = "INSERT INTO usuario (id_usuario, nome, email, senha_usuario, tipo_usuario, data_cadastro,"
+                + " status_ativo, verificado, cidade, estado, versao) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+        try (PreparedStatement ps = conexao.prepareStatement(sql)) {
+            double[] coordenada = new double[2];
+            for (int i = 0; i < usuarios; i++) {
+                Object[] capital = DadosSinteticos.coordenada(random, coordenada);
+                ps.setLong(1, baseUsuario + i);
+                ps.setString(2, "Usuário de carga " + i);
+                ps.setString(3, email(prefixo, i));
+                ps.setString(4, hash);
+                ps.setString(5, (i % 20 == 0 ? TipoUsuario.ESTABELECIMENTO : TipoUsuario.INDIVIDUAL).name());
+                ps.setObject(6, base.plusMinutes(random.nextInt(60 * 24 * 365)));
+                ps.setBoolean(7, true);
+                ps.setBoolean(8, random.nextInt(4) == 0);
+                ps.setString(9, capital != null ? (String) capital[0] : "Interior");
+                ps.setString(10, capital != null ? (String) capital[1] : null);
+                adicionar(ps, "usuario", i);
+            }
+            finalizar(ps, "usuario", usuarios);
+        }
+    }
+
+    private void gerarDoacoes() throws SQLException {
+        doadorDaDoacao = new int[doacoes];
+        LocalDateTime base = LocalDateTime.of(2026, 1, 1, 0, 0);
+        String sql = "INSERT INTO doacao (id_doacao, id_doador, titulo, descricao, tipo_alimento, quantidade, unidade,"
+                + " data_validade, cidade, estado, latitude, longitude, criado_em, ativo, versao)"
+                + " VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+        try (PreparedStatement ps = conexao.prepareStatement(sql)) {
+            double[] coordenada = new double[2];
+            for (int i = 0; i < doacoes; i++) {
+                // Poucos doadores concentram boa parte das doações (estabelecimentos recorrentes)
+                int doador = (int) (usuarios * Math.pow(random.nextDouble(), 3));
+                boolean ativa = random.nextInt(10) != 0;
+                doadorDaDoacao[i] = doador;
+                totalDoacoes[doador]++;
+                if (ativa) doacoesAtivas[doador]++;
+
+                String tipo = DadosSinteticos.TIPOS[random.nextInt(DadosSinteticos.TIPOS.length)];
+                Object[] capital = DadosSinteticos.coordenada(random, coordenada);
+                LocalDateTime criadoEm = base.plusMinutes(random.nextInt(60 * 24 * 290));
+                ps.setLong(1, baseDoacao + i);
+                ps.setLong(2, baseUsuario + doador);
+                ps.setString(3, "Doação de " + tipo + " " + i);
+                ps.setString(4, "Doação sintética gerada para teste de carga");
+                ps.setString(5, tipo);
+                ps.setDouble(6, 1 + random.nextInt(20));
+                ps.setString(7, "kg");
+                ps.setObject(8, criadoEm.toLocalDate().plusDays(3 + random.nextInt(30)));
+                ps.setString(9, capital != null ? (String) capital[0] : "Interior");
+                ps.setString(10, capital != null ? (String) capital[1] : null);
+                ps.setDouble(11, coordenada[0]);
+                ps.setDouble(12, coordenada[1]);
+                ps.setObject(13, criadoEm);
+                ps.setBoolean(14, ativa);
+                adicionar(ps, "doacao", i);
+            }
+            finalizar(ps, "doacao", doacoes);
+        }
+    }
+
+    private void gerarSolicitacoes() throws SQLException {
+        solicitanteDaSolicitacao = new int[solicitacoes];
+        doacaoDaSolicitacao = new int[solicitacoes];
+        StatusSolicitacao[] status = StatusSolicitacao.values();
+        LocalDateTime base = LocalDateTime.of(2026, 1, 1, 0, 0);
+        String sql = "INSERT INTO solicitacao (id_solicitacao, id_doacao, id_solicitante, status, data_solicitacao,"
+                + " data_atualizacao, versao) VALUES (?, ?, ?, ?, ?, ?, 0)";
+        try (PreparedStatement ps = conexao.prepareStatement(sql)) {
+            for (int i = 0; i < solicitacoes; i++) {
+                // Percorre as doações em rodadas; a cada rodada o deslocamento (espalhado por doação) avança um
+                // usuário, o que mantém o par (doação, solicitante) único e o solicitante diferente do doador
+                int doacao = i % doacoes;
+                int rodada = i / doacoes;
+                int deslocamento = (int) ((Math.floorMod(doacao * 0x9E3779B1L, usuarios - 1) + rodada) % (usuarios - 1));
+                int solicitante = (doadorDaDoacao[doacao] + 1 + deslocamento) % usuarios;
+                doacaoDaSolicitacao[i] = doacao;
+                solicitanteDaSolicitacao[i] = solicitante;
+
+                // As primeiras recebem as avaliações e por isso ficam concluídas
+                StatusSolicitacao s = i < avaliacoes ? StatusSolicitacao.CONCLUIDA : status[random.nextInt(status.length)];
+                LocalDateTime criadaEm = base.plusMinutes(random.nextInt(60 * 24 * 290));
+                ps.setLong(1, baseSolicitacao + i);
+                ps.setLong(2, baseDoacao + doacao);
+                ps.setLong(3, baseUsuario + solicitante);
+                ps.setString(4, s.name());
+                ps.setObject(5, criadaEm);
+                ps.setObject(6, s == StatusSolicitacao.SOLICITADA ? null : criadaEm.plusHours(1 + random.nextInt(72)));
+                adicionar(ps, "solicitacao", i);
+            }
+            finalizar(ps, "solicitacao", solicitacoes);
+        }
+    }
+
+    private void gerarMensagens(long baseMensagem) throws SQLException {
+        if (solicitacoes == 0) return;
+        LocalDateTime base = LocalDateTime.of(2026, 1, 1, 0, 0);
+        String sql = "INSERT INTO mensagem (id_mensagem, id_remetente, id_destinatario, conteudo, criado_em, lido)"
+                + " VALUES (?, ?, ?, ?, ?, ?)";
+        try (PreparedStatement ps = conexao.prepareStatement(sql)) {
+            for (int i = 0; i < mensagens; i++) {
+                // Conversas entre solicitante e doador, alternando quem escreve
+                int solicitacao = random.nextInt(solicitacoes);
+                long solicitante = baseUsuario + solicitanteDaSolicitacao[solicitacao];
+                long doador = baseUsuario + doadorDaDoacao[doacaoDaSolicitacao[solicitacao]];
+                boolean doSolicitante = random.nextBoolean();
+                ps.setLong(1, baseMensagem + i);
+                ps.setLong(2, doSolicitante ? solicitante : doador);
+                ps.setLong(3, doSolicitante ? doador : solicitante);
+                ps.setString(4, CONVERSA[random.nextInt(CONVERSA.length)]);
+                ps.setObject(5, base.plusSeconds(random.nextInt(60 * 60 * 24 * 290)));
+                ps.setBoolean(6, random.nextInt(5) != 0);
+                adicionar(ps, "mensagem", i);
+            }
+            finalizar(ps, "mensagem", mensagens);
+        }
+    }
+
+    private void gerarAvaliacoes(long baseAvaliacao) throws SQLException {
+        LocalDateTime base = LocalDateTime.of(2026, 1, 1, 0, 0);
+        String sql = "INSERT INTO avaliacao_solicitacao (id_avaliacao, id_solicitacao, id_avaliador, id_avaliado, nota,"
+                + " comentario, criado_em) VALUES (?, ?, ?, ?, ?, ?, ?)";
+        try (PreparedStatement ps = conexao.prepareStatement(sql)) {
+            for (int i = 0; i < avaliacoes; i++) {
+                // O solicitante avalia o doador; notas concentradas em 4 e 5
+                int avaliado = doadorDaDoacao[doacaoDaSolicitacao[i]];
+                int nota = Math.max(1, 5 - (int) Math.floor(-Math.log(1 - random.nextDouble()) * 0.8));
+                notasRecebidas[avaliado][nota - 1]++;
+                ps.setLong(1, baseAvaliacao + i);
+                ps.setLong(2, baseSolicitacao + i);
+                ps.setLong(3, baseUsuario + solicitanteDaSolicitacao[i]);
+                ps.setLong(4, baseUsuario + avaliado);
+                ps.setInt(5, nota);
+                ps.setString(6, nota >= 4 ? "Tudo certo na retirada" : null);
+                ps.setObject(7, base.plusMinutes(random.nextInt(60 * 24 * 290)));
+                adicionar(ps, "avaliacao_solicitacao", i);
+            }
+            finalizar(ps, "avaliacao_solicitacao", avaliacoes);
+        }
+    }
+
+    // Os serviços mantêm esses agregados a cada escrita; aqui eles são gravados de uma vez
+    private void gerarAgregados() throws SQLException {
+        LocalDateTime agora = LocalDateTime.now();
+        String sqlEstatistica = "INSERT INTO usuario_estatistica (id_usuario, total_doacoes, doacoes_ativas, soma_notas,"
+                + " total_avaliacoes, atualizado_em) VALUES (?, ?, ?, 0, 0, ?)";
+        try (PreparedStatement ps = conexao.prepareStatement(sqlEstatistica)) {
+            int linhas = 0;
+            for (int i = 0; i < usuarios; i++) {
+                if (totalDoacoes[i] == 0) continue;
+                ps.setLong(1, baseUsuario + i);
+                ps.setInt(2, totalDoacoes[i]);
+                ps.setInt(3, doacoesAtivas[i]);
+                ps.setObject(4, agora);
+                adicionar(ps, "usuario_estatistica", linhas++);
+            }
+            finalizar(ps, "usuario_estatistica", linhas);
+        }
+
+        String sqlReputacao = "INSERT INTO reputacao_usuario (id_usuario, soma_notas, total_avaliacoes, notas_1, notas_2,"
+                + " notas_3, notas_4, notas_5, atualizado_em) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        try (PreparedStatement ps = conexao.prepareStatement(sqlReputacao)) {
+            int linhas = 0;
+            for (int i = 0; i < usuarios; i++) {
+                long[] notas = notasRecebidas[i];
+                long total = notas[0] + notas[1] + notas[2] + notas[3] + notas[4];
+                if (total == 0) continue;
+                ps.setLong(1, baseUsuario + i);
+                ps.setLong(2, notas[0] + 2 * notas[1] + 3 * notas[2] + 4 * notas[3] + 5 * notas[4]);
+                ps.setLong(3, total);
+                for (int n = 0; n < 5; n++) {
+                    ps.setLong(4 + n, notas[n]);
+                }
+                ps.setObject(9, agora);
+                adicionar(ps, "reputacao_usuario", linhas++);
+            }
+            finalizar(ps, "reputacao_usuario", linhas);
+        }
+    }
+
+    private void adicionar(PreparedStatement ps, String tabela, int indice) throws SQLException {
+        ps.addBatch();
+        if ((indice + 1) % lote == 0) {
+            ps.executeBatch();
+            conexao.commit();
+            if ((indice + 1) % (lote * 100) == 0) {
+                log.info("seed_progress tabela={} linhas={}", tabela, indice + 1);
+            }
+        }
+    }
+
+    private void finalizar(PreparedStatement ps, String tabela, int total) throws SQLException {
+        ps.executeBatch();
+        conexao.commit();
+        log.info("seed_table_done tabela={} linhas={}", tabela, total);
+    }
+
+    private long proximoId(String tabela, String coluna) throws SQLException {
+        try (Statement st = conexao.createStatement();
+             ResultSet rs = st.executeQuery("SELECT COALESCE(MAX(" + coluna + "), 0) FROM " + tabela)) {
+            rs.next();
+            return rs.getLong(1) + 1;
+        }
+    }
+
+    // O MySQL avança o AUTO_INCREMENT sozinho com ids explícitos; o H2 não, e a aplicação colidiria nas próximas inserções
+    private void reiniciarIdentidade(String tabela, String coluna, long proximo) throws SQLException {
+        if (!conexao.getMetaData().getDatabaseProductName().startsWith("H2")) return;
+        try (Statement st = conexao.createStatement()) {
+            st.execute("ALTER TABLE " + tabela + " ALTER COLUMN " + coluna + " RESTART WITH " + proximo);
+        }
+    }
+
+    static String email(String prefixo, int indice) {
+        return prefixo + indice + "@carga.test";
+    }
+
+    private static boolean tabelaExiste(Connection conexao, String tabela) throws SQLException {
+        for (String nome : new String[]{tabela, tabela.toUpperCase()}) {
+            try (ResultSet rs = conexao.getMetaData().getTables(null, null, nome, null)) {
+                if (rs.next()) return true;
+            }
+        }
+        return false;
+    }
+
+    // Deixa o Hibernate (ddl-auto=update) criar tabelas, índices e restrições exatamente como a aplicação espera
+    private static void criarEsquema(String url, String usuario, String senha) {
+        log.info("seed_schema_create url={}", url);
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=" + url,
+                "--spring.datasource.username=" + usuario,
+                "--spring.datasource.password=" + senha,
+                "--spring.jpa.hibernate.ddl-auto=update",
+                "--app.archive.enabled=false",
+                "--logging.level.root=WARN",
+                "--logging.level.com.TCC.Prato_Justo.benchmark=INFO"));
+        if (url.startsWith("jdbc:h2:")) {
+            args.add("--spring.datasource.driver-class-name=org.h2.Driver");
+            args.add("--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect");
+        }
+        new SpringApplicationBuilder(Prato_JustoApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(args.toArray(String[]::new))
+                .close();
+    }
+
+    static Map<String, String> lerArgumentos(String[] argumentos) {
+        Map<String, String> args = new HashMap<>();
+        for (String a : argumentos) {
+            if (!a.startsWith("--") || !a.contains("=")) {
+                throw new IllegalArgumentException("Argumento inválido (use --chave=valor): " + a);
+            }
+            args.put(a.substring(2, a.indexOf('=')), a.substring(a.indexOf('=') + 1));
+        }
+        return args;
+    }
+}
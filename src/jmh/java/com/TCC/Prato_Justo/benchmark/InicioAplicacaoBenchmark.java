@@ -0,0 +1,131 @@
+package com.TCC.Prato_Justo.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tempo até "Started Prato_JustoApplication" de um processo novo, com o jar do build normal e com os artefatos
+ * do perfil Maven inicio-rapido: só o perfil Spring (ddl-auto=validate) e com AOT + arquivo AppCDS do treino.
+ * Cada medida é uma JVM nova contra um H2 em arquivo com o esquema criado no setup. Gere os jars antes:
+ * mvn -P inicio-rapido -DskipTests package
+ * mvn -P benchmark test-compile exec:exec -Djmh.args="InicioAplicacaoBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+public class InicioAplicacaoBenchmark {
+
+    private static final Path JAR_PADRAO = Path.of("target/Prato_Justo-0.0.1-SNAPSHOT.jar");
+    private static final Path DIR_RAPIDO = Path.of("target/inicio-rapido");
+    private static final String MARCA_SUBIDA = "Started Prato_JustoApplication";
+
+    @Param({"padrao", "validate", "aot-cds"})
+    private String variante;
+
+    private Path banco;
+    private Process processo;
+
+    @Setup(Level.Trial)
+    public void preparar() throws Exception {
+        if (!Files.exists(JAR_PADRAO) || !Files.exists(DIR_RAPIDO.resolve("application.jsa"))) {
+            throw new IllegalStateException("Rode antes: mvn -P inicio-rapido -DskipTests package");
+        }
+        banco = Files.createTempDirectory("prato-justo-inicio");
+        // validate não cria tabelas: o esquema vem de uma subida com update, como na migração antes do deploy
+        List<String> comando = comandoJava();
+        comando.add("-Dspring.context.exit=onRefresh");
+        comando.addAll(argumentosApp(JAR_PADRAO));
+        comando.add("--spring.jpa.hibernate.ddl-auto=update");
+        Process esquema = new ProcessBuilder(comando).redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD).start();
+        if (esquema.waitFor() != 0) {
+            throw new IllegalStateException("Falha ao criar o esquema em " + banco);
+        }
+    }
+
+    @Benchmark
+    public void subir() throws IOException {
+        Path jar = "padrao".equals(variante) ? JAR_PADRAO : DIR_RAPIDO.resolve(JAR_PADRAO.getFileName());
+        List<String> comando = comandoJava();
+        if ("aot-cds".equals(variante)) {
+            comando.add("-XX:SharedArchiveFile=" + DIR_RAPIDO.resolve("application.jsa"));
+            comando.add("-Xlog:cds=off");
+            comando.add("-Dspring.aot.enabled=true");
+        }
+        comando.addAll(argumentosApp(jar));
+        if (!"padrao".equals(variante)) {
+            comando.add("--spring.profiles.active=inicio-rapido");
+        }
+        processo = new ProcessBuilder(comando).redirectErrorStream(true).start();
+        try (BufferedReader saida = new BufferedReader(
+                new InputStreamReader(processo.getInputStream(), StandardCharsets.UTF_8))) {
+            String linha;
+            while ((linha = saida.readLine()) != null) {
+                if (linha.contains(MARCA_SUBIDA)) {
+                    return;
+                }
+            }
+        }
+        throw new IllegalStateException("A aplicação terminou sem subir (variante " + variante + ")");
+    }
+
+    @TearDown(Level.Iteration)
+    public void derrubar() throws InterruptedException {
+        if (processo != null) {
+            processo.destroy();
+            processo.waitFor();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void limpar() throws IOException {
+        try (var arquivos = Files.list(banco)) {
+            for (Path arquivo : arquivos.toList()) {
+                Files.delete(arquivo);
+            }
+        }
+        Files.delete(banco);
+    }
+
+    private static List<String> comandoJava() {
+        List<String> comando = new ArrayList<>();
+        comando.add(ProcessHandle.current().info().command().orElse("java"));
+        return comando;
+    }
+
+    private List<String> argumentosApp(Path jar) {
+        return new ArrayList<>(List.of(
+                "-jar", jar.toString(),
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:file:" + banco.resolve("inicio").toAbsolutePath() + ";MODE=MySQL",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--app.archive.enabled=false"));
+    }
+}
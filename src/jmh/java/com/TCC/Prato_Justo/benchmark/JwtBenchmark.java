@@ -0,0 +1,62 @@
+package com.TCC.Prato_Justo.benchmark;
+
+import com.TCC.Prato_Justo.Model.TipoUsuario;
+import com.TCC.Prato_Justo.Model.Usuario;
+import com.TCC.Prato_Justo.Security.JwtUtil;
+import com.TCC.Prato_Justo.Security.RevogacaoTokens;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Emissão e validação do token de acesso, o trabalho que o JwtAuthenticationFilter faz em toda requisição.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+    private JwtUtil jwtUtil;
+    private Usuario usuario;
+    private String token;
+
+    @Setup
+    public void preparar() {
+        RevogacaoTokens revogacao = new RevogacaoTokens();
+        ReflectionTestUtils.setField(revogacao, "maiorValidadeMs", 604_800_000L);
+        jwtUtil = new JwtUtil(revogacao, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(jwtUtil, "secret", "chave-de-benchmark-com-pelo-menos-32-bytes");
+        ReflectionTestUtils.setField(jwtUtil, "expiracaoAcessoMs", 900_000L);
+        ReflectionTestUtils.setField(jwtUtil, "expiracaoRenovacaoMs", 604_800_000L);
+
+        usuario = new Usuario();
+        usuario.setId(42L);
+        usuario.setEmail("ana@exemplo.com");
+        usuario.setTipoUsuario(TipoUsuario.INDIVIDUAL);
+        token = jwtUtil.gerarTokenAcesso(usuario);
+    }
+
+    @Benchmark
+    public String gerar() {
+        return jwtUtil.gerarTokenAcesso(usuario);
+    }
+
+    @Benchmark
+    public Boolean validar() {
+        return jwtUtil.validateToken(token);
+    }
+}
@@ -0,0 +1,80 @@
+package com.TCC.Prato_Justo.benchmark;
+
+import com.TCC.Prato_Justo.Interface.DoacaoRepository;
+import com.TCC.Prato_Justo.Model.Doacao;
+import com.TCC.Prato_Justo.Service.DoacaoService;
+import com.TCC.Prato_Justo.Service.IndiceBuscaDoacao;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filtros de DoacaoService.listarAtivas sobre doações já carregadas. Com comIndice=false o filtro por
+ * tipo percorre todas as ativas (como na subida, antes do índice ficar pronto); com true usa IndiceBuscaDoacao.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class ListarAtivasBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    private int quantidade;
+
+    @Param({"false", "true"})
+    private boolean comIndice;
+
+    private DoacaoService doacaoService;
+
+    @Setup
+    public void preparar() {
+        List<Doacao> todas = DadosSinteticos.doacoes(quantidade, 42);
+        List<Doacao> ativas = todas.stream().filter(Doacao::getAtivo).toList();
+        DoacaoRepository repositorio = Mockito.mock(DoacaoRepository.class, Mockito.withSettings().stubOnly());
+        Mockito.when(repositorio.findByAtivoTrue()).thenReturn(ativas);
+        // Os ids sintéticos são as posições na lista
+        Mockito.when(repositorio.findAllById(ArgumentMatchers.any())).thenAnswer(inv -> {
+            List<Doacao> encontradas = new ArrayList<>();
+            for (Long id : inv.<Iterable<Long>>getArgument(0)) {
+                encontradas.add(todas.get(id.intValue()));
+            }
+            return encontradas;
+        });
+        IndiceBuscaDoacao indice = new IndiceBuscaDoacao(repositorio);
+        if (comIndice) {
+            indice.reconstruir();
+        }
+        doacaoService = new DoacaoService(repositorio, null, null, indice, null, null);
+    }
+
+    @Benchmark
+    public List<Doacao> semFiltro() {
+        return doacaoService.listarAtivas(null, null);
+    }
+
+    @Benchmark
+    public List<Doacao> porTipo() {
+        return doacaoService.listarAtivas("padaria", null);
+    }
+
+    @Benchmark
+    public List<Doacao> porTipoECidade() {
+        return doacaoService.listarAtivas("padaria", "Recife");
+    }
+}
@@ -0,0 +1,124 @@
+package com.TCC.Prato_Justo.benchmark;
+
+import com.TCC.Prato_Justo.Interface.DoacaoRepository;
+import com.TCC.Prato_Justo.Model.Doacao;
+import com.TCC.Prato_Justo.Service.AgregadoGradeDoacao;
+import com.TCC.Prato_Justo.Service.DoacaoService;
+import com.TCC.Prato_Justo.Service.GradeGeografica;
+import com.TCC.Prato_Justo.Service.IndiceBuscaDoacao;
+import com.TCC.Prato_Justo.Service.MotorDistancia;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * DoacaoService.proximas com o motor mantido pelo AgregadoGradeDoacao (proximas) e sem ele, montando o motor
+ * a cada chamada (proximasSemAgregado), sobre doações já carregadas (o repositório é um stub que devolve a
+ * lista), contra a versão anterior com haversine no filtro e no comparador (proximasReferencia), e o núcleo
+ * isolado de um ponto em São Paulo para todas as doações: distanciaKm uma a uma e MotorDistancia já montado.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class ProximasBenchmark {
+
+    private static final double LATITUDE = -23.5505;
+    private static final double LONGITUDE = -46.6333;
+
+    @Param({"10000", "100000", "1000000"})
+    private int quantidade;
+
+    @Param({"10", "100"})
+    private double raioKm;
+
+    private DoacaoService doacaoService;
+    private DoacaoService doacaoServiceSemAgregado;
+    private List<Doacao> doacoes;
+    private MotorDistancia motor;
+
+    @Setup
+    public void preparar() {
+        doacoes = DadosSinteticos.doacoes(quantidade, 42);
+        DoacaoRepository repositorio = Mockito.mock(DoacaoRepository.class, Mockito.withSettings().stubOnly());
+        Mockito.when(repositorio.findAllComCoordenadas()).thenReturn(doacoes);
+        // Os ids sintéticos são as posições na lista
+        Mockito.when(repositorio.findCoordenadasAtivas()).thenReturn(doacoes.stream()
+                .filter(d -> Boolean.TRUE.equals(d.getAtivo()))
+                .map(d -> new Object[]{d.getId(), d.getLatitude(), d.getLongitude()})
+                .collect(Collectors.toList()));
+        Mockito.when(repositorio.findAllById(Mockito.anyIterable())).thenAnswer(chamada -> {
+            List<Doacao> encontradas = new ArrayList<>();
+            for (Object id : (Iterable<?>) chamada.getArgument(0)) {
+                encontradas.add(doacoes.get(((Long) id).intValue()));
+            }
+            return encontradas;
+        });
+        AgregadoGradeDoacao agregado = new AgregadoGradeDoacao(repositorio);
+        agregado.reconstruir();
+        IndiceBuscaDoacao indice = new IndiceBuscaDoacao(repositorio);
+        doacaoService = new DoacaoService(repositorio, null, null, indice, null, agregado);
+        doacaoServiceSemAgregado = new DoacaoService(repositorio, null, null, indice, null, null);
+
+        double[] latitudes = new double[quantidade];
+        double[] longitudes = new double[quantidade];
+        for (int i = 0; i < quantidade; i++) {
+            latitudes[i] = doacoes.get(i).getLatitude();
+            longitudes[i] = doacoes.get(i).getLongitude();
+        }
+        motor = new MotorDistancia(latitudes, longitudes, quantidade);
+    }
+
+    @Benchmark
+    public List<Doacao> proximas() {
+        return doacaoService.proximas(LATITUDE, LONGITUDE, raioKm);
+    }
+
+    @Benchmark
+    public List<Doacao> proximasSemAgregado() {
+        return doacaoServiceSemAgregado.proximas(LATITUDE, LONGITUDE, raioKm);
+    }
+
+    @Benchmark
+    public List<Doacao> proximasReferencia() {
+        return doacoes.stream()
+                .filter(d -> GradeGeografica.distanciaKm(LATITUDE, LONGITUDE, d.getLatitude(), d.getLongitude()) <= raioKm)
+                .sorted((a, b) -> Double.compare(
+                        GradeGeografica.distanciaKm(LATITUDE, LONGITUDE, a.getLatitude(), a.getLongitude()),
+                        GradeGeografica.distanciaKm(LATITUDE, LONGITUDE, b.getLatitude(), b.getLongitude())))
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public int distanciaKm() {
+        int dentro = 0;
+        for (int i = 0; i < doacoes.size(); i++) {
+            Doacao d = doacoes.get(i);
+            if (GradeGeografica.distanciaKm(LATITUDE, LONGITUDE, d.getLatitude(), d.getLongitude()) <= raioKm) {
+                dentro++;
+            }
+        }
+        return dentro;
+    }
+
+    @Benchmark
+    public int[] motor() {
+        return motor.dentroDoRaio(LATITUDE, LONGITUDE, raioKm);
+    }
+}
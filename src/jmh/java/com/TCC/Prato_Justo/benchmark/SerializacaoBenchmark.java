@@ -0,0 +1,204 @@
+package com.TCC.Prato_Justo.benchmark;
+
+import com.TCC.Prato_Justo.Controller.ChatController;
+import com.TCC.Prato_Justo.Controller.DoacaoController;
+import com.TCC.Prato_Justo.Model.Chat;
+import com.TCC.Prato_Justo.Model.Doacao;
+import com.TCC.Prato_Justo.Model.Mensagem;
+import com.TCC.Prato_Justo.Model.Solicitacao;
+import com.TCC.Prato_Justo.Model.StatusSolicitacao;
+import com.TCC.Prato_Justo.Model.TipoUsuario;
+import com.TCC.Prato_Justo.Model.Usuario;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Serialização das listas de doações e de chats: entidade JPA / mapas montados campo a campo (como era)
+ * contra os records de resposta, com e sem Blackbird. O mapeamento para o record entra na medida.
+ * Os objetos são montados em memória, sem proxies do Hibernate: a diferença medida é só a do Jackson.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(java.util.concurrent.TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializacaoBenchmark {
+
+    @Param({"50"})
+    private int itens;
+
+    private ObjectMapper padrao;
+    private ObjectMapper blackbird;
+    private List<Doacao> doacoes;
+    private List<Chat> chats;
+    private List<Mensagem> ultimas;
+    private Usuario eu;
+
+    @Setup
+    public void preparar() {
+        padrao = mapper(false);
+        blackbird = mapper(true);
+
+        eu = usuario(1L);
+        doacoes = new ArrayList<>();
+        chats = new ArrayList<>();
+        ultimas = new ArrayList<>();
+        for (int i = 0; i < itens; i++) {
+            Usuario doador = usuario(100L + i);
+            Doacao d = new Doacao();
+            d.setId((long) i);
+            d.setDoador(doador);
+            d.setTitulo("Cesta de hortaliças " + i);
+            d.setDescricao("Alface, couve e cenoura colhidas hoje, retirar até as 18h");
+            d.setTipoAlimento("hortifruti");
+            d.setQuantidade(3.5);
+            d.setUnidade("kg");
+            d.setDataValidade(LocalDate.of(2026, 11, 1));
+            d.setCidade("Recife");
+            d.setEndereco("Rua da Aurora, 100");
+            d.setCep("50050-000");
+            d.setEstado("PE");
+            d.setLatitude(-8.0631);
+            d.setLongitude(-34.8711);
+            d.setImagem("/uploads/doacoes/" + i + ".jpg");
+            d.setCriadoEm(LocalDateTime.of(2026, 10, 1, 12, 0));
+            d.setAtivo(true);
+            doacoes.add(d);
+
+            Solicitacao s = new Solicitacao();
+            s.setId((long) i);
+            s.setDoacao(d);
+            s.setSolicitante(eu);
+            s.setStatus(StatusSolicitacao.EM_ANDAMENTO);
+            Chat c = new Chat();
+            c.setId((long) i);
+            c.setToken("chat-" + i);
+            c.setUsuario1(eu);
+            c.setUsuario2(doador);
+            c.setSolicitacao(s);
+            c.setCriadoEm(LocalDateTime.of(2026, 10, 1, 12, 30));
+            c.setAtivo(true);
+            chats.add(c);
+
+            Mensagem m = new Mensagem();
+            m.setId((long) i);
+            m.setRemetente(doador);
+            m.setDestinatario(eu);
+            m.setConteudo("Pode retirar amanhã de manhã?");
+            m.setCriadoEm(LocalDateTime.of(2026, 10, 1, 13, 0));
+            ultimas.add(m);
+        }
+    }
+
+    // Mesmo ajuste de datas do ObjectMapper do Spring Boot
+    private static ObjectMapper mapper(boolean comBlackbird) {
+        JsonMapper.Builder builder = JsonMapper.builder()
+                .addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        if (comBlackbird) {
+            builder.addModule(new BlackbirdModule());
+        }
+        return builder.build();
+    }
+
+    private static Usuario usuario(Long id) {
+        Usuario u = new Usuario();
+        u.setId(id);
+        u.setNome("Usuário " + id);
+        u.setEmail("usuario" + id + "@exemplo.com");
+        u.setTipoUsuario(TipoUsuario.INDIVIDUAL);
+        u.setCidade("Recife");
+        u.setAvatarUrl("/uploads/avatars/" + id + ".png");
+        return u;
+    }
+
+    @Benchmark
+    public byte[] doacoesEntidade() throws Exception {
+        return padrao.writeValueAsBytes(doacoes);
+    }
+
+    @Benchmark
+    public byte[] doacoesRecord() throws Exception {
+        return padrao.writeValueAsBytes(DoacaoController.DoacaoResumo.de(doacoes));
+    }
+
+    @Benchmark
+    public byte[] doacoesRecordBlackbird() throws Exception {
+        return blackbird.writeValueAsBytes(DoacaoController.DoacaoResumo.de(doacoes));
+    }
+
+    @Benchmark
+    public byte[] chatsMapa() throws Exception {
+        List<Map<String, Object>> lista = new ArrayList<>(chats.size());
+        for (int i = 0; i < chats.size(); i++) {
+            Chat chat = chats.get(i);
+            Mensagem msg = ultimas.get(i);
+            Map<String, Object> chatDTO = new HashMap<>();
+            chatDTO.put("id", chat.getId());
+            chatDTO.put("token", chat.getToken());
+            Usuario outro = chat.getUsuario2();
+            Map<String, Object> outroDTO = new HashMap<>();
+            outroDTO.put("id", outro.getId());
+            outroDTO.put("nome", outro.getNome());
+            outroDTO.put("email", outro.getEmail());
+            outroDTO.put("avatarUrl", outro.getAvatarUrl());
+            chatDTO.put("outroParticipante", outroDTO);
+            Map<String, Object> mensagemDTO = new HashMap<>();
+            mensagemDTO.put("id", msg.getId());
+            mensagemDTO.put("conteudo", msg.getConteudo());
+            mensagemDTO.put("criadoEm", msg.getCriadoEm());
+            mensagemDTO.put("remetenteId", msg.getRemetente().getId());
+            chatDTO.put("ultimaMensagem", mensagemDTO);
+            Map<String, Object> solicitacaoDTO = new HashMap<>();
+            solicitacaoDTO.put("id", chat.getSolicitacao().getId());
+            solicitacaoDTO.put("status", chat.getSolicitacao().getStatus().getValor());
+            solicitacaoDTO.put("doacaoTitulo", chat.getSolicitacao().getDoacao().getTitulo());
+            chatDTO.put("solicitacao", solicitacaoDTO);
+            chatDTO.put("criadoEm", chat.getCriadoEm());
+            chatDTO.put("ativo", chat.getAtivo());
+            lista.add(chatDTO);
+        }
+        return padrao.writeValueAsBytes(lista);
+    }
+
+    @Benchmark
+    public byte[] chatsRecord() throws Exception {
+        return padrao.writeValueAsBytes(resumosDeChat());
+    }
+
+    @Benchmark
+    public byte[] chatsRecordBlackbird() throws Exception {
+        return blackbird.writeValueAsBytes(resumosDeChat());
+    }
+
+    private List<ChatController.ChatResumo> resumosDeChat() {
+        List<ChatController.ChatResumo> lista = new ArrayList<>(chats.size());
+        for (int i = 0; i < chats.size(); i++) {
+            Chat chat = chats.get(i);
+            lista.add(ChatController.ChatResumo.de(chat, chat.getUsuario2(), ultimas.get(i)));
+        }
+        return lista;
+    }
+}
@@ -0,0 +1,85 @@
+package com.TCC.Prato_Justo.benchmark;
+
+import ch.qos.logback.classic.Level;
+import com.TCC.Prato_Justo.Service.FileUploadService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caminhos de escrita do FileUploadService num diretório temporário: avatar (substitui o anterior),
+ * imagem de doação existente e imagem temporária de doação nova. A temporária gera um arquivo novo
+ * por chamada, que é apagado na mesma operação para o disco não encher durante a medida.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UploadBenchmark {
+
+    @Param({"64", "1024"})
+    private int tamanhoKb;
+
+    private Path raiz;
+    private FileUploadService fileUploadService;
+    private MockMultipartFile imagem;
+
+    @Setup
+    public void preparar() throws IOException {
+        // Sem o logback-spring.xml o Logback fica em DEBUG e o console passaria a fazer parte da medida
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.INFO);
+
+        raiz = Files.createTempDirectory("prato-justo-upload");
+        fileUploadService = new FileUploadService(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(fileUploadService, "uploadDir", raiz.resolve("avatars").toString());
+
+        byte[] conteudo = new byte[tamanhoKb * 1024];
+        new Random(42).nextBytes(conteudo);
+        imagem = new MockMultipartFile("file", "foto.jpg", "image/jpeg", conteudo);
+    }
+
+    @TearDown
+    public void limpar() throws IOException {
+        FileSystemUtils.deleteRecursively(raiz);
+    }
+
+    @Benchmark
+    public String avatar() throws IOException {
+        return fileUploadService.saveAvatar(imagem, 7L);
+    }
+
+    @Benchmark
+    public String imagemDoacao() throws IOException {
+        return fileUploadService.saveFoodImage(imagem, 7L);
+    }
+
+    @Benchmark
+    public String imagemTemporaria() throws IOException {
+        String url = fileUploadService.saveFoodImage(imagem, null);
+        Files.delete(raiz.resolve(url.substring("/uploads/".length())));
+        return url;
+    }
+}
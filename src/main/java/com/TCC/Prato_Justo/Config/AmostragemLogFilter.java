@@ -0,0 +1,66 @@
+package com.TCC.Prato_Justo.Config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Amostragem de eventos DEBUG/TRACE repetitivos: cada mensagem (logger + padrão) passa no máximo
+ * {@code porSegundo} vezes por segundo; o excedente é descartado antes de montar o evento.
+ * INFO e acima nunca são amostrados. Configurado no logback-spring.xml.
+ */
+public class AmostragemLogFilter extends TurboFilter {
+
+    private static final LongAdder SUPRIMIDOS = new LongAdder();
+
+    private int porSegundo = 20;
+    private int maxMensagens = 4096;
+
+    // chave -> segundo atual (bits altos) e contagem no segundo (32 bits baixos), atualizados por CAS
+    private final ConcurrentHashMap<String, AtomicLong> janelas = new ConcurrentHashMap<>();
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (format == null || level.levelInt > Level.DEBUG_INT
+                || level.levelInt < logger.getEffectiveLevel().levelInt) {
+            return FilterReply.NEUTRAL;
+        }
+        String chave = logger.getName() + '|' + format;
+        AtomicLong janela = janelas.get(chave);
+        if (janela == null) {
+            // Padrões demais (mensagens montadas por concatenação): não amostra em vez de crescer sem limite
+            if (janelas.size() >= maxMensagens) return FilterReply.NEUTRAL;
+            janela = janelas.computeIfAbsent(chave, k -> new AtomicLong());
+        }
+        long segundo = System.currentTimeMillis() / 1000;
+        while (true) {
+            long atual = janela.get();
+            long contagem = (atual >>> 32) == segundo ? (atual & 0xffffffffL) : 0;
+            if (contagem >= porSegundo) {
+                SUPRIMIDOS.increment();
+                return FilterReply.DENY;
+            }
+            if (janela.compareAndSet(atual, (segundo << 32) | (contagem + 1))) {
+                return FilterReply.NEUTRAL;
+            }
+        }
+    }
+
+    public void setPorSegundo(int porSegundo) {
+        this.porSegundo = Math.max(1, porSegundo);
+    }
+
+    public void setMaxMensagens(int maxMensagens) {
+        this.maxMensagens = Math.max(1, maxMensagens);
+    }
+
+    public static long suprimidos() {
+        return SUPRIMIDOS.sum();
+    }
+}
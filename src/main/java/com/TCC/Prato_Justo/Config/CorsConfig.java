@@ -20,7 +20,7 @@ public class CorsConfig {
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH"));
         configuration.setAllowedHeaders(Arrays.asList("*"));
         // Headers expostos para o frontend
-        configuration.setExposedHeaders(Arrays.asList("Authorization", "Content-Type", "X-Requested-With", "accept", "Origin", "Access-Control-Request-Method", "Access-Control-Request-Headers"));
+        configuration.setExposedHeaders(Arrays.asList("Authorization", "Content-Type", "X-Requested-With", "accept", "Origin", "Access-Control-Request-Method", "Access-Control-Request-Headers", "X-Total-Count", "X-Page", "X-Page-Size", "X-Has-Next"));
         // Permitir credenciais (necessário para cookies e headers de autenticação)
         configuration.setAllowCredentials(true);
         // Cache de preflight por 1 hora
@@ -1,5 +1,7 @@
 package com.TCC.Prato_Justo.Config;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
@@ -10,6 +12,8 @@ import java.io.File;
 @Configuration
 public class FileUploadConfig implements WebMvcConfigurer {
 
+    private static final Logger log = LoggerFactory.getLogger(FileUploadConfig.class);
+
     @Value("${upload.dir}")
     private String uploadDir;
 
@@ -18,7 +22,7 @@ public class FileUploadConfig implements WebMvcConfigurer {
         File uploadDirFile = new File(uploadDir);
         if (!uploadDirFile.exists()) {
             uploadDirFile.mkdirs();
-            System.out.println("✅ Diretório de uploads criado: " + uploadDirFile.getAbsolutePath());
+            log.info("upload_dir_created dir={}", uploadDirFile.getAbsolutePath());
         }
 
         // Obter o diretório raiz de uploads (pai do uploadDir)
@@ -35,7 +39,7 @@ public class FileUploadConfig implements WebMvcConfigurer {
         registry.addResourceHandler("/uploads/**")
                 .addResourceLocations("file:" + rootUploadDir.getAbsolutePath() + "/");
         
-        System.out.println("📁 Uploads configurados em: " + rootUploadDir.getAbsolutePath());
+        log.info("uploads_configured dir={}", rootUploadDir.getAbsolutePath());
     }
 }
 
@@ -0,0 +1,41 @@
+package com.TCC.Prato_Justo.Config;
+
+import com.TCC.Prato_Justo.Controller.ChatController;
+import com.TCC.Prato_Justo.Controller.DoacaoController;
+import com.TCC.Prato_Justo.Controller.UserController;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+
+import java.util.List;
+
+/**
+ * Blackbird no ObjectMapper do Spring (registrado automaticamente como bean {@link Module}) e
+ * serializadores das respostas mais quentes montados na subida, não na primeira requisição.
+ * Comparação de custo em SerializacaoBenchmark (perfil benchmark).
+ */
+@Configuration
+public class JacksonConfig {
+
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void aquecerSerializadores(ApplicationReadyEvent evento) {
+        ObjectMapper mapper = evento.getApplicationContext().getBean(ObjectMapper.class);
+        TypeFactory tipos = mapper.getTypeFactory();
+        // writerFor resolve e guarda no cache do mapper o serializador de cada tipo raiz
+        for (Class<?> tipo : List.of(DoacaoController.DoacaoResumo.class, ChatController.ChatResumo.class)) {
+            mapper.writerFor(tipos.constructCollectionType(List.class, tipo));
+        }
+        mapper.writerFor(UserController.UsuarioResposta.class);
+        mapper.writerFor(UserController.UsuarioBasico.class);
+    }
+}
@@ -0,0 +1,30 @@
+package com.TCC.Prato_Justo.Config;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * AsyncAppender do Logback (fila limitada, uma thread escrevendo no console) que conta os eventos descartados.
+ * Com neverBlock a requisição nunca espera pelo log: fila cheia descarta o evento, e acima do discardingThreshold
+ * eventos TRACE/DEBUG/INFO já são descartados para deixar espaço a WARN e ERROR.
+ */
+public class LogAssincronoAppender extends AsyncAppender {
+
+    private static final LongAdder DESCARTADOS = new LongAdder();
+
+    @Override
+    protected void append(ILoggingEvent evento) {
+        // Mesma decisão do AsyncAppenderBase, só para contar; a corrida com a thread consumidora é tolerável
+        int restante = getRemainingCapacity();
+        if (restante == 0 || (restante < getDiscardingThreshold() && isDiscardable(evento))) {
+            DESCARTADOS.increment();
+        }
+        super.append(evento);
+    }
+
+    public static long descartados() {
+        return DESCARTADOS.sum();
+    }
+}
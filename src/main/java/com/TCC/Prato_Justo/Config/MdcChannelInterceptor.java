@@ -0,0 +1,35 @@
+package com.TCC.Prato_Justo.Config;
+
+import org.slf4j.MDC;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.stereotype.Component;
+
+import java.security.Principal;
+
+/**
+ * Equivalente ao {@link MdcRequisicaoFilter} para mensagens STOMP recebidas: requestId por mensagem
+ * e userId do usuário da sessão, na thread do executor que despacha a mensagem.
+ */
+@Component
+public class MdcChannelInterceptor implements ExecutorChannelInterceptor {
+
+    @Override
+    public Message<?> beforeHandle(Message<?> message, MessageChannel channel, MessageHandler handler) {
+        MDC.put(MdcRequisicaoFilter.REQUEST_ID, MdcRequisicaoFilter.novoId());
+        Principal usuario = SimpMessageHeaderAccessor.getUser(message.getHeaders());
+        if (usuario instanceof UserPrincipal principal && principal.getUserId() != null) {
+            MDC.put(MdcRequisicaoFilter.USER_ID, principal.getUserId().toString());
+        }
+        return message;
+    }
+
+    @Override
+    public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler, Exception ex) {
+        MDC.remove(MdcRequisicaoFilter.REQUEST_ID);
+        MDC.remove(MdcRequisicaoFilter.USER_ID);
+    }
+}
@@ -0,0 +1,50 @@
+package com.TCC.Prato_Justo.Config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+/**
+ * Coloca requestId no MDC de cada requisição HTTP (reaproveitando o X-Request-Id do proxy quando válido)
+ * e o devolve no cabeçalho da resposta. O userId é incluído pelo JwtAuthenticationFilter; os dois saem
+ * do MDC aqui, ao fim da requisição.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class MdcRequisicaoFilter extends OncePerRequestFilter {
+
+    public static final String CABECALHO = "X-Request-Id";
+    public static final String REQUEST_ID = "requestId";
+    public static final String USER_ID = "userId";
+
+    private static final Pattern ID_VALIDO = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String recebido = request.getHeader(CABECALHO);
+        String requestId = recebido != null && ID_VALIDO.matcher(recebido).matches() ? recebido : novoId();
+        MDC.put(REQUEST_ID, requestId);
+        response.setHeader(CABECALHO, requestId);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            MDC.remove(REQUEST_ID);
+            MDC.remove(USER_ID);
+        }
+    }
+
+    public static String novoId() {
+        return Long.toHexString(ThreadLocalRandom.current().nextLong() | Long.MIN_VALUE);
+    }
+}
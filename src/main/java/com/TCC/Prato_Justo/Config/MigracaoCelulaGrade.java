@@ -0,0 +1,68 @@
+package com.TCC.Prato_Justo.Config;
+
+import com.TCC.Prato_Justo.Service.GradeGeografica;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Preenche celula_grade dos estabelecimentos que já tinham coordenadas antes de a coluna existir.
+ * Sem a célula eles nunca aparecem em EstabelecimentoService.proximos, que consulta pela grade.
+ * Roda depois de o Hibernate (ddl-auto=update) criar a coluna; com tudo preenchido, não altera nada.
+ */
+@Component
+public class MigracaoCelulaGrade {
+
+    private static final Logger log = LoggerFactory.getLogger(MigracaoCelulaGrade.class);
+    private static final int LOTE = 500;
+
+    private final JdbcTemplate jdbc;
+
+    public MigracaoCelulaGrade(DataSource dataSource) {
+        this.jdbc = new JdbcTemplate(dataSource);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void preencherNaSubida() {
+        preencher();
+    }
+
+    /**
+     * Calcula a célula das linhas com coordenadas e sem célula, em lotes pela chave primária
+     *
+     * @return quantidade de estabelecimentos atualizados
+     */
+    public int preencher() {
+        long ultimoId = 0;
+        int atualizados = 0;
+        while (true) {
+            List<Object[]> lote = jdbc.query("SELECT id_estabelecimento, latitude, longitude FROM estabelecimento " +
+                            "WHERE celula_grade IS NULL AND latitude IS NOT NULL AND longitude IS NOT NULL " +
+                            "AND id_estabelecimento > ? ORDER BY id_estabelecimento LIMIT ?",
+                    (rs, i) -> new Object[]{rs.getLong(1), rs.getDouble(2), rs.getDouble(3)}, ultimoId, LOTE);
+            if (lote.isEmpty()) break;
+
+            List<Object[]> celulas = new ArrayList<>(lote.size());
+            for (Object[] linha : lote) {
+                celulas.add(new Object[]{GradeGeografica.celula((Double) linha[1], (Double) linha[2]), linha[0]});
+            }
+            // A condição evita sobrescrever uma célula gravada pelo EstabelecimentoService enquanto isto roda
+            for (int n : jdbc.batchUpdate("UPDATE estabelecimento SET celula_grade = ? " +
+                    "WHERE id_estabelecimento = ? AND celula_grade IS NULL", celulas)) {
+                atualizados += Math.max(n, 0);
+            }
+            ultimoId = (Long) lote.get(lote.size() - 1)[0];
+        }
+        if (atualizados > 0) {
+            log.info("establishment_grid_backfilled estabelecimentos={}", atualizados);
+        }
+        return atualizados;
+    }
+}
@@ -0,0 +1,79 @@
+package com.TCC.Prato_Justo.Config;
+
+import com.TCC.Prato_Justo.Model.StatusSolicitacao;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Remove solicitações repetidas do mesmo par (doação, solicitante) antes de o Hibernate (ddl-auto=update)
+ * criar a restrição uk_solicitacao_doacao_solicitante. Com duplicatas o ALTER TABLE falha, o Hibernate só
+ * registra um aviso e a restrição nunca é criada. Fica a solicitação mais avançada (em andamento ou concluída,
+ * depois solicitada, depois cancelada; no empate, a mais recente); chats e avaliações das removidas passam
+ * para ela. Num banco novo, ou já sem duplicatas, não altera nada.
+ */
+@Component
+public class MigracaoSolicitacaoUnica implements InitializingBean {
+
+    private static final Logger log = LoggerFactory.getLogger(MigracaoSolicitacaoUnica.class);
+
+    private final JdbcTemplate jdbc;
+
+    public MigracaoSolicitacaoUnica(DataSource dataSource) {
+        this.jdbc = new JdbcTemplate(dataSource);
+    }
+
+    // O EntityManagerFactory (e com ele a atualização do esquema) só sobe depois desta limpeza
+    @Bean
+    public static EntityManagerFactoryDependsOnPostProcessor migracaoSolicitacaoAntesDoHibernate() {
+        return new EntityManagerFactoryDependsOnPostProcessor(MigracaoSolicitacaoUnica.class);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        List<Map<String, Object>> pares;
+        try {
+            pares = jdbc.queryForList("SELECT id_doacao, id_solicitante FROM solicitacao " +
+                    "GROUP BY id_doacao, id_solicitante HAVING COUNT(*) > 1");
+        } catch (DataAccessException e) {
+            // Tabela ainda não existe: o Hibernate a cria já com a restrição
+            return;
+        }
+        if (pares.isEmpty()) return;
+
+        int removidas = 0;
+        for (Map<String, Object> par : pares) {
+            List<Map<String, Object>> linhas = jdbc.queryForList(
+                    "SELECT id_solicitacao, status FROM solicitacao WHERE id_doacao = ? AND id_solicitante = ?",
+                    par.get("id_doacao"), par.get("id_solicitante"));
+            Map<String, Object> mantida = linhas.stream().max(Comparator
+                    .comparingInt((Map<String, Object> l) -> prioridade((String) l.get("status")))
+                    .thenComparingLong(l -> ((Number) l.get("id_solicitacao")).longValue())).orElseThrow();
+            Object idMantida = mantida.get("id_solicitacao");
+            for (Map<String, Object> linha : linhas) {
+                Object id = linha.get("id_solicitacao");
+                if (id.equals(idMantida)) continue;
+                jdbc.update("UPDATE chat SET id_solicitacao = ? WHERE id_solicitacao = ?", idMantida, id);
+                jdbc.update("UPDATE avaliacao_solicitacao SET id_solicitacao = ? WHERE id_solicitacao = ?", idMantida, id);
+                removidas += jdbc.update("DELETE FROM solicitacao WHERE id_solicitacao = ?", id);
+            }
+        }
+        log.warn("solicitacao_duplicates_removed pares={} removidas={}", pares.size(), removidas);
+    }
+
+    private static int prioridade(String status) {
+        if (StatusSolicitacao.EM_ANDAMENTO.name().equals(status) || StatusSolicitacao.CONCLUIDA.name().equals(status)) return 2;
+        if (StatusSolicitacao.SOLICITADA.name().equals(status)) return 1;
+        return 0;
+    }
+}
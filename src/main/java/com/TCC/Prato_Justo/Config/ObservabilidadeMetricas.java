@@ -0,0 +1,52 @@
+package com.TCC.Prato_Justo.Config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Métricas que não pertencem a um serviço específico: sessões STOMP abertas e eventos de log
+ * perdidos (fila do appender assíncrono cheia ou DEBUG/TRACE amostrado).
+ */
+@Component
+public class ObservabilidadeMetricas {
+
+    private final AtomicInteger sessoesAtivas = new AtomicInteger();
+    private final Counter conexoes;
+    private final Counter desconexoes;
+
+    public ObservabilidadeMetricas(MeterRegistry meterRegistry) {
+        Gauge.builder("websocket.sessions.active", sessoesAtivas, AtomicInteger::get)
+                .description("Sessões STOMP conectadas")
+                .register(meterRegistry);
+        conexoes = Counter.builder("websocket.sessions").tag("event", "connected").register(meterRegistry);
+        desconexoes = Counter.builder("websocket.sessions").tag("event", "disconnected").register(meterRegistry);
+
+        FunctionCounter.builder("logging.events.dropped", this, m -> LogAssincronoAppender.descartados())
+                .tag("reason", "queue_full")
+                .register(meterRegistry);
+        FunctionCounter.builder("logging.events.dropped", this, m -> AmostragemLogFilter.suprimidos())
+                .tag("reason", "sampled")
+                .register(meterRegistry);
+    }
+
+    @EventListener
+    public void aoConectar(SessionConnectedEvent evento) {
+        sessoesAtivas.incrementAndGet();
+        conexoes.increment();
+    }
+
+    @EventListener
+    public void aoDesconectar(SessionDisconnectEvent evento) {
+        // O Spring pode publicar mais de um disconnect por sessão; o gauge não desce abaixo de zero
+        sessoesAtivas.updateAndGet(n -> Math.max(0, n - 1));
+        desconexoes.increment();
+    }
+}
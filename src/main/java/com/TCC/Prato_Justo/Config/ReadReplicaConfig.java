@@ -0,0 +1,108 @@
+package com.TCC.Prato_Justo.Config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Separa leituras ({@code @Transactional(readOnly = true)}) em réplicas quando
+ * {@code app.datasource.replica.enabled=true}. Sem a propriedade, o DataSource padrão do Spring Boot é usado.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replica.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    @Value("${app.datasource.replica.urls}")
+    private String urlsReplicas;
+
+    @Value("${app.datasource.replica.username:${spring.datasource.username:}}")
+    private String usuarioReplica;
+
+    @Value("${app.datasource.replica.password:${spring.datasource.password:}}")
+    private String senhaReplica;
+
+    @Value("${app.datasource.replica.max-pool-size:10}")
+    private int tamanhoPoolReplica;
+
+    // O DataSource é montado à mão: as propriedades spring.datasource.hikari.* precisam ser aplicadas aqui
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int tamanhoPoolPrimario;
+
+    @Value("${spring.datasource.hikari.connection-timeout:30000}")
+    private long timeoutConexaoMs;
+
+    @Value("${app.datasource.replica.lag-query:}")
+    private String consultaAtraso;
+
+    @Value("${app.datasource.replica.max-lag-seconds:5}")
+    private double atrasoMaximoSegundos;
+
+    private ReadWriteRoutingDataSource routingDataSource;
+
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties properties, ObjectProvider<MeterRegistry> meterRegistry) {
+        // Os pools não ficam expostos como beans, então as métricas hikaricp.* são ligadas aqui
+        MicrometerMetricsTrackerFactory metricas = meterRegistry.getIfAvailable() != null
+                ? new MicrometerMetricsTrackerFactory(meterRegistry.getObject()) : null;
+
+        HikariDataSource primario = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primario.setPoolName("primario");
+        primario.setMaximumPoolSize(tamanhoPoolPrimario);
+        primario.setConnectionTimeout(timeoutConexaoMs);
+        primario.setMetricsTrackerFactory(metricas);
+
+        List<DataSource> replicas = new ArrayList<>();
+        List<String> urls = Arrays.stream(urlsReplicas.split(",")).map(String::trim).filter(u -> !u.isEmpty()).toList();
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + i);
+            replica.setJdbcUrl(urls.get(i));
+            replica.setUsername(usuarioReplica);
+            replica.setPassword(senhaReplica);
+            replica.setMaximumPoolSize(tamanhoPoolReplica);
+            replica.setConnectionTimeout(timeoutConexaoMs);
+            replica.setReadOnly(true);
+            replica.setMetricsTrackerFactory(metricas);
+            replicas.add(replica);
+        }
+
+        routingDataSource = new ReadWriteRoutingDataSource(primario, replicas, consultaAtraso, atrasoMaximoSegundos);
+        routingDataSource.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.check-interval-ms:5000}",
+               initialDelayString = "${app.datasource.replica.check-interval-ms:5000}")
+    public void verificarReplicas() {
+        if (routingDataSource != null) {
+            routingDataSource.verificarReplicas();
+        }
+    }
+
+    public ReadWriteRoutingDataSource getRoutingDataSource() {
+        return routingDataSource;
+    }
+
+    @PreDestroy
+    public void fechar() throws Exception {
+        if (routingDataSource != null) {
+            routingDataSource.close();
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.TCC.Prato_Justo.Config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Envia transações {@code readOnly = true} para as réplicas (round-robin) e o restante para o primário.
+ * Réplicas com atraso acima do limite, ou inacessíveis, saem do rodízio até a próxima verificação.
+ * Deve ser usado atrás de um LazyConnectionDataSourceProxy para que a flag de somente leitura
+ * já esteja definida quando a conexão for realmente obtida.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadWriteRoutingDataSource.class);
+
+    static final String PRIMARIO = "primario";
+    private static final String PREFIXO_REPLICA = "replica-";
+
+    private final DataSource primario;
+    private final List<DataSource> replicas;
+    private final AtomicIntegerArray replicaSaudavel;
+    private final AtomicInteger proximaReplica = new AtomicInteger();
+    private final String consultaAtraso;
+    private final double atrasoMaximoSegundos;
+
+    public ReadWriteRoutingDataSource(DataSource primario, List<DataSource> replicas,
+                                      String consultaAtraso, double atrasoMaximoSegundos) {
+        this.primario = primario;
+        this.replicas = List.copyOf(replicas);
+        this.replicaSaudavel = new AtomicIntegerArray(replicas.size());
+        this.consultaAtraso = consultaAtraso;
+        this.atrasoMaximoSegundos = atrasoMaximoSegundos;
+
+        Map<Object, Object> destinos = new HashMap<>();
+        destinos.put(PRIMARIO, primario);
+        for (int i = 0; i < this.replicas.size(); i++) {
+            destinos.put(PREFIXO_REPLICA + i, this.replicas.get(i));
+            replicaSaudavel.set(i, 1);
+        }
+        setTargetDataSources(destinos);
+        setDefaultTargetDataSource(primario);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || replicas.isEmpty()) {
+            return PRIMARIO;
+        }
+        int total = replicas.size();
+        int inicio = Math.floorMod(proximaReplica.getAndIncrement(), total);
+        for (int i = 0; i < total; i++) {
+            int indice = (inicio + i) % total;
+            if (replicaSaudavel.get(indice) == 1) {
+                return PREFIXO_REPLICA + indice;
+            }
+        }
+        // Nenhuma réplica disponível: leitura vai para o primário
+        return PRIMARIO;
+    }
+
+    /**
+     * Verifica conectividade e, se configurada, o atraso de replicação de cada réplica
+     */
+    public void verificarReplicas() {
+        for (int i = 0; i < replicas.size(); i++) {
+            boolean saudavel = verificar(replicas.get(i));
+            int anterior = replicaSaudavel.getAndSet(i, saudavel ? 1 : 0);
+            if (anterior == 1 && !saudavel) {
+                log.warn("replica_unavailable replica={} fallback=primario", PREFIXO_REPLICA + i);
+            } else if (anterior == 0 && saudavel) {
+                log.info("replica_available replica={}", PREFIXO_REPLICA + i);
+            }
+        }
+    }
+
+    private boolean verificar(DataSource replica) {
+        try (Connection conexao = replica.getConnection()) {
+            if (consultaAtraso == null || consultaAtraso.isBlank()) {
+                return conexao.isValid(2);
+            }
+            try (Statement stmt = conexao.createStatement();
+                 ResultSet rs = stmt.executeQuery(consultaAtraso)) {
+                if (!rs.next()) {
+                    return false;
+                }
+                double atraso = rs.getDouble(1);
+                return !rs.wasNull() && atraso <= atrasoMaximoSegundos;
+            }
+        } catch (SQLException e) {
+            log.debug("Falha ao verificar réplica: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    public boolean isReplicaSaudavel(int indice) {
+        return replicaSaudavel.get(indice) == 1;
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (DataSource replica : replicas) {
+            if (replica instanceof AutoCloseable fechavel) {
+                fechavel.close();
+            }
+        }
+        if (primario instanceof AutoCloseable fechavel) {
+            fechavel.close();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.TCC.Prato_Justo.Config;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Envolve o DataSource com datasource-proxy para contar consultas e tempo de banco
+ * no {@link SqlMetricsContext} da thread atual.
+ */
+@Configuration
+@ConditionalOnProperty(name = "sql.instrumentation.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlInstrumentationConfig {
+
+    @Bean
+    public static BeanPostProcessor sqlMetricsDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .listener(new SqlMetricsListener())
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    static class SqlMetricsListener implements QueryExecutionListener {
+
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            SqlMetricsContext contexto = SqlMetricsContext.atual();
+            if (contexto == null || queryInfoList.isEmpty()) {
+                return;
+            }
+            // Uma ida ao banco por execução (batches contam uma vez)
+            contexto.registrar(queryInfoList.get(0).getQuery(), execInfo.getElapsedTime());
+        }
+    }
+}
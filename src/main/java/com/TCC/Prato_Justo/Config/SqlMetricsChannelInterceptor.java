@@ -0,0 +1,38 @@
+package com.TCC.Prato_Justo.Config;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Equivalente ao {@link SqlMetricsFilter} para mensagens STOMP recebidas: o contexto é aberto
+ * na thread do executor que despacha a mensagem para o handler.
+ */
+@Component
+public class SqlMetricsChannelInterceptor implements ExecutorChannelInterceptor {
+
+    private final SqlMetricsReporter reporter;
+
+    public SqlMetricsChannelInterceptor(SqlMetricsReporter reporter) {
+        this.reporter = reporter;
+    }
+
+    @Override
+    public Message<?> beforeHandle(Message<?> message, MessageChannel channel, MessageHandler handler) {
+        SqlMetricsContext.iniciar();
+        return message;
+    }
+
+    @Override
+    public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler, Exception ex) {
+        SqlMetricsContext contexto = SqlMetricsContext.finalizar();
+        String destino = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+        if (destino == null) {
+            destino = String.valueOf(SimpMessageHeaderAccessor.getMessageType(message.getHeaders()));
+        }
+        reporter.reportar("stomp", destino, contexto);
+    }
+}
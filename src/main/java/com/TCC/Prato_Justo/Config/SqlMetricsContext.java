@@ -0,0 +1,80 @@
+package com.TCC.Prato_Justo.Config;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Contadores de SQL da unidade de trabalho atual (uma requisição HTTP ou uma mensagem STOMP),
+ * preenchidos pelo proxy do DataSource na thread que executa as consultas.
+ */
+public final class SqlMetricsContext {
+
+    private static final ThreadLocal<SqlMetricsContext> ATUAL = new ThreadLocal<>();
+
+    // Limita a memória por requisição quando há muitas consultas distintas
+    private static final int MAX_SQL_DISTINTOS = 256;
+
+    private int totalQueries;
+    private long totalMillis;
+    private long maisLentaMillis = -1;
+    private String maisLentaSql;
+    private final Map<String, Integer> execucoesPorSql = new HashMap<>();
+
+    public static SqlMetricsContext iniciar() {
+        SqlMetricsContext contexto = new SqlMetricsContext();
+        ATUAL.set(contexto);
+        return contexto;
+    }
+
+    public static SqlMetricsContext atual() {
+        return ATUAL.get();
+    }
+
+    public static SqlMetricsContext finalizar() {
+        SqlMetricsContext contexto = ATUAL.get();
+        ATUAL.remove();
+        return contexto;
+    }
+
+    void registrar(String sql, long millis) {
+        totalQueries++;
+        totalMillis += millis;
+        if (millis > maisLentaMillis) {
+            maisLentaMillis = millis;
+            maisLentaSql = sql;
+        }
+        if (execucoesPorSql.containsKey(sql) || execucoesPorSql.size() < MAX_SQL_DISTINTOS) {
+            execucoesPorSql.merge(sql, 1, Integer::sum);
+        }
+    }
+
+    /**
+     * Comandos idênticos executados pelo menos {@code limite} vezes: padrão típico de N+1
+     */
+    public Map<String, Integer> repeticoes(int limite) {
+        Map<String, Integer> repetidos = new LinkedHashMap<>();
+        execucoesPorSql.forEach((sql, vezes) -> {
+            if (vezes >= limite) {
+                repetidos.put(sql, vezes);
+            }
+        });
+        return repetidos;
+    }
+
+    public int getTotalQueries() {
+        return totalQueries;
+    }
+
+    public long getTotalMillis() {
+        return totalMillis;
+    }
+
+    public long getMaisLentaMillis() {
+        return maisLentaMillis;
+    }
+
+    public String getMaisLentaSql() {
+        return maisLentaSql;
+    }
+}
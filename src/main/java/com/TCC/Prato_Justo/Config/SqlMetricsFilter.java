@@ -0,0 +1,46 @@
+package com.TCC.Prato_Justo.Config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Abre um {@link SqlMetricsContext} por requisição HTTP. Roda antes da cadeia do Spring Security
+ * para que a autenticação JWT também seja contabilizada.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class SqlMetricsFilter extends OncePerRequestFilter {
+
+    private final SqlMetricsReporter reporter;
+
+    public SqlMetricsFilter(SqlMetricsReporter reporter) {
+        this.reporter = reporter;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlMetricsContext.iniciar();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SqlMetricsContext contexto = SqlMetricsContext.finalizar();
+            reporter.reportar("http", endpoint(request), contexto);
+        }
+    }
+
+    // Usa o padrão da rota (/doacoes/{id}) para manter a cardinalidade das tags baixa
+    private static String endpoint(HttpServletRequest request) {
+        Object padrao = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (padrao != null ? padrao : "UNMAPPED");
+    }
+}
@@ -0,0 +1,84 @@
+package com.TCC.Prato_Justo.Config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publica o resumo de SQL de cada requisição/mensagem como métricas e como log chave=valor.
+ */
+@Component
+public class SqlMetricsReporter {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlMetricsReporter.class);
+    private static final int MAX_SQL_LOG = 300;
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${sql.instrumentation.n-plus-one-threshold:5}")
+    private int limiteNMais1;
+
+    @Value("${sql.instrumentation.slow-query-ms:200}")
+    private long consultaLentaMillis;
+
+    public SqlMetricsReporter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void reportar(String canal, String endpoint, SqlMetricsContext contexto) {
+        if (contexto == null || contexto.getTotalQueries() == 0) {
+            return;
+        }
+
+        Tags tags = Tags.of("channel", canal, "endpoint", endpoint);
+        DistributionSummary.builder("db.unit.queries")
+                .description("Consultas SQL por requisição HTTP ou mensagem STOMP")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(contexto.getTotalQueries());
+        Timer.builder("db.unit.time")
+                .description("Tempo total de banco por requisição HTTP ou mensagem STOMP")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(contexto.getTotalMillis(), TimeUnit.MILLISECONDS);
+
+        Map<String, Integer> repetidos = contexto.repeticoes(limiteNMais1);
+        if (!repetidos.isEmpty()) {
+            Counter.builder("db.unit.n_plus_one")
+                    .description("Requisições com o mesmo SQL repetido acima do limite")
+                    .tags(tags)
+                    .register(meterRegistry)
+                    .increment();
+            repetidos.forEach((sql, vezes) -> log.warn(
+                    "sql_n_plus_one channel={} endpoint=\"{}\" executions={} total_queries={} sql=\"{}\"",
+                    canal, endpoint, vezes, contexto.getTotalQueries(), resumir(sql)));
+        }
+
+        if (contexto.getMaisLentaMillis() >= consultaLentaMillis) {
+            log.warn("sql_slow channel={} endpoint=\"{}\" queries={} db_ms={} slowest_ms={} slowest_sql=\"{}\"",
+                    canal, endpoint, contexto.getTotalQueries(), contexto.getTotalMillis(),
+                    contexto.getMaisLentaMillis(), resumir(contexto.getMaisLentaSql()));
+        } else if (log.isDebugEnabled()) {
+            log.debug("sql_stats channel={} endpoint=\"{}\" queries={} db_ms={} slowest_ms={} slowest_sql=\"{}\"",
+                    canal, endpoint, contexto.getTotalQueries(), contexto.getTotalMillis(),
+                    contexto.getMaisLentaMillis(), resumir(contexto.getMaisLentaSql()));
+        }
+    }
+
+    private static String resumir(String sql) {
+        if (sql == null) {
+            return "";
+        }
+        String linha = sql.replaceAll("\\s+", " ").replace('"', '\'');
+        return linha.length() > MAX_SQL_LOG ? linha.substring(0, MAX_SQL_LOG) + "..." : linha;
+    }
+}
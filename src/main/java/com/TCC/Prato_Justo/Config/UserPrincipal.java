@@ -1,9 +1,12 @@
 package com.TCC.Prato_Justo.Config;
 
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
 
 import java.security.Principal;
 import java.util.Collection;
+import java.util.Optional;
 
 public class UserPrincipal implements Principal {
     private final Long userId;
@@ -33,5 +36,15 @@ public class UserPrincipal implements Principal {
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return authorities;
     }
-}
 
+    /**
+     * Principal da requisição atual, montado pelo filtro JWT a partir dos claims do token
+     */
+    public static Optional<UserPrincipal> atual() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.getPrincipal() instanceof UserPrincipal principal) {
+            return Optional.of(principal);
+        }
+        return Optional.empty();
+    }
+}
@@ -1,8 +1,7 @@
 package com.TCC.Prato_Justo.Config;
 
-import com.TCC.Prato_Justo.Interface.AnthUsuarioRepository;
-import com.TCC.Prato_Justo.Model.Usuario;
 import com.TCC.Prato_Justo.Security.JwtUtil;
+import com.TCC.Prato_Justo.Security.PrincipalDoToken;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
@@ -10,12 +9,9 @@ import org.springframework.messaging.simp.stomp.StompCommand;
 import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
 import org.springframework.messaging.support.ChannelInterceptor;
 import org.springframework.messaging.support.MessageHeaderAccessor;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
-import java.util.Optional;
 
 @Component
 public class WebSocketAuthInterceptor implements ChannelInterceptor {
@@ -24,10 +20,7 @@ public class WebSocketAuthInterceptor implements ChannelInterceptor {
     private JwtUtil jwtUtil;
 
     @Autowired
-    private UserDetailsService userDetailsService;
-
-    @Autowired
-    private AnthUsuarioRepository usuarioRepository;
+    private PrincipalDoToken principalDoToken;
 
     @Override
     public Message<?> preSend(Message<?> message, MessageChannel channel) {
@@ -53,32 +46,10 @@ public class WebSocketAuthInterceptor implements ChannelInterceptor {
                 }
             }
             
-            if (token != null && jwtUtil.validateToken(token)) {
-                try {
-                    String email = jwtUtil.getUsernameFromToken(token);
-                    UserDetails userDetails = userDetailsService.loadUserByUsername(email);
-                    
-                    // Buscar usuário no banco para obter o ID
-                    Optional<Usuario> usuarioOpt = usuarioRepository.findByEmail(email);
-                    if (usuarioOpt.isPresent()) {
-                        Usuario usuario = usuarioOpt.get();
-                        
-                        // Criar principal customizado com ID do usuário
-                        UserPrincipal principal = new UserPrincipal(
-                            usuario.getId(),
-                            email,
-                            userDetails.getAuthorities()
-                        );
-                        
-                        // Definir o principal (usuário autenticado)
-                        // O Spring usará principal.getName() para identificar o usuário nos tópicos privados
-                        accessor.setUser(principal);
-                    }
-                } catch (Exception e) {
-                    // Se falhar na autenticação, não definir usuário
-                    // A conexão será rejeitada se necessário
-                    e.printStackTrace();
-                }
+            // O principal sai dos claims do token: o CONNECT não consulta o banco.
+            // O Spring usa principal.getName() (id do usuário) para os tópicos privados
+            if (token != null) {
+                jwtUtil.lerAcesso(token).flatMap(principalDoToken::resolver).ifPresent(accessor::setUser);
             }
         }
         
@@ -1,7 +1,10 @@
 package com.TCC.Prato_Justo.Config;
 
+import com.TCC.Prato_Justo.Security.LimiteTaxaChannelInterceptor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
@@ -15,6 +18,20 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     @Autowired
     private WebSocketAuthInterceptor webSocketAuthInterceptor;
 
+    @Autowired
+    private SqlMetricsChannelInterceptor sqlMetricsChannelInterceptor;
+
+    @Autowired
+    private LimiteTaxaChannelInterceptor limiteTaxaChannelInterceptor;
+
+    @Autowired
+    private MdcChannelInterceptor mdcChannelInterceptor;
+
+    // Os executores dos canais são beans Executor, o que desliga o applicationTaskExecutor do Boot:
+    // com threads virtuais os canais precisam ser configurados aqui
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean threadsVirtuais;
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
         // Habilita um broker simples em memória para enviar mensagens aos clientes
@@ -35,8 +52,25 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     @Override
     public void configureClientInboundChannel(ChannelRegistration registration) {
-        // Adicionar interceptor para autenticação
-        registration.interceptors(webSocketAuthInterceptor);
+        // Autenticação, limite de taxa por usuário (depois da autenticação), MDC e instrumentação de SQL por mensagem
+        registration.interceptors(webSocketAuthInterceptor, limiteTaxaChannelInterceptor, mdcChannelInterceptor,
+                sqlMetricsChannelInterceptor);
+        if (threadsVirtuais) {
+            registration.executor(executorVirtual("stomp-in-"));
+        }
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        if (threadsVirtuais) {
+            registration.executor(executorVirtual("stomp-out-"));
+        }
+    }
+
+    private static SimpleAsyncTaskExecutor executorVirtual(String prefixo) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(prefixo);
+        executor.setVirtualThreads(true);
+        return executor;
     }
 }
 
@@ -2,33 +2,53 @@ package com.TCC.Prato_Justo.Controller;
 
 import com.TCC.Prato_Justo.Model.Estabelecimento;
 import com.TCC.Prato_Justo.Model.Usuario;
+import com.TCC.Prato_Justo.Security.LimiteTentativasLogin;
 import com.TCC.Prato_Justo.Service.EstabelecimentoService;
 import com.TCC.Prato_Justo.Service.UsuarioService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
+@Lazy
 @RestController
 @RequestMapping("/auth")
 @CrossOrigin(origins = "*")
 public class AuthEstabelecimentoController {
 
+    private static final Logger log = LoggerFactory.getLogger(AuthEstabelecimentoController.class);
+
 
     private final EstabelecimentoService estabelecimentoService;
     private final UsuarioService usuarioService;
+    private final LimiteTentativasLogin limiteTentativas;
 
-    public AuthEstabelecimentoController(EstabelecimentoService estabelecimentoService, UsuarioService usuarioService) {
+    public AuthEstabelecimentoController(EstabelecimentoService estabelecimentoService, UsuarioService usuarioService,
+                                         LimiteTentativasLogin limiteTentativas) {
         this.estabelecimentoService = estabelecimentoService;
         this.usuarioService = usuarioService;
+        this.limiteTentativas = limiteTentativas;
     }
 
 
     // Criar novo estabelecimento
     @PostMapping("/estabelecimento")
-    public ResponseEntity<?> criarEstabelecimento(@Valid @RequestBody CadastroEstabelecimentoRequest request) {
+    public ResponseEntity<?> criarEstabelecimento(@Valid @RequestBody CadastroEstabelecimentoRequest request,
+                                                  HttpServletRequest httpRequest) {
+        long espera = limiteTentativas.registrarTentativa(httpRequest.getRemoteAddr(), request.getEmail());
+        if (espera > 0) {
+            return AuthUsuarioController.limiteExcedido(espera);
+        }
         try {
             // Validar se as senhas coincidem
             if (!request.getSenha().equals(request.getConfirmarSenha())) {
@@ -59,6 +79,8 @@ public class AuthEstabelecimentoController {
             estabelecimento.setCnpj(request.getCnpj());
             estabelecimento.setTelefone(request.getTelefone());
             estabelecimento.setEnderecoCompleto(request.getEnderecoCompleto());
+            estabelecimento.setLatitude(request.getLatitude());
+            estabelecimento.setLongitude(request.getLongitude());
             estabelecimento.setSenhaEstabelecimento(request.getSenha()); // Em produção, criptografar
             estabelecimento.setUsuario(usuarioSalvo);
 
@@ -66,18 +88,66 @@ public class AuthEstabelecimentoController {
 
             return ResponseEntity.status(HttpStatus.CREATED).body(estabelecimentoSalvo);
 
+        } catch (RejectedExecutionException e) {
+            return AuthUsuarioController.servicoOcupado();
         } catch (Exception e) {
-            System.err.println("Erro durante o cadastro de estabelecimento: " + e.getMessage());
-            e.printStackTrace(); // Boa prática: logar o stack trace completo no servidor
+            log.error("establishment_signup_failed erro=\"{}\"", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Erro ao criar estabelecimento: " + e.getMessage());
         }
     }
 
-    // Listar todos
+    // Listar paginado; a paginação vai nos cabeçalhos
     @GetMapping
-    public ResponseEntity<List<Estabelecimento>> listar() {
-        return ResponseEntity.ok(estabelecimentoService.listarTodos());
+    public ResponseEntity<List<Estabelecimento>> listar(@RequestParam(defaultValue = "0") int page,
+                                                        @RequestParam(defaultValue = "20") int size) {
+        Page<Estabelecimento> pagina = estabelecimentoService.listar(page, size);
+        return ResponseEntity.ok()
+                .header("X-Total-Count", String.valueOf(pagina.getTotalElements()))
+                .header("X-Page", String.valueOf(pagina.getNumber()))
+                .header("X-Page-Size", String.valueOf(pagina.getSize()))
+                .header("X-Has-Next", String.valueOf(pagina.hasNext()))
+                .body(pagina.getContent());
+    }
+
+    // Pontos de entrega próximos, do mais perto ao mais longe
+    @GetMapping("/estabelecimentos/proximos")
+    public ResponseEntity<?> proximos(@RequestParam Double lat,
+                                      @RequestParam Double lng,
+                                      @RequestParam(defaultValue = "10", name = "raio_km") Double raioKm,
+                                      @RequestParam(defaultValue = "0") int page,
+                                      @RequestParam(defaultValue = "20") int size) {
+        try {
+            Page<EstabelecimentoService.EstabelecimentoProximo> pagina =
+                    estabelecimentoService.proximos(lat, lng, raioKm, page, size);
+            List<Map<String, Object>> corpo = pagina.getContent().stream()
+                    .map(AuthEstabelecimentoController::resumo)
+                    .toList();
+            return ResponseEntity.ok()
+                    .header("X-Total-Count", String.valueOf(pagina.getTotalElements()))
+                    .header("X-Page", String.valueOf(pagina.getNumber()))
+                    .header("X-Page-Size", String.valueOf(pagina.getSize()))
+                    .header("X-Has-Next", String.valueOf(pagina.hasNext()))
+                    .body(corpo);
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> erro = new HashMap<>();
+            erro.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(erro);
+        }
+    }
+
+    // Dados públicos do estabelecimento com a distância até o ponto consultado
+    static Map<String, Object> resumo(EstabelecimentoService.EstabelecimentoProximo proximo) {
+        Estabelecimento e = proximo.getEstabelecimento();
+        Map<String, Object> item = new HashMap<>();
+        item.put("id", e.getId());
+        item.put("nomeEstabelecimento", e.getNomeEstabelecimento());
+        item.put("enderecoCompleto", e.getEnderecoCompleto());
+        item.put("telefone", e.getTelefone());
+        item.put("latitude", e.getLatitude());
+        item.put("longitude", e.getLongitude());
+        item.put("distanciaKm", Math.round(proximo.getDistanciaKm() * 100) / 100.0);
+        return item;
     }
 
     // Buscar por ID
@@ -95,6 +165,10 @@ public class AuthEstabelecimentoController {
         return estabelecimentoService.buscarPorId(id)
                 .map(existente -> {
                     estabelecimento.setId(id);
+                    // Versão e dono vêm do banco: o corpo não traz a versão (@JsonIgnore) e um
+                    // usuário só com id chega sem a versão dele, e o merge recusa os dois
+                    estabelecimento.setVersao(existente.getVersao());
+                    estabelecimento.setUsuario(existente.getUsuario());
                     return ResponseEntity.ok(estabelecimentoService.salvar(estabelecimento));
                 })
                 .orElse(ResponseEntity.notFound().build());
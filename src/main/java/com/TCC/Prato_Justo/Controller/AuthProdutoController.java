@@ -3,11 +3,14 @@ package com.TCC.Prato_Justo.Controller;
 
 import com.TCC.Prato_Justo.Model.Produto;
 import com.TCC.Prato_Justo.Service.ProdutosService;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
 
+@Lazy
 @RestController
 @RequestMapping("/auth")
 @CrossOrigin(originPatterns = "*")
@@ -27,11 +30,26 @@ public class AuthProdutoController {
         return ResponseEntity.ok(novoProduto);
     }
 
-    // Listar todos os produtos
+    // Listar produtos paginados, opcionalmente filtrando por trecho do nome
     @GetMapping("/listar")
-    public ResponseEntity<List<Produto>> listarProdutos() {
-        List<Produto> produtos = produtoService.listarProdutos();
-        return ResponseEntity.ok(produtos);
+    public ResponseEntity<List<Produto>> listarProdutos(@RequestParam(required = false) String q,
+                                                        @RequestParam(defaultValue = "0") int page,
+                                                        @RequestParam(defaultValue = "20") int size) {
+        // Corpo continua sendo uma lista; a paginação vai nos cabeçalhos
+        Page<Produto> pagina = produtoService.listarProdutos(q, page, size);
+        return ResponseEntity.ok()
+                .header("X-Total-Count", String.valueOf(pagina.getTotalElements()))
+                .header("X-Page", String.valueOf(pagina.getNumber()))
+                .header("X-Page-Size", String.valueOf(pagina.getSize()))
+                .header("X-Has-Next", String.valueOf(pagina.hasNext()))
+                .body(pagina.getContent());
+    }
+
+    // Autocompletar nomes de produtos
+    @GetMapping("/produtos/sugestoes")
+    public ResponseEntity<List<String>> sugerirNomes(@RequestParam String q,
+                                                     @RequestParam(defaultValue = "10") int limite) {
+        return ResponseEntity.ok(produtoService.sugerirNomes(q, limite));
     }
 
     // Buscar produto por ID
@@ -1,13 +1,21 @@
 package com.TCC.Prato_Justo.Controller;
 
 import com.TCC.Prato_Justo.Model.Usuario;
+import com.TCC.Prato_Justo.Security.LimiteTentativasLogin;
 import com.TCC.Prato_Justo.Service.AuthService;
 import com.TCC.Prato_Justo.Service.UsuarioService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
 @RestController
 @RequestMapping("/auth")
 @CrossOrigin(origins = "*", allowedHeaders = "*", methods = {RequestMethod.GET, RequestMethod.POST, RequestMethod.PUT, RequestMethod.DELETE})
@@ -15,46 +23,109 @@ public class AuthUsuarioController {
 
    private final UsuarioService usuarioService;
    private final AuthService authService;
+   private final LimiteTentativasLogin limiteTentativas;
 
-    public AuthUsuarioController(UsuarioService usuarioService, AuthService authService) {
+    public AuthUsuarioController(UsuarioService usuarioService, AuthService authService,
+                                 LimiteTentativasLogin limiteTentativas) {
         this.usuarioService = usuarioService;
         this.authService = authService;
+        this.limiteTentativas = limiteTentativas;
     }
 
     @PostMapping("/registro")
-    public ResponseEntity<?> registro(@RequestBody CadastroRequest request){
+    public ResponseEntity<?> registro(@RequestBody CadastroRequest request, HttpServletRequest httpRequest){
+        long espera = limiteTentativas.registrarTentativa(httpRequest.getRemoteAddr(), request.getEmail());
+        if (espera > 0) {
+            return limiteExcedido(espera);
+        }
         try {
             Usuario usuario = usuarioService.cadastrarNovoUsuario(request);
             return ResponseEntity.ok(usuario);
+        } catch (RejectedExecutionException e) {
+            return servicoOcupado();
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Erro ao cadastrar usuário: " + e.getMessage());
         }
     }
 
     @PostMapping("/cadastros")
-    public String cadastros(@RequestBody Usuario cadastro){
-        Usuario cad = usuarioService.fazerCadastro(cadastro.getNome(), cadastro.getEmail(), cadastro.getPassword());
+    public ResponseEntity<?> cadastros(@RequestBody Usuario cadastro, HttpServletRequest httpRequest){
+        long espera = limiteTentativas.registrarTentativa(httpRequest.getRemoteAddr(), cadastro.getEmail());
+        if (espera > 0) {
+            return limiteExcedido(espera);
+        }
+        Usuario cad;
+        try {
+            cad = usuarioService.fazerCadastro(cadastro.getNome(), cadastro.getPassword(), cadastro.getEmail());
+        } catch (RejectedExecutionException e) {
+            return servicoOcupado();
+        }
         if(cad != null){
-            return "Cadastro Realizado" + cad.getNome() + "!!!!!";
+            return ResponseEntity.ok("Cadastro Realizado" + cad.getNome() + "!!!!!");
 
         }
-        return "Usuario ou senha ou email errada !!!!";
+        return ResponseEntity.ok("Usuario ou senha ou email errada !!!!");
     }
 
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody LoginRequest request) {
+    public CompletableFuture<ResponseEntity<?>> login(@RequestBody LoginRequest request, HttpServletRequest httpRequest) {
+        long espera = limiteTentativas.registrarTentativa(httpRequest.getRemoteAddr(), request.getEmail());
+        if (espera > 0) {
+            return CompletableFuture.completedFuture(limiteExcedido(espera));
+        }
         try {
-            var result = authService.authenticate(request.getEmail(), request.getPassword());
-            if (result.containsKey("error")) {
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(result);
-            }
-            return ResponseEntity.ok(result);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body("Erro na autenticação: " + e.getMessage());
+            // O BCrypt roda no pool de hash; a thread do Tomcat volta para o pool enquanto isso
+            return authService.authenticateAsync(request.getEmail(), request.getPassword())
+                    .<ResponseEntity<?>>thenApply(result -> {
+                        if (result.containsKey("error")) {
+                            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(result);
+                        }
+                        return ResponseEntity.ok(result);
+                    })
+                    .exceptionally(e -> ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                            .body("Erro na autenticação: " + e.getMessage()));
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(servicoOcupado());
+        }
+    }
+
+    // Troca o token de renovação por um novo par (acesso curto + renovação); o antigo deixa de valer
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@RequestBody RenovacaoRequest request) {
+        try {
+            return ResponseEntity.ok(authService.renovar(request.getRefreshToken()));
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> erro = new HashMap<>();
+            erro.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(erro);
         }
     }
 
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@RequestHeader(value = "Authorization", required = false) String authorization,
+                                    @RequestBody(required = false) RenovacaoRequest request,
+                                    @RequestParam(defaultValue = "false") boolean todos) {
+        String token = authorization != null && authorization.startsWith("Bearer ") ? authorization.substring(7) : null;
+        authService.logout(token, request != null ? request.getRefreshToken() : null, todos);
+        return ResponseEntity.noContent().build();
+    }
+
+    static ResponseEntity<?> limiteExcedido(long esperaSegundos) {
+        Map<String, Object> erro = new HashMap<>();
+        erro.put("error", "Muitas tentativas. Tente novamente em alguns instantes.");
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(esperaSegundos))
+                .body(erro);
+    }
+
+    static ResponseEntity<?> servicoOcupado() {
+        Map<String, Object> erro = new HashMap<>();
+        erro.put("error", "Serviço ocupado. Tente novamente em alguns instantes.");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(erro);
+    }
+
     public static class LoginRequest {
         private String email;
         private String password;
@@ -76,6 +147,18 @@ public class AuthUsuarioController {
         }
     }
 
+    public static class RenovacaoRequest {
+        private String refreshToken;
+
+        public String getRefreshToken() {
+            return refreshToken;
+        }
+
+        public void setRefreshToken(String refreshToken) {
+            this.refreshToken = refreshToken;
+        }
+    }
+
     public static class CadastroRequest {
         private String username;
         private String email;
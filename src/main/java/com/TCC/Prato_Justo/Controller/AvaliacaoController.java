@@ -2,13 +2,16 @@ package com.TCC.Prato_Justo.Controller;
 
 import com.TCC.Prato_Justo.Model.Avaliacao;
 import com.TCC.Prato_Justo.Model.Estabelecimento;
-import com.TCC.Prato_Justo.Model.Usuario;
 import com.TCC.Prato_Justo.Service.AvaliacaoService;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 
+@Lazy
 @RestController
 @RequestMapping("/avaliacoes")
 @CrossOrigin(origins = "*", allowedHeaders = "*", methods = {RequestMethod.GET, RequestMethod.POST})
@@ -28,10 +31,14 @@ public class AvaliacaoController {
     }
 
     @PostMapping
-    public ResponseEntity<Avaliacao> avaliar(@RequestBody AvaliarRequest req) {
-        Usuario u = new Usuario(); u.setId(req.usuarioId);
-        Estabelecimento e = new Estabelecimento(); e.setId(req.estabelecimentoId);
-        return ResponseEntity.ok(avaliacaoService.avaliar(u, e, req.nota, req.comentario));
+    public ResponseEntity<?> avaliar(@RequestBody AvaliarRequest req) {
+        try {
+            return ResponseEntity.ok(avaliacaoService.avaliar(req.usuarioId, req.estabelecimentoId, req.nota, req.comentario));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(404).body(Map.of("error", e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
     }
 
     @GetMapping("/estabelecimento/{id}")
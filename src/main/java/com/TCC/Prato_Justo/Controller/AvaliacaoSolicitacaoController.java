@@ -1,15 +1,20 @@
 package com.TCC.Prato_Justo.Controller;
 
 import com.TCC.Prato_Justo.Model.AvaliacaoSolicitacao;
+import com.TCC.Prato_Justo.Model.ReputacaoUsuario;
 import com.TCC.Prato_Justo.Model.Solicitacao;
 import com.TCC.Prato_Justo.Model.Usuario;
 import com.TCC.Prato_Justo.Service.AuthService;
 import com.TCC.Prato_Justo.Service.AvaliacaoSolicitacaoService;
 import com.TCC.Prato_Justo.Service.SolicitacaoService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -120,29 +125,50 @@ public class AvaliacaoSolicitacaoController {
     }
 
     @GetMapping("/usuario/{id}")
-    public ResponseEntity<?> listarPorAvaliado(@PathVariable Long id) {
+    public ResponseEntity<?> listarPorAvaliado(@PathVariable Long id,
+                                               @RequestParam(defaultValue = "0") int page,
+                                               @RequestParam(defaultValue = "20") int size) {
         try {
-            List<AvaliacaoSolicitacao> avaliacoes = avaliacaoService.listarPorAvaliado(id);
-            return ResponseEntity.ok(avaliacoes);
+            // Corpo continua sendo uma lista; a paginação vai nos cabeçalhos, com o total vindo do agregado
+            Slice<AvaliacaoSolicitacao> pagina = avaliacaoService.listarPorAvaliado(id, page, size);
+            return ResponseEntity.ok()
+                    .header("X-Total-Count", String.valueOf(avaliacaoService.contarPorAvaliado(id)))
+                    .header("X-Page", String.valueOf(pagina.getNumber()))
+                    .header("X-Page-Size", String.valueOf(pagina.getSize()))
+                    .header("X-Has-Next", String.valueOf(pagina.hasNext()))
+                    .body(pagina.getContent());
         } catch (Exception e) {
             return ResponseEntity.status(500).body("Erro interno: " + e.getMessage());
         }
     }
 
     @GetMapping("/usuario/{id}/media")
-    public ResponseEntity<?> mediaPorAvaliado(@PathVariable Long id) {
+    public ResponseEntity<?> mediaPorAvaliado(@PathVariable Long id, WebRequest request) {
         try {
-            Double media = avaliacaoService.mediaPorAvaliado(id);
-            Long total = avaliacaoService.contarPorAvaliado(id);
+            // Sem linha agregada ainda, segue direto: obterReputacao recalcula sem gravar
+            Optional<Object[]> versao = avaliacaoService.versaoReputacao(id);
+            if (versao.isPresent() && request.checkNotModified(etagReputacao(id, versao.get()[0], (LocalDateTime) versao.get()[1]))) {
+                return null;
+            }
+
+            // Média, total e histograma saem da mesma linha agregada
+            ReputacaoUsuario reputacao = avaliacaoService.obterReputacao(id);
             
             Map<String, Object> response = new HashMap<>();
-            response.put("media", media);
-            response.put("total", total);
+            response.put("media", reputacao.getMedia());
+            response.put("total", reputacao.getTotalAvaliacoes());
+            response.put("histograma", reputacao.getHistograma());
             
-            return ResponseEntity.ok(response);
+            return Etags.ok(etagReputacao(id, reputacao.getTotalAvaliacoes(), reputacao.getAtualizadoEm()), false, response);
         } catch (Exception e) {
             return ResponseEntity.status(500).body("Erro interno: " + e.getMessage());
         }
     }
+
+    // O total muda a cada avaliação; o carimbo (em segundos, a precisão do DATETIME) cobre recálculos
+    private static String etagReputacao(Long id, Object total, LocalDateTime atualizadoEm) {
+        long carimbo = atualizadoEm != null ? atualizadoEm.toEpochSecond(ZoneOffset.UTC) : 0L;
+        return Etags.forte("reputacao", id, total, carimbo);
+    }
 }
 
@@ -53,6 +53,15 @@ public class CadastroEstabelecimentoRequest {
     
     @AssertTrue(message = "Você deve concordar com os termos de uso")
     private Boolean termos;
+
+    // Coordenadas do ponto de entrega (opcionais)
+    @DecimalMin(value = "-90.0", message = "Latitude inválida")
+    @DecimalMax(value = "90.0", message = "Latitude inválida")
+    private Double latitude;
+
+    @DecimalMin(value = "-180.0", message = "Longitude inválida")
+    @DecimalMax(value = "180.0", message = "Longitude inválida")
+    private Double longitude;
     
     // Construtores
     public CadastroEstabelecimentoRequest() {}
@@ -179,6 +188,22 @@ public class CadastroEstabelecimentoRequest {
     public void setTermos(Boolean termos) {
         this.termos = termos;
     }
+
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
     
     // Método para construir endereço completo
     public String getEnderecoCompleto() {
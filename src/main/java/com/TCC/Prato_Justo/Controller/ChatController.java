@@ -1,15 +1,17 @@
 package com.TCC.Prato_Justo.Controller;
 
+import com.TCC.Prato_Justo.Config.UserPrincipal;
 import com.TCC.Prato_Justo.Interface.AnthUsuarioRepository;
 import com.TCC.Prato_Justo.Interface.MensagemRepository;
 import com.TCC.Prato_Justo.Model.Chat;
 import com.TCC.Prato_Justo.Model.Mensagem;
 import com.TCC.Prato_Justo.Model.Usuario;
 import com.TCC.Prato_Justo.Service.ChatService;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
@@ -17,7 +19,6 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/chat")
@@ -35,11 +36,20 @@ public class ChatController {
     @Autowired
     private SimpMessagingTemplate messagingTemplate;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // O token já traz o id do usuário: busca pela chave primária em vez de por e-mail
+    private Usuario usuarioAutenticado() {
+        return UserPrincipal.atual()
+                .flatMap(p -> usuarioRepository.findById(p.getUserId()))
+                .orElse(null);
+    }
+
     // Envia uma mensagem do usuário autenticado para outro usuário (destinatárioId)
     @PostMapping("/messages")
     public ResponseEntity<?> sendMessage(@RequestBody SendMessageRequest req) {
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        Usuario remetente = usuarioRepository.findByEmail(email).orElse(null);
+        Usuario remetente = usuarioAutenticado();
         if (remetente == null) {
             return ResponseEntity.status(401).body("Usuário não autenticado");
         }
@@ -83,14 +93,14 @@ public class ChatController {
             wsMessage
         );
         
+        meterRegistry.counter("chat.messages", "transport", "http", "result", "delivered").increment();
         return ResponseEntity.ok(saved);
     }
 
     // Lista conversa entre usuário autenticado e outro usuário
     @GetMapping("/conversations/{otherUserId}")
     public ResponseEntity<?> getConversation(@PathVariable Long otherUserId) {
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        Usuario me = usuarioRepository.findByEmail(email).orElse(null);
+        Usuario me = usuarioAutenticado();
         if (me == null) {
             return ResponseEntity.status(401).body("Usuário não autenticado");
         }
@@ -108,8 +118,7 @@ public class ChatController {
     // Lista contatos com quem o usuário já trocou mensagens
     @GetMapping("/contacts")
     public ResponseEntity<?> getContacts() {
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        Usuario me = usuarioRepository.findByEmail(email).orElse(null);
+        Usuario me = usuarioAutenticado();
         if (me == null) return ResponseEntity.status(401).body("Usuário não autenticado");
 
         List<Usuario> contacts = mensagemRepository.findContacts(me);
@@ -119,59 +128,20 @@ public class ChatController {
     // Lista todos os chats do usuário autenticado (com token)
     @GetMapping("/chats")
     public ResponseEntity<?> getChats() {
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        Usuario me = usuarioRepository.findByEmail(email).orElse(null);
+        Usuario me = usuarioAutenticado();
         if (me == null) {
             return ResponseEntity.status(401).body("Usuário não autenticado");
         }
 
         List<Chat> chats = chatService.listarChatsDoUsuario(me);
         
-        // Transformar em DTO com informações do outro participante e última mensagem
-        List<Map<String, Object>> chatsDTO = chats.stream().map(chat -> {
-            Map<String, Object> chatDTO = new HashMap<>();
-            chatDTO.put("id", chat.getId());
-            chatDTO.put("token", chat.getToken());
-            
-            // Obter o outro participante
-            Usuario outroParticipante = chatService.obterOutroParticipante(chat, me);
-            Map<String, Object> outroParticipanteDTO = new HashMap<>();
-            outroParticipanteDTO.put("id", outroParticipante.getId());
-            outroParticipanteDTO.put("nome", outroParticipante.getNome());
-            outroParticipanteDTO.put("email", outroParticipante.getEmail());
-            outroParticipanteDTO.put("avatarUrl", outroParticipante.getAvatarUrl());
-            chatDTO.put("outroParticipante", outroParticipanteDTO);
-            
-            // Obter última mensagem se houver
-            Optional<Mensagem> ultimaMensagem = chatService.obterUltimaMensagem(chat);
-            if (ultimaMensagem.isPresent()) {
-                Mensagem msg = ultimaMensagem.get();
-                Map<String, Object> mensagemDTO = new HashMap<>();
-                mensagemDTO.put("id", msg.getId());
-                mensagemDTO.put("conteudo", msg.getConteudo());
-                mensagemDTO.put("criadoEm", msg.getCriadoEm());
-                mensagemDTO.put("remetenteId", msg.getRemetente().getId());
-                chatDTO.put("ultimaMensagem", mensagemDTO);
-            }
-            
-            // Informações da solicitação
-            if (chat.getSolicitacao() != null) {
-                Map<String, Object> solicitacaoDTO = new HashMap<>();
-                solicitacaoDTO.put("id", chat.getSolicitacao().getId());
-                solicitacaoDTO.put("status", chat.getSolicitacao().getStatus().getValor());
-                if (chat.getSolicitacao().getDoacao() != null) {
-                    solicitacaoDTO.put("doacaoTitulo", chat.getSolicitacao().getDoacao().getTitulo());
-                }
-                chatDTO.put("solicitacao", solicitacaoDTO);
-            }
-            
-            chatDTO.put("criadoEm", chat.getCriadoEm());
-            chatDTO.put("ativo", chat.getAtivo());
-            
-            return chatDTO;
-        }).collect(Collectors.toList());
-        
-        return ResponseEntity.ok(chatsDTO);
+        // Resumo com o outro participante, a última mensagem e a solicitação de origem
+        List<ChatResumo> resumos = chats.stream()
+                .map(chat -> ChatResumo.de(chat, chatService.obterOutroParticipante(chat, me),
+                        chatService.obterUltimaMensagem(chat).orElse(null)))
+                .toList();
+
+        return ResponseEntity.ok(resumos);
     }
 
     // DTO para enviar mensagem
@@ -184,4 +154,35 @@ public class ChatController {
         public String getConteudo() { return conteudo; }
         public void setConteudo(String conteudo) { this.conteudo = conteudo; }
     }
+
+    // Respostas imutáveis da lista de chats; campos opcionais ficam fora do JSON quando ausentes
+    public record ChatResumo(Long id, String token, Participante outroParticipante,
+                             @JsonInclude(JsonInclude.Include.NON_NULL) UltimaMensagem ultimaMensagem,
+                             @JsonInclude(JsonInclude.Include.NON_NULL) SolicitacaoResumo solicitacao,
+                             LocalDateTime criadoEm, Boolean ativo) {
+
+        public static ChatResumo de(Chat chat, Usuario outro, Mensagem ultima) {
+            Participante participante = new Participante(outro.getId(), outro.getNome(), outro.getEmail(), outro.getAvatarUrl());
+            UltimaMensagem mensagem = ultima == null ? null : new UltimaMensagem(ultima.getId(), ultima.getConteudo(),
+                    ultima.getCriadoEm(), ultima.getRemetente().getId());
+            SolicitacaoResumo solicitacao = null;
+            if (chat.getSolicitacao() != null) {
+                solicitacao = new SolicitacaoResumo(chat.getSolicitacao().getId(),
+                        chat.getSolicitacao().getStatus().getValor(),
+                        chat.getSolicitacao().getDoacao() != null ? chat.getSolicitacao().getDoacao().getTitulo() : null);
+            }
+            return new ChatResumo(chat.getId(), chat.getToken(), participante, mensagem, solicitacao,
+                    chat.getCriadoEm(), chat.getAtivo());
+        }
+    }
+
+    public record Participante(Long id, String nome, String email, String avatarUrl) {
+    }
+
+    public record UltimaMensagem(Long id, String conteudo, LocalDateTime criadoEm, Long remetenteId) {
+    }
+
+    public record SolicitacaoResumo(Long id, String status,
+                                    @JsonInclude(JsonInclude.Include.NON_NULL) String doacaoTitulo) {
+    }
 }
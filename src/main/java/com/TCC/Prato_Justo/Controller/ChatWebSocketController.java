@@ -4,20 +4,24 @@ import com.TCC.Prato_Justo.Interface.AnthUsuarioRepository;
 import com.TCC.Prato_Justo.Interface.MensagemRepository;
 import com.TCC.Prato_Justo.Model.Mensagem;
 import com.TCC.Prato_Justo.Model.Usuario;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Controller;
 
+import java.security.Principal;
 import java.time.LocalDateTime;
 import java.util.Optional;
 
 @Controller
 public class ChatWebSocketController {
 
+    private static final Logger log = LoggerFactory.getLogger(ChatWebSocketController.class);
+
     @Autowired
     private SimpMessagingTemplate messagingTemplate;
 
@@ -27,27 +31,31 @@ public class ChatWebSocketController {
     @Autowired
     private AnthUsuarioRepository usuarioRepository;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @MessageMapping("/chat.sendMessage")
-    public void sendMessage(@Payload ChatMessage message) {
+    public void sendMessage(@Payload ChatMessage message, Principal principal) {
         try {
-            // Obter usuário autenticado do contexto de segurança
-            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-            if (auth == null || !auth.isAuthenticated()) {
+            // Usuário da sessão STOMP, definido no CONNECT pelo WebSocketAuthInterceptor
+            // (o SecurityContextHolder não é preenchido para os frames SEND)
+            if (principal == null) {
+                contar("ignored");
                 return; // Não autenticado, ignorar mensagem
             }
 
-            // Obter usuário - se for UserPrincipal, usar getUsername(), senão usar getName()
+            // Obter usuário - se for UserPrincipal, buscar pelo id, senão pelo nome (e-mail)
             Usuario remetente = null;
-            if (auth.getPrincipal() instanceof com.TCC.Prato_Justo.Config.UserPrincipal) {
-                com.TCC.Prato_Justo.Config.UserPrincipal principal = 
-                    (com.TCC.Prato_Justo.Config.UserPrincipal) auth.getPrincipal();
-                Optional<Usuario> remetenteOpt = usuarioRepository.findById(principal.getUserId());
+            if (principal instanceof com.TCC.Prato_Justo.Config.UserPrincipal) {
+                com.TCC.Prato_Justo.Config.UserPrincipal userPrincipal =
+                    (com.TCC.Prato_Justo.Config.UserPrincipal) principal;
+                Optional<Usuario> remetenteOpt = usuarioRepository.findById(userPrincipal.getUserId());
                 if (remetenteOpt.isPresent()) {
                     remetente = remetenteOpt.get();
                 }
             } else {
                 // Fallback: buscar por email
-                String email = auth.getName();
+                String email = principal.getName();
                 Optional<Usuario> remetenteOpt = usuarioRepository.findByEmail(email);
                 if (remetenteOpt.isPresent()) {
                     remetente = remetenteOpt.get();
@@ -55,17 +63,20 @@ public class ChatWebSocketController {
             }
 
             if (remetente == null) {
+                contar("ignored");
                 return; // Usuário não encontrado
             }
 
             // Obter destinatário do ID na mensagem
             Long destinatarioId = message.getDestinatarioId();
             if (destinatarioId == null) {
+                contar("ignored");
                 return; // Destinatário não especificado
             }
 
             Optional<Usuario> destOpt = usuarioRepository.findById(destinatarioId);
             if (destOpt.isEmpty()) {
+                contar("ignored");
                 return; // Destinatário não encontrado
             }
             Usuario destinatario = destOpt.get();
@@ -102,12 +113,18 @@ public class ChatWebSocketController {
                 "/queue/messages",
                 response
             );
+            contar("delivered");
 
         } catch (Exception e) {
-            e.printStackTrace();
+            contar("failed");
+            log.error("chat_message_failed destinatario={} erro=\"{}\"", message.getDestinatarioId(), e.getMessage(), e);
         }
     }
 
+    private void contar(String resultado) {
+        meterRegistry.counter("chat.messages", "transport", "stomp", "result", resultado).increment();
+    }
+
     // Classe para receber mensagem do cliente
     public static class ChatMessage {
         private Long destinatarioId;
@@ -1,16 +1,23 @@
 package com.TCC.Prato_Justo.Controller;
 
 import com.TCC.Prato_Justo.Model.Doacao;
+import com.TCC.Prato_Justo.Model.Estabelecimento;
+import com.TCC.Prato_Justo.Model.TipoUsuario;
 import com.TCC.Prato_Justo.Model.Usuario;
+import com.TCC.Prato_Justo.Service.AgregadoGradeDoacao;
 import com.TCC.Prato_Justo.Service.AuthService;
 import com.TCC.Prato_Justo.Service.DoacaoService;
 import com.TCC.Prato_Justo.Service.FileUploadService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -21,6 +28,8 @@ import java.util.Optional;
 @CrossOrigin(origins = "*", allowedHeaders = "*", methods = {RequestMethod.GET, RequestMethod.POST, RequestMethod.PUT, RequestMethod.DELETE, RequestMethod.OPTIONS})
 public class DoacaoController {
 
+    private static final Logger log = LoggerFactory.getLogger(DoacaoController.class);
+
     private final DoacaoService doacaoService;
     
     @Autowired
@@ -53,16 +62,9 @@ public class DoacaoController {
     public ResponseEntity<?> criar(@RequestBody Doacao dto, 
                                    @RequestHeader(value = "Authorization", required = false) String authHeader) {
         try {
-            System.out.println("=== RECEBENDO DOAÇÃO ===");
-            System.out.println("Título: " + dto.getTitulo());
-            System.out.println("Tipo: " + dto.getTipoAlimento());
-            System.out.println("Cidade: " + dto.getCidade());
-            System.out.println("Endereço: " + dto.getEndereco());
-            System.out.println("Data Validade: " + dto.getDataValidade());
-            System.out.println("Data Coleta: " + dto.getDataColeta());
-            System.out.println("Imagem: " + dto.getImagem());
-            System.out.println("Lat: " + dto.getLatitude());
-            System.out.println("Lng: " + dto.getLongitude());
+            log.debug("donation_create_received tipo={} cidade=\"{}\" validade={} coleta={} imagem={} lat={} lng={}",
+                    dto.getTipoAlimento(), dto.getCidade(), dto.getDataValidade(), dto.getDataColeta(),
+                    dto.getImagem() != null, dto.getLatitude(), dto.getLongitude());
             
             // Validar campos obrigatórios
             if (dto.getTitulo() == null || dto.getTitulo().trim().isEmpty()) {
@@ -109,25 +111,63 @@ public class DoacaoController {
             }
             
             Doacao criada = doacaoService.criar(dto, doador);
-            System.out.println("Doação criada com ID: " + criada.getId());
+            log.info("donation_created doacao={} doador={}", criada.getId(), doador != null ? doador.getId() : null);
             return ResponseEntity.ok(criada);
         } catch (Exception ex) {
-            System.err.println("ERRO DETALHADO:");
-            ex.printStackTrace();
+            log.error("donation_create_failed erro=\"{}\"", ex.getMessage(), ex);
             return ResponseEntity.status(500).body("Erro interno: " + ex.getMessage());
         }
     }
 
     @GetMapping
-    public ResponseEntity<List<Doacao>> listar(@RequestParam(required = false) String tipo,
-                                               @RequestParam(required = false) String cidade) {
-        return ResponseEntity.ok(doacaoService.listarAtivas(tipo, cidade));
+    public ResponseEntity<List<DoacaoResumo>> listar(@RequestParam(required = false) String tipo,
+                                                     @RequestParam(required = false) String cidade) {
+        return ResponseEntity.ok(DoacaoResumo.de(doacaoService.listarAtivas(tipo, cidade)));
+    }
+
+    @GetMapping("/buscar")
+    public ResponseEntity<?> buscar(@RequestParam String q,
+                                    @RequestParam(required = false) String cidade,
+                                    @RequestParam(required = false) Double lat,
+                                    @RequestParam(required = false) Double lng,
+                                    @RequestParam(required = false, name = "raio_km") Double raioKm,
+                                    @RequestParam(defaultValue = "50") int limite) {
+        if (limite < 1 || limite > 200) {
+            Map<String, Object> erro = new HashMap<>();
+            erro.put("error", "limite deve estar entre 1 e 200");
+            return ResponseEntity.badRequest().body(erro);
+        }
+        return ResponseEntity.ok(doacaoService.buscar(q, cidade, lat, lng, raioKm, limite));
+    }
+
+    @GetMapping("/{id}/destinos-sugeridos")
+    public ResponseEntity<?> destinosSugeridos(@PathVariable Long id,
+                                               @RequestParam(defaultValue = "10", name = "raio_km") Double raioKm,
+                                               @RequestParam(defaultValue = "5") int limite) {
+        try {
+            return ResponseEntity.ok(doacaoService.sugerirDestinos(id, raioKm, limite).stream()
+                    .map(AuthEstabelecimentoController::resumo)
+                    .toList());
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> erro = new HashMap<>();
+            erro.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(erro);
+        }
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Doacao> obter(@PathVariable Long id) {
+    public ResponseEntity<Doacao> obter(@PathVariable Long id, WebRequest request) {
+        // O corpo inclui o doador: o ETag combina as duas versões e é conferido antes de carregar a doação
+        Optional<Object[]> versoes = doacaoService.versoes(id);
+        if (versoes.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        String etag = Etags.fraca("doacao", id, versoes.get()[0], versoes.get()[1], versoes.get()[2]);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
         Optional<Doacao> d = doacaoService.obter(id);
-        return d.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
+        return d.map(doacao -> Etags.ok(etag, false, doacao)).orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     @PutMapping("/{id}")
@@ -221,8 +261,7 @@ public class DoacaoController {
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(404).body(e.getMessage());
         } catch (Exception e) {
-            System.err.println("Erro ao atualizar doação: " + e.getMessage());
-            e.printStackTrace();
+            log.error("donation_update_failed doacao={} erro=\"{}\"", id, e.getMessage(), e);
             return ResponseEntity.status(500).body("Erro interno: " + e.getMessage());
         }
     }
@@ -234,10 +273,36 @@ public class DoacaoController {
     }
 
     @GetMapping("/proximas")
-    public ResponseEntity<List<Doacao>> proximas(@RequestParam(required = false) Double lat,
-                                                 @RequestParam(required = false) Double lng,
-                                                 @RequestParam(required = false, name = "raio_km") Double raioKm) {
-        return ResponseEntity.ok(doacaoService.proximas(lat, lng, raioKm));
+    public ResponseEntity<?> proximas(@RequestParam(required = false) Double lat,
+                                      @RequestParam(required = false) Double lng,
+                                      @RequestParam(required = false, name = "raio_km") Double raioKm) {
+        try {
+            return ResponseEntity.ok(DoacaoResumo.de(doacaoService.proximas(lat, lng, raioKm)));
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> erro = new HashMap<>();
+            erro.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(erro);
+        }
+    }
+
+    /**
+     * Tile z/x/y do mapa: quantidade e centróide das doações ativas em até 16x16 grupos,
+     * do mesmo tamanho em qualquer zoom
+     */
+    @GetMapping("/mapa/{z}/{x}/{y}")
+    public ResponseEntity<?> tileMapa(@PathVariable int z, @PathVariable int x, @PathVariable int y, WebRequest request) {
+        try {
+            AgregadoGradeDoacao.validarTile(z, x, y);
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> erro = new HashMap<>();
+            erro.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(erro);
+        }
+        String etag = Etags.fraca("mapa", z, x, y, doacaoService.versaoMapa());
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return Etags.ok(etag, false, doacaoService.tileMapa(z, x, y));
     }
 
     @GetMapping("/minhas")
@@ -257,8 +322,7 @@ public class DoacaoController {
                 return ResponseEntity.status(404).body("Usuário não encontrado");
             }
 
-            List<Doacao> doacoes = doacaoService.listarPorDoador(usuario.getId());
-            return ResponseEntity.ok(doacoes);
+            return ResponseEntity.ok(DoacaoResumo.de(doacaoService.listarPorDoador(usuario.getId())));
         } catch (Exception e) {
             return ResponseEntity.status(500).body("Erro interno: " + e.getMessage());
         }
@@ -284,8 +348,7 @@ public class DoacaoController {
             }
 
             // Buscar doações do usuário especificado
-            List<Doacao> doacoes = doacaoService.listarPorDoador(userId);
-            return ResponseEntity.ok(doacoes);
+            return ResponseEntity.ok(DoacaoResumo.de(doacaoService.listarPorDoador(userId)));
         } catch (Exception e) {
             return ResponseEntity.status(500).body("Erro interno: " + e.getMessage());
         }
@@ -297,11 +360,8 @@ public class DoacaoController {
             @RequestParam(value = "doacaoId", required = false) Long doacaoId,
             @RequestHeader(value = "Authorization", required = false) String authHeader) {
         try {
-            System.out.println("=== RECEBENDO UPLOAD DE IMAGEM DE ALIMENTO ===");
-            System.out.println("Nome do arquivo: " + file.getOriginalFilename());
-            System.out.println("Tamanho: " + file.getSize() + " bytes");
-            System.out.println("Tipo: " + file.getContentType());
-            System.out.println("Doação ID: " + doacaoId);
+            log.debug("food_image_upload_received doacao={} tamanho={} tipo={}",
+                    doacaoId, file.getSize(), file.getContentType());
 
             // Validar token (opcional, mas recomendado)
             if (authHeader != null && authHeader.startsWith("Bearer ")) {
@@ -329,8 +389,7 @@ public class DoacaoController {
 
             // Salvar a imagem
             String imageUrl = fileUploadService.saveFoodImage(file, doacaoId);
-            
-            System.out.println("✅ Imagem salva em: " + imageUrl);
+            log.info("food_image_uploaded doacao={} url={}", doacaoId, imageUrl);
 
             // Retornar a URL da imagem
             Map<String, String> response = new HashMap<>();
@@ -339,9 +398,8 @@ public class DoacaoController {
             
             return ResponseEntity.ok(response);
         } catch (Exception e) {
-            System.err.println("❌ Erro ao fazer upload da imagem: " + e.getMessage());
-            e.printStackTrace();
-            
+            log.error("food_image_upload_failed doacao={} erro=\"{}\"", doacaoId, e.getMessage(), e);
+
             Map<String, String> error = new HashMap<>();
             error.put("error", e.getMessage());
             return ResponseEntity.status(500).body(error);
@@ -350,7 +408,8 @@ public class DoacaoController {
 
     @PostMapping("/{id}/solicitar")
     public ResponseEntity<?> solicitarDoacao(@PathVariable Long id,
-                                             @RequestHeader(value = "Authorization", required = false) String authHeader) {
+                                             @RequestHeader(value = "Authorization", required = false) String authHeader,
+                                             @RequestHeader(value = "Idempotency-Key", required = false) String chaveIdempotencia) {
         try {
             // Validar autenticação
             if (authHeader == null || !authHeader.startsWith("Bearer ")) {
@@ -404,7 +463,7 @@ public class DoacaoController {
             }
 
             // Criar solicitação
-            com.TCC.Prato_Justo.Model.Solicitacao solicitacao = solicitacaoService.criar(doacao, solicitante);
+            com.TCC.Prato_Justo.Model.Solicitacao solicitacao = solicitacaoService.criar(doacao, solicitante, chaveIdempotencia);
             
             // Notificar doador sobre nova solicitação (será feito no frontend via realtime-manager)
             // O frontend escutará o evento quando a solicitação for criada
@@ -424,8 +483,7 @@ public class DoacaoController {
             error.put("error", e.getMessage());
             return ResponseEntity.badRequest().body(error);
         } catch (Exception e) {
-            System.err.println("Erro ao solicitar doação: " + e.getMessage());
-            e.printStackTrace();
+            log.error("donation_request_failed doacao={} erro=\"{}\"", id, e.getMessage(), e);
             Map<String, String> error = new HashMap<>();
             error.put("message", "Erro interno: " + e.getMessage());
             error.put("error", "Erro interno: " + e.getMessage());
@@ -641,6 +699,9 @@ public class DoacaoController {
             return ResponseEntity.ok(response);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(400).body(e.getMessage());
+        } catch (IllegalStateException | org.springframework.dao.ConcurrencyFailureException e) {
+            // Outro aceite concorrente venceu
+            return ResponseEntity.status(409).body(e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.status(500).body("Erro interno: " + e.getMessage());
         }
@@ -711,6 +772,41 @@ public class DoacaoController {
             return ResponseEntity.status(500).body("Erro interno: " + e.getMessage());
         }
     }
-}
 
+    /**
+     * Item das listagens de doações. Mesmos campos da entidade, mas o doador e o destino vêm resumidos:
+     * sem endereço, e-mail ou hash de senha do doador e sem percorrer o grafo JPA na serialização.
+     */
+    public record DoacaoResumo(Long id, DoadorResumo doador, DestinoResumo estabelecimentoDestino,
+                               String titulo, String descricao, String tipoAlimento, Double quantidade,
+                               String unidade, LocalDate dataValidade, LocalDate dataColeta, String cidade,
+                               String endereco, String cep, String rua, String numero, String estado,
+                               String complemento, Double latitude, Double longitude, String imagem,
+                               LocalDateTime criadoEm, Boolean ativo, Long versao) {
+
+        public static DoacaoResumo de(Doacao d) {
+            Usuario doador = d.getDoador();
+            Estabelecimento destino = d.getEstabelecimentoDestino();
+            return new DoacaoResumo(d.getId(),
+                    doador == null ? null : new DoadorResumo(doador.getId(), doador.getNome(), doador.getTipoUsuario(),
+                            doador.getAvatarUrl(), doador.getCidade(), doador.getEstado()),
+                    destino == null ? null : new DestinoResumo(destino.getId(), destino.getNomeEstabelecimento()),
+                    d.getTitulo(), d.getDescricao(), d.getTipoAlimento(), d.getQuantidade(),
+                    d.getUnidade(), d.getDataValidade(), d.getDataColeta(), d.getCidade(),
+                    d.getEndereco(), d.getCep(), d.getRua(), d.getNumero(), d.getEstado(),
+                    d.getComplemento(), d.getLatitude(), d.getLongitude(), d.getImagem(),
+                    d.getCriadoEm(), d.getAtivo(), d.getVersao());
+        }
+
+        public static List<DoacaoResumo> de(List<Doacao> doacoes) {
+            return doacoes.stream().map(DoacaoResumo::de).toList();
+        }
+    }
 
+    public record DoadorResumo(Long id, String nome, TipoUsuario tipoUsuario, String avatarUrl,
+                               String cidade, String estado) {
+    }
+
+    public record DestinoResumo(Long id, String nomeEstabelecimento) {
+    }
+}
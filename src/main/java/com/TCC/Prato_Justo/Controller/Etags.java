@@ -0,0 +1,40 @@
+package com.TCC.Prato_Justo.Controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * ETags das respostas de leitura, montadas a partir da versão das entidades em vez do hash do corpo:
+ * a checagem do If-None-Match acontece antes de carregar e serializar a resposta.
+ * Forte quando o corpo sai de uma única linha versionada; fraca quando combina mais de uma.
+ */
+final class Etags {
+
+    private Etags() {
+    }
+
+    static String forte(String tipo, Object... partes) {
+        return "\"" + montar(tipo, partes) + "\"";
+    }
+
+    static String fraca(String tipo, Object... partes) {
+        return "W/\"" + montar(tipo, partes) + "\"";
+    }
+
+    /**
+     * 200 com o ETag e Cache-Control: no-cache (o cliente guarda, mas revalida a cada uso).
+     * Sem o cabeçalho explícito o Spring Security responde no-store e o cliente nunca reenvia o ETag.
+     */
+    static <T> ResponseEntity<T> ok(String etag, boolean privado, T corpo) {
+        CacheControl cache = privado ? CacheControl.noCache().cachePrivate() : CacheControl.noCache();
+        return ResponseEntity.ok().eTag(etag).cacheControl(cache).body(corpo);
+    }
+
+    private static String montar(String tipo, Object... partes) {
+        StringBuilder sb = new StringBuilder(tipo);
+        for (Object parte : partes) {
+            sb.append('-').append(parte != null ? parte : 0);
+        }
+        return sb.toString();
+    }
+}
@@ -1,24 +1,33 @@
 package com.TCC.Prato_Justo.Controller;
 
+import com.TCC.Prato_Justo.Model.TipoUsuario;
 import com.TCC.Prato_Justo.Model.Usuario;
 import com.TCC.Prato_Justo.Service.AuthService;
 import com.TCC.Prato_Justo.Service.FileUploadService;
+import com.TCC.Prato_Justo.Service.UsuarioEstatisticaService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/user")
 @CrossOrigin(origins = "*", allowedHeaders = "*", methods = {RequestMethod.GET, RequestMethod.POST, RequestMethod.PUT, RequestMethod.DELETE})
 public class UserController {
 
+    private static final Logger log = LoggerFactory.getLogger(UserController.class);
+
     @Autowired
     private AuthService authService;
 
@@ -26,7 +35,8 @@ public class UserController {
     private FileUploadService fileUploadService;
 
     @GetMapping("/me")
-    public ResponseEntity<?> getCurrentUser(@RequestHeader(value = "Authorization", required = false) String authHeader) {
+    public ResponseEntity<?> getCurrentUser(@RequestHeader(value = "Authorization", required = false) String authHeader,
+                                            WebRequest request) {
         try {
             if (authHeader == null || !authHeader.startsWith("Bearer ")) {
                 return ResponseEntity.status(401).body("Token não fornecido");
@@ -43,30 +53,7 @@ public class UserController {
                 return ResponseEntity.status(404).body("Usuário não encontrado");
             }
 
-            // Retornar dados do usuário sem a senha
-            Map<String, Object> userData = new HashMap<>();
-            userData.put("id", usuario.getId());
-            userData.put("nome", usuario.getNome());
-            userData.put("email", usuario.getEmail());
-            userData.put("telefone", usuario.getTelefone());
-            userData.put("tipoUsuario", usuario.getTipoUsuario());
-            userData.put("statusAtivo", usuario.getStatusAtivo());
-            userData.put("verificado", usuario.getVerificado());
-            userData.put("dataCadastro", usuario.getDataCadastro());
-            
-            // Campos de endereço
-            userData.put("rua", usuario.getRua());
-            userData.put("numero", usuario.getNumero());
-            userData.put("complemento", usuario.getComplemento());
-            userData.put("cidade", usuario.getCidade());
-            userData.put("estado", usuario.getEstado());
-            userData.put("cep", usuario.getCep());
-            
-            // Campos adicionais
-            userData.put("descricao", usuario.getDescricao());
-            userData.put("avatarUrl", usuario.getAvatarUrl());
-
-            return ResponseEntity.ok(userData);
+            return responderPerfil(usuario, request);
         } catch (Exception e) {
             return ResponseEntity.status(500).body("Erro interno: " + e.getMessage());
         }
@@ -82,13 +69,8 @@ public class UserController {
 
             Usuario usuario = authService.getCurrentUser(null); // Será obtido do contexto de segurança
 
-            Map<String, Object> userData = new HashMap<>();
-            userData.put("id", usuario.getId());
-            userData.put("nome", usuario.getNome());
-            userData.put("email", usuario.getEmail());
-            userData.put("tipoUsuario", usuario.getTipoUsuario());
-
-            return ResponseEntity.ok(userData);
+            return ResponseEntity.ok(new UsuarioBasico(usuario.getId(), usuario.getNome(),
+                    usuario.getEmail(), usuario.getTipoUsuario()));
         } catch (Exception e) {
             return ResponseEntity.status(500).body("Erro interno: " + e.getMessage());
         }
@@ -98,9 +80,9 @@ public class UserController {
     public ResponseEntity<?> updateCurrentUser(@RequestBody Map<String, Object> updateData,
                                                @RequestHeader(value = "Authorization", required = false) String authHeader) {
         try {
-            System.out.println("=== DEBUG updateCurrentUser ===");
-            System.out.println("Dados recebidos: " + updateData);
-            
+            // Só os nomes dos campos: os valores são dados pessoais
+            log.debug("profile_update_received campos={}", updateData.keySet());
+
             if (authHeader == null || !authHeader.startsWith("Bearer ")) {
                 return ResponseEntity.status(401).body("Token não fornecido");
             }
@@ -116,8 +98,6 @@ public class UserController {
                 return ResponseEntity.status(404).body("Usuário não encontrado");
             }
 
-            System.out.println("Usuário encontrado: " + usuario.getId() + " - " + usuario.getNome());
-
             // Atualizar campos permitidos
             if (updateData.containsKey("nome") && updateData.get("nome") != null) {
                 usuario.setNome((String) updateData.get("nome"));
@@ -157,46 +137,20 @@ public class UserController {
                 usuario.setAvatarUrl((String) updateData.get("avatarUrl"));
             }
 
-            System.out.println("Salvando usuário atualizado...");
-            
             // Salvar no banco de dados usando método específico para atualização
             Usuario usuarioAtualizado = authService.updateUserProfile(usuario);
-            
-            System.out.println("Usuário salvo com sucesso!");
-            
-            // Retornar dados atualizados
-            Map<String, Object> userData = new HashMap<>();
-            userData.put("id", usuarioAtualizado.getId());
-            userData.put("nome", usuarioAtualizado.getNome());
-            userData.put("email", usuarioAtualizado.getEmail());
-            userData.put("telefone", usuarioAtualizado.getTelefone());
-            userData.put("tipoUsuario", usuarioAtualizado.getTipoUsuario());
-            userData.put("statusAtivo", usuarioAtualizado.getStatusAtivo());
-            userData.put("verificado", usuarioAtualizado.getVerificado());
-            userData.put("dataCadastro", usuarioAtualizado.getDataCadastro());
-            
-            // Campos de endereço
-            userData.put("rua", usuarioAtualizado.getRua());
-            userData.put("numero", usuarioAtualizado.getNumero());
-            userData.put("complemento", usuarioAtualizado.getComplemento());
-            userData.put("cidade", usuarioAtualizado.getCidade());
-            userData.put("estado", usuarioAtualizado.getEstado());
-            userData.put("cep", usuarioAtualizado.getCep());
-            
-            // Campos adicionais
-            userData.put("descricao", usuarioAtualizado.getDescricao());
-            userData.put("avatarUrl", usuarioAtualizado.getAvatarUrl());
+            log.info("profile_updated usuario={}", usuarioAtualizado.getId());
 
-            return ResponseEntity.ok(userData);
+            return ResponseEntity.ok(UsuarioResposta.de(usuarioAtualizado));
         } catch (Exception e) {
-            e.printStackTrace();
-            System.err.println("Erro ao atualizar usuário: " + e.getMessage());
+            log.error("profile_update_failed erro=\"{}\"", e.getMessage(), e);
             return ResponseEntity.status(500).body("Erro interno: " + e.getMessage());
         }
     }
 
     @GetMapping("/me/stats")
-    public ResponseEntity<?> getUserStats(@RequestHeader(value = "Authorization", required = false) String authHeader) {
+    public ResponseEntity<?> getUserStats(@RequestParam(value = "verify", defaultValue = "false") boolean verify,
+                                          @RequestHeader(value = "Authorization", required = false) String authHeader) {
         try {
             if (authHeader == null || !authHeader.startsWith("Bearer ")) {
                 return ResponseEntity.status(401).body("Token não fornecido");
@@ -214,7 +168,7 @@ public class UserController {
             }
 
             // Buscar estatísticas do usuário
-            Map<String, Object> stats = authService.getUserStats(usuario.getId());
+            Map<String, Object> stats = authService.getUserStats(usuario.getId(), verify);
             
             return ResponseEntity.ok(stats);
         } catch (Exception e) {
@@ -224,7 +178,8 @@ public class UserController {
 
     @GetMapping("/{id}")
     public ResponseEntity<?> getUserById(@PathVariable Long id,
-                                         @RequestHeader(value = "Authorization", required = false) String authHeader) {
+                                         @RequestHeader(value = "Authorization", required = false) String authHeader,
+                                         WebRequest request) {
         try {
             if (authHeader == null || !authHeader.startsWith("Bearer ")) {
                 return ResponseEntity.status(401).body("Token não fornecido");
@@ -247,7 +202,43 @@ public class UserController {
                 return ResponseEntity.status(404).body("Usuário não encontrado");
             }
 
-            // Retornar dados do usuário sem a senha
+            return responderPerfil(targetUser, request);
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body("Erro interno: " + e.getMessage());
+        }
+    }
+
+    // O usuário já vem do cache de segundo nível: com o ETag batendo, nem o DTO é montado
+    private ResponseEntity<?> responderPerfil(Usuario usuario, WebRequest request) {
+        String etag = Etags.forte("usuario", usuario.getId(), "v" + usuario.getVersao());
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return Etags.ok(etag, true, UsuarioResposta.de(usuario));
+    }
+
+    // Perfil público e estatísticas servidos juntos a partir de uma única leitura
+    @GetMapping("/{id}/profile")
+    public ResponseEntity<?> getUserProfile(@PathVariable Long id,
+                                            @RequestParam(value = "verify", defaultValue = "false") boolean verify,
+                                            @RequestHeader(value = "Authorization", required = false) String authHeader) {
+        try {
+            if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+                return ResponseEntity.status(401).body("Token não fornecido");
+            }
+
+            String token = authHeader.substring(7);
+            
+            if (!authService.isTokenValid(token)) {
+                return ResponseEntity.status(401).body("Token inválido");
+            }
+
+            Optional<UsuarioEstatisticaService.PerfilEstatisticas> perfil = authService.getUserProfileWithStats(id);
+            if (perfil.isEmpty()) {
+                return ResponseEntity.status(404).body("Usuário não encontrado");
+            }
+
+            Usuario targetUser = perfil.get().getUsuario();
             Map<String, Object> userData = new HashMap<>();
             userData.put("id", targetUser.getId());
             userData.put("nome", targetUser.getNome());
@@ -257,15 +248,17 @@ public class UserController {
             userData.put("statusAtivo", targetUser.getStatusAtivo());
             userData.put("verificado", targetUser.getVerificado());
             userData.put("dataCadastro", targetUser.getDataCadastro());
-            userData.put("rua", targetUser.getRua());
-            userData.put("numero", targetUser.getNumero());
-            userData.put("complemento", targetUser.getComplemento());
             userData.put("cidade", targetUser.getCidade());
             userData.put("estado", targetUser.getEstado());
-            userData.put("cep", targetUser.getCep());
             userData.put("descricao", targetUser.getDescricao());
             userData.put("avatarUrl", targetUser.getAvatarUrl());
 
+            Map<String, Object> stats = authService.toStatsMap(perfil.get().getEstatistica());
+            if (verify) {
+                authService.adicionarVerificacao(stats, perfil.get().getEstatistica());
+            }
+            userData.put("stats", stats);
+
             return ResponseEntity.ok(userData);
         } catch (Exception e) {
             return ResponseEntity.status(500).body("Erro interno: " + e.getMessage());
@@ -276,11 +269,8 @@ public class UserController {
     public ResponseEntity<?> uploadAvatar(@RequestParam("avatar") MultipartFile file,
                                          @RequestHeader(value = "Authorization", required = false) String authHeader) {
         try {
-            System.out.println("=== UPLOAD DE AVATAR ===");
-            System.out.println("📸 Arquivo: " + file.getOriginalFilename());
-            System.out.println("📦 Tamanho: " + file.getSize() + " bytes");
-            System.out.println("🎨 Tipo: " + file.getContentType());
-            
+            log.debug("avatar_upload_received tamanho={} tipo={}", file.getSize(), file.getContentType());
+
             if (authHeader == null || !authHeader.startsWith("Bearer ")) {
                 return ResponseEntity.status(401).body("Token não fornecido");
             }
@@ -312,17 +302,32 @@ public class UserController {
             response.put("avatarUrl", usuarioAtualizado.getAvatarUrl());
             response.put("message", "Avatar atualizado com sucesso");
 
-            System.out.println("✅ Avatar salvo: " + avatarUrl);
-            
+            log.info("avatar_uploaded usuario={} url={}", usuario.getId(), avatarUrl);
+
             return ResponseEntity.ok(response);
         } catch (IOException e) {
-            e.printStackTrace();
-            System.err.println("❌ Erro de IO: " + e.getMessage());
+            log.warn("avatar_upload_failed erro=\"{}\"", e.getMessage(), e);
             return ResponseEntity.status(400).body("Erro ao fazer upload: " + e.getMessage());
         } catch (Exception e) {
-            e.printStackTrace();
-            System.err.println("❌ Erro interno: " + e.getMessage());
+            log.error("avatar_upload_failed erro=\"{}\"", e.getMessage(), e);
             return ResponseEntity.status(500).body("Erro interno: " + e.getMessage());
         }
     }
+
+    // Respostas imutáveis: o Jackson (com Blackbird) serializa direto dos componentes, sem montar mapas
+    public record UsuarioResposta(Long id, String nome, String email, String telefone, TipoUsuario tipoUsuario,
+                                  Boolean statusAtivo, Boolean verificado, LocalDateTime dataCadastro,
+                                  String rua, String numero, String complemento, String cidade, String estado,
+                                  String cep, String descricao, String avatarUrl) {
+
+        public static UsuarioResposta de(Usuario u) {
+            return new UsuarioResposta(u.getId(), u.getNome(), u.getEmail(), u.getTelefone(), u.getTipoUsuario(),
+                    u.getStatusAtivo(), u.getVerificado(), u.getDataCadastro(),
+                    u.getRua(), u.getNumero(), u.getComplemento(), u.getCidade(), u.getEstado(),
+                    u.getCep(), u.getDescricao(), u.getAvatarUrl());
+        }
+    }
+
+    public record UsuarioBasico(Long id, String nome, String email, TipoUsuario tipoUsuario) {
+    }
 }
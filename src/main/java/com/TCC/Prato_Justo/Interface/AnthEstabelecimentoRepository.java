@@ -1,13 +1,35 @@
 package com.TCC.Prato_Justo.Interface;
 
 import com.TCC.Prato_Justo.Model.Estabelecimento;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface AnthEstabelecimentoRepository extends JpaRepository<Estabelecimento, Long> {
     Optional<Estabelecimento> findBynomeEstabelecimentoAndSenhaEstabelecimentoAndEmail(String  nomeEstabelecimento, String senhaEstabelecimento, String email);
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     Optional<Estabelecimento> findByEmail(String email);
+
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
+    @Query("SELECT e.usuario.id FROM Estabelecimento e WHERE e.id = :id")
+    Optional<Long> findUsuarioIdById(@Param("id") Long id);
+
+    @Query("SELECT e FROM Estabelecimento e ORDER BY e.id")
+    Slice<Estabelecimento> findPagina(Pageable pageable);
+
+    // Candidatos de uma busca por raio: células da grade por igualdade, depois o retângulo envolvente
+    @Query("SELECT e FROM Estabelecimento e WHERE e.celulaGrade IN :celulas " +
+           "AND e.latitude BETWEEN :latMin AND :latMax AND e.longitude BETWEEN :lngMin AND :lngMax")
+    List<Estabelecimento> findNaGrade(@Param("celulas") List<Long> celulas,
+                                      @Param("latMin") double latMin, @Param("latMax") double latMax,
+                                      @Param("lngMin") double lngMin, @Param("lngMax") double lngMax);
 }
@@ -2,11 +2,28 @@ package com.TCC.Prato_Justo.Interface;
 
 
 import com.TCC.Prato_Justo.Model.Produto;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
-import java.util.List;
-import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface AnthProdutosRepository extends JpaRepository<Produto, Long> {
-     List<Produto> findByNameProdutoContainingIgnoreCase(String nameProduto);
+
+     // Página pela chave primária, sem COUNT: o total vem do índice de nomes
+     @Query("SELECT p FROM Produto p ORDER BY p.id")
+     Slice<Produto> findPagina(Pageable pageable);
+
+     // Só enquanto o índice de trigramas não está pronto: o LIKE com curinga no início varre a tabela
+     Page<Produto> findByNameProdutoContainingIgnoreCaseOrderById(String nameProduto, Pageable pageable);
+
+     // Id e nome de todos os produtos, lidos em cursor para reconstruir o índice sem carregar entidades
+     @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+     @Query("SELECT p.id, p.nameProduto FROM Produto p")
+     Stream<Object[]> streamNomes();
 }
@@ -7,7 +7,10 @@ import org.springframework.stereotype.Repository;
 import java.util.Optional;
 
 @Repository
-public interface AnthUsuarioRepository extends JpaRepository<Usuario, Long> {
+public interface AnthUsuarioRepository extends JpaRepository<Usuario, Long>, AnthUsuarioRepositoryCustom {
     Optional<Usuario> findByNomeAndSenhaUsuarioAndEmail(String nome, String senhaUsuario, String email);
+
+    // Implementado em AnthUsuarioRepositoryCustomImpl via natural-id
+    @Override
     Optional<Usuario> findByEmail(String email);
 }
@@ -0,0 +1,11 @@
+package com.TCC.Prato_Justo.Interface;
+
+import com.TCC.Prato_Justo.Model.Usuario;
+
+import java.util.Optional;
+
+public interface AnthUsuarioRepositoryCustom {
+
+    // Busca pelo natural-id (email), resolvida pelo cache de segundo nível quando possível
+    Optional<Usuario> findByEmail(String email);
+}
@@ -0,0 +1,27 @@
+package com.TCC.Prato_Justo.Interface;
+
+import com.TCC.Prato_Justo.Model.Usuario;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+public class AnthUsuarioRepositoryCustomImpl implements AnthUsuarioRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Usuario> findByEmail(String email) {
+        if (email == null) {
+            return Optional.empty();
+        }
+        // email -> id pelo cache de natural-id, id -> entidade pelo cache da entidade
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(Usuario.class)
+                .loadOptional(email);
+    }
+}
@@ -22,6 +22,10 @@ public interface AvaliacaoRepository extends JpaRepository<Avaliacao, Long> {
     // Contar avaliações recebidas por um usuário
     @Query("SELECT COUNT(a) FROM Avaliacao a JOIN a.estabelecimento e JOIN e.usuario u WHERE u.id = :usuarioId")
     int countByUserId(@Param("usuarioId") Long usuarioId);
+
+    // Somar notas recebidas por um usuário (base para a média incremental)
+    @Query("SELECT COALESCE(SUM(a.nota), 0) FROM Avaliacao a JOIN a.estabelecimento e JOIN e.usuario u WHERE u.id = :usuarioId")
+    long sumNotasByUserId(@Param("usuarioId") Long usuarioId);
 }
 
 
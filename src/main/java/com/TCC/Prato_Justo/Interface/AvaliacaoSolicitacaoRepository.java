@@ -3,6 +3,8 @@ package com.TCC.Prato_Justo.Interface;
 import com.TCC.Prato_Justo.Model.AvaliacaoSolicitacao;
 import com.TCC.Prato_Justo.Model.Solicitacao;
 import com.TCC.Prato_Justo.Model.Usuario;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -34,5 +36,13 @@ public interface AvaliacaoSolicitacaoRepository extends JpaRepository<AvaliacaoS
     
     @Query("SELECT COUNT(a) FROM AvaliacaoSolicitacao a WHERE a.avaliado.id = :usuarioId")
     Long countByAvaliadoId(@Param("usuarioId") Long usuarioId);
+
+    // Página de avaliações recebidas, mais recentes primeiro (Slice evita o COUNT)
+    @Query("SELECT a FROM AvaliacaoSolicitacao a WHERE a.avaliado.id = :usuarioId ORDER BY a.criadoEm DESC, a.id DESC")
+    Slice<AvaliacaoSolicitacao> findPaginaPorAvaliadoId(@Param("usuarioId") Long usuarioId, Pageable pageable);
+
+    // Contagem por nota, usada apenas para semear o agregado de reputação
+    @Query("SELECT a.nota, COUNT(a) FROM AvaliacaoSolicitacao a WHERE a.avaliado.id = :usuarioId GROUP BY a.nota")
+    List<Object[]> contarPorNota(@Param("usuarioId") Long usuarioId);
 }
 
@@ -15,13 +15,16 @@ public interface ChatRepository extends JpaRepository<Chat, Long> {
     Optional<Chat> findByToken(String token);
 
     // Buscar chats onde o usuário é participante (usuario1 ou usuario2)
-    @Query("SELECT c FROM Chat c WHERE (c.usuario1 = :usuario OR c.usuario2 = :usuario) AND c.ativo = true ORDER BY c.criadoEm DESC")
+    // A união permite usar um índice para cada posição em vez de varrer a tabela pelo OR
+    @Query("SELECT c FROM Chat c WHERE c.id IN (" +
+           "SELECT c1.id FROM Chat c1 WHERE c1.usuario1 = :usuario AND c1.ativo = true " +
+           "UNION SELECT c2.id FROM Chat c2 WHERE c2.usuario2 = :usuario AND c2.ativo = true) " +
+           "ORDER BY c.criadoEm DESC")
     List<Chat> findByUsuario(@Param("usuario") Usuario usuario);
 
     // Buscar chat entre dois usuários específicos
-    @Query("SELECT c FROM Chat c WHERE " +
-           "((c.usuario1 = :usuario1 AND c.usuario2 = :usuario2) OR " +
-           "(c.usuario1 = :usuario2 AND c.usuario2 = :usuario1)) AND c.ativo = true")
+    @Query("SELECT c FROM Chat c WHERE c.usuario1 IN (:usuario1, :usuario2) AND c.usuario2 IN (:usuario1, :usuario2) " +
+           "AND c.usuario1 <> c.usuario2 AND c.ativo = true")
     Optional<Chat> findChatEntreUsuarios(@Param("usuario1") Usuario usuario1, @Param("usuario2") Usuario usuario2);
 
     // Buscar chat por solicitação
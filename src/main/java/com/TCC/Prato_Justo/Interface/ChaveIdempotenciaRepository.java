@@ -0,0 +1,16 @@
+package com.TCC.Prato_Justo.Interface;
+
+import com.TCC.Prato_Justo.Model.ChaveIdempotencia;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+
+public interface ChaveIdempotenciaRepository extends JpaRepository<ChaveIdempotencia, String> {
+
+    @Modifying
+    @Query("DELETE FROM ChaveIdempotencia c WHERE c.criadoEm < :limite")
+    int removerAnterioresA(@Param("limite") LocalDateTime limite);
+}
@@ -0,0 +1,30 @@
+package com.TCC.Prato_Justo.Interface;
+
+import com.TCC.Prato_Justo.Model.DoacaoArquivada;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface DoacaoArquivadaRepository extends JpaRepository<DoacaoArquivada, Long> {
+
+    @Query("SELECT d FROM DoacaoArquivada d WHERE d.doador.id = :doadorId")
+    List<DoacaoArquivada> findByDoadorId(@Param("doadorId") Long doadorId);
+
+    @Query("SELECT COUNT(d) FROM DoacaoArquivada d WHERE d.doador.id = :usuarioId")
+    int countByDoadorId(@Param("usuarioId") Long usuarioId);
+
+    // Copia as linhas da tabela principal, preservando ids
+    @Modifying
+    @Query(value = "INSERT INTO doacao_arquivo (id_doacao, id_doador, id_estabelecimento, titulo, descricao, " +
+                   "tipo_alimento, quantidade, unidade, data_validade, data_coleta, cidade, endereco, cep, rua, " +
+                   "numero, estado, complemento, latitude, longitude, imagem_url, criado_em, ativo, versao, arquivado_em) " +
+                   "SELECT id_doacao, id_doador, id_estabelecimento, titulo, descricao, " +
+                   "tipo_alimento, quantidade, unidade, data_validade, data_coleta, cidade, endereco, cep, rua, " +
+                   "numero, estado, complemento, latitude, longitude, imagem_url, criado_em, ativo, versao, :agora " +
+                   "FROM doacao WHERE id_doacao IN (:ids)", nativeQuery = true)
+    int copiarDaTabelaPrincipal(@Param("ids") List<Long> ids, @Param("agora") LocalDateTime agora);
+}
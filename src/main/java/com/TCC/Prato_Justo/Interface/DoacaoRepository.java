@@ -1,10 +1,13 @@
 package com.TCC.Prato_Justo.Interface;
 
 import com.TCC.Prato_Justo.Model.Doacao;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface DoacaoRepository extends JpaRepository<Doacao, Long> {
@@ -19,7 +22,13 @@ public interface DoacaoRepository extends JpaRepository<Doacao, Long> {
     @Query("SELECT d FROM Doacao d WHERE d.ativo = true AND d.latitude IS NOT NULL AND d.longitude IS NOT NULL")
     List<Doacao> findAllComCoordenadas();
 
-    List<Doacao> findByDoadorId(Long doadorId);
+    // Só id e coordenadas das ativas, para reconstruir o agregado do mapa sem carregar as entidades
+    @Query("SELECT d.id, d.latitude, d.longitude FROM Doacao d WHERE d.ativo = true AND d.latitude IS NOT NULL AND d.longitude IS NOT NULL")
+    List<Object[]> findCoordenadasAtivas();
+
+    // Filtra pela chave estrangeira sem o LEFT JOIN em usuario que a consulta derivada gera
+    @Query("SELECT d FROM Doacao d WHERE d.doador.id = :doadorId")
+    List<Doacao> findByDoadorId(@Param("doadorId") Long doadorId);
     
     // Contar doações por usuário
     @Query("SELECT COUNT(d) FROM Doacao d WHERE d.doador.id = :usuarioId")
@@ -28,6 +37,25 @@ public interface DoacaoRepository extends JpaRepository<Doacao, Long> {
     // Contar doações ativas por usuário
     @Query("SELECT COUNT(d) FROM Doacao d WHERE d.doador.id = :usuarioId AND d.ativo = true")
     int countActiveByDoadorId(@Param("usuarioId") Long usuarioId);
-}
-
 
+    // Versões da doação, do doador e do estabelecimento de destino, lidas sem carregar a entidade (ETag de GET /doacoes/{id})
+    @Query("SELECT d.versao, u.versao, e.versao FROM Doacao d LEFT JOIN d.doador u LEFT JOIN d.estabelecimentoDestino e WHERE d.id = :id")
+    List<Object[]> findVersoes(@Param("id") Long id);
+
+    // Reserva a doação para um aceite: falha (0 linhas) se outra transação já a alterou
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Doacao d SET d.versao = d.versao + 1 WHERE d.id = :id AND d.versao = :versao AND d.ativo = true")
+    int reservarParaAceite(@Param("id") Long id, @Param("versao") Long versao);
+
+    // Inativas sem alteração desde o limite e sem solicitações na tabela principal (candidatas a arquivo).
+    // Linhas antigas sem data de atualização contam pela criação.
+    @Query("SELECT d.id FROM Doacao d WHERE d.ativo = false AND COALESCE(d.atualizadoEm, d.criadoEm) < :limite " +
+           "AND NOT EXISTS (SELECT 1 FROM Solicitacao s WHERE s.doacao = d) ORDER BY d.id")
+    List<Long> findIdsParaArquivar(@Param("limite") LocalDateTime limite, Pageable pageable);
+
+    // Remove as linhas copiadas para o arquivo, desde que continuem elegíveis
+    @Modifying
+    @Query("DELETE FROM Doacao d WHERE d.id IN :ids AND d.ativo = false AND COALESCE(d.atualizadoEm, d.criadoEm) < :limite " +
+           "AND NOT EXISTS (SELECT 1 FROM Solicitacao s WHERE s.doacao = d)")
+    int removerArquivadas(@Param("ids") List<Long> ids, @Param("limite") LocalDateTime limite);
+}
@@ -10,9 +10,13 @@ import java.util.List;
 
 public interface MensagemRepository extends JpaRepository<Mensagem, Long> {
 
-    @Query("SELECT m FROM Mensagem m WHERE (m.remetente = :a AND m.destinatario = :b) OR (m.remetente = :b AND m.destinatario = :a) ORDER BY m.criadoEm ASC")
+    @Query("SELECT m FROM Mensagem m WHERE m.remetente IN (:a, :b) AND m.destinatario IN (:a, :b) " +
+           "AND m.remetente <> m.destinatario ORDER BY m.criadoEm ASC")
     List<Mensagem> conversaEntre(@Param("a") Usuario a, @Param("b") Usuario b);
-    @Query("SELECT DISTINCT CASE WHEN m.remetente = :u THEN m.destinatario ELSE m.remetente END " +
-           "FROM Mensagem m WHERE m.remetente = :u OR m.destinatario = :u")
+
+    // Usuários com quem :u trocou mensagens; cada lado da união usa o índice de remetente ou de destinatário
+    @Query("SELECT u FROM Usuario u WHERE u.id IN (" +
+           "SELECT m.destinatario.id FROM Mensagem m WHERE m.remetente = :u " +
+           "UNION SELECT m.remetente.id FROM Mensagem m WHERE m.destinatario = :u)")
     List<Usuario> findContacts(@Param("u") Usuario u);
 }
@@ -0,0 +1,57 @@
+package com.TCC.Prato_Justo.Interface;
+
+import com.TCC.Prato_Justo.Model.ReputacaoUsuario;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ReputacaoUsuarioRepository extends JpaRepository<ReputacaoUsuario, Long> {
+
+    // Total e carimbo de atualização do agregado, para responder 304 sem ler a linha inteira
+    @Query("SELECT r.totalAvaliacoes, r.atualizadoEm FROM ReputacaoUsuario r WHERE r.usuarioId = :usuarioId")
+    List<Object[]> findVersao(@Param("usuarioId") Long usuarioId);
+
+    // Incremento atômico de soma, contagem e da faixa correspondente do histograma
+    @Modifying
+    @Query("UPDATE ReputacaoUsuario r SET r.somaNotas = r.somaNotas + :nota, " +
+           "r.totalAvaliacoes = r.totalAvaliacoes + 1, " +
+           "r.notas1 = r.notas1 + :n1, r.notas2 = r.notas2 + :n2, r.notas3 = r.notas3 + :n3, " +
+           "r.notas4 = r.notas4 + :n4, r.notas5 = r.notas5 + :n5, " +
+           "r.atualizadoEm = :agora WHERE r.usuarioId = :usuarioId")
+    int registrarNota(@Param("usuarioId") Long usuarioId,
+                      @Param("nota") long nota,
+                      @Param("n1") long n1,
+                      @Param("n2") long n2,
+                      @Param("n3") long n3,
+                      @Param("n4") long n4,
+                      @Param("n5") long n5,
+                      @Param("agora") LocalDateTime agora);
+
+    // Semeia a linha com o recálculo; se outra transação a criou antes, soma só a nota desta avaliação
+    @Modifying
+    @Query(value = "INSERT INTO reputacao_usuario (id_usuario, soma_notas, total_avaliacoes, notas_1, notas_2, notas_3, notas_4, notas_5, atualizado_em) " +
+                   "VALUES (:usuarioId, :somaNotas, :totalAvaliacoes, :notas1, :notas2, :notas3, :notas4, :notas5, :agora) " +
+                   "ON DUPLICATE KEY UPDATE soma_notas = soma_notas + :nota, total_avaliacoes = total_avaliacoes + 1, " +
+                   "notas_1 = notas_1 + :n1, notas_2 = notas_2 + :n2, notas_3 = notas_3 + :n3, " +
+                   "notas_4 = notas_4 + :n4, notas_5 = notas_5 + :n5, atualizado_em = :agora",
+           nativeQuery = true)
+    int semear(@Param("usuarioId") Long usuarioId,
+               @Param("somaNotas") long somaNotas,
+               @Param("totalAvaliacoes") long totalAvaliacoes,
+               @Param("notas1") long notas1,
+               @Param("notas2") long notas2,
+               @Param("notas3") long notas3,
+               @Param("notas4") long notas4,
+               @Param("notas5") long notas5,
+               @Param("nota") long nota,
+               @Param("n1") long n1,
+               @Param("n2") long n2,
+               @Param("n3") long n3,
+               @Param("n4") long n4,
+               @Param("n5") long n5,
+               @Param("agora") LocalDateTime agora);
+}
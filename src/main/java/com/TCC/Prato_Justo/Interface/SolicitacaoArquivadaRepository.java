@@ -0,0 +1,25 @@
+package com.TCC.Prato_Justo.Interface;
+
+import com.TCC.Prato_Justo.Model.SolicitacaoArquivada;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface SolicitacaoArquivadaRepository extends JpaRepository<SolicitacaoArquivada, Long> {
+
+    @Query("SELECT s FROM SolicitacaoArquivada s WHERE s.solicitante.id = :solicitanteId")
+    List<SolicitacaoArquivada> findBySolicitanteId(@Param("solicitanteId") Long solicitanteId);
+
+    // Copia as linhas da tabela principal, preservando ids
+    @Modifying
+    @Query(value = "INSERT INTO solicitacao_arquivo (id_solicitacao, id_doacao, id_solicitante, status, " +
+                   "data_solicitacao, data_atualizacao, versao, arquivado_em) " +
+                   "SELECT id_solicitacao, id_doacao, id_solicitante, status, " +
+                   "data_solicitacao, data_atualizacao, versao, :agora " +
+                   "FROM solicitacao WHERE id_solicitacao IN (:ids)", nativeQuery = true)
+    int copiarDaTabelaPrincipal(@Param("ids") List<Long> ids, @Param("agora") LocalDateTime agora);
+}
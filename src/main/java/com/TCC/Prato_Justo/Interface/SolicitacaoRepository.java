@@ -1,10 +1,14 @@
 package com.TCC.Prato_Justo.Interface;
 
 import com.TCC.Prato_Justo.Model.Solicitacao;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -24,5 +28,48 @@ public interface SolicitacaoRepository extends JpaRepository<Solicitacao, Long>
     
     @Query("SELECT s FROM Solicitacao s WHERE s.doacao.doador.id = :doadorId")
     List<Solicitacao> findByDoacaoDoadorId(@Param("doadorId") Long doadorId);
-}
 
+    // Transição condicional: só altera se o status atual ainda for o esperado
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Solicitacao s SET s.status = :novo, s.dataAtualizacao = :agora, s.versao = s.versao + 1 " +
+           "WHERE s.id = :id AND s.status = :atual")
+    int transicionarStatus(@Param("id") Long id,
+                           @Param("atual") com.TCC.Prato_Justo.Model.StatusSolicitacao atual,
+                           @Param("novo") com.TCC.Prato_Justo.Model.StatusSolicitacao novo,
+                           @Param("agora") LocalDateTime agora);
+
+    // Cancela de uma vez as demais solicitações pendentes da doação
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Solicitacao s SET s.status = com.TCC.Prato_Justo.Model.StatusSolicitacao.CANCELADA, " +
+           "s.dataAtualizacao = :agora, s.versao = s.versao + 1 " +
+           "WHERE s.doacao.id = :doacaoId AND s.id <> :aceitaId " +
+           "AND s.status = com.TCC.Prato_Justo.Model.StatusSolicitacao.SOLICITADA")
+    int cancelarPendentesDaDoacao(@Param("doacaoId") Long doacaoId,
+                                  @Param("aceitaId") Long aceitaId,
+                                  @Param("agora") LocalDateTime agora);
+
+    // Reativa a solicitação cancelada do par (doação, solicitante), se existir
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Solicitacao s SET s.status = com.TCC.Prato_Justo.Model.StatusSolicitacao.SOLICITADA, " +
+           "s.dataAtualizacao = :agora, s.versao = s.versao + 1 " +
+           "WHERE s.doacao.id = :doacaoId AND s.solicitante.id = :solicitanteId " +
+           "AND s.status = com.TCC.Prato_Justo.Model.StatusSolicitacao.CANCELADA")
+    int reativarCancelada(@Param("doacaoId") Long doacaoId,
+                          @Param("solicitanteId") Long solicitanteId,
+                          @Param("agora") LocalDateTime agora);
+
+    // Encerradas (última mudança de status) antes do limite e sem chat ou avaliação apontando para elas (candidatas
+    // a arquivo). Linhas antigas sem data de atualização contam pela data da solicitação.
+    @Query("SELECT s.id FROM Solicitacao s WHERE s.status IN (com.TCC.Prato_Justo.Model.StatusSolicitacao.CONCLUIDA, " +
+           "com.TCC.Prato_Justo.Model.StatusSolicitacao.CANCELADA) AND COALESCE(s.dataAtualizacao, s.dataSolicitacao) < :limite " +
+           "AND NOT EXISTS (SELECT 1 FROM Chat c WHERE c.solicitacao = s) " +
+           "AND NOT EXISTS (SELECT 1 FROM AvaliacaoSolicitacao a WHERE a.solicitacao = s) ORDER BY s.id")
+    List<Long> findIdsParaArquivar(@Param("limite") LocalDateTime limite, Pageable pageable);
+
+    // Remove as linhas copiadas para o arquivo, desde que continuem elegíveis
+    @Modifying
+    @Query("DELETE FROM Solicitacao s WHERE s.id IN :ids AND s.status IN (com.TCC.Prato_Justo.Model.StatusSolicitacao.CONCLUIDA, " +
+           "com.TCC.Prato_Justo.Model.StatusSolicitacao.CANCELADA) AND COALESCE(s.dataAtualizacao, s.dataSolicitacao) < :limite")
+    int removerArquivadas(@Param("ids") List<Long> ids, @Param("limite") LocalDateTime limite);
+}
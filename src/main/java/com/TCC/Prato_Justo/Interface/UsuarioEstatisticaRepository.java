@@ -0,0 +1,53 @@
+package com.TCC.Prato_Justo.Interface;
+
+import com.TCC.Prato_Justo.Model.UsuarioEstatistica;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface UsuarioEstatisticaRepository extends JpaRepository<UsuarioEstatistica, Long> {
+
+    // Incremento atômico dos contadores de doação (deltas podem ser negativos)
+    @Modifying
+    @Query("UPDATE UsuarioEstatistica s SET s.totalDoacoes = s.totalDoacoes + :total, " +
+           "s.doacoesAtivas = s.doacoesAtivas + :ativas, s.atualizadoEm = :agora WHERE s.usuarioId = :usuarioId")
+    int incrementarDoacoes(@Param("usuarioId") Long usuarioId,
+                           @Param("total") int total,
+                           @Param("ativas") int ativas,
+                           @Param("agora") LocalDateTime agora);
+
+    // Incremento atômico da soma e da contagem de notas recebidas
+    @Modifying
+    @Query("UPDATE UsuarioEstatistica s SET s.somaNotas = s.somaNotas + :nota, " +
+           "s.totalAvaliacoes = s.totalAvaliacoes + 1, s.atualizadoEm = :agora WHERE s.usuarioId = :usuarioId")
+    int registrarAvaliacao(@Param("usuarioId") Long usuarioId,
+                           @Param("nota") long nota,
+                           @Param("agora") LocalDateTime agora);
+
+    // Semeia a linha com o recálculo; se outra transação a criou antes, soma só os deltas desta escrita.
+    // Uma instrução só: a chave duplicada não chega a virar exceção nem marca a transação para rollback.
+    @Modifying
+    @Query(value = "INSERT INTO usuario_estatistica (id_usuario, total_doacoes, doacoes_ativas, soma_notas, total_avaliacoes, atualizado_em) " +
+                   "VALUES (:usuarioId, :totalDoacoes, :doacoesAtivas, :somaNotas, :totalAvaliacoes, :agora) " +
+                   "ON DUPLICATE KEY UPDATE total_doacoes = total_doacoes + :deltaTotal, doacoes_ativas = doacoes_ativas + :deltaAtivas, " +
+                   "soma_notas = soma_notas + :deltaNotas, total_avaliacoes = total_avaliacoes + :deltaAvaliacoes, atualizado_em = :agora",
+           nativeQuery = true)
+    int semear(@Param("usuarioId") Long usuarioId,
+               @Param("totalDoacoes") int totalDoacoes,
+               @Param("doacoesAtivas") int doacoesAtivas,
+               @Param("somaNotas") long somaNotas,
+               @Param("totalAvaliacoes") int totalAvaliacoes,
+               @Param("deltaTotal") int deltaTotal,
+               @Param("deltaAtivas") int deltaAtivas,
+               @Param("deltaNotas") long deltaNotas,
+               @Param("deltaAvaliacoes") int deltaAvaliacoes,
+               @Param("agora") LocalDateTime agora);
+
+    // Perfil e estatísticas numa única leitura por chave primária
+    @Query("SELECT u, s FROM Usuario u LEFT JOIN UsuarioEstatistica s ON s.usuarioId = u.id WHERE u.id = :usuarioId")
+    List<Object[]> findPerfilComEstatisticas(@Param("usuarioId") Long usuarioId);
+}
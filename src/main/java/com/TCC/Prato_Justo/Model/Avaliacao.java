@@ -1,10 +1,13 @@
 package com.TCC.Prato_Justo.Model;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "avaliacao")
+@Table(name = "avaliacao", indexes = {
+    @Index(name = "idx_avaliacao_estabelecimento", columnList = "id_estabelecimento")
+})
 public class Avaliacao {
 
     @Id
@@ -14,10 +17,12 @@ public class Avaliacao {
 
     @ManyToOne(optional = false)
     @JoinColumn(name = "id_usuario")
+    @JsonIgnoreProperties({"senhaUsuario", "password", "dataCadastro", "statusAtivo", "verificado"})
     private Usuario usuario;
 
     @ManyToOne(optional = false)
     @JoinColumn(name = "id_estabelecimento")
+    @JsonIgnoreProperties({"senhaEstabelecimento", "usuario"})
     private Estabelecimento estabelecimento;
 
     @Column(name = "nota", nullable = false)
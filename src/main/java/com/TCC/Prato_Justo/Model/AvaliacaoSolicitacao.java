@@ -5,7 +5,12 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "avaliacao_solicitacao")
+@Table(name = "avaliacao_solicitacao", indexes = {
+    // Avaliações recebidas paginadas por data; avaliações por solicitação e autor
+    @Index(name = "idx_avaliacao_sol_avaliado_criado", columnList = "id_avaliado, criado_em, id_avaliacao"),
+    @Index(name = "idx_avaliacao_sol_solicitacao_avaliador", columnList = "id_solicitacao, id_avaliador"),
+    @Index(name = "idx_avaliacao_sol_avaliador", columnList = "id_avaliador")
+})
 public class AvaliacaoSolicitacao {
 
     @Id
@@ -20,12 +25,12 @@ public class AvaliacaoSolicitacao {
 
     @ManyToOne(optional = false, fetch = FetchType.EAGER)
     @JoinColumn(name = "id_avaliador")
-    @JsonIgnoreProperties({"senhaUsuario", "dataCadastro", "statusAtivo", "verificado"})
+    @JsonIgnoreProperties({"senhaUsuario", "password", "dataCadastro", "statusAtivo", "verificado"})
     private Usuario avaliador;
 
     @ManyToOne(optional = false, fetch = FetchType.EAGER)
     @JoinColumn(name = "id_avaliado")
-    @JsonIgnoreProperties({"senhaUsuario", "dataCadastro", "statusAtivo", "verificado"})
+    @JsonIgnoreProperties({"senhaUsuario", "password", "dataCadastro", "statusAtivo", "verificado"})
     private Usuario avaliado;
 
     @Column(name = "nota", nullable = false)
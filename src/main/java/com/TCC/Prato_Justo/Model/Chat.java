@@ -6,7 +6,12 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "chat")
+@Table(name = "chat", indexes = {
+    // Chats ativos de um usuário, em qualquer das duas posições
+    @Index(name = "idx_chat_usuario1_ativo", columnList = "id_usuario1, ativo, criado_em"),
+    @Index(name = "idx_chat_usuario2_ativo", columnList = "id_usuario2, ativo, criado_em"),
+    @Index(name = "idx_chat_solicitacao", columnList = "id_solicitacao")
+})
 public class Chat {
 
     @Id
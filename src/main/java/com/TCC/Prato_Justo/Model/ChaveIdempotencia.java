@@ -0,0 +1,49 @@
+package com.TCC.Prato_Justo.Model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Idempotency-Key já processada por um usuário: repetições da mesma chave
+ * devolvem o recurso criado na primeira vez em vez de executar a operação de novo.
+ */
+@Entity
+@Table(name = "chave_idempotencia", indexes = {
+    @Index(name = "idx_chave_idempotencia_criado", columnList = "criado_em")
+})
+public class ChaveIdempotencia {
+
+    @Id
+    @Column(name = "chave", length = 150)
+    private String chave;
+
+    @Column(name = "operacao", length = 100, nullable = false)
+    private String operacao;
+
+    @Column(name = "id_recurso", nullable = false)
+    private Long recursoId;
+
+    @Column(name = "criado_em", nullable = false)
+    private LocalDateTime criadoEm = LocalDateTime.now();
+
+    public ChaveIdempotencia() {
+    }
+
+    public ChaveIdempotencia(String chave, String operacao, Long recursoId) {
+        this.chave = chave;
+        this.operacao = operacao;
+        this.recursoId = recursoId;
+    }
+
+    public String getChave() { return chave; }
+    public void setChave(String chave) { this.chave = chave; }
+
+    public String getOperacao() { return operacao; }
+    public void setOperacao(String operacao) { this.operacao = operacao; }
+
+    public Long getRecursoId() { return recursoId; }
+    public void setRecursoId(Long recursoId) { this.recursoId = recursoId; }
+
+    public LocalDateTime getCriadoEm() { return criadoEm; }
+    public void setCriadoEm(LocalDateTime criadoEm) { this.criadoEm = criadoEm; }
+}
@@ -2,11 +2,18 @@ package com.TCC.Prato_Justo.Model;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "doacao")
+@Table(name = "doacao", indexes = {
+    // Listagem de ativas ordenada por data e filtros por cidade (DoacaoRepository)
+    @Index(name = "idx_doacao_ativo_criado", columnList = "ativo, criado_em"),
+    @Index(name = "idx_doacao_ativo_cidade", columnList = "ativo, cidade"),
+    // Doações e contagens por doador
+    @Index(name = "idx_doacao_doador_ativo", columnList = "id_doador, ativo")
+})
 public class Doacao {
 
     @Id
@@ -78,9 +85,18 @@ public class Doacao {
     @Column(name = "criado_em", nullable = false)
     private LocalDateTime criadoEm = LocalDateTime.now();
 
+    // Última alteração pela entidade (inclui a inativação); o arquivamento conta a idade a partir daqui
+    @Column(name = "atualizado_em")
+    private LocalDateTime atualizadoEm;
+
     @Column(name = "ativo", nullable = false)
     private Boolean ativo = true;
 
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "versao", nullable = false)
+    private Long versao;
+
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
 
@@ -146,6 +162,14 @@ public class Doacao {
 
     public Boolean getAtivo() { return ativo; }
     public void setAtivo(Boolean ativo) { this.ativo = ativo; }
-}
 
+    public LocalDateTime getAtualizadoEm() { return atualizadoEm; }
 
+    public Long getVersao() { return versao; }
+
+    @PrePersist
+    @PreUpdate
+    void marcarAtualizacao() {
+        atualizadoEm = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,124 @@
+package com.TCC.Prato_Justo.Model;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Doação inativa movida da tabela doacao pelo arquivamento. Mantém o mesmo id e as mesmas
+ * colunas; é somente leitura e volta para a API convertida em {@link Doacao}.
+ */
+@Entity
+@Table(name = "doacao_arquivo", indexes = {
+    @Index(name = "idx_doacao_arquivo_doador", columnList = "id_doador")
+})
+public class DoacaoArquivada {
+
+    @Id
+    @Column(name = "id_doacao")
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.EAGER)
+    @JoinColumn(name = "id_doador", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private Usuario doador;
+
+    @ManyToOne(fetch = FetchType.EAGER)
+    @JoinColumn(name = "id_estabelecimento", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private Estabelecimento estabelecimentoDestino;
+
+    @Column(name = "titulo", length = 150, nullable = false)
+    private String titulo;
+
+    @Column(name = "descricao", columnDefinition = "TEXT")
+    private String descricao;
+
+    @Column(name = "tipo_alimento", length = 80)
+    private String tipoAlimento;
+
+    @Column(name = "quantidade")
+    private Double quantidade;
+
+    @Column(name = "unidade", length = 20)
+    private String unidade;
+
+    @Column(name = "data_validade")
+    private LocalDate dataValidade;
+
+    @Column(name = "data_coleta")
+    private LocalDate dataColeta;
+
+    @Column(name = "cidade", length = 100)
+    private String cidade;
+
+    @Column(name = "endereco", length = 255)
+    private String endereco;
+
+    @Column(name = "cep", length = 10)
+    private String cep;
+
+    @Column(name = "rua", length = 255)
+    private String rua;
+
+    @Column(name = "numero", length = 20)
+    private String numero;
+
+    @Column(name = "estado", length = 2)
+    private String estado;
+
+    @Column(name = "complemento", length = 100)
+    private String complemento;
+
+    @Column(name = "latitude", columnDefinition = "DECIMAL(10,8)")
+    private Double latitude;
+
+    @Column(name = "longitude", columnDefinition = "DECIMAL(11,8)")
+    private Double longitude;
+
+    @Column(name = "imagem_url", length = 500)
+    private String imagem;
+
+    @Column(name = "criado_em", nullable = false)
+    private LocalDateTime criadoEm;
+
+    @Column(name = "ativo", nullable = false)
+    private Boolean ativo;
+
+    @Column(name = "versao", nullable = false)
+    private Long versao;
+
+    @Column(name = "arquivado_em", nullable = false)
+    private LocalDateTime arquivadoEm;
+
+    public Long getId() { return id; }
+    public Usuario getDoador() { return doador; }
+    public LocalDateTime getCriadoEm() { return criadoEm; }
+    public LocalDateTime getArquivadoEm() { return arquivadoEm; }
+
+    // Mesma representação das doações ainda na tabela principal
+    public Doacao toDoacao() {
+        Doacao d = new Doacao();
+        d.setId(id);
+        d.setDoador(doador);
+        d.setEstabelecimentoDestino(estabelecimentoDestino);
+        d.setTitulo(titulo);
+        d.setDescricao(descricao);
+        d.setTipoAlimento(tipoAlimento);
+        d.setQuantidade(quantidade);
+        d.setUnidade(unidade);
+        d.setDataValidade(dataValidade);
+        d.setDataColeta(dataColeta);
+        d.setCidade(cidade);
+        d.setEndereco(endereco);
+        d.setCep(cep);
+        d.setRua(rua);
+        d.setNumero(numero);
+        d.setEstado(estado);
+        d.setComplemento(complemento);
+        d.setLatitude(latitude);
+        d.setLongitude(longitude);
+        d.setImagem(imagem);
+        d.setCriadoEm(criadoEm);
+        d.setAtivo(ativo);
+        return d;
+    }
+}
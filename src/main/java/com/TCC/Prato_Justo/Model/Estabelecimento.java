@@ -1,9 +1,18 @@
 package com.TCC.Prato_Justo.Model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 
 @Entity
-@Table(name = "estabelecimento")
+@Table(name = "estabelecimento", indexes = {
+    @Index(name = "idx_estabelecimento_usuario", columnList = "id_usuario"),
+    @Index(name = "idx_estabelecimento_celula", columnList = "celula_grade")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Estabelecimento {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -28,17 +37,29 @@ public class Estabelecimento {
     @Column(name = "endereco_completo", columnDefinition = "TEXT", nullable = false)
     private String enderecoCompleto;
 
-//    @Column(name = "latitude", columnDefinition = "DECIMAL(10,8)")
-//    private Double latitude;
-//
-//    @Column(name = "longitude", columnDefinition = "DECIMAL(11,8)")
-//    private Double longitude;
+    @Column(name = "latitude", columnDefinition = "DECIMAL(10,8)")
+    private Double latitude;
+
+    @Column(name = "longitude", columnDefinition = "DECIMAL(11,8)")
+    private Double longitude;
+
+    // Célula da GradeGeografica calculada a partir das coordenadas; indexada para buscas por raio
+    @JsonIgnore
+    @Column(name = "celula_grade")
+    private Long celulaGrade;
 
     // Relacionamento: cada estabelecimento pertence a um usuário
     @ManyToOne
     @JoinColumn(name = "id_usuario", nullable = false)
     private Usuario usuario;
 
+    // Muda a cada atualização da linha; entra no ETag das doações que apontam para o estabelecimento
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "versao", nullable = false)
+    @JsonIgnore
+    private Long versao;
+
     // Getters e setters
 
 
@@ -66,21 +87,29 @@ public class Estabelecimento {
         this.enderecoCompleto = enderecoCompleto;
     }
 
-//    public Double getLatitude() {
-//        return latitude;
-//    }
-//
-//    public void setLatitude(Double latitude) {
-//        this.latitude = latitude;
-//    }
-//
-//    public Double getLongitude() {
-//        return longitude;
-//    }
-//
-//    public void setLongitude(Double longitude) {
-//        this.longitude = longitude;
-//    }
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+
+    public Long getCelulaGrade() {
+        return celulaGrade;
+    }
+
+    public void setCelulaGrade(Long celulaGrade) {
+        this.celulaGrade = celulaGrade;
+    }
 
 
     public String getEmail() {
@@ -122,4 +151,12 @@ public class Estabelecimento {
     public void setUsuario(Usuario usuario) {
         this.usuario = usuario;
     }
+
+    public Long getVersao() {
+        return versao;
+    }
+
+    public void setVersao(Long versao) {
+        this.versao = versao;
+    }
 }
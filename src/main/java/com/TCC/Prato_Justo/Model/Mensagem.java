@@ -4,7 +4,11 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "mensagem")
+@Table(name = "mensagem", indexes = {
+    // Conversa entre dois usuários em ordem cronológica e lista de contatos
+    @Index(name = "idx_mensagem_remetente_destinatario_criado", columnList = "id_remetente, id_destinatario, criado_em"),
+    @Index(name = "idx_mensagem_destinatario_remetente", columnList = "id_destinatario, id_remetente")
+})
 public class Mensagem {
 
     @Id
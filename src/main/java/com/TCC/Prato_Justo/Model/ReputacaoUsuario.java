@@ -0,0 +1,106 @@
+package com.TCC.Prato_Justo.Model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Agregado de avaliações de solicitação recebidas por um usuário (soma, contagem e histograma),
+ * atualizado a cada nova avaliação para que média e distribuição não varram a tabela.
+ */
+@Entity
+@Table(name = "reputacao_usuario")
+public class ReputacaoUsuario {
+
+    @Id
+    @Column(name = "id_usuario")
+    private Long usuarioId;
+
+    @Column(name = "soma_notas", nullable = false)
+    private Long somaNotas = 0L;
+
+    @Column(name = "total_avaliacoes", nullable = false)
+    private Long totalAvaliacoes = 0L;
+
+    @Column(name = "notas_1", nullable = false)
+    private Long notas1 = 0L;
+
+    @Column(name = "notas_2", nullable = false)
+    private Long notas2 = 0L;
+
+    @Column(name = "notas_3", nullable = false)
+    private Long notas3 = 0L;
+
+    @Column(name = "notas_4", nullable = false)
+    private Long notas4 = 0L;
+
+    @Column(name = "notas_5", nullable = false)
+    private Long notas5 = 0L;
+
+    @Column(name = "atualizado_em", nullable = false)
+    private LocalDateTime atualizadoEm = LocalDateTime.now();
+
+    public ReputacaoUsuario() {
+    }
+
+    public ReputacaoUsuario(Long usuarioId) {
+        this.usuarioId = usuarioId;
+    }
+
+    public Long getUsuarioId() { return usuarioId; }
+    public void setUsuarioId(Long usuarioId) { this.usuarioId = usuarioId; }
+
+    public Long getSomaNotas() { return somaNotas; }
+    public void setSomaNotas(Long somaNotas) { this.somaNotas = somaNotas; }
+
+    public Long getTotalAvaliacoes() { return totalAvaliacoes; }
+    public void setTotalAvaliacoes(Long totalAvaliacoes) { this.totalAvaliacoes = totalAvaliacoes; }
+
+    public Long getNotas1() { return notas1; }
+    public void setNotas1(Long notas1) { this.notas1 = notas1; }
+
+    public Long getNotas2() { return notas2; }
+    public void setNotas2(Long notas2) { this.notas2 = notas2; }
+
+    public Long getNotas3() { return notas3; }
+    public void setNotas3(Long notas3) { this.notas3 = notas3; }
+
+    public Long getNotas4() { return notas4; }
+    public void setNotas4(Long notas4) { this.notas4 = notas4; }
+
+    public Long getNotas5() { return notas5; }
+    public void setNotas5(Long notas5) { this.notas5 = notas5; }
+
+    public LocalDateTime getAtualizadoEm() { return atualizadoEm; }
+    public void setAtualizadoEm(LocalDateTime atualizadoEm) { this.atualizadoEm = atualizadoEm; }
+
+    public double getMedia() {
+        return totalAvaliacoes != null && totalAvaliacoes > 0 ? (double) somaNotas / totalAvaliacoes : 0.0;
+    }
+
+    // Quantidade de avaliações por nota (1 a 5)
+    public Map<Integer, Long> getHistograma() {
+        Map<Integer, Long> histograma = new LinkedHashMap<>();
+        histograma.put(1, notas1);
+        histograma.put(2, notas2);
+        histograma.put(3, notas3);
+        histograma.put(4, notas4);
+        histograma.put(5, notas5);
+        return histograma;
+    }
+
+    // Soma uma nota ao agregado em memória (usado ao semear a partir da tabela)
+    public void adicionar(int nota, long quantidade) {
+        switch (nota) {
+            case 1 -> notas1 += quantidade;
+            case 2 -> notas2 += quantidade;
+            case 3 -> notas3 += quantidade;
+            case 4 -> notas4 += quantidade;
+            case 5 -> notas5 += quantidade;
+            default -> { return; }
+        }
+        somaNotas += nota * quantidade;
+        totalAvaliacoes += quantidade;
+    }
+}
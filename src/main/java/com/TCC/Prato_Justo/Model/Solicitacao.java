@@ -2,12 +2,23 @@ package com.TCC.Prato_Justo.Model;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "solicitacao")
+@Table(name = "solicitacao", uniqueConstraints = {
+    // Um solicitante tem no máximo uma solicitação por doação (canceladas são reativadas);
+    // também atende às buscas por doação
+    @UniqueConstraint(name = Solicitacao.RESTRICAO_DOACAO_SOLICITANTE, columnNames = {"id_doacao", "id_solicitante"})
+}, indexes = {
+    @Index(name = "idx_solicitacao_solicitante_status", columnList = "id_solicitante, status"),
+    // Seleção de encerradas para o arquivamento
+    @Index(name = "idx_solicitacao_status_atualizacao", columnList = "status, data_atualizacao")
+})
 public class Solicitacao {
 
+    public static final String RESTRICAO_DOACAO_SOLICITANTE = "uk_solicitacao_doacao_solicitante";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "id_solicitacao")
@@ -33,6 +44,11 @@ public class Solicitacao {
     @Column(name = "data_atualizacao")
     private LocalDateTime dataAtualizacao;
 
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "versao", nullable = false)
+    private Long versao;
+
     // Getters e Setters
     public Long getId() {
         return id;
@@ -82,5 +98,14 @@ public class Solicitacao {
     public void setDataAtualizacao(LocalDateTime dataAtualizacao) {
         this.dataAtualizacao = dataAtualizacao;
     }
-}
 
+    public Long getVersao() {
+        return versao;
+    }
+
+    // Mudanças de status pela entidade também marcam a data; as transições em lote já a definem na consulta
+    @PreUpdate
+    void marcarAtualizacao() {
+        dataAtualizacao = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,60 @@
+package com.TCC.Prato_Justo.Model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Solicitação encerrada (CONCLUIDA ou CANCELADA) movida da tabela solicitacao pelo arquivamento.
+ * A doação pode estar na tabela principal ou em doacao_arquivo, por isso guarda apenas o id.
+ */
+@Entity
+@Table(name = "solicitacao_arquivo", indexes = {
+    @Index(name = "idx_solicitacao_arquivo_solicitante", columnList = "id_solicitante")
+})
+public class SolicitacaoArquivada {
+
+    @Id
+    @Column(name = "id_solicitacao")
+    private Long id;
+
+    @Column(name = "id_doacao", nullable = false)
+    private Long doacaoId;
+
+    @ManyToOne(fetch = FetchType.EAGER)
+    @JoinColumn(name = "id_solicitante", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private Usuario solicitante;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private StatusSolicitacao status;
+
+    @Column(name = "data_solicitacao", nullable = false)
+    private LocalDateTime dataSolicitacao;
+
+    @Column(name = "data_atualizacao")
+    private LocalDateTime dataAtualizacao;
+
+    @Column(name = "versao", nullable = false)
+    private Long versao;
+
+    @Column(name = "arquivado_em", nullable = false)
+    private LocalDateTime arquivadoEm;
+
+    public Long getId() { return id; }
+    public Long getDoacaoId() { return doacaoId; }
+    public Usuario getSolicitante() { return solicitante; }
+    public StatusSolicitacao getStatus() { return status; }
+    public LocalDateTime getDataSolicitacao() { return dataSolicitacao; }
+    public LocalDateTime getArquivadoEm() { return arquivadoEm; }
+
+    public Solicitacao toSolicitacao(Doacao doacao) {
+        Solicitacao s = new Solicitacao();
+        s.setId(id);
+        s.setDoacao(doacao);
+        s.setSolicitante(solicitante);
+        s.setStatus(status);
+        s.setDataSolicitacao(dataSolicitacao);
+        s.setDataAtualizacao(dataAtualizacao);
+        return s;
+    }
+}
@@ -1,11 +1,19 @@
 package com.TCC.Prato_Justo.Model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "usuario")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@NaturalIdCache
 public class Usuario {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -15,6 +23,8 @@ public class Usuario {
     @Column(name = "nome", length = 100, nullable = false)
     private String nome;
 
+    // Natural-id mutável: o perfil permite trocar o email
+    @NaturalId(mutable = true)
     @Column(name = "email", length = 150, nullable = false, unique = true)
     private String email;
 
@@ -63,6 +73,13 @@ public class Usuario {
     @Column(name = "avatar_url", length = 255)
     private String avatarUrl;
 
+    // Muda a cada atualização da linha; base do ETag das respostas de perfil
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "versao", nullable = false)
+    @JsonIgnore
+    private Long versao;
+
     // Construtor
     public Usuario() {
         this.dataCadastro = LocalDateTime.now();
@@ -105,9 +122,9 @@ public class Usuario {
     // Métodos de senha
     public String getPassword() { return this.senhaUsuario; }
 
+    // Guarda a senha em claro; UsuarioService a codifica com HashSenhaService antes de persistir
     public void setPassword(String password) {
-        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
-        this.senhaUsuario = encoder.encode(password);
+        this.senhaUsuario = password;
     }
 
     // Getters e setters dos campos de endereço
@@ -136,4 +153,6 @@ public class Usuario {
     public String getAvatarUrl() { return avatarUrl; }
     public void setAvatarUrl(String avatarUrl) { this.avatarUrl = avatarUrl; }
 
+    public Long getVersao() { return versao; }
+
 }
@@ -0,0 +1,62 @@
+package com.TCC.Prato_Justo.Model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Contadores agregados por usuário, mantidos incrementalmente pelas escritas
+ * de doações e avaliações para que perfil e estatísticas sejam lidos por chave primária.
+ */
+@Entity
+@Table(name = "usuario_estatistica")
+public class UsuarioEstatistica {
+
+    @Id
+    @Column(name = "id_usuario")
+    private Long usuarioId;
+
+    @Column(name = "total_doacoes", nullable = false)
+    private Integer totalDoacoes = 0;
+
+    @Column(name = "doacoes_ativas", nullable = false)
+    private Integer doacoesAtivas = 0;
+
+    @Column(name = "soma_notas", nullable = false)
+    private Long somaNotas = 0L;
+
+    @Column(name = "total_avaliacoes", nullable = false)
+    private Integer totalAvaliacoes = 0;
+
+    @Column(name = "atualizado_em", nullable = false)
+    private LocalDateTime atualizadoEm = LocalDateTime.now();
+
+    public UsuarioEstatistica() {
+    }
+
+    public UsuarioEstatistica(Long usuarioId) {
+        this.usuarioId = usuarioId;
+    }
+
+    public Long getUsuarioId() { return usuarioId; }
+    public void setUsuarioId(Long usuarioId) { this.usuarioId = usuarioId; }
+
+    public Integer getTotalDoacoes() { return totalDoacoes; }
+    public void setTotalDoacoes(Integer totalDoacoes) { this.totalDoacoes = totalDoacoes; }
+
+    public Integer getDoacoesAtivas() { return doacoesAtivas; }
+    public void setDoacoesAtivas(Integer doacoesAtivas) { this.doacoesAtivas = doacoesAtivas; }
+
+    public Long getSomaNotas() { return somaNotas; }
+    public void setSomaNotas(Long somaNotas) { this.somaNotas = somaNotas; }
+
+    public Integer getTotalAvaliacoes() { return totalAvaliacoes; }
+    public void setTotalAvaliacoes(Integer totalAvaliacoes) { this.totalAvaliacoes = totalAvaliacoes; }
+
+    public LocalDateTime getAtualizadoEm() { return atualizadoEm; }
+    public void setAtualizadoEm(LocalDateTime atualizadoEm) { this.atualizadoEm = atualizadoEm; }
+
+    // Média calculada a partir dos contadores, sem consultar a tabela de avaliações
+    public double getMediaAvaliacoes() {
+        return totalAvaliacoes != null && totalAvaliacoes > 0 ? (double) somaNotas / totalAvaliacoes : 0.0;
+    }
+}
@@ -2,8 +2,10 @@ package com.TCC.Prato_Justo;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class Prato_JustoApplication {
     public static void main(String[] args) {
         SpringApplication.run(Prato_JustoApplication.class, args);
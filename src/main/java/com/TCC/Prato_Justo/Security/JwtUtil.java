@@ -1,96 +1,199 @@
 package com.TCC.Prato_Justo.Security;
 
+import com.TCC.Prato_Justo.Model.Usuario;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.function.Function;
-
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Emite e lê os tokens da aplicação. O token de acesso é curto e carrega id, papel e status do usuário,
+ * o que basta para montar o principal sem consultar o banco; o de renovação só serve em /auth/refresh.
+ */
 @Component
 public class JwtUtil {
 
+    public static final String TIPO_ACESSO = "access";
+    public static final String TIPO_RENOVACAO = "refresh";
+
+    private static final String CLAIM_USUARIO = "uid";
+    private static final String CLAIM_PAPEL = "role";
+    private static final String CLAIM_ATIVO = "status";
+    private static final String CLAIM_TIPO = "typ";
+
     @Value("${jwt.secret:mySecretKey123456789012345678901234567890}")
     private String secret;
 
-    @Value("${jwt.expiration:86400000}")
-    private Long expiration;
+    @Value("${jwt.access-expiration-ms:900000}")
+    private long expiracaoAcessoMs;
+
+    @Value("${jwt.refresh-expiration-ms:604800000}")
+    private long expiracaoRenovacaoMs;
+
+    private final RevogacaoTokens revogacaoTokens;
+    private final Timer leiturasValidas;
+    private final Timer leiturasInvalidas;
+
+    private volatile SecretKey chave;
+    private volatile JwtParser parser;
+
+    public JwtUtil(RevogacaoTokens revogacaoTokens, MeterRegistry meterRegistry) {
+        this.revogacaoTokens = revogacaoTokens;
+        this.leiturasValidas = timerLeitura(meterRegistry, "valid");
+        this.leiturasInvalidas = timerLeitura(meterRegistry, "invalid");
+    }
+
+    private static Timer timerLeitura(MeterRegistry meterRegistry, String resultado) {
+        return Timer.builder("jwt.parse")
+                .description("Verificação de assinatura e leitura dos claims")
+                .tag("result", resultado)
+                .register(meterRegistry);
+    }
 
     private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+        if (chave == null) {
+            chave = Keys.hmacShaKeyFor(secret.getBytes());
+        }
+        return chave;
     }
 
-    public String generateToken(UserDetails userDetails) {
-        Map<String, Object> claims = new HashMap<>();
-        return createToken(claims, userDetails.getUsername());
+    private JwtParser getParser() {
+        if (parser == null) {
+            parser = Jwts.parserBuilder().setSigningKey(getSigningKey()).build();
+        }
+        return parser;
     }
 
-    public String generateToken(Authentication authentication) {
-        Map<String, Object> claims = new HashMap<>();
-        return createToken(claims, authentication.getName());
+    public String gerarTokenAcesso(Usuario usuario) {
+        return criarToken(usuario, TIPO_ACESSO, expiracaoAcessoMs);
     }
 
-    public String generateToken(String username) {
-        Map<String, Object> claims = new HashMap<>();
-        return createToken(claims, username);
+    public String gerarTokenRenovacao(Usuario usuario) {
+        return criarToken(usuario, TIPO_RENOVACAO, expiracaoRenovacaoMs);
+    }
+
+    public long getExpiracaoAcessoMs() {
+        return expiracaoAcessoMs;
     }
 
-    private String createToken(Map<String, Object> claims, String subject) {
+    private String criarToken(Usuario usuario, String tipo, long expiracaoMs) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(CLAIM_USUARIO, usuario.getId());
+        claims.put(CLAIM_PAPEL, usuario.getTipoUsuario() != null ? usuario.getTipoUsuario().name() : null);
+        claims.put(CLAIM_ATIVO, !Boolean.FALSE.equals(usuario.getStatusAtivo()));
+        claims.put(CLAIM_TIPO, tipo);
+        long agora = System.currentTimeMillis();
         return Jwts.builder()
                 .setClaims(claims)
-                .setSubject(subject)
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + expiration))
+                .setId(UUID.randomUUID().toString())
+                .setSubject(usuario.getEmail())
+                .setIssuedAt(new Date(agora))
+                .setExpiration(new Date(agora + expiracaoMs))
                 .signWith(getSigningKey(), SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = getUsernameFromToken(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
-    }
-
-    public Boolean validateToken(String token) {
+    /**
+     * Lê e valida assinatura e expiração; vazio se o token for inválido. Não consulta a revogação.
+     */
+    public Optional<DadosToken> ler(String token) {
+        if (token == null || token.isBlank()) return Optional.empty();
+        long inicio = System.nanoTime();
         try {
-            Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token);
-            return true;
+            DadosToken dados = new DadosToken(getParser().parseClaimsJws(token).getBody());
+            leiturasValidas.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+            return Optional.of(dados);
         } catch (JwtException | IllegalArgumentException e) {
-            return false;
+            leiturasInvalidas.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+            return Optional.empty();
         }
     }
 
-    public String getUsernameFromToken(String token) {
-        return getClaimFromToken(token, Claims::getSubject);
+    /**
+     * Token de acesso válido, não revogado e de usuário ativo
+     */
+    public Optional<DadosToken> lerAcesso(String token) {
+        return ler(token).filter(d -> d.isAcesso() && d.isAtivo() && !revogacaoTokens.revogado(d));
     }
 
-    public Date getExpirationDateFromToken(String token) {
-        return getClaimFromToken(token, Claims::getExpiration);
+    public Boolean validateToken(String token) {
+        return lerAcesso(token).isPresent();
     }
 
-    public <T> T getClaimFromToken(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = getAllClaimsFromToken(token);
-        return claimsResolver.apply(claims);
-    }
+    public static class DadosToken {
+        private final String id;
+        private final String email;
+        private final Long usuarioId;
+        private final String papel;
+        private final boolean ativo;
+        private final String tipo;
+        private final Date emitidoEm;
+        private final Date expiraEm;
+
+        DadosToken(Claims claims) {
+            this.id = claims.getId();
+            this.email = claims.getSubject();
+            Number uid = claims.get(CLAIM_USUARIO, Number.class);
+            this.usuarioId = uid != null ? uid.longValue() : null;
+            this.papel = claims.get(CLAIM_PAPEL, String.class);
+            Boolean status = claims.get(CLAIM_ATIVO, Boolean.class);
+            this.ativo = !Boolean.FALSE.equals(status);
+            // Tokens emitidos antes destes claims eram todos de acesso
+            String typ = claims.get(CLAIM_TIPO, String.class);
+            this.tipo = typ != null ? typ : TIPO_ACESSO;
+            this.emitidoEm = claims.getIssuedAt();
+            this.expiraEm = claims.getExpiration();
+        }
 
-    private Claims getAllClaimsFromToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
+        public String getId() {
+            return id;
+        }
+
+        public String getEmail() {
+            return email;
+        }
 
-    private Boolean isTokenExpired(String token) {
-        final Date expiration = getExpirationDateFromToken(token);
-        return expiration.before(new Date());
+        public Long getUsuarioId() {
+            return usuarioId;
+        }
+
+        public String getPapel() {
+            return papel;
+        }
+
+        public boolean isAtivo() {
+            return ativo;
+        }
+
+        public boolean isAcesso() {
+            return TIPO_ACESSO.equals(tipo);
+        }
+
+        public boolean isRenovacao() {
+            return TIPO_RENOVACAO.equals(tipo);
+        }
+
+        // Tokens antigos não têm uid/role e ainda precisam do banco para montar o principal
+        public boolean isAutocontido() {
+            return usuarioId != null && papel != null;
+        }
+
+        public Date getEmitidoEm() {
+            return emitidoEm;
+        }
+
+        public Date getExpiraEm() {
+            return expiraEm;
+        }
     }
 }
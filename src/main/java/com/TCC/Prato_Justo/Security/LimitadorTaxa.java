@@ -0,0 +1,208 @@
+package com.TCC.Prato_Justo.Security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets por rota e por chave (usuário autenticado ou IP), usados pelo {@link LimiteTaxaFilter}
+ * e pelo {@link LimiteTaxaChannelInterceptor}.
+ * <p>
+ * Cada balde é um único AtomicLong com o instante teórico de chegada (GCRA, equivalente a um token bucket
+ * com capacidade = rajada): consumir é um CAS, sem lock. Os baldes ficam em faixas (mapas independentes)
+ * com teto de chaves cada; quando uma faixa lota, chaves novas dividem um balde de transbordo da regra
+ * em vez de alocar memória. Balde que já se encheu de novo equivale a balde inexistente e é descartado.
+ */
+@Component
+public class LimitadorTaxa {
+
+    public static final String CANAL_HTTP = "http";
+    public static final String CANAL_STOMP = "stomp";
+
+    private static final int FAIXAS = 16;
+
+    private final AntPathMatcher matcher = new AntPathMatcher();
+    private final List<Regra> regras;
+    private final Faixa[] faixas = new Faixa[FAIXAS];
+    private final int maxChavesPorFaixa;
+    private final boolean habilitado;
+    private final Counter transbordos;
+
+    public LimitadorTaxa(MeterRegistry meterRegistry,
+                         @Value("${app.ratelimit.enabled:true}") boolean habilitado,
+                         @Value("${app.ratelimit.max-keys:100000}") int maxChaves,
+                         @Value("${app.ratelimit.auth.per-minute:60}") int authPorMinuto,
+                         @Value("${app.ratelimit.auth.burst:20}") int authRajada,
+                         @Value("${app.ratelimit.donation-write.per-minute:30}") int doacaoPorMinuto,
+                         @Value("${app.ratelimit.donation-write.burst:10}") int doacaoRajada,
+                         @Value("${app.ratelimit.upload.per-minute:10}") int uploadPorMinuto,
+                         @Value("${app.ratelimit.upload.burst:5}") int uploadRajada,
+                         @Value("${app.ratelimit.chat.per-minute:60}") int chatPorMinuto,
+                         @Value("${app.ratelimit.chat.burst:20}") int chatRajada) {
+        this.habilitado = habilitado;
+        this.maxChavesPorFaixa = Math.max(1, maxChaves / FAIXAS);
+        for (int i = 0; i < FAIXAS; i++) {
+            faixas[i] = new Faixa();
+        }
+        // A primeira regra que casar vale: o upload precisa vir antes da escrita genérica de doações
+        this.regras = List.of(
+                new Regra("auth", CANAL_HTTP, Set.of("POST"),
+                        List.of("/auth/login", "/auth/registro", "/auth/cadastros", "/auth/estabelecimento", "/auth/refresh"),
+                        authPorMinuto, authRajada, meterRegistry),
+                new Regra("upload", CANAL_HTTP, Set.of("POST"),
+                        List.of("/doacoes/upload-image"),
+                        uploadPorMinuto, uploadRajada, meterRegistry),
+                new Regra("donation-write", CANAL_HTTP, Set.of("POST", "PUT", "DELETE"),
+                        List.of("/doacoes", "/doacoes/**"),
+                        doacaoPorMinuto, doacaoRajada, meterRegistry),
+                new Regra("chat", CANAL_HTTP, Set.of("POST"),
+                        List.of("/api/chat/messages"),
+                        chatPorMinuto, chatRajada, meterRegistry),
+                new Regra("chat", CANAL_STOMP, Set.of("SEND"),
+                        List.of("/app/chat.*"),
+                        chatPorMinuto, chatRajada, meterRegistry));
+
+        this.transbordos = Counter.builder("ratelimit.overflow")
+                .description("Consumos feitos no balde compartilhado porque a faixa atingiu o teto de chaves")
+                .register(meterRegistry);
+        Gauge.builder("ratelimit.keys", this, LimitadorTaxa::totalChaves)
+                .description("Baldes ativos em memória")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Regra aplicável ao método/comando e caminho/destino, ou null se a rota não é limitada
+     */
+    public Regra regraPara(String canal, String metodo, String caminho) {
+        if (!habilitado || metodo == null || caminho == null) return null;
+        for (Regra regra : regras) {
+            if (regra.canal.equals(canal) && regra.metodos.contains(metodo) && regra.casa(matcher, caminho)) {
+                return regra;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Consome um token do balde da chave. Devolve 0 se liberado ou, se não, em quanto tempo (ms)
+     * haverá token de novo.
+     */
+    public long consumir(Regra regra, String chave) {
+        long agora = System.nanoTime();
+        AtomicLong balde = balde(regra, chave, agora);
+        while (true) {
+            long chegada = balde.get();
+            long base = chegada - agora > 0 ? chegada : agora;
+            long nova = base + regra.intervaloNanos;
+            long excesso = nova - agora - regra.toleranciaNanos;
+            if (excesso > 0) {
+                regra.bloqueadas.increment();
+                return Math.max(1, TimeUnit.NANOSECONDS.toMillis(excesso));
+            }
+            if (balde.compareAndSet(chegada, nova)) {
+                regra.permitidas.increment();
+                return 0;
+            }
+        }
+    }
+
+    private AtomicLong balde(Regra regra, String chave, long agora) {
+        String id = regra.id + '|' + chave;
+        Faixa faixa = faixas[(id.hashCode() & 0x7fffffff) % FAIXAS];
+        AtomicLong balde = faixa.baldes.get(id);
+        if (balde != null) return balde;
+
+        if (faixa.baldes.size() >= maxChavesPorFaixa) {
+            faixa.descartarCheios(agora);
+            if (faixa.baldes.size() >= maxChavesPorFaixa) {
+                transbordos.increment();
+                return regra.transbordo;
+            }
+        }
+        AtomicLong novo = new AtomicLong(agora);
+        AtomicLong existente = faixa.baldes.putIfAbsent(id, novo);
+        return existente != null ? existente : novo;
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void limpar() {
+        long agora = System.nanoTime();
+        for (Faixa faixa : faixas) {
+            faixa.descartarCheios(agora);
+        }
+    }
+
+    public long totalChaves() {
+        long total = 0;
+        for (Faixa faixa : faixas) {
+            total += faixa.baldes.size();
+        }
+        return total;
+    }
+
+    private static class Faixa {
+        final ConcurrentHashMap<String, AtomicLong> baldes = new ConcurrentHashMap<>();
+
+        // Instante de chegada no passado = balde cheio, igual a um balde recém-criado
+        void descartarCheios(long agora) {
+            baldes.values().removeIf(b -> b.get() - agora <= 0);
+        }
+    }
+
+    public static class Regra {
+        private final String nome;
+        private final String id;
+        private final String canal;
+        private final Set<String> metodos;
+        private final List<String> padroes;
+        private final long intervaloNanos;
+        private final long toleranciaNanos;
+        private final AtomicLong transbordo = new AtomicLong(System.nanoTime());
+        private final Counter permitidas;
+        private final Counter bloqueadas;
+
+        Regra(String nome, String canal, Set<String> metodos, List<String> padroes,
+              int porMinuto, int rajada, MeterRegistry meterRegistry) {
+            if (porMinuto <= 0 || rajada <= 0) {
+                throw new IllegalArgumentException("Limite inválido para a regra " + nome);
+            }
+            this.nome = nome;
+            this.id = canal + ':' + nome;
+            this.canal = canal;
+            this.metodos = metodos;
+            this.padroes = padroes;
+            this.intervaloNanos = TimeUnit.MINUTES.toNanos(1) / porMinuto;
+            this.toleranciaNanos = intervaloNanos * rajada;
+            this.permitidas = contador(meterRegistry, "allowed");
+            this.bloqueadas = contador(meterRegistry, "rejected");
+        }
+
+        private Counter contador(MeterRegistry meterRegistry, String resultado) {
+            return Counter.builder("ratelimit.requests")
+                    .description("Requisições e mensagens avaliadas pelo limitador de taxa")
+                    .tags("channel", canal, "rule", nome, "result", resultado)
+                    .register(meterRegistry);
+        }
+
+        boolean casa(AntPathMatcher matcher, String caminho) {
+            for (String padrao : padroes) {
+                if (matcher.match(padrao, caminho)) return true;
+            }
+            return false;
+        }
+
+        public String getNome() {
+            return nome;
+        }
+    }
+}
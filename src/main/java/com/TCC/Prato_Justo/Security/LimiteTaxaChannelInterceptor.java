@@ -0,0 +1,50 @@
+package com.TCC.Prato_Justo.Security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+
+import java.security.Principal;
+
+/**
+ * Equivalente ao {@link LimiteTaxaFilter} para frames SEND do STOMP. Mensagem acima do limite é descartada
+ * (devolver erro derrubaria a sessão WebSocket inteira); a chave é o usuário ou, sem ele, a sessão.
+ */
+@Component
+public class LimiteTaxaChannelInterceptor implements ChannelInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(LimiteTaxaChannelInterceptor.class);
+
+    private final LimitadorTaxa limitador;
+
+    public LimiteTaxaChannelInterceptor(LimitadorTaxa limitador) {
+        this.limitador = limitador;
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || !StompCommand.SEND.equals(accessor.getCommand())) {
+            return message;
+        }
+        LimitadorTaxa.Regra regra = limitador.regraPara(LimitadorTaxa.CANAL_STOMP, "SEND", accessor.getDestination());
+        if (regra == null) {
+            return message;
+        }
+
+        Principal usuario = accessor.getUser();
+        String chave = usuario != null ? "u:" + usuario.getName() : "s:" + accessor.getSessionId();
+        long esperaMs = limitador.consumir(regra, chave);
+        if (esperaMs > 0) {
+            log.debug("rate_limited channel=stomp rule={} key={} wait_ms={}", regra.getNome(), chave, esperaMs);
+            return null;
+        }
+        return message;
+    }
+}
@@ -0,0 +1,61 @@
+package com.TCC.Prato_Justo.Security;
+
+import com.TCC.Prato_Justo.Config.UserPrincipal;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Aplica o {@link LimitadorTaxa} às rotas HTTP de escrita e de autenticação. Roda logo depois do filtro JWT:
+ * com token válido a chave é o usuário, senão o IP.
+ */
+@Component
+public class LimiteTaxaFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(LimiteTaxaFilter.class);
+    private static final String CORPO_429 = "{\"error\":\"Muitas requisições. Tente novamente em alguns instantes.\"}";
+
+    private final LimitadorTaxa limitador;
+
+    public LimiteTaxaFilter(LimitadorTaxa limitador) {
+        this.limitador = limitador;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String caminho = request.getRequestURI().substring(request.getContextPath().length());
+        LimitadorTaxa.Regra regra = limitador.regraPara(LimitadorTaxa.CANAL_HTTP, request.getMethod(), caminho);
+        if (regra == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String chave = UserPrincipal.atual()
+                .map(p -> "u:" + p.getUserId())
+                .orElseGet(() -> "ip:" + request.getRemoteAddr());
+        long esperaMs = limitador.consumir(regra, chave);
+        if (esperaMs == 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        log.debug("rate_limited channel=http rule={} key={} wait_ms={}", regra.getNome(), chave, esperaMs);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf((esperaMs + 999) / 1000));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write(CORPO_429);
+    }
+}
@@ -0,0 +1,83 @@
+package com.TCC.Prato_Justo.Security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limita tentativas de login e cadastro por IP e por e-mail em janelas fixas de um minuto.
+ * A checagem acontece antes de qualquer BCrypt, então tentativas em excesso não consomem o pool de hash.
+ */
+@Component
+public class LimiteTentativasLogin {
+
+    private static final long JANELA_MS = 60_000;
+
+    private final ConcurrentHashMap<String, Janela> janelas = new ConcurrentHashMap<>();
+
+    private final int maximoPorIp;
+    private final int maximoPorEmail;
+
+    public LimiteTentativasLogin(@Value("${app.security.login.max-per-ip-per-minute:30}") int maximoPorIp,
+                                 @Value("${app.security.login.max-per-email-per-minute:10}") int maximoPorEmail) {
+        this.maximoPorIp = maximoPorIp;
+        this.maximoPorEmail = maximoPorEmail;
+    }
+
+    /**
+     * Registra uma tentativa e devolve quantos segundos o cliente deve esperar, ou 0 se estiver liberado
+     */
+    public long registrarTentativa(String ip, String email) {
+        return registrarTentativa(ip, email, System.currentTimeMillis());
+    }
+
+    // Instante explícito para os testes atravessarem a virada da janela
+    long registrarTentativa(String ip, String email, long agora) {
+        long espera = 0;
+        if (ip != null) {
+            espera = Math.max(espera, contar("ip:" + ip, maximoPorIp, agora));
+        }
+        if (email != null && !email.isBlank()) {
+            espera = Math.max(espera, contar("email:" + email.trim().toLowerCase(Locale.ROOT), maximoPorEmail, agora));
+        }
+        return espera;
+    }
+
+    private long contar(String chave, int maximo, long agora) {
+        long inicioJanela = agora - agora % JANELA_MS;
+        Janela janela = janelas.compute(chave, (k, atual) ->
+                atual == null || atual.inicio != inicioJanela ? new Janela(inicioJanela) : atual);
+        if (janela.contagem.incrementAndGet() <= maximo) {
+            return 0;
+        }
+        return Math.max(1, (inicioJanela + JANELA_MS - agora + 999) / 1000);
+    }
+
+    // Descarta janelas vencidas para o mapa não crescer com IPs e e-mails de passagem
+    @Scheduled(fixedDelay = JANELA_MS)
+    public void limparJanelasVencidas() {
+        limparJanelasVencidas(System.currentTimeMillis());
+    }
+
+    void limparJanelasVencidas(long agora) {
+        long inicioAtual = agora - agora % JANELA_MS;
+        janelas.values().removeIf(j -> j.inicio < inicioAtual);
+    }
+
+    int getJanelasAtivas() {
+        return janelas.size();
+    }
+
+    private static class Janela {
+        final long inicio;
+        final AtomicInteger contagem = new AtomicInteger();
+
+        Janela(long inicio) {
+            this.inicio = inicio;
+        }
+    }
+}
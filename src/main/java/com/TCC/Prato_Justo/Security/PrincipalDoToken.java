@@ -0,0 +1,37 @@
+package com.TCC.Prato_Justo.Security;
+
+import com.TCC.Prato_Justo.Config.UserPrincipal;
+import com.TCC.Prato_Justo.Model.Usuario;
+import com.TCC.Prato_Justo.Service.UsuarioService;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Monta o principal (HTTP e STOMP) a partir dos claims do token de acesso, sem ir ao banco.
+ * Só tokens emitidos antes de uid/role existirem caem na busca por e-mail.
+ */
+@Component
+public class PrincipalDoToken {
+
+    private final UsuarioService usuarioService;
+
+    public PrincipalDoToken(UsuarioService usuarioService) {
+        this.usuarioService = usuarioService;
+    }
+
+    public Optional<UserPrincipal> resolver(JwtUtil.DadosToken dados) {
+        if (dados.isAutocontido()) {
+            return Optional.of(new UserPrincipal(dados.getUsuarioId(), dados.getEmail(),
+                    List.of(new SimpleGrantedAuthority("ROLE_" + dados.getPapel()))));
+        }
+        Usuario usuario = usuarioService.findByEmail(dados.getEmail());
+        if (usuario == null || Boolean.FALSE.equals(usuario.getStatusAtivo()) || usuario.getTipoUsuario() == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new UserPrincipal(usuario.getId(), usuario.getEmail(),
+                List.of(new SimpleGrantedAuthority("ROLE_" + usuario.getTipoUsuario().name()))));
+    }
+}
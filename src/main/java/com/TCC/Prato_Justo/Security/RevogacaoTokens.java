@@ -0,0 +1,63 @@
+package com.TCC.Prato_Justo.Security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lista de revogação em memória. Guarda o jti de tokens revogados só até a expiração deles
+ * e, por usuário, o instante a partir do qual tokens emitidos antes deixam de valer
+ * (logout em todos os dispositivos, desativação). Cada instância mantém a sua lista.
+ */
+@Component
+public class RevogacaoTokens {
+
+    // jti -> expiração do token (ms)
+    private final ConcurrentHashMap<String, Long> tokensRevogados = new ConcurrentHashMap<>();
+    // id do usuário -> instante de corte (ms, truncado ao segundo como o iat)
+    private final ConcurrentHashMap<Long, Long> cortesPorUsuario = new ConcurrentHashMap<>();
+
+    // Um corte só importa enquanto algum token emitido antes dele ainda puder estar válido
+    @Value("${jwt.refresh-expiration-ms:604800000}")
+    private long maiorValidadeMs;
+
+    public void revogar(JwtUtil.DadosToken token) {
+        if (token.getId() == null || token.getExpiraEm() == null) return;
+        tokensRevogados.put(token.getId(), token.getExpiraEm().getTime());
+    }
+
+    /**
+     * Invalida todos os tokens do usuário emitidos até agora
+     */
+    public void revogarUsuario(Long usuarioId) {
+        if (usuarioId == null) return;
+        long agora = System.currentTimeMillis();
+        cortesPorUsuario.put(usuarioId, agora - agora % 1000);
+    }
+
+    public boolean revogado(JwtUtil.DadosToken token) {
+        if (token.getId() != null && tokensRevogados.containsKey(token.getId())) {
+            return true;
+        }
+        if (token.getUsuarioId() != null && token.getEmitidoEm() != null) {
+            Long corte = cortesPorUsuario.get(token.getUsuarioId());
+            // iat tem precisão de segundos: na dúvida, o mesmo segundo do corte também é revogado
+            return corte != null && token.getEmitidoEm().getTime() <= corte;
+        }
+        return false;
+    }
+
+    // Entradas cujos tokens já expiraram não precisam mais ser lembradas
+    @Scheduled(fixedDelay = 60_000)
+    public void limpar() {
+        long agora = System.currentTimeMillis();
+        tokensRevogados.values().removeIf(expira -> expira < agora);
+        cortesPorUsuario.values().removeIf(corte -> corte + maiorValidadeMs < agora);
+    }
+
+    public int tamanho() {
+        return tokensRevogados.size() + cortesPorUsuario.size();
+    }
+}
@@ -2,9 +2,12 @@ package com.TCC.Prato_Justo.Security;
 
 import com.TCC.Prato_Justo.Config.CorsConfig;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
@@ -12,9 +15,13 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
 import org.springframework.http.HttpMethod;
 
+import java.util.List;
+
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
@@ -22,9 +29,16 @@ public class SecurityConfig {
     @Autowired
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    @Autowired
+    private LimiteTaxaFilter limiteTaxaFilter;
+
     @Autowired
     private CorsConfig corsConfig;
 
+    // Endereços (ou faixas CIDR) de onde o Prometheus raspa as métricas
+    @Value("${app.management.allowed-ips:127.0.0.1,::1}")
+    private List<String> ipsMonitoramento;
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
@@ -35,6 +49,9 @@ public class SecurityConfig {
                         .requestMatchers("/auth/login", "/auth/registro", "/auth/cadastros").permitAll()
                         .requestMatchers("/login.html", "/cadastro_perfil.html", "/Estabelecimento.html", "/Usuario.html", "/index.html", "/").permitAll()
                         .requestMatchers("/css/**", "/js/**", "/img/**", "/static/**").permitAll()
+                        // Só o health é público; métricas expõem rotas, pools e tráfego de login
+                        .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
+                        .requestMatchers("/actuator/**").access(redeDeMonitoramento())
                         // Permitir WebSocket endpoint e recursos relacionados
                         .requestMatchers("/ws-chat/**", "/ws-chat").permitAll()
                         // Permitir OPTIONS (preflight CORS) para todos os endpoints
@@ -42,6 +59,7 @@ public class SecurityConfig {
                         // Permitir GETs públicos em doações (listar, ver detalhes, buscar próximas)
                         .requestMatchers(HttpMethod.GET, "/doacoes").permitAll()
                         .requestMatchers(HttpMethod.GET, "/doacoes/proximas").permitAll()  // Deve vir antes de /doacoes/*
+                        .requestMatchers(HttpMethod.GET, "/doacoes/mapa/**").permitAll()
                         .requestMatchers(HttpMethod.GET, "/doacoes/*").permitAll()  // Permite GET /doacoes/{qualquer-id}
                         // Outras operações em doações requerem autenticação
                         .requestMatchers("/doacoes/**").authenticated()
@@ -49,18 +67,28 @@ public class SecurityConfig {
                         .requestMatchers("/**").permitAll()
                         .anyRequest().authenticated()
                 )
-                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+                // Depois do JWT para limitar por usuário quando houver token
+                .addFilterAfter(limiteTaxaFilter, JwtAuthenticationFilter.class);
 
         return http.build();
     }
 
+    private AuthorizationManager<RequestAuthorizationContext> redeDeMonitoramento() {
+        List<IpAddressMatcher> redes = ipsMonitoramento.stream().map(String::trim).map(IpAddressMatcher::new).toList();
+        return (autenticacao, contexto) -> new AuthorizationDecision(
+                redes.stream().anyMatch(rede -> rede.matches(contexto.getRequest())));
+    }
+
     @Bean
     public AuthenticationManager authenticationManager(AuthenticationConfiguration config) throws Exception {
         return config.getAuthenticationManager();
     }
 
+    // Único encoder da aplicação; estático para não depender da criação desta configuração.
+    // O custo é calibrado com BcryptCustoBenchmark (perfil benchmark)
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public static PasswordEncoder passwordEncoder(@Value("${app.security.bcrypt.cost:10}") int custo) {
+        return new BCryptPasswordEncoder(custo);
     }
 }
\ No newline at end of file
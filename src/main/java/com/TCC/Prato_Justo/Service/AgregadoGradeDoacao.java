@@ -0,0 +1,324 @@
+package com.TCC.Prato_Justo.Service;
+
+import com.TCC.Prato_Justo.Interface.DoacaoRepository;
+import com.TCC.Prato_Justo.Model.Doacao;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Quantidade e soma das coordenadas das doações ativas por célula da GradeGeografica, em memória,
+ * para servir tiles z/x/y do mapa sem baixar cada doação. Mantém também o MotorDistancia das mesmas
+ * coordenadas, usado por DoacaoService.proximas. Como o IndiceBuscaDoacao, é reconstruído na subida
+ * e periodicamente e recebe as escritas do DoacaoService depois do commit.
+ */
+@Component
+public class AgregadoGradeDoacao {
+
+    private static final Logger log = LoggerFactory.getLogger(AgregadoGradeDoacao.class);
+
+    public static final int ZOOM_MAXIMO = 18;
+    // Grupos por lado do tile: a resposta tem no máximo 16x16 grupos, em qualquer zoom
+    public static final int DIVISOES_TILE = 16;
+
+    private final DoacaoRepository doacaoRepository;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReconstrucaoIndice<Ponto> reconstrucao = new ReconstrucaoIndice<>(lock, this::aplicar);
+
+    // célula -> soma das doações nela; ordenado por linha e coluna para varrer a faixa de um tile
+    private TreeMap<Long, Soma> celulas = new TreeMap<>();
+    private Map<Long, Ponto> pontos = new HashMap<>();
+    // Coordenadas no motor de distância: posição -> id e id -> posição
+    private MotorDistancia motor = new MotorDistancia();
+    private long[] idsMotor = new long[0];
+    private Map<Long, Integer> posicoesMotor = new HashMap<>();
+    private volatile long versao;
+    private volatile boolean pronto;
+
+    public AgregadoGradeDoacao(DoacaoRepository doacaoRepository) {
+        this.doacaoRepository = doacaoRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void construirNaSubida() {
+        reconstruir();
+    }
+
+    // Reconstrução periódica corrige escritas feitas fora deste processo
+    @Scheduled(initialDelayString = "${app.map.doacao.rebuild-interval-ms:900000}",
+               fixedDelayString = "${app.map.doacao.rebuild-interval-ms:900000}")
+    public void reconstruirAgendado() {
+        reconstruir();
+    }
+
+    /**
+     * Recarrega o agregado do banco; se já houver uma reconstrução em andamento, não faz nada
+     */
+    public void reconstruir() {
+        try {
+            if (!reconstrucao.executar(this::carregar, this::instalar)) {
+                log.debug("map_grid_rebuild_skipped motivo=em_andamento");
+            }
+        } catch (RuntimeException e) {
+            log.warn("map_grid_rebuild_failed erro={}", e.getMessage());
+        }
+    }
+
+    private Carga carregar() {
+        List<Object[]> linhas = doacaoRepository.findCoordenadasAtivas();
+        Carga carga = new Carga(linhas.size());
+        double[] latitudes = new double[linhas.size()];
+        double[] longitudes = new double[linhas.size()];
+        int n = 0;
+        for (Object[] linha : linhas) {
+            Long id = (Long) linha[0];
+            Ponto ponto = new Ponto((Double) linha[1], (Double) linha[2]);
+            carga.pontos.put(id, ponto);
+            somar(carga.celulas, ponto, 1);
+            latitudes[n] = ponto.latitude();
+            longitudes[n] = ponto.longitude();
+            carga.ids[n] = id;
+            carga.posicoes.put(id, n++);
+        }
+        carga.motor = new MotorDistancia(latitudes, longitudes, n);
+        return carga;
+    }
+
+    // Chamado com o lock de escrita; as escritas pendentes são reaplicadas em seguida
+    private void instalar(Carga carga) {
+        celulas = carga.celulas;
+        pontos = carga.pontos;
+        motor = carga.motor;
+        idsMotor = carga.ids;
+        posicoesMotor = carga.posicoes;
+        versao++;
+        pronto = true;
+        log.info("map_grid_rebuilt doacoes={} celulas={}", pontos.size(), celulas.size());
+    }
+
+    /**
+     * Reposiciona a doação (ou a retira, se inativa ou sem coordenadas) depois do commit da transação corrente
+     */
+    public void atualizar(Doacao doacao) {
+        if (doacao == null || doacao.getId() == null) return;
+        Long id = doacao.getId();
+        Ponto ponto = Boolean.TRUE.equals(doacao.getAtivo()) && doacao.getLatitude() != null && doacao.getLongitude() != null
+                ? new Ponto(doacao.getLatitude(), doacao.getLongitude()) : null;
+        aposCommit(() -> registrar(id, ponto));
+    }
+
+    /**
+     * Retira a doação do agregado depois do commit da transação corrente
+     */
+    public void remover(Long id) {
+        if (id == null) return;
+        aposCommit(() -> registrar(id, null));
+    }
+
+    public boolean isPronto() {
+        return pronto;
+    }
+
+    /**
+     * Ids das doações ativas a até raioKm do ponto, da mais próxima para a mais distante
+     */
+    public List<Long> proximas(double latitude, double longitude, double raioKm) {
+        lock.readLock().lock();
+        try {
+            int[] posicoes = motor.dentroDoRaio(latitude, longitude, raioKm);
+            List<Long> ids = new ArrayList<>(posicoes.length);
+            for (int posicao : posicoes) {
+                ids.add(idsMotor[posicao]);
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Muda a cada escrita aplicada e a cada reconstrução (ETag dos tiles)
+     */
+    public long getVersao() {
+        return versao;
+    }
+
+    public static void validarTile(int z, int x, int y) {
+        if (z < 0 || z > ZOOM_MAXIMO) {
+            throw new IllegalArgumentException("z deve estar entre 0 e " + ZOOM_MAXIMO);
+        }
+        long n = 1L << z;
+        if (x < 0 || x >= n || y < 0 || y >= n) {
+            throw new IllegalArgumentException("x e y devem estar entre 0 e " + (n - 1) + " no zoom " + z);
+        }
+    }
+
+    /**
+     * Grupos do tile z/x/y (Web Mercator) com quantidade e centróide. Cada célula da grade entra inteira no
+     * grupo que contém o seu centróide, então acima do zoom ~10 a resolução fica na da célula (0,1°).
+     */
+    public TileMapa tile(int z, int x, int y) {
+        validarTile(z, x, y);
+        double n = 1L << z;
+        double lngMin = x / n * 360 - 180;
+        double lngMax = (x + 1) / n * 360 - 180;
+        double latMax = latitudeDaLinhaDoTile(y, n);
+        double latMin = latitudeDaLinhaDoTile(y + 1, n);
+        long colunaMin = GradeGeografica.coluna(lngMin);
+        long colunaMax = GradeGeografica.coluna(lngMax);
+
+        int d = DIVISOES_TILE;
+        int[] quantidades = new int[d * d];
+        double[] somasLat = new double[d * d];
+        double[] somasLng = new double[d * d];
+        long total = 0;
+        lock.readLock().lock();
+        try {
+            for (long l = GradeGeografica.linha(latMin); l <= GradeGeografica.linha(latMax); l++) {
+                long base = l * GradeGeografica.COLUNAS;
+                for (Soma s : celulas.subMap(base + colunaMin, true, base + colunaMax, true).values()) {
+                    // Células da borda cujo centróide cai no tile vizinho ficam para ele
+                    double px = (s.somaLng / s.quantidade + 180) / 360 * n - x;
+                    double py = mercatorY(s.somaLat / s.quantidade) * n - y;
+                    if (px < 0 || px >= 1 || py < 0 || py >= 1) continue;
+                    int g = (int) (py * d) * d + (int) (px * d);
+                    quantidades[g] += s.quantidade;
+                    somasLat[g] += s.somaLat;
+                    somasLng[g] += s.somaLng;
+                    total += s.quantidade;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<GrupoMapa> grupos = new ArrayList<>();
+        for (int g = 0; g < quantidades.length; g++) {
+            if (quantidades[g] > 0) {
+                grupos.add(new GrupoMapa(somasLat[g] / quantidades[g], somasLng[g] / quantidades[g], quantidades[g]));
+            }
+        }
+        return new TileMapa(z, x, y, total, grupos);
+    }
+
+    private void aposCommit(Runnable acao) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    acao.run();
+                }
+            });
+        } else {
+            acao.run();
+        }
+    }
+
+    private void registrar(Long id, Ponto ponto) {
+        lock.writeLock().lock();
+        try {
+            reconstrucao.registrar(id, ponto);
+            versao++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Chamado com o lock de escrita; ponto nulo remove
+    private void aplicar(Long id, Ponto ponto) {
+        Ponto anterior = ponto != null ? pontos.put(id, ponto) : pontos.remove(id);
+        if (anterior != null) {
+            somar(celulas, anterior, -1);
+        }
+        if (ponto != null) {
+            somar(celulas, ponto, 1);
+        }
+        posicionar(id, ponto);
+    }
+
+    // Chamado com o lock de escrita: acrescenta, move ou retira (trocando com a última) a coordenada do motor
+    private void posicionar(Long id, Ponto ponto) {
+        if (ponto == null) {
+            Integer posicao = posicoesMotor.remove(id);
+            if (posicao == null) return;
+            int movida = motor.removerTrocandoComUltima(posicao);
+            if (movida >= 0) {
+                idsMotor[posicao] = idsMotor[movida];
+                posicoesMotor.put(idsMotor[posicao], posicao);
+            }
+            return;
+        }
+        Integer posicao = posicoesMotor.get(id);
+        if (posicao != null) {
+            motor.definir(posicao, ponto.latitude(), ponto.longitude());
+            return;
+        }
+        int nova = motor.adicionar(ponto.latitude(), ponto.longitude());
+        if (nova == idsMotor.length) {
+            idsMotor = Arrays.copyOf(idsMotor, Math.max(16, nova * 2));
+        }
+        idsMotor[nova] = id;
+        posicoesMotor.put(id, nova);
+    }
+
+    private static void somar(TreeMap<Long, Soma> celulas, Ponto ponto, int sinal) {
+        Long celula = GradeGeografica.celula(ponto.latitude(), ponto.longitude());
+        Soma s = celulas.computeIfAbsent(celula, c -> new Soma());
+        s.quantidade += sinal;
+        s.somaLat += sinal * ponto.latitude();
+        s.somaLng += sinal * ponto.longitude();
+        if (s.quantidade == 0) {
+            celulas.remove(celula);
+        }
+    }
+
+    private static double latitudeDaLinhaDoTile(int y, double n) {
+        return Math.toDegrees(Math.atan(Math.sinh(Math.PI * (1 - 2 * y / n))));
+    }
+
+    // Posição vertical em [0, 1) na projeção Web Mercator; fora disso acima de ~85° de latitude
+    private static double mercatorY(double latitude) {
+        double fi = Math.toRadians(latitude);
+        return (1 - Math.log(Math.tan(fi) + 1 / Math.cos(fi)) / Math.PI) / 2;
+    }
+
+    private static class Carga {
+        final TreeMap<Long, Soma> celulas = new TreeMap<>();
+        final Map<Long, Ponto> pontos = new HashMap<>();
+        final Map<Long, Integer> posicoes = new HashMap<>();
+        final long[] ids;
+        MotorDistancia motor;
+
+        Carga(int tamanho) {
+            this.ids = new long[tamanho];
+        }
+    }
+
+    private record Ponto(double latitude, double longitude) {
+    }
+
+    private static class Soma {
+        int quantidade;
+        double somaLat;
+        double somaLng;
+    }
+
+    public record TileMapa(int z, int x, int y, long total, List<GrupoMapa> grupos) {
+    }
+
+    public record GrupoMapa(double latitude, double longitude, int quantidade) {
+    }
+}
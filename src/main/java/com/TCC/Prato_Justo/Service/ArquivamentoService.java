@@ -0,0 +1,131 @@
+package com.TCC.Prato_Justo.Service;
+
+import com.TCC.Prato_Justo.Interface.DoacaoArquivadaRepository;
+import com.TCC.Prato_Justo.Interface.DoacaoRepository;
+import com.TCC.Prato_Justo.Interface.SolicitacaoArquivadaRepository;
+import com.TCC.Prato_Justo.Interface.SolicitacaoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Move solicitações encerradas e doações inativas antigas para as tabelas de arquivo,
+ * em lotes, mantendo as tabelas principais do tamanho dos dados vivos.
+ * Solicitações ainda referenciadas por chat ou avaliação permanecem na tabela principal,
+ * assim como as doações dessas solicitações.
+ */
+@Service
+public class ArquivamentoService {
+
+    private static final Logger log = LoggerFactory.getLogger(ArquivamentoService.class);
+
+    private final SolicitacaoRepository solicitacaoRepository;
+    private final SolicitacaoArquivadaRepository solicitacaoArquivadaRepository;
+    private final DoacaoRepository doacaoRepository;
+    private final DoacaoArquivadaRepository doacaoArquivadaRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.archive.enabled:true}")
+    private boolean habilitado;
+
+    @Value("${app.archive.older-than-days:180}")
+    private long idadeMinimaDias;
+
+    @Value("${app.archive.batch-size:500}")
+    private int tamanhoLote;
+
+    public ArquivamentoService(SolicitacaoRepository solicitacaoRepository,
+                               SolicitacaoArquivadaRepository solicitacaoArquivadaRepository,
+                               DoacaoRepository doacaoRepository,
+                               DoacaoArquivadaRepository doacaoArquivadaRepository,
+                               PlatformTransactionManager transactionManager) {
+        this.solicitacaoRepository = solicitacaoRepository;
+        this.solicitacaoArquivadaRepository = solicitacaoArquivadaRepository;
+        this.doacaoRepository = doacaoRepository;
+        this.doacaoArquivadaRepository = doacaoArquivadaRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(cron = "${app.archive.cron:0 30 3 * * *}")
+    public void executarAgendado() {
+        if (!habilitado) return;
+        Resultado resultado = arquivar(LocalDateTime.now().minusDays(idadeMinimaDias));
+        log.info("archive_run solicitacoes={} doacoes={}", resultado.getSolicitacoes(), resultado.getDoacoes());
+    }
+
+    /**
+     * Arquiva tudo que estiver elegível antes do limite. Solicitações vão primeiro para liberar suas doações.
+     */
+    public Resultado arquivar(LocalDateTime limite) {
+        int solicitacoes = 0;
+        int movidas;
+        while ((movidas = moverLoteSolicitacoes(limite)) > 0) {
+            solicitacoes += movidas;
+        }
+        int doacoes = 0;
+        while ((movidas = moverLoteDoacoes(limite)) > 0) {
+            doacoes += movidas;
+        }
+        return new Resultado(solicitacoes, doacoes);
+    }
+
+    // Cada lote numa transação curta: copia, remove e confere que nada mudou entre as duas etapas
+    private int moverLoteSolicitacoes(LocalDateTime limite) {
+        Integer movidas = transactionTemplate.execute(status -> {
+            List<Long> ids = solicitacaoRepository.findIdsParaArquivar(limite, PageRequest.of(0, tamanhoLote));
+            if (ids.isEmpty()) return 0;
+            int copiadas = solicitacaoArquivadaRepository.copiarDaTabelaPrincipal(ids, LocalDateTime.now());
+            int removidas = solicitacaoRepository.removerArquivadas(ids, limite);
+            if (copiadas != removidas) {
+                // Alguma linha mudou de estado durante o lote: desfaz e tenta na próxima execução
+                status.setRollbackOnly();
+                log.warn("archive_batch_conflict tabela=solicitacao copiadas={} removidas={}", copiadas, removidas);
+                return 0;
+            }
+            return removidas;
+        });
+        return movidas != null ? movidas : 0;
+    }
+
+    private int moverLoteDoacoes(LocalDateTime limite) {
+        Integer movidas = transactionTemplate.execute(status -> {
+            List<Long> ids = doacaoRepository.findIdsParaArquivar(limite, PageRequest.of(0, tamanhoLote));
+            if (ids.isEmpty()) return 0;
+            int copiadas = doacaoArquivadaRepository.copiarDaTabelaPrincipal(ids, LocalDateTime.now());
+            int removidas = doacaoRepository.removerArquivadas(ids, limite);
+            if (copiadas != removidas) {
+                status.setRollbackOnly();
+                log.warn("archive_batch_conflict tabela=doacao copiadas={} removidas={}", copiadas, removidas);
+                return 0;
+            }
+            return removidas;
+        });
+        return movidas != null ? movidas : 0;
+    }
+
+    public static class Resultado {
+        private final int solicitacoes;
+        private final int doacoes;
+
+        public Resultado(int solicitacoes, int doacoes) {
+            this.solicitacoes = solicitacoes;
+            this.doacoes = doacoes;
+        }
+
+        public int getSolicitacoes() {
+            return solicitacoes;
+        }
+
+        public int getDoacoes() {
+            return doacoes;
+        }
+    }
+}
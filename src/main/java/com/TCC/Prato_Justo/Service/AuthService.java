@@ -1,7 +1,10 @@
 package com.TCC.Prato_Justo.Service;
 
+import com.TCC.Prato_Justo.Config.UserPrincipal;
 import com.TCC.Prato_Justo.Model.Usuario;
+import com.TCC.Prato_Justo.Model.UsuarioEstatistica;
 import com.TCC.Prato_Justo.Security.JwtUtil;
+import com.TCC.Prato_Justo.Security.RevogacaoTokens;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -10,6 +13,8 @@ import org.springframework.stereotype.Service;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class AuthService {
@@ -23,17 +28,33 @@ public class AuthService {
     @Autowired
     private UsuarioService usuarioService;
 
+    @Autowired
+    private UsuarioEstatisticaService estatisticaService;
+
+    @Autowired
+    private HashSenhaService hashSenhaService;
+
+    @Autowired
+    private RevogacaoTokens revogacaoTokens;
+
+    /**
+     * Autenticação inteira (busca do usuário e BCrypt) no pool de hash, liberando a thread da requisição.
+     *
+     * @throws java.util.concurrent.RejectedExecutionException se o pool estiver saturado
+     */
+    public CompletableFuture<Map<String, Object>> authenticateAsync(String email, String password) {
+        return hashSenhaService.submeter("login", () -> authenticate(email, password));
+    }
+
     public Map<String, Object> authenticate(String email, String password) {
         try {
             Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(email, password)
             );
 
-            String jwt = jwtUtil.generateToken(authentication);
-            Usuario usuario = usuarioService.findByEmail(email);
+            Usuario usuario = usuarioService.findByEmail(authentication.getName());
 
-            Map<String, Object> response = new HashMap<>();
-            response.put("token", jwt);
+            Map<String, Object> response = emitirTokens(usuario);
             response.put("user", usuario);
             response.put("message", "Login realizado com sucesso");
 
@@ -46,13 +67,63 @@ public class AuthService {
         }
     }
 
+    /**
+     * Troca um token de renovação válido por um novo par. O usuário é relido do banco, então
+     * papel e status atualizados entram no novo token; o token usado é revogado (rotação).
+     *
+     * @throws IllegalArgumentException se o token não for de renovação, estiver expirado ou revogado
+     */
+    public Map<String, Object> renovar(String tokenRenovacao) {
+        JwtUtil.DadosToken dados = jwtUtil.ler(tokenRenovacao)
+                .filter(JwtUtil.DadosToken::isRenovacao)
+                .filter(d -> !revogacaoTokens.revogado(d))
+                .orElseThrow(() -> new IllegalArgumentException("Token de renovação inválido ou expirado"));
+
+        Usuario usuario = dados.getUsuarioId() != null
+                ? usuarioService.buscarPorId(dados.getUsuarioId()).orElse(null)
+                : null;
+        if (usuario == null || Boolean.FALSE.equals(usuario.getStatusAtivo())) {
+            throw new IllegalArgumentException("Usuário inexistente ou inativo");
+        }
+
+        revogacaoTokens.revogar(dados);
+        return emitirTokens(usuario);
+    }
+
+    /**
+     * Revoga os tokens informados; com todosDispositivos, qualquer token já emitido para o usuário
+     */
+    public void logout(String tokenAcesso, String tokenRenovacao, boolean todosDispositivos) {
+        Optional<JwtUtil.DadosToken> acesso = jwtUtil.ler(tokenAcesso);
+        acesso.ifPresent(revogacaoTokens::revogar);
+        jwtUtil.ler(tokenRenovacao).filter(JwtUtil.DadosToken::isRenovacao).ifPresent(revogacaoTokens::revogar);
+        if (todosDispositivos) {
+            acesso.map(JwtUtil.DadosToken::getUsuarioId).ifPresent(revogacaoTokens::revogarUsuario);
+        }
+    }
+
+    private Map<String, Object> emitirTokens(Usuario usuario) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("token", jwtUtil.gerarTokenAcesso(usuario));
+        response.put("refreshToken", jwtUtil.gerarTokenRenovacao(usuario));
+        response.put("expiresIn", jwtUtil.getExpiracaoAcessoMs() / 1000);
+        return response;
+    }
+
+    /**
+     * Usuário dono do token de acesso (ou, sem token, o da requisição atual), buscado pelo id do claim
+     */
     public Usuario getCurrentUser(String token) {
-        try {
-            String email = jwtUtil.getUsernameFromToken(token);
-            return usuarioService.findByEmail(email);
-        } catch (Exception e) {
-            return null;
+        if (token == null) {
+            return UserPrincipal.atual()
+                    .flatMap(p -> usuarioService.buscarPorId(p.getUserId()))
+                    .orElse(null);
         }
+        return jwtUtil.lerAcesso(token)
+                .map(d -> d.getUsuarioId() != null
+                        ? usuarioService.buscarPorId(d.getUsuarioId()).orElse(null)
+                        : usuarioService.findByEmail(d.getEmail()))
+                .orElse(null);
     }
 
     public boolean isTokenValid(String token) {
@@ -69,20 +140,42 @@ public class AuthService {
     }
 
     public Map<String, Object> getUserStats(Long userId) {
+        return getUserStats(userId, false);
+    }
+
+    public Map<String, Object> getUserStats(Long userId, boolean verificar) {
+        // Estatísticas lidas da linha agregada (uma leitura por chave primária)
+        UsuarioEstatistica estatistica = estatisticaService.obter(userId);
+        Map<String, Object> stats = toStatsMap(estatistica);
+
+        if (verificar) {
+            adicionarVerificacao(stats, estatistica);
+        }
+
+        return stats;
+    }
+
+    public Map<String, Object> toStatsMap(UsuarioEstatistica estatistica) {
         Map<String, Object> stats = new HashMap<>();
-        
-        // Buscar estatísticas do usuário
-        int totalDonations = usuarioService.getTotalDonations(userId);
-        int familiesHelped = usuarioService.getFamiliesHelped(userId);
-        double averageRating = usuarioService.getAverageRating(userId);
-        
-        stats.put("totalDonations", totalDonations);
-        stats.put("familiesHelped", familiesHelped);
-        stats.put("averageRating", averageRating);
-        
+        stats.put("totalDonations", estatistica.getTotalDoacoes());
+        stats.put("familiesHelped", estatistica.getDoacoesAtivas());
+        stats.put("averageRating", estatistica.getMediaAvaliacoes());
+        stats.put("totalRatings", estatistica.getTotalAvaliacoes());
         return stats;
     }
 
+    // Compara os contadores mantidos com um recálculo ao vivo nas tabelas de origem
+    public void adicionarVerificacao(Map<String, Object> stats, UsuarioEstatistica estatistica) {
+        UsuarioEstatistica recalculada = estatisticaService.recalcular(estatistica.getUsuarioId());
+        Map<String, Object> verificacao = toStatsMap(recalculada);
+        verificacao.put("consistente", estatisticaService.consistente(estatistica, recalculada));
+        stats.put("verificacao", verificacao);
+    }
+
+    public Optional<UsuarioEstatisticaService.PerfilEstatisticas> getUserProfileWithStats(Long id) {
+        return estatisticaService.obterPerfil(id);
+    }
+
     public Usuario getUserById(Long id) {
         return usuarioService.buscarPorId(id).orElse(null);
     }
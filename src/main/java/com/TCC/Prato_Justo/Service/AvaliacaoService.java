@@ -1,36 +1,67 @@
 package com.TCC.Prato_Justo.Service;
 
+import com.TCC.Prato_Justo.Interface.AnthEstabelecimentoRepository;
+import com.TCC.Prato_Justo.Interface.AnthUsuarioRepository;
 import com.TCC.Prato_Justo.Interface.AvaliacaoRepository;
 import com.TCC.Prato_Justo.Model.Avaliacao;
 import com.TCC.Prato_Justo.Model.Estabelecimento;
 import com.TCC.Prato_Justo.Model.Usuario;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.NoSuchElementException;
 
 @Service
 public class AvaliacaoService {
 
     private final AvaliacaoRepository avaliacaoRepository;
+    private final AnthEstabelecimentoRepository estabelecimentoRepository;
+    private final AnthUsuarioRepository usuarioRepository;
+    private final UsuarioEstatisticaService estatisticaService;
 
-    public AvaliacaoService(AvaliacaoRepository avaliacaoRepository) {
+    public AvaliacaoService(AvaliacaoRepository avaliacaoRepository,
+                            AnthEstabelecimentoRepository estabelecimentoRepository,
+                            AnthUsuarioRepository usuarioRepository,
+                            UsuarioEstatisticaService estatisticaService) {
         this.avaliacaoRepository = avaliacaoRepository;
+        this.estabelecimentoRepository = estabelecimentoRepository;
+        this.usuarioRepository = usuarioRepository;
+        this.estatisticaService = estatisticaService;
     }
 
-    public Avaliacao avaliar(Usuario usuario, Estabelecimento estabelecimento, Integer nota, String comentario) {
+    /**
+     * Registra a nota do usuário para o estabelecimento; NoSuchElementException se algum dos dois não existe.
+     * Usuario é versionado: um objeto montado só com o id não pode ser gravado como referência.
+     */
+    @Transactional
+    public Avaliacao avaliar(Long usuarioId, Long estabelecimentoId, Integer nota, String comentario) {
         if (nota == null || nota < 1 || nota > 5) throw new IllegalArgumentException("Nota deve ser entre 1 e 5");
+        if (usuarioId == null || estabelecimentoId == null) {
+            throw new IllegalArgumentException("usuarioId e estabelecimentoId são obrigatórios");
+        }
+        Usuario usuario = usuarioRepository.findById(usuarioId)
+                .orElseThrow(() -> new NoSuchElementException("Usuário não encontrado"));
+        Estabelecimento estabelecimento = estabelecimentoRepository.findById(estabelecimentoId)
+                .orElseThrow(() -> new NoSuchElementException("Estabelecimento não encontrado"));
         Avaliacao a = new Avaliacao();
         a.setUsuario(usuario);
         a.setEstabelecimento(estabelecimento);
         a.setNota(nota);
         a.setComentario(comentario);
-        return avaliacaoRepository.save(a);
+        Avaliacao salva = avaliacaoRepository.save(a);
+        // A nota conta para o usuário dono do estabelecimento avaliado
+        estabelecimentoRepository.findUsuarioIdById(estabelecimento.getId())
+                .ifPresent(donoId -> estatisticaService.registrarAvaliacao(donoId, nota));
+        return salva;
     }
 
+    @Transactional(readOnly = true)
     public List<Avaliacao> listarPorEstabelecimento(Estabelecimento e) {
         return avaliacaoRepository.findByEstabelecimento(e);
     }
 
+    @Transactional(readOnly = true)
     public Double media(Long estabelecimentoId) {
         return avaliacaoRepository.mediaPorEstabelecimento(estabelecimentoId);
     }
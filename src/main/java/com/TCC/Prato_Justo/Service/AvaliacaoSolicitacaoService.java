@@ -1,24 +1,42 @@
 package com.TCC.Prato_Justo.Service;
 
+import com.TCC.Prato_Justo.Interface.AnthUsuarioRepository;
 import com.TCC.Prato_Justo.Interface.AvaliacaoSolicitacaoRepository;
+import com.TCC.Prato_Justo.Interface.ReputacaoUsuarioRepository;
+import com.TCC.Prato_Justo.Interface.SolicitacaoRepository;
 import com.TCC.Prato_Justo.Model.AvaliacaoSolicitacao;
-import com.TCC.Prato_Justo.Model.Solicitacao;
+import com.TCC.Prato_Justo.Model.ReputacaoUsuario;
 import com.TCC.Prato_Justo.Model.StatusSolicitacao;
-import com.TCC.Prato_Justo.Model.Usuario;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Service
 public class AvaliacaoSolicitacaoService {
 
+    private static final int TAMANHO_PAGINA_MAXIMO = 100;
+
     private final AvaliacaoSolicitacaoRepository avaliacaoRepository;
+    private final ReputacaoUsuarioRepository reputacaoRepository;
+    private final AnthUsuarioRepository usuarioRepository;
+    private final SolicitacaoRepository solicitacaoRepository;
 
-    public AvaliacaoSolicitacaoService(AvaliacaoSolicitacaoRepository avaliacaoRepository) {
+    public AvaliacaoSolicitacaoService(AvaliacaoSolicitacaoRepository avaliacaoRepository,
+                                       ReputacaoUsuarioRepository reputacaoRepository,
+                                       AnthUsuarioRepository usuarioRepository,
+                                       SolicitacaoRepository solicitacaoRepository) {
         this.avaliacaoRepository = avaliacaoRepository;
+        this.reputacaoRepository = reputacaoRepository;
+        this.usuarioRepository = usuarioRepository;
+        this.solicitacaoRepository = solicitacaoRepository;
     }
 
+    @Transactional
     public AvaliacaoSolicitacao criar(Long solicitacaoId, Long avaliadorId, Long avaliadoId, Integer nota, String comentario) {
         // Validar nota
         if (nota == null || nota < 1 || nota > 5) {
@@ -33,43 +51,88 @@ public class AvaliacaoSolicitacaoService {
 
         AvaliacaoSolicitacao avaliacao = new AvaliacaoSolicitacao();
         
-        Solicitacao solicitacao = new Solicitacao();
-        solicitacao.setId(solicitacaoId);
-        avaliacao.setSolicitacao(solicitacao);
-        
-        Usuario avaliador = new Usuario();
-        avaliador.setId(avaliadorId);
-        avaliacao.setAvaliador(avaliador);
-        
-        Usuario avaliado = new Usuario();
-        avaliado.setId(avaliadoId);
-        avaliacao.setAvaliado(avaliado);
+        // Entidades carregadas: Solicitacao e Usuario são versionados (um objeto montado só com o id não pode
+        // ser gravado) e a resposta é serializada depois da transação, sem open-in-view para abrir proxies
+        avaliacao.setSolicitacao(solicitacaoRepository.findById(solicitacaoId)
+                .orElseThrow(() -> new IllegalArgumentException("Solicitação não encontrada")));
+        avaliacao.setAvaliador(usuarioRepository.findById(avaliadorId)
+                .orElseThrow(() -> new IllegalArgumentException("Avaliador não encontrado")));
+        avaliacao.setAvaliado(usuarioRepository.findById(avaliadoId)
+                .orElseThrow(() -> new IllegalArgumentException("Avaliado não encontrado")));
         
         avaliacao.setNota(nota);
         avaliacao.setComentario(comentario);
         
-        return avaliacaoRepository.save(avaliacao);
+        AvaliacaoSolicitacao salva = avaliacaoRepository.save(avaliacao);
+        registrarNota(avaliadoId, nota);
+        return salva;
+    }
+
+    // Atualiza o agregado na mesma transação da inserção; se ainda não existir, semeia a partir da tabela.
+    // Só roda depois da avaliação gravada, e a chave estrangeira dela garante que o avaliado existe.
+    private void registrarNota(Long avaliadoId, int nota) {
+        long n1 = nota == 1 ? 1 : 0, n2 = nota == 2 ? 1 : 0, n3 = nota == 3 ? 1 : 0, n4 = nota == 4 ? 1 : 0, n5 = nota == 5 ? 1 : 0;
+        LocalDateTime agora = LocalDateTime.now();
+        if (reputacaoRepository.registrarNota(avaliadoId, nota, n1, n2, n3, n4, n5, agora) == 0) {
+            // Duas primeiras avaliações simultâneas não colidem: a segunda soma a sua nota na linha da primeira
+            ReputacaoUsuario r = recalcular(avaliadoId);
+            reputacaoRepository.semear(avaliadoId, r.getSomaNotas(), r.getTotalAvaliacoes(),
+                    r.getNotas1(), r.getNotas2(), r.getNotas3(), r.getNotas4(), r.getNotas5(),
+                    nota, n1, n2, n3, n4, n5, agora);
+        }
     }
 
+    @Transactional(readOnly = true)
     public List<AvaliacaoSolicitacao> listarPorSolicitacao(Long solicitacaoId) {
         return avaliacaoRepository.findBySolicitacaoId(solicitacaoId);
     }
 
+    @Transactional(readOnly = true)
     public List<AvaliacaoSolicitacao> listarPorAvaliado(Long usuarioId) {
         return avaliacaoRepository.findByAvaliadoId(usuarioId);
     }
 
+    @Transactional(readOnly = true)
+    public Slice<AvaliacaoSolicitacao> listarPorAvaliado(Long usuarioId, int pagina, int tamanho) {
+        int tamanhoValido = Math.min(Math.max(tamanho, 1), TAMANHO_PAGINA_MAXIMO);
+        return avaliacaoRepository.findPaginaPorAvaliadoId(usuarioId, PageRequest.of(Math.max(pagina, 0), tamanhoValido));
+    }
+
+    @Transactional(readOnly = true)
     public List<AvaliacaoSolicitacao> listarPorAvaliador(Long usuarioId) {
         return avaliacaoRepository.findByAvaliadorId(usuarioId);
     }
 
     public Double mediaPorAvaliado(Long usuarioId) {
-        Double media = avaliacaoRepository.mediaPorAvaliadoId(usuarioId);
-        return media != null ? media : 0.0;
+        return obterReputacao(usuarioId).getMedia();
     }
 
     public Long contarPorAvaliado(Long usuarioId) {
-        return avaliacaoRepository.countByAvaliadoId(usuarioId);
+        return obterReputacao(usuarioId).getTotalAvaliacoes();
+    }
+
+    /**
+     * Lê o agregado de reputação do usuário; sem linha, o recálculo, sem gravar (a linha nasce na primeira avaliação)
+     */
+    @Transactional(readOnly = true)
+    public ReputacaoUsuario obterReputacao(Long usuarioId) {
+        return reputacaoRepository.findById(usuarioId)
+                .orElseGet(() -> recalcular(usuarioId));
+    }
+
+    /**
+     * Total de avaliações e instante da última atualização do agregado, sem carregar a entidade
+     */
+    public Optional<Object[]> versaoReputacao(Long usuarioId) {
+        return reputacaoRepository.findVersao(usuarioId).stream().findFirst();
+    }
+
+    public ReputacaoUsuario recalcular(Long usuarioId) {
+        ReputacaoUsuario reputacao = new ReputacaoUsuario(usuarioId);
+        for (Object[] linha : avaliacaoRepository.contarPorNota(usuarioId)) {
+            reputacao.adicionar(((Number) linha[0]).intValue(), ((Number) linha[1]).longValue());
+        }
+        return reputacao;
     }
 }
 
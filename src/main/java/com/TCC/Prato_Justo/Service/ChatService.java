@@ -6,6 +6,7 @@ import com.TCC.Prato_Justo.Model.Chat;
 import com.TCC.Prato_Justo.Model.Mensagem;
 import com.TCC.Prato_Justo.Model.Usuario;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -22,21 +23,25 @@ public class ChatService {
     }
 
     // Buscar todos os chats de um usuário
+    @Transactional(readOnly = true)
     public List<Chat> listarChatsDoUsuario(Usuario usuario) {
         return chatRepository.findByUsuario(usuario);
     }
 
     // Buscar chat entre dois usuários
+    @Transactional(readOnly = true)
     public Optional<Chat> buscarChatEntreUsuarios(Usuario usuario1, Usuario usuario2) {
         return chatRepository.findChatEntreUsuarios(usuario1, usuario2);
     }
 
     // Buscar chat por token
+    @Transactional(readOnly = true)
     public Optional<Chat> buscarChatPorToken(String token) {
         return chatRepository.findByToken(token);
     }
 
     // Buscar chat por ID
+    @Transactional(readOnly = true)
     public Optional<Chat> buscarChatPorId(Long id) {
         return chatRepository.findById(id);
     }
@@ -51,6 +56,7 @@ public class ChatService {
     }
 
     // Obter última mensagem do chat
+    @Transactional(readOnly = true)
     public Optional<Mensagem> obterUltimaMensagem(Chat chat) {
         Usuario usuario1 = chat.getUsuario1();
         Usuario usuario2 = chat.getUsuario2();
@@ -1,27 +1,50 @@
 package com.TCC.Prato_Justo.Service;
 
+import com.TCC.Prato_Justo.Interface.DoacaoArquivadaRepository;
 import com.TCC.Prato_Justo.Interface.DoacaoRepository;
 import com.TCC.Prato_Justo.Model.Doacao;
+import com.TCC.Prato_Justo.Model.DoacaoArquivada;
 import com.TCC.Prato_Justo.Model.Usuario;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class DoacaoService {
 
     private final DoacaoRepository doacaoRepository;
+    private final DoacaoArquivadaRepository doacaoArquivadaRepository;
+    private final UsuarioEstatisticaService estatisticaService;
+    private final IndiceBuscaDoacao indiceBusca;
+    private final EstabelecimentoService estabelecimentoService;
+    private final AgregadoGradeDoacao agregadoMapa;
     
     @org.springframework.beans.factory.annotation.Autowired(required = false)
     private FileUploadService fileUploadService;
 
-    public DoacaoService(DoacaoRepository doacaoRepository) {
+    public DoacaoService(DoacaoRepository doacaoRepository,
+                         DoacaoArquivadaRepository doacaoArquivadaRepository,
+                         UsuarioEstatisticaService estatisticaService,
+                         IndiceBuscaDoacao indiceBusca,
+                         EstabelecimentoService estabelecimentoService,
+                         AgregadoGradeDoacao agregadoMapa) {
         this.doacaoRepository = doacaoRepository;
+        this.doacaoArquivadaRepository = doacaoArquivadaRepository;
+        this.estatisticaService = estatisticaService;
+        this.indiceBusca = indiceBusca;
+        this.estabelecimentoService = estabelecimentoService;
+        this.agregadoMapa = agregadoMapa;
     }
 
+    @Transactional
     public Doacao criar(Doacao nova, Usuario doador) {
         if (doador != null) {
             nova.setDoador(doador);
@@ -36,11 +59,25 @@ public class DoacaoService {
                 salva = doacaoRepository.save(salva);
             }
         }
+
+        if (salva.getDoador() != null) {
+            estatisticaService.registrarDoacaoCriada(salva.getDoador().getId(), Boolean.TRUE.equals(salva.getAtivo()));
+        }
+        indiceBusca.atualizar(salva);
+        agregadoMapa.atualizar(salva);
         
         return salva;
     }
 
+    @Transactional(readOnly = true)
     public List<Doacao> listarAtivas(String tipoAlimento, String cidade) {
+        if (tipoAlimento != null && indiceBusca.isPronto()) {
+            // Mesma regra do filtro abaixo (trecho, não termos do BM25), sem ler todas as ativas do banco
+            List<Long> ids = indiceBusca.filtrarPorTipo(tipoAlimento, cidade);
+            return carregarAtivas(ids).stream()
+                    .sorted(Comparator.comparing(Doacao::getCriadoEm).reversed())
+                    .collect(Collectors.toList());
+        }
         List<Doacao> base = doacaoRepository.findByAtivoTrue();
         return base.stream()
                 .filter(d -> tipoAlimento == null || (d.getTipoAlimento() != null && d.getTipoAlimento().toLowerCase().contains(tipoAlimento.toLowerCase())))
@@ -49,12 +86,42 @@ public class DoacaoService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Busca textual em título, descrição e tipo de alimento, por relevância, com filtros opcionais de cidade e raio
+     */
+    @Transactional(readOnly = true)
+    public List<Doacao> buscar(String consulta, String cidade, Double latitude, Double longitude, Double raioKm, int limite) {
+        List<Long> ids = indiceBusca.buscar(consulta, IndiceBuscaDoacao.TODOS_OS_CAMPOS,
+                new IndiceBuscaDoacao.Filtro(cidade, latitude, longitude, raioKm), limite);
+        return carregarAtivas(ids);
+    }
+
+    // Carrega as doações na ordem dos ids, descartando as que deixaram de estar ativas
+    private List<Doacao> carregarAtivas(List<Long> ids) {
+        if (ids.isEmpty()) return List.of();
+        Map<Long, Doacao> porId = new HashMap<>();
+        doacaoRepository.findAllById(ids).forEach(d -> porId.put(d.getId(), d));
+        return ids.stream()
+                .map(porId::get)
+                .filter(d -> d != null && Boolean.TRUE.equals(d.getAtivo()))
+                .collect(Collectors.toList());
+    }
+
     public Optional<Doacao> obter(Long id) {
         return doacaoRepository.findById(id);
     }
 
+    /**
+     * Versões da doação, do doador e do estabelecimento de destino; vazio se a doação não existe
+     */
+    public Optional<Object[]> versoes(Long id) {
+        return doacaoRepository.findVersoes(id).stream().findFirst();
+    }
+
+    @Transactional
     public Doacao atualizar(Long id, Doacao atualizada) {
         return doacaoRepository.findById(id).map(d -> {
+            boolean estavaAtiva = Boolean.TRUE.equals(d.getAtivo());
             d.setTitulo(atualizada.getTitulo());
             d.setDescricao(atualizada.getDescricao());
             d.setTipoAlimento(atualizada.getTipoAlimento());
@@ -75,48 +142,96 @@ public class DoacaoService {
                 d.setImagem(atualizada.getImagem());
             }
             d.setAtivo(atualizada.getAtivo() != null ? atualizada.getAtivo() : d.getAtivo());
-            return doacaoRepository.save(d);
+            Doacao salva = doacaoRepository.save(d);
+            boolean ativaAgora = Boolean.TRUE.equals(salva.getAtivo());
+            if (salva.getDoador() != null && estavaAtiva != ativaAgora) {
+                estatisticaService.registrarMudancaAtivo(salva.getDoador().getId(), ativaAgora);
+            }
+            indiceBusca.atualizar(salva);
+            agregadoMapa.atualizar(salva);
+            return salva;
         }).orElseThrow(() -> new IllegalArgumentException("Doação não encontrada"));
     }
 
+    @Transactional
     public void remover(Long id) {
-        doacaoRepository.deleteById(id);
+        doacaoRepository.findById(id).ifPresent(d -> {
+            doacaoRepository.delete(d);
+            if (d.getDoador() != null) {
+                estatisticaService.registrarDoacaoRemovida(d.getDoador().getId(), Boolean.TRUE.equals(d.getAtivo()));
+            }
+            indiceBusca.remover(d.getId());
+            agregadoMapa.remover(d.getId());
+        });
     }
 
+    @Transactional(readOnly = true)
     public List<Doacao> proximas(Double latitude, Double longitude, Double raioKm) {
         if (latitude == null || longitude == null || raioKm == null) return doacaoRepository.findAllComCoordenadas();
+        // NaN passa por todas as comparações do motor e devolveria todas as doações
+        if (!Double.isFinite(latitude) || !Double.isFinite(longitude) || !Double.isFinite(raioKm)) {
+            throw new IllegalArgumentException("lat, lng e raio_km devem ser números finitos");
+        }
+        if (agregadoMapa != null && agregadoMapa.isPronto()) {
+            // Motor mantido pelo agregado do mapa, atualizado nas escritas: só as doações no raio saem do banco
+            return carregarAtivas(agregadoMapa.proximas(latitude, longitude, raioKm));
+        }
 
-        double raioKmLocal = Math.max(raioKm, 0);
-        return doacaoRepository.findAllComCoordenadas().stream()
-                .filter(d -> {
-                    if (d.getLatitude() == null || d.getLongitude() == null) return false;
-                    double distancia = distanciaKm(latitude, longitude, d.getLatitude(), d.getLongitude());
-                    return distancia <= raioKmLocal;
-                })
-                .sorted((a, b) -> {
-                    double da = distanciaKm(latitude, longitude, a.getLatitude(), a.getLongitude());
-                    double db = distanciaKm(latitude, longitude, b.getLatitude(), b.getLongitude());
-                    return Double.compare(da, db);
-                })
-                .collect(Collectors.toList());
+        List<Doacao> candidatas = doacaoRepository.findAllComCoordenadas();
+        Doacao[] comCoordenadas = new Doacao[candidatas.size()];
+        double[] latitudes = new double[candidatas.size()];
+        double[] longitudes = new double[candidatas.size()];
+        int n = 0;
+        for (Doacao d : candidatas) {
+            if (d.getLatitude() == null || d.getLongitude() == null) continue;
+            comCoordenadas[n] = d;
+            latitudes[n] = d.getLatitude();
+            longitudes[n] = d.getLongitude();
+            n++;
+        }
+
+        // Já ordenadas pela distância, calculada uma vez por doação
+        int[] posicoes = new MotorDistancia(latitudes, longitudes, n).dentroDoRaio(latitude, longitude, raioKm);
+        List<Doacao> resultado = new ArrayList<>(posicoes.length);
+        for (int posicao : posicoes) {
+            resultado.add(comCoordenadas[posicao]);
+        }
+        return resultado;
     }
 
-    public List<Doacao> listarPorDoador(Long doadorId) {
-        return doacaoRepository.findByDoadorId(doadorId).stream()
-                .sorted(Comparator.comparing(Doacao::getCriadoEm).reversed())
-                .collect(Collectors.toList());
+    /**
+     * Doações ativas do tile z/x/y agrupadas, com quantidade e centróide por grupo
+     */
+    public AgregadoGradeDoacao.TileMapa tileMapa(int z, int x, int y) {
+        return agregadoMapa.tile(z, x, y);
     }
 
-    private double distanciaKm(double lat1, double lon1, double lat2, double lon2) {
-        double R = 6371.0; // raio da Terra em km
-        double dLat = Math.toRadians(lat2 - lat1);
-        double dLon = Math.toRadians(lon2 - lon1);
-        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
-                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
-                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
-        return R * c;
+    public long versaoMapa() {
+        return agregadoMapa.getVersao();
     }
-}
 
+    /**
+     * Estabelecimentos mais próximos da doação, candidatos a estabelecimentoDestino
+     */
+    @Transactional(readOnly = true)
+    public List<EstabelecimentoService.EstabelecimentoProximo> sugerirDestinos(Long id, double raioKm, int limite) {
+        Doacao doacao = doacaoRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Doação não encontrada"));
+        if (doacao.getLatitude() == null || doacao.getLongitude() == null) {
+            throw new IllegalArgumentException("Doação sem coordenadas");
+        }
+        return estabelecimentoService.proximos(doacao.getLatitude(), doacao.getLongitude(), raioKm, 0, limite).getContent();
+    }
 
+    /**
+     * Histórico do doador: doações da tabela principal e do arquivo
+     */
+    @Transactional(readOnly = true)
+    public List<Doacao> listarPorDoador(Long doadorId) {
+        Stream<Doacao> arquivadas = doacaoArquivadaRepository.findByDoadorId(doadorId).stream()
+                .map(DoacaoArquivada::toDoacao);
+        return Stream.concat(doacaoRepository.findByDoadorId(doadorId).stream(), arquivadas)
+                .sorted(Comparator.comparing(Doacao::getCriadoEm).reversed())
+                .collect(Collectors.toList());
+    }
+}
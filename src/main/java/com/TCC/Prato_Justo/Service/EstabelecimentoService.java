@@ -2,8 +2,15 @@ package com.TCC.Prato_Justo.Service;
 
 import com.TCC.Prato_Justo.Interface.AnthEstabelecimentoRepository;
 import com.TCC.Prato_Justo.Model.Estabelecimento;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,6 +18,9 @@ import java.util.Optional;
 @Service
 public class EstabelecimentoService {
 
+        private static final int TAMANHO_PAGINA_MAXIMO = 100;
+        public static final double RAIO_MAXIMO_KM = 50;
+
         private final AnthEstabelecimentoRepository estabelecimentoRepository;
 
     public EstabelecimentoService(AnthEstabelecimentoRepository anthEstabelecimentoRepository) {
@@ -20,12 +30,42 @@ public class EstabelecimentoService {
 
     // Criar ou atualizar
         public Estabelecimento salvar(Estabelecimento estabelecimento) {
+            validarCoordenadas(estabelecimento.getLatitude(), estabelecimento.getLongitude());
+            estabelecimento.setCelulaGrade(GradeGeografica.celula(estabelecimento.getLatitude(), estabelecimento.getLongitude()));
             return estabelecimentoRepository.save(estabelecimento);
         }
 
-        // Listar todos
-        public List<Estabelecimento> listarTodos() {
-            return estabelecimentoRepository.findAll();
+        // Listar paginado pela chave primária
+        @Transactional(readOnly = true)
+        public Page<Estabelecimento> listar(int pagina, int tamanho) {
+            Slice<Estabelecimento> slice = estabelecimentoRepository.findPagina(paginacao(pagina, tamanho));
+            return new PageImpl<>(slice.getContent(), slice.getPageable(), estabelecimentoRepository.count());
+        }
+
+        /**
+         * Estabelecimentos a até raioKm da coordenada, do mais próximo ao mais distante
+         */
+        @Transactional(readOnly = true)
+        public Page<EstabelecimentoProximo> proximos(double latitude, double longitude, double raioKm, int pagina, int tamanho) {
+            validarCoordenadas(latitude, longitude);
+            if (raioKm <= 0 || raioKm > RAIO_MAXIMO_KM) {
+                throw new IllegalArgumentException("raio_km deve estar entre 0 e " + (int) RAIO_MAXIMO_KM);
+            }
+            GradeGeografica.Retangulo r = GradeGeografica.retangulo(latitude, longitude, raioKm);
+            List<EstabelecimentoProximo> dentroDoRaio = estabelecimentoRepository
+                    .findNaGrade(GradeGeografica.celulasNoRaio(latitude, longitude, raioKm),
+                            r.getLatMin(), r.getLatMax(), r.getLngMin(), r.getLngMax())
+                    .stream()
+                    .map(e -> new EstabelecimentoProximo(e,
+                            GradeGeografica.distanciaKm(latitude, longitude, e.getLatitude(), e.getLongitude())))
+                    .filter(p -> p.getDistanciaKm() <= raioKm)
+                    .sorted(Comparator.comparingDouble(EstabelecimentoProximo::getDistanciaKm))
+                    .toList();
+
+            Pageable pageable = paginacao(pagina, tamanho);
+            int inicio = (int) Math.min(pageable.getOffset(), dentroDoRaio.size());
+            int fim = Math.min(inicio + pageable.getPageSize(), dentroDoRaio.size());
+            return new PageImpl<>(dentroDoRaio.subList(inicio, fim), pageable, dentroDoRaio.size());
         }
 
         // Buscar por ID
@@ -37,7 +77,35 @@ public class EstabelecimentoService {
         public void deletar(Long id) {
             estabelecimentoRepository.deleteById(id);
         }
-    }
 
+        private static Pageable paginacao(int pagina, int tamanho) {
+            return PageRequest.of(Math.max(pagina, 0), Math.min(Math.max(tamanho, 1), TAMANHO_PAGINA_MAXIMO));
+        }
+
+        private static void validarCoordenadas(Double latitude, Double longitude) {
+            if ((latitude == null) != (longitude == null)) {
+                throw new IllegalArgumentException("Informe latitude e longitude juntas");
+            }
+            if (latitude != null && (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180)) {
+                throw new IllegalArgumentException("Coordenadas inválidas");
+            }
+        }
+
+        public static class EstabelecimentoProximo {
+            private final Estabelecimento estabelecimento;
+            private final double distanciaKm;
 
+            public EstabelecimentoProximo(Estabelecimento estabelecimento, double distanciaKm) {
+                this.estabelecimento = estabelecimento;
+                this.distanciaKm = distanciaKm;
+            }
 
+            public Estabelecimento getEstabelecimento() {
+                return estabelecimento;
+            }
+
+            public double getDistanciaKm() {
+                return distanciaKm;
+            }
+        }
+    }
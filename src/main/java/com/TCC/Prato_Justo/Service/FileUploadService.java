@@ -1,5 +1,10 @@
 package com.TCC.Prato_Justo.Service;
 
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
@@ -11,17 +16,30 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class FileUploadService {
 
+    private static final Logger log = LoggerFactory.getLogger(FileUploadService.class);
+
     @Value("${upload.dir}")
     private String uploadDir;
 
+    private final MeterRegistry meterRegistry;
+
+    public FileUploadService(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
     /**
      * Salva um arquivo de imagem e retorna a URL
      */
     public String saveAvatar(MultipartFile file, Long userId) throws IOException {
+        return medir("avatar", file, () -> salvarAvatar(file, userId));
+    }
+
+    private String salvarAvatar(MultipartFile file, Long userId) throws IOException {
         // Validar arquivo
         if (file.isEmpty()) {
             throw new IOException("Arquivo vazio");
@@ -43,7 +61,7 @@ public class FileUploadService {
         File uploadDirFile = new File(uploadDir);
         if (!uploadDirFile.exists()) {
             uploadDirFile.mkdirs();
-            System.out.println("📁 Diretório criado: " + uploadDirFile.getAbsolutePath());
+            log.info("upload_dir_created dir={}", uploadDirFile.getAbsolutePath());
         }
 
         // Gerar nome fixo baseado no userId para substituir arquivo antigo
@@ -68,7 +86,7 @@ public class FileUploadService {
                 for (File oldFile : oldFiles) {
                     if (!oldFile.getName().equals(filename)) {
                         oldFile.delete();
-                        System.out.println("🗑️ Avatar antigo deletado: " + oldFile.getName());
+                        log.debug("avatar_deleted arquivo={}", oldFile.getName());
                     }
                 }
             }
@@ -77,7 +95,7 @@ public class FileUploadService {
         // Salvar arquivo
         Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
 
-        System.out.println("✅ Avatar salvo: " + filePath);
+        log.debug("avatar_saved arquivo={}", filePath);
 
         // Retornar URL
         return "/uploads/avatars/" + filename;
@@ -97,10 +115,10 @@ public class FileUploadService {
             Path filePath = Paths.get(uploadDir, filename);
             
             if (Files.deleteIfExists(filePath)) {
-                System.out.println("🗑️ Avatar antigo deletado: " + filename);
+                log.debug("avatar_deleted arquivo={}", filename);
             }
         } catch (Exception e) {
-            System.err.println("⚠️ Erro ao deletar avatar: " + e.getMessage());
+            log.warn("avatar_delete_failed erro=\"{}\"", e.getMessage());
         }
     }
 
@@ -108,6 +126,10 @@ public class FileUploadService {
      * Salva uma imagem de alimento e retorna a URL
      */
     public String saveFoodImage(MultipartFile file, Long doacaoId) throws IOException {
+        return medir("food", file, () -> salvarImagemAlimento(file, doacaoId));
+    }
+
+    private String salvarImagemAlimento(MultipartFile file, Long doacaoId) throws IOException {
         // Validar arquivo
         if (file.isEmpty()) {
             throw new IOException("Arquivo vazio");
@@ -136,7 +158,7 @@ public class FileUploadService {
         File foodImagesDirFile = new File(rootUploadDir, "alimentos");
         if (!foodImagesDirFile.exists()) {
             foodImagesDirFile.mkdirs();
-            System.out.println("📁 Diretório de alimentos criado: " + foodImagesDirFile.getAbsolutePath());
+            log.info("upload_dir_created dir={}", foodImagesDirFile.getAbsolutePath());
         }
 
         // Gerar nome do arquivo
@@ -161,7 +183,7 @@ public class FileUploadService {
                 for (File oldFile : oldFiles) {
                     if (!oldFile.getName().equals(filename)) {
                         oldFile.delete();
-                        System.out.println("🗑️ Imagem de alimento antiga deletada: " + oldFile.getName());
+                        log.debug("food_image_deleted arquivo={}", oldFile.getName());
                     }
                 }
             }
@@ -175,7 +197,7 @@ public class FileUploadService {
         // Salvar arquivo
         Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
 
-        System.out.println("✅ Imagem de alimento salva: " + filePath);
+        log.debug("food_image_saved arquivo={}", filePath);
 
         // Retornar URL
         return "/uploads/alimentos/" + filename;
@@ -203,10 +225,10 @@ public class FileUploadService {
             Path filePath = Paths.get(foodImagesDir.getAbsolutePath(), filename);
             
             if (Files.deleteIfExists(filePath)) {
-                System.out.println("🗑️ Imagem de alimento deletada: " + filename);
+                log.debug("food_image_deleted arquivo={}", filename);
             }
         } catch (Exception e) {
-            System.err.println("⚠️ Erro ao deletar imagem de alimento: " + e.getMessage());
+            log.warn("food_image_delete_failed erro=\"{}\"", e.getMessage());
         }
     }
 
@@ -251,14 +273,41 @@ public class FileUploadService {
             // Renomear arquivo
             if (Files.exists(oldPath)) {
                 Files.move(oldPath, newPath, StandardCopyOption.REPLACE_EXISTING);
-                System.out.println("✅ Arquivo renomeado: " + tempFilename + " -> " + newFilename);
+                log.debug("food_image_renamed de={} para={}", tempFilename, newFilename);
                 return "/uploads/alimentos/" + newFilename;
             }
         } catch (Exception e) {
-            System.err.println("⚠️ Erro ao renomear imagem de alimento: " + e.getMessage());
+            log.warn("food_image_rename_failed erro=\"{}\"", e.getMessage());
         }
 
         return tempImageUrl;
     }
-}
 
+    // Duração de todo upload (inclusive os recusados na validação) e tamanho dos que foram gravados
+    private String medir(String tipo, MultipartFile file, Upload upload) throws IOException {
+        long inicio = System.nanoTime();
+        String resultado = "error";
+        try {
+            String url = upload.executar();
+            resultado = "success";
+            DistributionSummary.builder("upload.size")
+                    .description("Tamanho dos arquivos gravados")
+                    .baseUnit("bytes")
+                    .tag("type", tipo)
+                    .register(meterRegistry)
+                    .record(file.getSize());
+            return url;
+        } finally {
+            Timer.builder("upload.duration")
+                    .description("Validação e gravação dos uploads")
+                    .tags("type", tipo, "result", resultado)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Upload {
+        String executar() throws IOException;
+    }
+}
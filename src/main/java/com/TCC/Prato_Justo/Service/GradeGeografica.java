@@ -0,0 +1,98 @@
+package com.TCC.Prato_Justo.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Grade fixa de células de 0,1° (cerca de 11 km no equador) usada para indexar coordenadas.
+ * Uma busca por raio vira uma lista de células, consultada por igualdade num índice B-tree,
+ * seguida do filtro exato pela distância.
+ */
+public final class GradeGeografica {
+
+    public static final double TAMANHO_CELULA_GRAUS = 0.1;
+    static final long COLUNAS = Math.round(360 / TAMANHO_CELULA_GRAUS);
+    private static final double KM_POR_GRAU_LATITUDE = 111.32;
+    static final double RAIO_TERRA_KM = 6371.0;
+
+    private GradeGeografica() {
+    }
+
+    /**
+     * Célula que contém a coordenada, ou nulo se a coordenada estiver incompleta
+     */
+    public static Long celula(Double latitude, Double longitude) {
+        if (latitude == null || longitude == null) return null;
+        return linha(latitude) * COLUNAS + coluna(longitude);
+    }
+
+    /**
+     * Células que cobrem o retângulo envolvente do círculo de raio dado
+     */
+    public static List<Long> celulasNoRaio(double latitude, double longitude, double raioKm) {
+        Retangulo r = retangulo(latitude, longitude, raioKm);
+        List<Long> celulas = new ArrayList<>();
+        for (long l = linha(r.latMin); l <= linha(r.latMax); l++) {
+            for (long c = coluna(r.lngMin); c <= coluna(r.lngMax); c++) {
+                celulas.add(l * COLUNAS + c);
+            }
+        }
+        return celulas;
+    }
+
+    public static Retangulo retangulo(double latitude, double longitude, double raioKm) {
+        double dLat = raioKm / KM_POR_GRAU_LATITUDE;
+        // Perto dos polos a longitude perde sentido: cobre a faixa inteira
+        double cosLat = Math.cos(Math.toRadians(latitude));
+        double dLng = cosLat < 1e-6 ? 180 : Math.min(raioKm / (KM_POR_GRAU_LATITUDE * cosLat), 180);
+        return new Retangulo(Math.max(latitude - dLat, -90), Math.min(latitude + dLat, 90),
+                Math.max(longitude - dLng, -180), Math.min(longitude + dLng, 180));
+    }
+
+    public static double distanciaKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return RAIO_TERRA_KM * 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    }
+
+    static long linha(double latitude) {
+        return Math.min((long) Math.floor((latitude + 90) / TAMANHO_CELULA_GRAUS), Math.round(180 / TAMANHO_CELULA_GRAUS) - 1);
+    }
+
+    static long coluna(double longitude) {
+        return Math.min((long) Math.floor((longitude + 180) / TAMANHO_CELULA_GRAUS), COLUNAS - 1);
+    }
+
+    public static class Retangulo {
+        private final double latMin;
+        private final double latMax;
+        private final double lngMin;
+        private final double lngMax;
+
+        public Retangulo(double latMin, double latMax, double lngMin, double lngMax) {
+            this.latMin = latMin;
+            this.latMax = latMax;
+            this.lngMin = lngMin;
+            this.lngMax = lngMax;
+        }
+
+        public double getLatMin() {
+            return latMin;
+        }
+
+        public double getLatMax() {
+            return latMax;
+        }
+
+        public double getLngMin() {
+            return lngMin;
+        }
+
+        public double getLngMax() {
+            return lngMax;
+        }
+    }
+}
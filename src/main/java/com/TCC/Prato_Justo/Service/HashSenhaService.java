@@ -0,0 +1,139 @@
+package com.TCC.Prato_Justo.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Executa hash e verificação de senha (BCrypt) num pool próprio e limitado, fora das threads do Tomcat.
+ * Com a fila cheia a tarefa é recusada com RejectedExecutionException, que os controllers devolvem como 503:
+ * um pico de logins não ocupa todas as threads de requisição nem atrasa as rotas públicas.
+ */
+@Service
+public class HashSenhaService {
+
+    private static final Logger log = LoggerFactory.getLogger(HashSenhaService.class);
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMs;
+    private final MeterRegistry meterRegistry;
+    private final Timer espera;
+    private final Counter recusadas;
+
+    public HashSenhaService(PasswordEncoder passwordEncoder,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.security.bcrypt.threads:0}") int threads,
+                            @Value("${app.security.bcrypt.queue-capacity:64}") int capacidadeFila,
+                            @Value("${app.security.bcrypt.timeout-ms:5000}") long timeoutMs) {
+        this.passwordEncoder = passwordEncoder;
+        this.timeoutMs = timeoutMs;
+        // BCrypt é só CPU: por padrão, uma thread por núcleo. Continua em threads de plataforma mesmo com
+        // spring.threads.virtual.enabled, para não prender as carrier threads nem perder o limite de admissão
+        int tamanho = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger contador = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(tamanho, tamanho, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(capacidadeFila, 1)),
+                r -> {
+                    Thread t = new Thread(r, "bcrypt-" + contador.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.meterRegistry = meterRegistry;
+        this.espera = Timer.builder("bcrypt.queue.wait")
+                .description("Tempo na fila do pool de hash até começar a executar")
+                .register(meterRegistry);
+        this.recusadas = Counter.builder("bcrypt.rejected")
+                .description("Tarefas recusadas com a fila cheia (503)")
+                .register(meterRegistry);
+        Gauge.builder("bcrypt.queue.size", this, HashSenhaService::getTamanhoFila)
+                .description("Tarefas aguardando no pool de hash")
+                .register(meterRegistry);
+        Gauge.builder("bcrypt.threads.active", this, HashSenhaService::getThreadsAtivas)
+                .description("Threads do pool de hash executando")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Agenda uma tarefa que faz BCrypt (por exemplo, a autenticação inteira do login).
+     *
+     * @throws RejectedExecutionException se a fila estiver cheia
+     */
+    public <T> CompletableFuture<T> submeter(String operacao, Supplier<T> tarefa) {
+        // Execução medida à parte da espera: o login inclui a busca do usuário além do BCrypt
+        Timer execucao = Timer.builder("bcrypt.task.duration")
+                .description("Execução das tarefas do pool de hash")
+                .tag("operation", operacao)
+                .register(meterRegistry);
+        long enfileirada = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                espera.record(System.nanoTime() - enfileirada, TimeUnit.NANOSECONDS);
+                return execucao.record(tarefa);
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            recusadas.increment();
+            log.warn("bcrypt_rejected fila={} ativas={}", executor.getQueue().size(), executor.getActiveCount());
+            throw e;
+        }
+    }
+
+    /**
+     * Codifica a senha no pool e espera o resultado (cadastro e troca de senha)
+     */
+    public String codificar(String senha) {
+        return aguardar(submeter("encode", () -> passwordEncoder.encode(senha)));
+    }
+
+    public boolean confere(String senha, String hash) {
+        if (senha == null || hash == null) return false;
+        return aguardar(submeter("verify", () -> passwordEncoder.matches(senha, hash)));
+    }
+
+    private <T> T aguardar(CompletableFuture<T> futuro) {
+        try {
+            return futuro.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            futuro.cancel(false);
+            throw new RejectedExecutionException("Tempo esgotado aguardando o hash da senha", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrompido aguardando o hash da senha", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    public int getTamanhoFila() {
+        return executor.getQueue().size();
+    }
+
+    public int getThreadsAtivas() {
+        return executor.getActiveCount();
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,71 @@
+package com.TCC.Prato_Justo.Service;
+
+import com.TCC.Prato_Justo.Interface.ChaveIdempotenciaRepository;
+import com.TCC.Prato_Justo.Model.ChaveIdempotencia;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Service
+public class IdempotenciaService {
+
+    public static final int TAMANHO_MAXIMO_CHAVE = 100;
+
+    private final ChaveIdempotenciaRepository chaveRepository;
+
+    @Value("${app.idempotency.ttl-hours:24}")
+    private long validadeHoras;
+
+    public IdempotenciaService(ChaveIdempotenciaRepository chaveRepository) {
+        this.chaveRepository = chaveRepository;
+    }
+
+    /**
+     * Retorna o id do recurso já criado com esta chave, se houver.
+     * A chave é isolada por usuário; reutilizá-la em outra operação é erro.
+     */
+    public Optional<Long> buscar(Long usuarioId, String chave, String operacao) {
+        validar(chave);
+        return chaveRepository.findById(chaveDoUsuario(usuarioId, chave))
+                .filter(c -> !c.getCriadoEm().isBefore(LocalDateTime.now().minusHours(validadeHoras)))
+                .map(c -> {
+                    if (!c.getOperacao().equals(operacao)) {
+                        throw new IllegalArgumentException("Idempotency-Key já utilizada em outra operação");
+                    }
+                    return c.getRecursoId();
+                });
+    }
+
+    /**
+     * Registra o resultado da chave; se outra requisição com a mesma chave registrou antes, mantém a primeira
+     */
+    public void registrar(Long usuarioId, String chave, String operacao, Long recursoId) {
+        validar(chave);
+        try {
+            chaveRepository.save(new ChaveIdempotencia(chaveDoUsuario(usuarioId, chave), operacao, recursoId));
+        } catch (DataIntegrityViolationException e) {
+            // Registro concorrente com a mesma chave: o primeiro prevalece
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.idempotency.cleanup-interval-ms:3600000}")
+    @Transactional
+    public void limparExpiradas() {
+        chaveRepository.removerAnterioresA(LocalDateTime.now().minusHours(validadeHoras));
+    }
+
+    private void validar(String chave) {
+        if (chave == null || chave.isBlank() || chave.length() > TAMANHO_MAXIMO_CHAVE) {
+            throw new IllegalArgumentException("Idempotency-Key inválida (1 a " + TAMANHO_MAXIMO_CHAVE + " caracteres)");
+        }
+    }
+
+    private String chaveDoUsuario(Long usuarioId, String chave) {
+        return usuarioId + ":" + chave;
+    }
+}
@@ -0,0 +1,419 @@
+package com.TCC.Prato_Justo.Service;
+
+import com.TCC.Prato_Justo.Interface.DoacaoRepository;
+import com.TCC.Prato_Justo.Model.Doacao;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.text.Normalizer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Índice invertido em memória sobre título, descrição e tipo de alimento das doações ativas.
+ * Normaliza acentos, aceita prefixos e erros de digitação e ordena por relevância (BM25).
+ * É reconstruído na subida e periodicamente; entre reconstruções, recebe as escritas do
+ * DoacaoService depois do commit.
+ */
+@Component
+public class IndiceBuscaDoacao {
+
+    private static final Logger log = LoggerFactory.getLogger(IndiceBuscaDoacao.class);
+
+    // Campos indexados e seus pesos na relevância
+    public static final int TITULO = 0;
+    public static final int TIPO_ALIMENTO = 1;
+    public static final int DESCRICAO = 2;
+    private static final double[] PESOS = {3.0, 2.0, 1.0};
+    public static final boolean[] TODOS_OS_CAMPOS = {true, true, true};
+    public static final boolean[] SOMENTE_TIPO = {false, true, false};
+
+    // Parâmetros do BM25
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    // Fator aplicado quando o termo casa por prefixo ou com erro de digitação
+    private static final double FATOR_PREFIXO = 0.7;
+    private static final double FATOR_UM_ERRO = 0.5;
+    private static final double FATOR_DOIS_ERROS = 0.3;
+
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^a-z0-9]+");
+    private static final Set<String> STOPWORDS = Set.of(
+            "a", "o", "as", "os", "de", "da", "do", "das", "dos", "e", "em", "no", "na", "nos", "nas",
+            "um", "uma", "uns", "umas", "com", "sem", "por", "para", "pra", "ao", "aos", "que", "se");
+
+    private final DoacaoRepository doacaoRepository;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReconstrucaoIndice<Documento> reconstrucao = new ReconstrucaoIndice<>(lock, this::aplicar);
+
+    // termo -> (id da doação -> frequência por campo); ordenado para expandir prefixos
+    private TreeMap<String, Map<Long, int[]>> postings = new TreeMap<>();
+    private Map<Long, Documento> documentos = new HashMap<>();
+    private double somaComprimentos;
+    private volatile boolean pronto;
+
+    public IndiceBuscaDoacao(DoacaoRepository doacaoRepository) {
+        this.doacaoRepository = doacaoRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void construirNaSubida() {
+        reconstruir();
+    }
+
+    // Reconstrução periódica corrige escritas feitas fora deste processo
+    @Scheduled(initialDelayString = "${app.search.doacao.rebuild-interval-ms:900000}",
+               fixedDelayString = "${app.search.doacao.rebuild-interval-ms:900000}")
+    public void reconstruirAgendado() {
+        reconstruir();
+    }
+
+    /**
+     * Recarrega o índice do banco; se já houver uma reconstrução em andamento, não faz nada
+     */
+    public void reconstruir() {
+        try {
+            if (!reconstrucao.executar(this::carregar, this::instalar)) {
+                log.debug("search_index_rebuild_skipped indice=doacao motivo=em_andamento");
+            }
+        } catch (RuntimeException e) {
+            log.warn("search_index_rebuild_failed indice=doacao erro={}", e.getMessage());
+        }
+    }
+
+    private Carga carregar() {
+        Carga carga = new Carga();
+        for (Doacao d : doacaoRepository.findByAtivoTrue()) {
+            carga.somaComprimentos += adicionar(carga.postings, carga.documentos, Documento.de(d));
+        }
+        return carga;
+    }
+
+    // Chamado com o lock de escrita
+    private void instalar(Carga carga) {
+        postings = carga.postings;
+        documentos = carga.documentos;
+        somaComprimentos = carga.somaComprimentos;
+        pronto = true;
+        log.info("search_index_rebuilt indice=doacao documentos={} termos={}", documentos.size(), postings.size());
+    }
+
+    public boolean isPronto() {
+        return pronto;
+    }
+
+    /**
+     * Reindexa a doação (ou a retira, se inativa) depois do commit da transação corrente
+     */
+    public void atualizar(Doacao doacao) {
+        if (doacao == null || doacao.getId() == null) return;
+        Long id = doacao.getId();
+        Documento doc = Boolean.TRUE.equals(doacao.getAtivo()) ? Documento.de(doacao) : null;
+        aposCommit(() -> registrar(id, doc));
+    }
+
+    /**
+     * Retira a doação do índice depois do commit da transação corrente
+     */
+    public void remover(Long id) {
+        if (id == null) return;
+        aposCommit(() -> registrar(id, null));
+    }
+
+    private void aposCommit(Runnable acao) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    acao.run();
+                }
+            });
+        } else {
+            acao.run();
+        }
+    }
+
+    private void registrar(Long id, Documento doc) {
+        lock.writeLock().lock();
+        try {
+            reconstrucao.registrar(id, doc);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Chamado com o lock de escrita; doc nulo remove
+    private void aplicar(Long id, Documento doc) {
+        Documento anterior = documentos.remove(id);
+        if (anterior != null) {
+            somaComprimentos -= anterior.comprimento;
+            for (String termo : anterior.termos.keySet()) {
+                Map<Long, int[]> lista = postings.get(termo);
+                if (lista != null) {
+                    lista.remove(id);
+                    if (lista.isEmpty()) postings.remove(termo);
+                }
+            }
+        }
+        if (doc != null) {
+            somaComprimentos += adicionar(postings, documentos, doc);
+        }
+    }
+
+    private static double adicionar(TreeMap<String, Map<Long, int[]>> postings, Map<Long, Documento> documentos, Documento doc) {
+        documentos.put(doc.id, doc);
+        doc.termos.forEach((termo, freq) -> postings.computeIfAbsent(termo, t -> new HashMap<>()).put(doc.id, freq));
+        return doc.comprimento;
+    }
+
+    /**
+     * Ids das doações ativas cujo tipo de alimento contém o trecho, sem diferenciar maiúsculas, e, se
+     * informada, da mesma cidade (também sem diferenciar maiúsculas). É a regra do filtro sobre o banco:
+     * o trecho não é tokenizado, então pedaços de palavra e stopwords continuam casando.
+     */
+    public List<Long> filtrarPorTipo(String trecho, String cidade) {
+        String procurado = trecho.toLowerCase();
+        lock.readLock().lock();
+        try {
+            List<Long> ids = new ArrayList<>();
+            for (Documento doc : documentos.values()) {
+                if (doc.tipoAlimento == null || !doc.tipoAlimento.contains(procurado)) continue;
+                if (cidade != null && (doc.cidadeOriginal == null || !doc.cidadeOriginal.equalsIgnoreCase(cidade))) continue;
+                ids.add(doc.id);
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Busca as doações ativas que casam com todos os termos da consulta, em ordem de relevância.
+     *
+     * @param campos campos considerados (TODOS_OS_CAMPOS ou SOMENTE_TIPO)
+     * @param filtro filtros de cidade e raio aplicados antes da ordenação; pode ser nulo
+     * @param limite máximo de ids retornados; 0 ou negativo retorna todos
+     */
+    public List<Long> buscar(String consulta, boolean[] campos, Filtro filtro, int limite) {
+        List<String> termosConsulta = tokenizar(consulta);
+        if (termosConsulta.isEmpty()) return List.of();
+
+        lock.readLock().lock();
+        try {
+            if (documentos.isEmpty()) return List.of();
+            double comprimentoMedio = Math.max(somaComprimentos / documentos.size(), 1.0);
+            Map<Long, Double> pontuacao = null;
+
+            for (String termo : termosConsulta) {
+                Map<Long, Double> doTermo = new HashMap<>();
+                for (Map.Entry<String, Double> expansao : expandir(termo).entrySet()) {
+                    Map<Long, int[]> lista = postings.get(expansao.getKey());
+                    double idf = Math.log(1 + (documentos.size() - lista.size() + 0.5) / (lista.size() + 0.5));
+                    for (Map.Entry<Long, int[]> p : lista.entrySet()) {
+                        if (pontuacao != null && !pontuacao.containsKey(p.getKey())) continue;
+                        double tf = frequenciaPonderada(p.getValue(), campos);
+                        if (tf == 0) continue;
+                        Documento doc = documentos.get(p.getKey());
+                        double norma = K1 * (1 - B + B * doc.comprimento / comprimentoMedio);
+                        double s = expansao.getValue() * idf * (tf * (K1 + 1)) / (tf + norma);
+                        doTermo.merge(p.getKey(), s, Math::max);
+                    }
+                }
+                // Semântica de E: só continuam as doações que casaram com todos os termos até aqui
+                if (pontuacao != null) {
+                    Map<Long, Double> acumulada = pontuacao;
+                    doTermo.replaceAll((id, s) -> s + acumulada.get(id));
+                }
+                pontuacao = doTermo;
+                if (pontuacao.isEmpty()) return List.of();
+            }
+
+            Comparator<Map.Entry<Long, Double>> ordem = Map.Entry.<Long, Double>comparingByValue().reversed();
+            ordem = ordem.thenComparing(e -> documentos.get(e.getKey()).criadoEm,
+                    Comparator.nullsLast(Comparator.reverseOrder()));
+            return pontuacao.entrySet().stream()
+                    .filter(e -> filtro == null || filtro.aceita(documentos.get(e.getKey())))
+                    .sorted(ordem)
+                    .limit(limite > 0 ? limite : Long.MAX_VALUE)
+                    .map(Map.Entry::getKey)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static double frequenciaPonderada(int[] freq, boolean[] campos) {
+        double tf = 0;
+        for (int c = 0; c < freq.length; c++) {
+            if (campos[c]) tf += PESOS[c] * freq[c];
+        }
+        return tf;
+    }
+
+    // Termo exato, termos com o prefixo e termos a até 1-2 edições, cada um com seu fator
+    private Map<String, Double> expandir(String termo) {
+        Map<String, Double> expansoes = new HashMap<>();
+        if (postings.containsKey(termo)) {
+            expansoes.put(termo, 1.0);
+        }
+        if (termo.length() >= 2) {
+            for (String t : postings.subMap(termo, false, termo + Character.MAX_VALUE, false).keySet()) {
+                expansoes.putIfAbsent(t, FATOR_PREFIXO);
+            }
+        }
+        if (termo.length() >= 4) {
+            int maxErros = termo.length() >= 7 ? 2 : 1;
+            // Supõe a primeira letra correta para limitar a varredura do dicionário
+            String inicio = termo.substring(0, 1);
+            for (String t : postings.subMap(inicio, true, inicio + Character.MAX_VALUE, false).keySet()) {
+                if (expansoes.containsKey(t) || Math.abs(t.length() - termo.length()) > maxErros) continue;
+                int erros = distanciaEdicao(termo, t, maxErros);
+                if (erros <= maxErros) {
+                    expansoes.put(t, erros == 1 ? FATOR_UM_ERRO : FATOR_DOIS_ERROS);
+                }
+            }
+        }
+        return expansoes;
+    }
+
+    // Damerau-Levenshtein restrita; devolve max+1 assim que passa do limite
+    static int distanciaEdicao(String a, String b, int max) {
+        int n = a.length(), m = b.length();
+        int[] antesAnterior = new int[m + 1];
+        int[] anterior = new int[m + 1];
+        int[] atual = new int[m + 1];
+        for (int j = 0; j <= m; j++) anterior[j] = j;
+        for (int i = 1; i <= n; i++) {
+            atual[0] = i;
+            int menor = atual[0];
+            for (int j = 1; j <= m; j++) {
+                int custo = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int v = Math.min(Math.min(anterior[j] + 1, atual[j - 1] + 1), anterior[j - 1] + custo);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    v = Math.min(v, antesAnterior[j - 2] + 1);
+                }
+                atual[j] = v;
+                menor = Math.min(menor, v);
+            }
+            if (menor > max) return max + 1;
+            int[] t = antesAnterior;
+            antesAnterior = anterior;
+            anterior = atual;
+            atual = t;
+        }
+        return anterior[m];
+    }
+
+    /**
+     * Minúsculas, sem acentos, sem stopwords e com o plural reduzido ao singular
+     */
+    static List<String> tokenizar(String texto) {
+        if (texto == null || texto.isBlank()) return List.of();
+        String normalizado = MARCAS.matcher(Normalizer.normalize(texto.toLowerCase(), Normalizer.Form.NFD)).replaceAll("");
+        List<String> termos = new ArrayList<>();
+        for (String t : SEPARADORES.split(normalizado)) {
+            if (t.isEmpty() || STOPWORDS.contains(t)) continue;
+            termos.add(singular(t));
+        }
+        return termos;
+    }
+
+    static String normalizarCidade(String cidade) {
+        if (cidade == null) return null;
+        return MARCAS.matcher(Normalizer.normalize(cidade.trim().toLowerCase(), Normalizer.Form.NFD)).replaceAll("");
+    }
+
+    private static String singular(String t) {
+        if (t.length() <= 3) return t;
+        if (t.endsWith("oes") || t.endsWith("aes")) return t.substring(0, t.length() - 3) + "ao";
+        if (t.endsWith("ais") && t.length() > 4) return t.substring(0, t.length() - 3) + "al";
+        if (t.endsWith("s") && !t.endsWith("ss") && !t.endsWith("us")) return t.substring(0, t.length() - 1);
+        return t;
+    }
+
+    private static class Carga {
+        final TreeMap<String, Map<Long, int[]>> postings = new TreeMap<>();
+        final Map<Long, Documento> documentos = new HashMap<>();
+        double somaComprimentos;
+    }
+
+    private static class Documento {
+        final Long id;
+        final Map<String, int[]> termos = new HashMap<>();
+        final double comprimento;
+        final String cidade;
+        // Valores originais, para o filtro por trecho do tipo de alimento (sem tokenizar)
+        final String tipoAlimento;
+        final String cidadeOriginal;
+        final Double latitude;
+        final Double longitude;
+        final LocalDateTime criadoEm;
+
+        private Documento(Doacao d) {
+            this.id = d.getId();
+            contar(d.getTitulo(), TITULO);
+            contar(d.getTipoAlimento(), TIPO_ALIMENTO);
+            contar(d.getDescricao(), DESCRICAO);
+            double soma = 0;
+            for (int[] freq : termos.values()) soma += frequenciaPonderada(freq, TODOS_OS_CAMPOS);
+            this.comprimento = soma;
+            this.cidade = normalizarCidade(d.getCidade());
+            this.tipoAlimento = d.getTipoAlimento() == null ? null : d.getTipoAlimento().toLowerCase();
+            this.cidadeOriginal = d.getCidade();
+            this.latitude = d.getLatitude();
+            this.longitude = d.getLongitude();
+            this.criadoEm = d.getCriadoEm();
+        }
+
+        static Documento de(Doacao d) {
+            return new Documento(d);
+        }
+
+        private void contar(String texto, int campo) {
+            for (String t : tokenizar(texto)) {
+                termos.computeIfAbsent(t, k -> new int[3])[campo]++;
+            }
+        }
+    }
+
+    /**
+     * Filtros combináveis com a busca textual; campos nulos não filtram
+     */
+    public static class Filtro {
+        private final String cidade;
+        private final Double latitude;
+        private final Double longitude;
+        private final Double raioKm;
+
+        public Filtro(String cidade, Double latitude, Double longitude, Double raioKm) {
+            this.cidade = normalizarCidade(cidade);
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.raioKm = raioKm;
+        }
+
+        boolean aceita(Documento doc) {
+            if (cidade != null && !cidade.equals(doc.cidade)) return false;
+            if (latitude != null && longitude != null && raioKm != null) {
+                if (doc.latitude == null || doc.longitude == null) return false;
+                return GradeGeografica.distanciaKm(latitude, longitude, doc.latitude, doc.longitude) <= Math.max(raioKm, 0);
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,303 @@
+package com.TCC.Prato_Justo.Service;
+
+import com.TCC.Prato_Justo.Interface.AnthProdutosRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Índice de trigramas em memória sobre o nome dos produtos, para busca por trecho e autocompletar
+ * sem o LIKE '%termo%' que varre a tabela. Os candidatos saem da interseção das listas de trigramas
+ * e são conferidos contra o nome normalizado.
+ */
+@Component
+public class IndiceTrigramaProduto {
+
+    private static final Logger log = LoggerFactory.getLogger(IndiceTrigramaProduto.class);
+
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^a-z0-9]+");
+
+    private final AnthProdutosRepository produtosRepository;
+    private final TransactionTemplate transacaoLeitura;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReconstrucaoIndice<String> reconstrucao = new ReconstrucaoIndice<>(lock, this::aplicar);
+
+    // trigrama -> ids; ordenado para achar os trigramas de início de palavra de consultas com uma letra
+    private TreeMap<String, Set<Long>> trigramas = new TreeMap<>();
+    private Map<Long, Entrada> nomes = new HashMap<>();
+    private volatile boolean pronto;
+
+    public IndiceTrigramaProduto(AnthProdutosRepository produtosRepository, PlatformTransactionManager transactionManager) {
+        this.produtosRepository = produtosRepository;
+        this.transacaoLeitura = new TransactionTemplate(transactionManager);
+        this.transacaoLeitura.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void construirNaSubida() {
+        reconstruir();
+    }
+
+    // Sem índice (falha na subida), tenta de novo; enquanto isso o ProdutosService consulta o banco
+    @Scheduled(initialDelayString = "${app.search.produto.retry-interval-ms:60000}",
+               fixedDelayString = "${app.search.produto.retry-interval-ms:60000}")
+    public void reconstruirSePendente() {
+        if (!pronto) reconstruir();
+    }
+
+    /**
+     * Recarrega o índice do banco; se já houver uma reconstrução em andamento, não faz nada
+     */
+    public void reconstruir() {
+        try {
+            if (!reconstrucao.executar(this::carregar, this::instalar)) {
+                log.debug("search_index_rebuild_skipped indice=produto motivo=em_andamento");
+            }
+        } catch (RuntimeException e) {
+            log.warn("search_index_rebuild_failed indice=produto erro={}", e.getMessage());
+        }
+    }
+
+    private Carga carregar() {
+        Carga carga = new Carga();
+        transacaoLeitura.executeWithoutResult(status -> {
+            try (Stream<Object[]> linhas = produtosRepository.streamNomes()) {
+                linhas.forEach(l -> adicionar(carga.trigramas, carga.nomes, (Long) l[0], (String) l[1]));
+            }
+        });
+        return carga;
+    }
+
+    // Chamado com o lock de escrita
+    private void instalar(Carga carga) {
+        trigramas = carga.trigramas;
+        nomes = carga.nomes;
+        pronto = true;
+        log.info("search_index_rebuilt indice=produto produtos={} trigramas={}", nomes.size(), trigramas.size());
+    }
+
+    /**
+     * Falso até a primeira reconstrução terminar; antes disso buscar e total enxergam um índice vazio
+     */
+    public boolean isPronto() {
+        return pronto;
+    }
+
+    /**
+     * Indexa (ou reindexa) o nome do produto depois do commit da transação corrente
+     */
+    public void atualizar(Long id, String nome) {
+        if (id == null) return;
+        aposCommit(() -> registrar(id, nome == null ? "" : nome));
+    }
+
+    /**
+     * Retira o produto do índice depois do commit da transação corrente
+     */
+    public void remover(Long id) {
+        if (id == null) return;
+        aposCommit(() -> registrar(id, null));
+    }
+
+    private void aposCommit(Runnable acao) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    acao.run();
+                }
+            });
+        } else {
+            acao.run();
+        }
+    }
+
+    private void registrar(Long id, String nome) {
+        lock.writeLock().lock();
+        try {
+            reconstrucao.registrar(id, nome);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Chamado com o lock de escrita; nome nulo remove
+    private void aplicar(Long id, String nome) {
+        Entrada anterior = nomes.remove(id);
+        if (anterior != null) {
+            for (String t : gerarTrigramas(anterior.normalizado)) {
+                Set<Long> ids = trigramas.get(t);
+                if (ids != null) {
+                    ids.remove(id);
+                    if (ids.isEmpty()) trigramas.remove(t);
+                }
+            }
+        }
+        if (nome != null) {
+            adicionar(trigramas, nomes, id, nome);
+        }
+    }
+
+    private static void adicionar(TreeMap<String, Set<Long>> trigramas, Map<Long, Entrada> nomes, Long id, String nome) {
+        Entrada entrada = new Entrada(nome == null ? "" : nome);
+        nomes.put(id, entrada);
+        for (String t : gerarTrigramas(entrada.normalizado)) {
+            trigramas.computeIfAbsent(t, k -> new HashSet<>()).add(id);
+        }
+    }
+
+    public int total() {
+        lock.readLock().lock();
+        try {
+            return nomes.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ids dos produtos cujo nome contém o trecho (com uma ou duas letras, cujo nome tem palavra
+     * começando por ele), primeiro os que começam pelo trecho e depois os nomes mais curtos
+     */
+    public List<Long> buscar(String trecho) {
+        String consulta = normalizar(trecho);
+        if (consulta.isEmpty()) return List.of();
+
+        lock.readLock().lock();
+        try {
+            return candidatos(consulta).stream()
+                    .filter(id -> casa(nomes.get(id), consulta))
+                    .sorted(ordem(consulta))
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Nomes distintos para autocompletar, na mesma ordem da busca
+     */
+    public List<String> sugerir(String prefixo, int limite) {
+        Set<String> sugestoes = new LinkedHashSet<>();
+        List<Long> ids = buscar(prefixo);
+        lock.readLock().lock();
+        try {
+            for (Long id : ids) {
+                Entrada entrada = nomes.get(id);
+                if (entrada != null && !entrada.original.isBlank()) sugestoes.add(entrada.original);
+                if (sugestoes.size() >= limite) break;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return new ArrayList<>(sugestoes);
+    }
+
+    // Interseção das listas dos trigramas da consulta, começando pela menor
+    private Set<Long> candidatos(String consulta) {
+        List<Set<Long>> listas = new ArrayList<>();
+        if (consulta.length() >= 3) {
+            for (String t : new LinkedHashSet<>(trigramasDaConsulta(consulta))) {
+                Set<Long> ids = trigramas.get(t);
+                if (ids == null) return Set.of();
+                listas.add(ids);
+            }
+        } else {
+            // Uma ou duas letras: trigramas de início de palavra (" a", " ab")
+            Set<Long> ids = new HashSet<>();
+            String inicio = " " + consulta;
+            trigramas.subMap(inicio, true, inicio + Character.MAX_VALUE, false).values().forEach(ids::addAll);
+            listas.add(ids);
+        }
+        listas.sort(Comparator.comparingInt(Set::size));
+        Set<Long> resultado = new HashSet<>(listas.get(0));
+        for (int i = 1; i < listas.size() && !resultado.isEmpty(); i++) {
+            resultado.retainAll(listas.get(i));
+        }
+        return resultado;
+    }
+
+    private static boolean casa(Entrada entrada, String consulta) {
+        if (entrada == null) return false;
+        return consulta.length() >= 3
+                ? entrada.normalizado.contains(consulta)
+                : (" " + entrada.normalizado).contains(" " + consulta);
+    }
+
+    private Comparator<Long> ordem(String consulta) {
+        Comparator<Long> porPosicao = Comparator.comparingInt(id -> {
+            String nome = nomes.get(id).normalizado;
+            if (nome.startsWith(consulta)) return 0;
+            return (" " + nome).contains(" " + consulta) ? 1 : 2;
+        });
+        return porPosicao
+                .thenComparingInt(id -> nomes.get(id).normalizado.length())
+                .thenComparing(id -> nomes.get(id).normalizado)
+                .thenComparing(Comparator.naturalOrder());
+    }
+
+    /**
+     * Minúsculas, sem acentos e com pontuação reduzida a um espaço
+     */
+    static String normalizar(String texto) {
+        if (texto == null) return "";
+        String semAcento = MARCAS.matcher(Normalizer.normalize(texto.toLowerCase(), Normalizer.Form.NFD)).replaceAll("");
+        return SEPARADORES.matcher(semAcento).replaceAll(" ").trim();
+    }
+
+    // Trigramas do nome com dois espaços antes e um depois, para marcar início e fim de palavra
+    static Set<String> gerarTrigramas(String normalizado) {
+        Set<String> resultado = new HashSet<>();
+        if (normalizado.isEmpty()) return resultado;
+        String s = "  " + normalizado + " ";
+        for (int i = 0; i + 3 <= s.length(); i++) {
+            resultado.add(s.substring(i, i + 3));
+        }
+        return resultado;
+    }
+
+    private static List<String> trigramasDaConsulta(String consulta) {
+        List<String> resultado = new ArrayList<>();
+        for (int i = 0; i + 3 <= consulta.length(); i++) {
+            resultado.add(consulta.substring(i, i + 3));
+        }
+        return resultado;
+    }
+
+    private static class Carga {
+        final TreeMap<String, Set<Long>> trigramas = new TreeMap<>();
+        final Map<Long, Entrada> nomes = new HashMap<>();
+    }
+
+    private static class Entrada {
+        final String original;
+        final String normalizado;
+
+        Entrada(String original) {
+            this.original = original;
+            this.normalizado = normalizar(original);
+        }
+    }
+}
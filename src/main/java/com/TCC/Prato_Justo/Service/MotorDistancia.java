@@ -0,0 +1,128 @@
+package com.TCC.Prato_Justo.Service;
+
+import java.util.Arrays;
+
+/**
+ * Coordenadas em arrays primitivos, com radianos e cosseno da latitude calculados uma vez, para medir
+ * um ponto contra todas elas. A decisão dentro/fora do raio começa pela aproximação equirretangular,
+ * com limites que garantem o resultado, e só na faixa da borda recorre ao haversine exato.
+ * Aceita acréscimos, trocas e remoções no lugar; não é thread-safe: quem compartilha a instância
+ * (AgregadoGradeDoacao) faz as alterações com exclusão sobre as consultas.
+ */
+public final class MotorDistancia {
+
+    private double[] latitudes;
+    private double[] longitudes;
+    private double[] cossenos;
+    private int tamanho;
+
+    public MotorDistancia() {
+        this(new double[0], new double[0], 0);
+    }
+
+    public MotorDistancia(double[] latitudesGraus, double[] longitudesGraus, int tamanho) {
+        this.tamanho = tamanho;
+        latitudes = new double[tamanho];
+        longitudes = new double[tamanho];
+        cossenos = new double[tamanho];
+        for (int i = 0; i < tamanho; i++) {
+            definir(i, latitudesGraus[i], longitudesGraus[i]);
+        }
+    }
+
+    public int getTamanho() {
+        return tamanho;
+    }
+
+    /**
+     * Acrescenta a coordenada no fim e devolve a sua posição
+     */
+    public int adicionar(double latitude, double longitude) {
+        if (tamanho == latitudes.length) {
+            int capacidade = Math.max(16, tamanho * 2);
+            latitudes = Arrays.copyOf(latitudes, capacidade);
+            longitudes = Arrays.copyOf(longitudes, capacidade);
+            cossenos = Arrays.copyOf(cossenos, capacidade);
+        }
+        definir(tamanho, latitude, longitude);
+        return tamanho++;
+    }
+
+    /**
+     * Troca a coordenada de uma posição existente
+     */
+    public void definir(int posicao, double latitude, double longitude) {
+        latitudes[posicao] = Math.toRadians(latitude);
+        longitudes[posicao] = Math.toRadians(longitude);
+        cossenos[posicao] = Math.cos(latitudes[posicao]);
+    }
+
+    /**
+     * Remove a posição levando a última coordenada para o lugar dela
+     *
+     * @return posição anterior da coordenada movida, ou -1 se a removida já era a última
+     */
+    public int removerTrocandoComUltima(int posicao) {
+        int ultima = --tamanho;
+        if (posicao == ultima) return -1;
+        latitudes[posicao] = latitudes[ultima];
+        longitudes[posicao] = longitudes[ultima];
+        cossenos[posicao] = cossenos[ultima];
+        return ultima;
+    }
+
+    /**
+     * Posições das coordenadas a até raioKm do ponto, da mais próxima para a mais distante
+     * (distâncias iguais na precisão de float ficam na ordem original)
+     */
+    public int[] dentroDoRaio(double latitude, double longitude, double raioKm) {
+        // Tudo em ângulo central: dentro do raio <=> a do haversine <= sin²(ângulo/2)
+        double angulo = Math.min(Math.max(raioKm, 0) / GradeGeografica.RAIO_TERRA_KM, Math.PI);
+        double seno = Math.sin(angulo / 2);
+        double limite = seno * seno;
+        double limite4 = 4 * limite;
+        double fi = Math.toRadians(latitude);
+        double lambda = Math.toRadians(longitude);
+        double cosFi = Math.cos(fi);
+
+        long[] aceitas = new long[16];
+        int quantidade = 0;
+        for (int i = 0; i < tamanho; i++) {
+            double dFi = latitudes[i] - fi;
+            // A distância nunca é menor que a diferença de latitude
+            if (Math.abs(dFi) > angulo) continue;
+            double dLambda = Math.abs(longitudes[i] - lambda);
+            if (dLambda > Math.PI) dLambda = 2 * Math.PI - dLambda;
+            double cc = cosFi * cossenos[i];
+
+            // Equirretangular: sin(x/2) <= x/2 dá e4/4 >= a, e sin(x/2) >= (x/2)(1 - x²/24) dá o limite inferior
+            double e4 = dFi * dFi + cc * dLambda * dLambda;
+            if (e4 > limite4) {
+                double maior = Math.max(Math.abs(dFi), dLambda);
+                double k = 1 - maior * maior / 24;
+                if (e4 * k * k > limite4) continue;
+            }
+
+            // Borda (ou ponto aceito, que precisa da chave exata para ordenar)
+            double sFi = Math.sin(dFi / 2);
+            double sLambda = Math.sin(dLambda / 2);
+            double a = sFi * sFi + cc * sLambda * sLambda;
+            if (a > limite) continue;
+
+            if (quantidade == aceitas.length) {
+                aceitas = Arrays.copyOf(aceitas, quantidade * 2);
+            }
+            // Meio ângulo central em float (erro relativo ~1e-7, milímetros no raio de uma cidade): positivo,
+            // cresce junto com os bits e deixa os 32 bits de baixo para a posição, que desempata
+            float chave = (float) Math.asin(Math.sqrt(Math.min(a, 1)));
+            aceitas[quantidade++] = ((long) Float.floatToIntBits(chave) << 32) | i;
+        }
+
+        Arrays.sort(aceitas, 0, quantidade);
+        int[] posicoes = new int[quantidade];
+        for (int i = 0; i < quantidade; i++) {
+            posicoes[i] = (int) aceitas[i];
+        }
+        return posicoes;
+    }
+}
@@ -2,23 +2,37 @@ package com.TCC.Prato_Justo.Service;
 
 import com.TCC.Prato_Justo.Interface.AnthProdutosRepository;
 import com.TCC.Prato_Justo.Model.Produto;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
 @Service
 public class ProdutosService  {
 
+    private static final int TAMANHO_PAGINA_MAXIMO = 100;
+
     private final AnthProdutosRepository anthProdutosRepository;
+    private final IndiceTrigramaProduto indiceNomes;
 
-    public ProdutosService(AnthProdutosRepository anthProdutosRepository) {
+    public ProdutosService(AnthProdutosRepository anthProdutosRepository, IndiceTrigramaProduto indiceNomes) {
         this.anthProdutosRepository = anthProdutosRepository;
+        this.indiceNomes = indiceNomes;
     }
 
 
     public Produto salvarProdutos(Produto produto) {
-        return anthProdutosRepository.save(produto);
+        Produto salvo = anthProdutosRepository.save(produto);
+        indiceNomes.atualizar(salvo.getId(), salvo.getNameProduto());
+        return salvo;
     }
 
     public Produto atualizaProduto(Long id, Produto produtoAtualizado ){
@@ -32,14 +46,51 @@ public class ProdutosService  {
             produto.setDescricao(produtoAtualizado.getDescricao());
             produto.setEndereco(produtoAtualizado.getEndereco());
             produto.setCidade(produtoAtualizado.getCidade());
-            return anthProdutosRepository.save(produto);
+            Produto salvo = anthProdutosRepository.save(produto);
+            indiceNomes.atualizar(salvo.getId(), salvo.getNameProduto());
+            return salvo;
         }else {
             throw new RuntimeException("Produto não encontrado com id: " + id);
         }
     }
 
-    public List<Produto>listarProdutos(){
-        return anthProdutosRepository.findAll();
+    /**
+     * Página de produtos; com trecho, filtra pelo índice de trigramas do nome e ordena por relevância.
+     * Enquanto o índice não está pronto, consulta o banco (LIKE, por id).
+     */
+    public Page<Produto> listarProdutos(String trecho, int pagina, int tamanho) {
+        Pageable pageable = PageRequest.of(Math.max(pagina, 0), Math.min(Math.max(tamanho, 1), TAMANHO_PAGINA_MAXIMO));
+        boolean indicePronto = indiceNomes.isPronto();
+        if (trecho == null || trecho.isBlank()) {
+            Slice<Produto> slice = anthProdutosRepository.findPagina(pageable);
+            long total = indicePronto ? indiceNomes.total() : anthProdutosRepository.count();
+            return new PageImpl<>(slice.getContent(), pageable, total);
+        }
+        if (!indicePronto) {
+            return anthProdutosRepository.findByNameProdutoContainingIgnoreCaseOrderById(trecho.trim(), pageable);
+        }
+
+        List<Long> ids = indiceNomes.buscar(trecho);
+        int inicio = (int) Math.min(pageable.getOffset(), ids.size());
+        List<Long> idsPagina = ids.subList(inicio, Math.min(inicio + pageable.getPageSize(), ids.size()));
+        Map<Long, Produto> porId = new HashMap<>();
+        anthProdutosRepository.findAllById(idsPagina).forEach(p -> porId.put(p.getId(), p));
+        List<Produto> conteudo = idsPagina.stream().map(porId::get).filter(Objects::nonNull).toList();
+        return new PageImpl<>(conteudo, pageable, ids.size());
+    }
+
+    public List<String> sugerirNomes(String prefixo, int limite) {
+        int limiteValido = Math.min(Math.max(limite, 1), TAMANHO_PAGINA_MAXIMO);
+        if (indiceNomes.isPronto()) {
+            return indiceNomes.sugerir(prefixo, limiteValido);
+        }
+        if (prefixo == null || prefixo.isBlank()) return List.of();
+        return anthProdutosRepository.findByNameProdutoContainingIgnoreCaseOrderById(prefixo.trim(), PageRequest.of(0, limiteValido))
+                .stream()
+                .map(Produto::getNameProduto)
+                .filter(nome -> nome != null && !nome.isBlank())
+                .distinct()
+                .toList();
     }
 
     public Produto buscarPorId(Long id){
@@ -50,6 +101,7 @@ public class ProdutosService  {
     public void deletarProduto(Long id){
         if (anthProdutosRepository.existsById(id)){
             anthProdutosRepository.deleteById(id);
+            indiceNomes.remover(id);
         }else {
             throw new RuntimeException("Produto não encontrado por id: " + id);
         }
@@ -0,0 +1,85 @@
+package com.TCC.Prato_Justo.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Reconstrução dos índices em memória que recebem escritas depois do commit: carrega o estado novo
+ * fora do lock, troca sob o lock de escrita e reaplica as escritas que chegaram no meio. Uma
+ * reconstrução por vez; outra em paralelo trocaria o mapa de pendentes da primeira.
+ *
+ * @param <V> valor de cada escrita por id (nulo remove)
+ */
+class ReconstrucaoIndice<V> {
+
+    private final ReentrantReadWriteLock lock;
+    private final BiConsumer<Long, V> aplicar;
+    private final ReentrantLock emAndamento = new ReentrantLock();
+
+    // Escritas recebidas durante uma reconstrução, reaplicadas sobre o estado novo; só com o lock de escrita
+    private Map<Long, V> pendentes;
+
+    ReconstrucaoIndice(ReentrantReadWriteLock lock, BiConsumer<Long, V> aplicar) {
+        this.lock = lock;
+        this.aplicar = aplicar;
+    }
+
+    /**
+     * Carrega e instala o estado novo; falso se já houver uma reconstrução em andamento.
+     * Se a carga falhar, a exceção sobe e o estado atual continua valendo.
+     */
+    <T> boolean executar(Supplier<T> carregar, Consumer<T> instalar) {
+        if (!emAndamento.tryLock()) {
+            return false;
+        }
+        try {
+            lock.writeLock().lock();
+            try {
+                pendentes = new LinkedHashMap<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            T novo;
+            try {
+                novo = carregar.get();
+            } catch (RuntimeException e) {
+                lock.writeLock().lock();
+                try {
+                    pendentes = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                throw e;
+            }
+
+            lock.writeLock().lock();
+            try {
+                instalar.accept(novo);
+                Map<Long, V> reaplicar = pendentes;
+                pendentes = null;
+                reaplicar.forEach(aplicar);
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return true;
+        } finally {
+            emAndamento.unlock();
+        }
+    }
+
+    /**
+     * Aplica a escrita e a guarda para a reconstrução em andamento; chamado com o lock de escrita
+     */
+    void registrar(Long id, V valor) {
+        if (pendentes != null) {
+            pendentes.put(id, valor);
+        }
+        aplicar.accept(id, valor);
+    }
+}
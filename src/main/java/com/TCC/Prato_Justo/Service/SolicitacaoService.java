@@ -1,18 +1,30 @@
 package com.TCC.Prato_Justo.Service;
 
 import com.TCC.Prato_Justo.Interface.ChatRepository;
+import com.TCC.Prato_Justo.Interface.DoacaoArquivadaRepository;
 import com.TCC.Prato_Justo.Interface.DoacaoRepository;
+import com.TCC.Prato_Justo.Interface.SolicitacaoArquivadaRepository;
 import com.TCC.Prato_Justo.Interface.SolicitacaoRepository;
 import com.TCC.Prato_Justo.Model.Chat;
 import com.TCC.Prato_Justo.Model.Doacao;
 import com.TCC.Prato_Justo.Model.Solicitacao;
+import com.TCC.Prato_Justo.Model.SolicitacaoArquivada;
 import com.TCC.Prato_Justo.Model.StatusSolicitacao;
 import com.TCC.Prato_Justo.Model.Usuario;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 public class SolicitacaoService {
@@ -20,40 +32,116 @@ public class SolicitacaoService {
     private final SolicitacaoRepository solicitacaoRepository;
     private final DoacaoRepository doacaoRepository;
     private final ChatRepository chatRepository;
+    private final UsuarioEstatisticaService estatisticaService;
+    private final IdempotenciaService idempotenciaService;
+    private final SolicitacaoArquivadaRepository solicitacaoArquivadaRepository;
+    private final DoacaoArquivadaRepository doacaoArquivadaRepository;
+    private final IndiceBuscaDoacao indiceBusca;
+    private final AgregadoGradeDoacao agregadoMapa;
 
     public SolicitacaoService(SolicitacaoRepository solicitacaoRepository, 
                             DoacaoRepository doacaoRepository,
-                            ChatRepository chatRepository) {
+                            ChatRepository chatRepository,
+                            UsuarioEstatisticaService estatisticaService,
+                            IdempotenciaService idempotenciaService,
+                            SolicitacaoArquivadaRepository solicitacaoArquivadaRepository,
+                            DoacaoArquivadaRepository doacaoArquivadaRepository,
+                            IndiceBuscaDoacao indiceBusca,
+                            AgregadoGradeDoacao agregadoMapa) {
         this.solicitacaoRepository = solicitacaoRepository;
+        this.solicitacaoArquivadaRepository = solicitacaoArquivadaRepository;
+        this.doacaoArquivadaRepository = doacaoArquivadaRepository;
         this.doacaoRepository = doacaoRepository;
         this.chatRepository = chatRepository;
+        this.estatisticaService = estatisticaService;
+        this.idempotenciaService = idempotenciaService;
+        this.indiceBusca = indiceBusca;
+        this.agregadoMapa = agregadoMapa;
     }
 
+    /**
+     * Cria a solicitação apostando no caminho comum (um único INSERT). A restrição única
+     * (doação, solicitante) barra duplicatas; nesse caso reativa a solicitação cancelada, se houver.
+     * Não deve rodar dentro de outra transação: a violação da restrição invalidaria a transação externa.
+     */
     public Solicitacao criar(Doacao doacao, Usuario solicitante) {
-        // Verificar se já existe uma solicitação para esta doação por este solicitante
-        Optional<Solicitacao> existente = solicitacaoRepository.findByDoacaoIdAndSolicitanteId(
-            doacao.getId(), solicitante.getId()
-        );
-        
-        if (existente.isPresent()) {
-            Solicitacao solicitacao = existente.get();
-            // Se estiver cancelada, reativar
-            if (solicitacao.getStatus() == StatusSolicitacao.CANCELADA) {
-                solicitacao.setStatus(StatusSolicitacao.SOLICITADA);
-                return solicitacaoRepository.save(solicitacao);
-            }
-            throw new IllegalArgumentException("Você já solicitou esta doação");
-        }
-
         Solicitacao nova = new Solicitacao();
         nova.setDoacao(doacao);
         nova.setSolicitante(solicitante);
         nova.setStatus(StatusSolicitacao.SOLICITADA);
-        return solicitacaoRepository.save(nova);
+        try {
+            return solicitacaoRepository.saveAndFlush(nova);
+        } catch (DataIntegrityViolationException e) {
+            // Só a restrição (doação, solicitante) significa pedido repetido; outras violações sobem
+            if (!violouRestricao(e, Solicitacao.RESTRICAO_DOACAO_SOLICITANTE)) throw e;
+        }
+
+        // Se estiver cancelada, reativar
+        if (solicitacaoRepository.reativarCancelada(doacao.getId(), solicitante.getId(), LocalDateTime.now()) == 1) {
+            return solicitacaoRepository.findByDoacaoIdAndSolicitanteId(doacao.getId(), solicitante.getId())
+                .orElseThrow(() -> new IllegalArgumentException("Solicitação não encontrada"));
+        }
+        throw new IllegalArgumentException("Você já solicitou esta doação");
+    }
+
+    private static boolean violouRestricao(DataIntegrityViolationException e, String restricao) {
+        for (Throwable causa = e; causa != null; causa = causa.getCause()) {
+            // O nome vem do driver, às vezes com prefixo de tabela ou esquema e em maiúsculas (H2)
+            if (causa instanceof ConstraintViolationException violacao && violacao.getConstraintName() != null
+                    && violacao.getConstraintName().toLowerCase(Locale.ROOT).contains(restricao)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Variante idempotente: repetições com a mesma Idempotency-Key devolvem a solicitação
+     * criada na primeira tentativa, sem novas escritas.
+     */
+    public Solicitacao criar(Doacao doacao, Usuario solicitante, String chaveIdempotencia) {
+        if (chaveIdempotencia == null) {
+            return criar(doacao, solicitante);
+        }
+        String operacao = "solicitar:" + doacao.getId();
+        Optional<Solicitacao> anterior = idempotenciaService.buscar(solicitante.getId(), chaveIdempotencia, operacao)
+            .flatMap(solicitacaoRepository::findById);
+        if (anterior.isPresent()) {
+            return anterior.get();
+        }
+
+        Solicitacao solicitacao;
+        try {
+            solicitacao = criar(doacao, solicitante);
+        } catch (IllegalArgumentException e) {
+            // Tentativa concorrente com a mesma chave chegou primeiro: devolver a solicitação pendente
+            solicitacao = solicitacaoRepository.findByDoacaoIdAndSolicitanteId(doacao.getId(), solicitante.getId())
+                .filter(s -> s.getStatus() == StatusSolicitacao.SOLICITADA)
+                .orElseThrow(() -> e);
+        }
+        idempotenciaService.registrar(solicitante.getId(), chaveIdempotencia, operacao, solicitacao.getId());
+        return solicitacao;
     }
 
+    /**
+     * Histórico do solicitante: solicitações da tabela principal e do arquivo.
+     * As doações das arquivadas são buscadas em lote nas duas tabelas.
+     */
+    @Transactional(readOnly = true)
     public List<Solicitacao> listarPorSolicitante(Long solicitanteId) {
-        return solicitacaoRepository.findBySolicitanteId(solicitanteId);
+        List<Solicitacao> solicitacoes = new ArrayList<>(solicitacaoRepository.findBySolicitanteId(solicitanteId));
+        List<SolicitacaoArquivada> arquivadas = solicitacaoArquivadaRepository.findBySolicitanteId(solicitanteId);
+        if (arquivadas.isEmpty()) {
+            return solicitacoes;
+        }
+
+        Set<Long> doacaoIds = arquivadas.stream().map(SolicitacaoArquivada::getDoacaoId).collect(Collectors.toSet());
+        Map<Long, Doacao> doacoes = new HashMap<>();
+        doacaoRepository.findAllById(doacaoIds).forEach(d -> doacoes.put(d.getId(), d));
+        doacaoArquivadaRepository.findAllById(doacaoIds).forEach(d -> doacoes.putIfAbsent(d.getId(), d.toDoacao()));
+
+        arquivadas.forEach(a -> solicitacoes.add(a.toSolicitacao(doacoes.get(a.getDoacaoId()))));
+        return solicitacoes;
     }
 
     public Optional<Solicitacao> obter(Long id) {
@@ -94,24 +182,30 @@ public class SolicitacaoService {
             throw new IllegalArgumentException("Apenas solicitações pendentes podem ser aceitas");
         }
         
-        // Mudar status para EM_ANDAMENTO
-        solicitacao.setStatus(StatusSolicitacao.EM_ANDAMENTO);
-        
+        Long doacaoId = solicitacao.getDoacao().getId();
+        LocalDateTime agora = LocalDateTime.now();
+
+        // Reservar a doação pela versão lida: só um aceite concorrente passa
+        if (doacaoRepository.reservarParaAceite(doacaoId, solicitacao.getDoacao().getVersao()) == 0) {
+            throw new IllegalStateException("Esta doação foi alterada ou já teve uma solicitação aceita");
+        }
+
+        // Mudar status para EM_ANDAMENTO somente se ainda estiver pendente
+        if (solicitacaoRepository.transicionarStatus(solicitacaoId, StatusSolicitacao.SOLICITADA,
+                StatusSolicitacao.EM_ANDAMENTO, agora) == 0) {
+            throw new IllegalStateException("A solicitação não está mais pendente");
+        }
+
         // Cancelar outras solicitações pendentes para a mesma doação
-        List<Solicitacao> outrasSolicitacoes = solicitacaoRepository.findByDoacaoId(solicitacao.getDoacao().getId());
-        outrasSolicitacoes.forEach(s -> {
-            if (!s.getId().equals(solicitacaoId) && s.getStatus() == StatusSolicitacao.SOLICITADA) {
-                s.setStatus(StatusSolicitacao.CANCELADA);
-                solicitacaoRepository.save(s);
-            }
-        });
-        
-        // Salvar solicitação atualizada
-        Solicitacao solicitacaoSalva = solicitacaoRepository.save(solicitacao);
+        solicitacaoRepository.cancelarPendentesDaDoacao(doacaoId, solicitacaoId, agora);
+
+        // Recarregar após as atualizações em lote
+        Solicitacao solicitacaoSalva = solicitacaoRepository.findById(solicitacaoId)
+            .orElseThrow(() -> new IllegalArgumentException("Solicitação não encontrada"));
         
         // Criar Chat entre doador e solicitante
-        Usuario doador = solicitacao.getDoacao().getDoador();
-        Usuario solicitante = solicitacao.getSolicitante();
+        Usuario doador = solicitacaoSalva.getDoacao().getDoador();
+        Usuario solicitante = solicitacaoSalva.getSolicitante();
         
         // Verificar se já existe um chat entre esses usuários para esta solicitação
         Optional<Chat> chatExistente = chatRepository.findBySolicitacaoId(solicitacaoId);
@@ -148,6 +242,7 @@ public class SolicitacaoService {
         return solicitacaoRepository.save(solicitacao);
     }
 
+    @Transactional
     public Solicitacao marcarColetada(Long solicitacaoId, Long usuarioId) {
         Solicitacao solicitacao = solicitacaoRepository.findById(solicitacaoId)
             .orElseThrow(() -> new IllegalArgumentException("Solicitação não encontrada"));
@@ -171,8 +266,14 @@ public class SolicitacaoService {
         
         // Desativar a doação
         Doacao doacao = solicitacao.getDoacao();
+        boolean estavaAtiva = Boolean.TRUE.equals(doacao.getAtivo());
         doacao.setAtivo(false);
         doacaoRepository.save(doacao);
+        indiceBusca.atualizar(doacao);
+        agregadoMapa.atualizar(doacao);
+        if (estavaAtiva && doacao.getDoador() != null) {
+            estatisticaService.registrarMudancaAtivo(doacao.getDoador().getId(), false);
+        }
         
         return solicitacaoRepository.save(solicitacao);
     }
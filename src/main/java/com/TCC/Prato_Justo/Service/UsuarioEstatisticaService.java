@@ -0,0 +1,139 @@
+package com.TCC.Prato_Justo.Service;
+
+import com.TCC.Prato_Justo.Interface.AvaliacaoRepository;
+import com.TCC.Prato_Justo.Interface.DoacaoArquivadaRepository;
+import com.TCC.Prato_Justo.Interface.DoacaoRepository;
+import com.TCC.Prato_Justo.Interface.UsuarioEstatisticaRepository;
+import com.TCC.Prato_Justo.Model.Usuario;
+import com.TCC.Prato_Justo.Model.UsuarioEstatistica;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+@Service
+public class UsuarioEstatisticaService {
+
+    private final UsuarioEstatisticaRepository estatisticaRepository;
+    private final DoacaoRepository doacaoRepository;
+    private final AvaliacaoRepository avaliacaoRepository;
+    private final DoacaoArquivadaRepository doacaoArquivadaRepository;
+
+    public UsuarioEstatisticaService(UsuarioEstatisticaRepository estatisticaRepository,
+                                     DoacaoRepository doacaoRepository,
+                                     AvaliacaoRepository avaliacaoRepository,
+                                     DoacaoArquivadaRepository doacaoArquivadaRepository) {
+        this.estatisticaRepository = estatisticaRepository;
+        this.doacaoRepository = doacaoRepository;
+        this.avaliacaoRepository = avaliacaoRepository;
+        this.doacaoArquivadaRepository = doacaoArquivadaRepository;
+    }
+
+    // Os métodos registrar* devem ser chamados depois da escrita correspondente:
+    // se a linha ainda não existir, ela é semeada pelo recálculo, que já enxerga a escrita.
+    // Duas primeiras escritas simultâneas não colidem: a segunda só soma o seu delta na linha da primeira.
+
+    @Transactional
+    public void registrarDoacaoCriada(Long usuarioId, boolean ativa) {
+        aplicarDoacoes(usuarioId, 1, ativa ? 1 : 0);
+    }
+
+    @Transactional
+    public void registrarDoacaoRemovida(Long usuarioId, boolean estavaAtiva) {
+        aplicarDoacoes(usuarioId, -1, estavaAtiva ? -1 : 0);
+    }
+
+    @Transactional
+    public void registrarMudancaAtivo(Long usuarioId, boolean ativaAgora) {
+        aplicarDoacoes(usuarioId, 0, ativaAgora ? 1 : -1);
+    }
+
+    @Transactional
+    public void registrarAvaliacao(Long usuarioId, int nota) {
+        if (usuarioId == null) return;
+        if (estatisticaRepository.registrarAvaliacao(usuarioId, nota, LocalDateTime.now()) == 0) {
+            semear(usuarioId, 0, 0, nota, 1);
+        }
+    }
+
+    private void aplicarDoacoes(Long usuarioId, int total, int ativas) {
+        if (usuarioId == null) return;
+        if (estatisticaRepository.incrementarDoacoes(usuarioId, total, ativas, LocalDateTime.now()) == 0) {
+            semear(usuarioId, total, ativas, 0, 0);
+        }
+    }
+
+    private void semear(Long usuarioId, int total, int ativas, long nota, int avaliacoes) {
+        UsuarioEstatistica s = recalcular(usuarioId);
+        estatisticaRepository.semear(usuarioId, s.getTotalDoacoes(), s.getDoacoesAtivas(), s.getSomaNotas(), s.getTotalAvaliacoes(),
+                total, ativas, nota, avaliacoes, LocalDateTime.now());
+    }
+
+    /**
+     * Retorna a linha de estatísticas do usuário; sem linha, o recálculo (a linha nasce na primeira escrita)
+     */
+    @Transactional(readOnly = true)
+    public UsuarioEstatistica obter(Long usuarioId) {
+        return estatisticaRepository.findById(usuarioId)
+                .orElseGet(() -> recalcular(usuarioId));
+    }
+
+    /**
+     * Busca usuário e estatísticas numa única consulta
+     */
+    @Transactional(readOnly = true)
+    public Optional<PerfilEstatisticas> obterPerfil(Long usuarioId) {
+        List<Object[]> linhas = estatisticaRepository.findPerfilComEstatisticas(usuarioId);
+        if (linhas.isEmpty()) {
+            return Optional.empty();
+        }
+        Usuario usuario = (Usuario) linhas.get(0)[0];
+        UsuarioEstatistica estatistica = (UsuarioEstatistica) linhas.get(0)[1];
+        if (estatistica == null) {
+            estatistica = recalcular(usuarioId);
+        }
+        return Optional.of(new PerfilEstatisticas(usuario, estatistica));
+    }
+
+    /**
+     * Recalcula os contadores a partir das tabelas de origem (sem persistir)
+     */
+    public UsuarioEstatistica recalcular(Long usuarioId) {
+        UsuarioEstatistica estatistica = new UsuarioEstatistica(usuarioId);
+        // Arquivadas são sempre inativas: entram só no total
+        estatistica.setTotalDoacoes(doacaoRepository.countByDoadorId(usuarioId)
+                + doacaoArquivadaRepository.countByDoadorId(usuarioId));
+        estatistica.setDoacoesAtivas(doacaoRepository.countActiveByDoadorId(usuarioId));
+        estatistica.setSomaNotas(avaliacaoRepository.sumNotasByUserId(usuarioId));
+        estatistica.setTotalAvaliacoes(avaliacaoRepository.countByUserId(usuarioId));
+        return estatistica;
+    }
+
+    public boolean consistente(UsuarioEstatistica mantida, UsuarioEstatistica recalculada) {
+        return Objects.equals(mantida.getTotalDoacoes(), recalculada.getTotalDoacoes())
+                && Objects.equals(mantida.getDoacoesAtivas(), recalculada.getDoacoesAtivas())
+                && Objects.equals(mantida.getSomaNotas(), recalculada.getSomaNotas())
+                && Objects.equals(mantida.getTotalAvaliacoes(), recalculada.getTotalAvaliacoes());
+    }
+
+    public static class PerfilEstatisticas {
+        private final Usuario usuario;
+        private final UsuarioEstatistica estatistica;
+
+        public PerfilEstatisticas(Usuario usuario, UsuarioEstatistica estatistica) {
+            this.usuario = usuario;
+            this.estatistica = estatistica;
+        }
+
+        public Usuario getUsuario() {
+            return usuario;
+        }
+
+        public UsuarioEstatistica getEstatistica() {
+            return estatistica;
+        }
+    }
+}
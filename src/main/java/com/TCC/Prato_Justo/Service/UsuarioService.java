@@ -7,9 +7,10 @@ import com.TCC.Prato_Justo.Interface.DoacaoRepository;
 import com.TCC.Prato_Justo.Interface.AvaliacaoRepository;
 import com.TCC.Prato_Justo.Model.Usuario;
 import com.TCC.Prato_Justo.Model.TipoUsuario;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
 import java.util.List;
 import java.util.Optional;
@@ -18,8 +19,10 @@ import java.util.Optional;
 @Service
 public class UsuarioService {
 
+    private static final Logger log = LoggerFactory.getLogger(UsuarioService.class);
+
     private final AnthUsuarioRepository autchCadastroRepository;
-    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    private final HashSenhaService hashSenhaService;
     
     @Autowired
     private DoacaoRepository doacaoRepository;
@@ -27,8 +30,9 @@ public class UsuarioService {
     @Autowired
     private AvaliacaoRepository avaliacaoRepository;
 
-    public UsuarioService(AnthUsuarioRepository autchCadastroRepository) {
+    public UsuarioService(AnthUsuarioRepository autchCadastroRepository, HashSenhaService hashSenhaService) {
         this.autchCadastroRepository = autchCadastroRepository;
+        this.hashSenhaService = hashSenhaService;
     }
 
 
@@ -36,7 +40,7 @@ public class UsuarioService {
        Usuario cadastro = new Usuario();
        cadastro.setNome(username);
        cadastro.setEmail(email);
-       cadastro.setPassword(password);
+       cadastro.setSenhaUsuario(hashSenhaService.codificar(password));
        cadastro.setTipoUsuario(TipoUsuario.INDIVIDUAL);
        return autchCadastroRepository.save(cadastro);
     }
@@ -54,7 +58,7 @@ public class UsuarioService {
         Usuario cadastro = new Usuario();
         cadastro.setNome(request.getUsername());
         cadastro.setEmail(request.getEmail());
-        cadastro.setPassword(request.getPassword());
+        cadastro.setSenhaUsuario(hashSenhaService.codificar(request.getPassword()));
         cadastro.setTelefone(request.getTelefone());
 
         // Salvar dados de endereço
@@ -87,7 +91,7 @@ public class UsuarioService {
 
     public boolean validarLogin(String email, String rawPassword){
         return autchCadastroRepository.findByEmail(email)
-                .map(cad -> passwordEncoder.matches(rawPassword, cad.getSenhaUsuario()))
+                .map(cad -> hashSenhaService.confere(rawPassword, cad.getSenhaUsuario()))
                 .orElse(false);
     }
 
@@ -95,7 +99,7 @@ public class UsuarioService {
     public Usuario salvar(Usuario usuario) {
         // Criptografar senha antes de salvar
         if (usuario.getSenhaUsuario() != null && !usuario.getSenhaUsuario().startsWith("$2a$")) {
-            usuario.setSenhaUsuario(passwordEncoder.encode(usuario.getSenhaUsuario()));
+            usuario.setSenhaUsuario(hashSenhaService.codificar(usuario.getSenhaUsuario()));
         }
         return autchCadastroRepository.save(usuario);
     }
@@ -134,7 +138,7 @@ public class UsuarioService {
         try {
             return doacaoRepository.countByDoadorId(userId);
         } catch (Exception e) {
-            System.err.println("Erro ao contar doações: " + e.getMessage());
+            log.warn("user_stat_failed estatistica=doacoes usuario={} erro=\"{}\"", userId, e.getMessage());
             return 0;
         }
     }
@@ -145,7 +149,7 @@ public class UsuarioService {
         try {
             return doacaoRepository.countActiveByDoadorId(userId);
         } catch (Exception e) {
-            System.err.println("Erro ao contar famílias ajudadas: " + e.getMessage());
+            log.warn("user_stat_failed estatistica=familias usuario={} erro=\"{}\"", userId, e.getMessage());
             return 0;
         }
     }
@@ -155,7 +159,7 @@ public class UsuarioService {
             Double average = avaliacaoRepository.getAverageRatingByUserId(userId);
             return average != null ? average : 0.0;
         } catch (Exception e) {
-            System.err.println("Erro ao calcular média de avaliações: " + e.getMessage());
+            log.warn("user_stat_failed estatistica=avaliacoes usuario={} erro=\"{}\"", userId, e.getMessage());
             return 0.0;
         }
     }
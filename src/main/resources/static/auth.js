@@ -2,6 +2,87 @@
  * Sistema Global de Autenticação - Prato Justo
  * Gerencia o estado de autenticação em todas as páginas
  */
+
+/*
+ * Renovação transparente do token de acesso (curto). Todo fetch com "Authorization: Bearer"
+ * passa por aqui: se o token estiver para expirar, renova antes; se a resposta vier 401/403
+ * com o token expirado, renova e repete a requisição uma vez. Renovações simultâneas
+ * compartilham a mesma chamada a /auth/refresh.
+ */
+const fetchOriginal = window.fetch.bind(window);
+let renovacaoEmAndamento = null;
+
+function tokenExpirando(token, folgaSegundos = 30) {
+    try {
+        const payload = JSON.parse(atob(token.split('.')[1].replace(/-/g, '+').replace(/_/g, '/')));
+        return !payload.exp || payload.exp * 1000 - Date.now() < folgaSegundos * 1000;
+    } catch (e) {
+        return true;
+    }
+}
+
+function renovarToken() {
+    if (!renovacaoEmAndamento) {
+        renovacaoEmAndamento = (async () => {
+            const refreshToken = localStorage.getItem('refreshToken');
+            if (!refreshToken) return null;
+            const response = await fetchOriginal('/auth/refresh', {
+                method: 'POST',
+                headers: { 'Content-Type': 'application/json' },
+                body: JSON.stringify({ refreshToken })
+            });
+            if (!response.ok) {
+                localStorage.removeItem('refreshToken');
+                return null;
+            }
+            const data = await response.json();
+            localStorage.setItem('token', data.token);
+            localStorage.setItem('refreshToken', data.refreshToken);
+            if (window.authManager) window.authManager.token = data.token;
+            return data.token;
+        })().catch(() => null).finally(() => { renovacaoEmAndamento = null; });
+    }
+    return renovacaoEmAndamento;
+}
+
+// Para conexões que não passam por fetch (STOMP): devolve um token de acesso ainda válido
+window.garantirTokenValido = async () => {
+    const token = localStorage.getItem('token');
+    if (token && tokenExpirando(token) && localStorage.getItem('refreshToken')) {
+        return (await renovarToken()) || token;
+    }
+    return token;
+};
+
+function comToken(input, init, token) {
+    const headers = new Headers((init && init.headers) || (input instanceof Request ? input.headers : undefined));
+    headers.set('Authorization', `Bearer ${token}`);
+    return { ...(init || {}), headers };
+}
+
+window.fetch = async (input, init) => {
+    const headers = new Headers((init && init.headers) || (input instanceof Request ? input.headers : undefined));
+    const authorization = headers.get('Authorization') || '';
+    if (!authorization.startsWith('Bearer ') || !localStorage.getItem('refreshToken')) {
+        return fetchOriginal(input, init);
+    }
+
+    let token = authorization.substring(7);
+    if (tokenExpirando(token)) {
+        token = (await renovarToken()) || token;
+        init = comToken(input, init, token);
+    }
+
+    const response = await fetchOriginal(input, init);
+    if ((response.status === 401 || response.status === 403) && tokenExpirando(token, 0)) {
+        const novo = await renovarToken();
+        if (novo) {
+            return fetchOriginal(input, comToken(input, init, novo));
+        }
+    }
+    return response;
+};
+
 class AuthManager {
     constructor() {
         this.currentUser = null;
@@ -447,12 +528,15 @@ class AuthManager {
         return this.token;
     }
 
-    async login(token, user) {
+    async login(token, user, refreshToken) {
         this.token = token;
         this.currentUser = user;
         
         localStorage.setItem('token', token);
         localStorage.setItem('user', JSON.stringify(user));
+        if (refreshToken) {
+            localStorage.setItem('refreshToken', refreshToken);
+        }
         
         this.updateUI();
         
@@ -461,11 +545,25 @@ class AuthManager {
     }
 
     logout() {
+        // Revogar os tokens no servidor (sem aguardar a resposta)
+        const refreshToken = localStorage.getItem('refreshToken');
+        if (this.token || refreshToken) {
+            fetchOriginal('/auth/logout', {
+                method: 'POST',
+                headers: {
+                    'Content-Type': 'application/json',
+                    ...(this.token ? { 'Authorization': `Bearer ${this.token}` } : {})
+                },
+                body: JSON.stringify({ refreshToken })
+            }).catch(() => {});
+        }
+
         this.token = null;
         this.currentUser = null;
         
         localStorage.removeItem('token');
         localStorage.removeItem('user');
+        localStorage.removeItem('refreshToken');
         
         this.updateUI();
         
@@ -550,7 +648,7 @@ class AuthManager {
 
     // Método para ser chamado após login bem-sucedido
     async handleLoginSuccess(responseData) {
-        await this.login(responseData.token, responseData.user);
+        await this.login(responseData.token, responseData.user, responseData.refreshToken);
         
         // Redirecionar baseado no tipo de usuário
         const redirectUrl = this.getRedirectUrl(responseData.user);
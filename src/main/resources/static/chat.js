@@ -117,7 +117,7 @@ const apiClient = {
 		let reconnectTimer = null;
 		let userSubscription = null;
 
-		const connect = () => {
+		const connect = async () => {
 			try {
 				// Verificar se SockJS e STOMP estão disponíveis
 				if (typeof SockJS === 'undefined' || typeof Stomp === 'undefined') {
@@ -126,8 +126,9 @@ const apiClient = {
 					return;
 				}
 
-				// Obter token JWT
-				const token = localStorage.getItem('token') || localStorage.getItem('jwtToken');
+				// Obter token JWT (renovado antes se estiver expirando)
+				const token = (window.garantirTokenValido && await window.garantirTokenValido())
+					|| localStorage.getItem('token') || localStorage.getItem('jwtToken');
 				if (!token) {
 					console.error('[WebSocket] Token JWT não encontrado');
 					if (onStatusChange) onStatusChange('error');
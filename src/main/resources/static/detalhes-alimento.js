@@ -367,6 +367,9 @@ function closeModal() {
     document.body.style.overflow = 'auto';
 }
 
+// Chave reutilizada em novas tentativas da mesma solicitação (duplo clique, falha de rede)
+let solicitacaoIdempotencyKey = null;
+
 /**
  * ===== CONFIRMAR SOLICITAÇÃO =====
  */
@@ -385,11 +388,18 @@ async function confirmarSolicitacao() {
         btnConfirmar.disabled = true;
         btnConfirmar.innerHTML = '<i class="fas fa-spinner fa-spin"></i> Processando...';
         
+        if (!solicitacaoIdempotencyKey) {
+            solicitacaoIdempotencyKey = (window.crypto && crypto.randomUUID)
+                ? crypto.randomUUID()
+                : `${Date.now()}-${Math.random().toString(36).slice(2)}`;
+        }
+        
         const response = await fetch(`${API_BASE_URL}/doacoes/${currentDoacao.id}/solicitar`, {
             method: 'POST',
             headers: {
                 'Content-Type': 'application/json',
-                'Authorization': `Bearer ${token}`
+                'Authorization': `Bearer ${token}`,
+                'Idempotency-Key': solicitacaoIdempotencyKey
             }
         });
         
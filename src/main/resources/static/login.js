@@ -49,6 +49,7 @@ document.getElementById('loginForm').addEventListener('submit', async function(e
             } else {
                 // Fallback para o sistema antigo
                 localStorage.setItem('token', data.token);
+                localStorage.setItem('refreshToken', data.refreshToken);
                 localStorage.setItem('user', JSON.stringify(data.user));
                 
                 // Redirecionar baseado no tipo de usuário
@@ -533,7 +533,7 @@ class ProfileManager {
                 const userId = this.currentUser.id;
                 
                 // Buscar avaliações recebidas (avaliações de solicitações)
-                const avaliacoesResponse = await fetch(`/avaliacoes-solicitacao/usuario/${userId}`, {
+                const avaliacoesResponse = await fetch(`/avaliacoes-solicitacao/usuario/${userId}?size=5`, {
                     headers: {
                         'Authorization': `Bearer ${token}`
                     }
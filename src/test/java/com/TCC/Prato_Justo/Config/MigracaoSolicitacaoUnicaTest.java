@@ -0,0 +1,42 @@
+package com.TCC.Prato_Justo.Config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Limpeza de duplicatas num esquema antigo (sem a restrição), num H2 próprio fora do contexto Spring
+ */
+class MigracaoSolicitacaoUnicaTest {
+
+    @Test
+    void mantemAMaisAvancadaEMoveDependentes() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:migracao_solicitacao;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE solicitacao (id_solicitacao BIGINT PRIMARY KEY, id_doacao BIGINT, id_solicitante BIGINT, status VARCHAR(20))");
+        jdbc.execute("CREATE TABLE chat (id_chat BIGINT PRIMARY KEY, id_solicitacao BIGINT REFERENCES solicitacao(id_solicitacao))");
+        jdbc.execute("CREATE TABLE avaliacao_solicitacao (id_avaliacao BIGINT PRIMARY KEY, id_solicitacao BIGINT REFERENCES solicitacao(id_solicitacao))");
+        // Par (10, 1) triplicado, com a aceita no meio; par (10, 2) duplicado só com canceladas; par (11, 1) único
+        jdbc.update("INSERT INTO solicitacao VALUES (1, 10, 1, 'SOLICITADA'), (2, 10, 1, 'EM_ANDAMENTO'), (3, 10, 1, 'CANCELADA'), " +
+                "(4, 10, 2, 'CANCELADA'), (5, 10, 2, 'CANCELADA'), (6, 11, 1, 'SOLICITADA')");
+        jdbc.update("INSERT INTO chat VALUES (1, 3)");
+        jdbc.update("INSERT INTO avaliacao_solicitacao VALUES (1, 1), (2, 4)");
+
+        new MigracaoSolicitacaoUnica(dataSource).afterPropertiesSet();
+
+        assertEquals(List.of(2L, 5L, 6L),
+                jdbc.queryForList("SELECT id_solicitacao FROM solicitacao ORDER BY id_solicitacao", Long.class));
+        assertEquals(2L, jdbc.queryForObject("SELECT id_solicitacao FROM chat WHERE id_chat = 1", Long.class));
+        assertEquals(List.of(2L, 5L),
+                jdbc.queryForList("SELECT id_solicitacao FROM avaliacao_solicitacao ORDER BY id_avaliacao", Long.class));
+        // A restrição que o Hibernate cria depois agora entra; rodar de novo não muda nada
+        jdbc.execute("ALTER TABLE solicitacao ADD CONSTRAINT uk_solicitacao_doacao_solicitante UNIQUE (id_doacao, id_solicitante)");
+        new MigracaoSolicitacaoUnica(dataSource).afterPropertiesSet();
+        assertEquals(3, jdbc.queryForObject("SELECT COUNT(*) FROM solicitacao", Integer.class));
+    }
+}
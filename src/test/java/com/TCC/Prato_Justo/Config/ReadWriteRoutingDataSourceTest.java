@@ -0,0 +1,169 @@
+package com.TCC.Prato_Justo.Config;
+
+import com.TCC.Prato_Justo.Interface.AnthUsuarioRepository;
+import com.TCC.Prato_Justo.Interface.DoacaoRepository;
+import com.TCC.Prato_Justo.Model.Doacao;
+import com.TCC.Prato_Justo.Model.Usuario;
+import com.TCC.Prato_Justo.Security.JwtUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import static com.TCC.Prato_Justo.DadosTeste.usuario;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Roteamento leitura/escrita com dois bancos H2 em memória: um primário e uma réplica
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:rw_primario;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "app.datasource.replica.enabled=true",
+        "app.datasource.replica.urls=jdbc:h2:mem:rw_replica;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "app.datasource.replica.username=sa",
+        "app.datasource.replica.password=",
+        "app.datasource.replica.lag-query=SELECT atraso FROM atraso_replica",
+        "app.datasource.replica.max-lag-seconds=5",
+        "app.datasource.replica.check-interval-ms=3600000"
+})
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class ReadWriteRoutingDataSourceTest {
+
+    private static final String URL_PRIMARIO = "jdbc:h2:mem:rw_primario;MODE=MySQL;DB_CLOSE_DELAY=-1";
+    private static final String URL_REPLICA = "jdbc:h2:mem:rw_replica;MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ReadReplicaConfig readReplicaConfig;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private AnthUsuarioRepository usuarioRepository;
+
+    @Autowired
+    private DoacaoRepository doacaoRepository;
+
+    @BeforeEach
+    void prepararBancos() throws Exception {
+        executar(URL_PRIMARIO, "DROP TABLE IF EXISTS origem", "CREATE TABLE origem (nome VARCHAR(20))",
+                "INSERT INTO origem VALUES ('primario')");
+        executar(URL_REPLICA, "DROP TABLE IF EXISTS origem", "CREATE TABLE origem (nome VARCHAR(20))",
+                "INSERT INTO origem VALUES ('replica')",
+                "DROP TABLE IF EXISTS atraso_replica", "CREATE TABLE atraso_replica (atraso INT)",
+                "INSERT INTO atraso_replica VALUES (0)");
+        readReplicaConfig.verificarReplicas();
+    }
+
+    @Test
+    void leituraSomenteLeituraVaiParaReplica() {
+        assertEquals("replica", lerOrigem(true));
+    }
+
+    @Test
+    void escritaESemTransacaoVaoParaPrimario() {
+        assertEquals("primario", lerOrigem(false));
+        assertEquals("primario", new JdbcTemplate(dataSource).queryForObject("SELECT nome FROM origem", String.class));
+    }
+
+    @Test
+    void replicaAtrasadaCaiParaPrimario() throws Exception {
+        executar(URL_REPLICA, "UPDATE atraso_replica SET atraso = 60");
+        readReplicaConfig.verificarReplicas();
+        assertEquals("primario", lerOrigem(true));
+
+        executar(URL_REPLICA, "UPDATE atraso_replica SET atraso = 1");
+        readReplicaConfig.verificarReplicas();
+        assertEquals("replica", lerOrigem(true));
+    }
+
+    @Test
+    void requisicaoLeNaReplicaEGravaNoPrimario(@TempDir Path dir) throws Exception {
+        Usuario doador = usuarioRepository.save(usuario("doador_replica"));
+        Doacao doacao = new Doacao();
+        doacao.setTitulo("Original");
+        doacao.setCidade("Recife");
+        doacao.setEndereco("Rua A, 1");
+        doacao.setLatitude(-8.05);
+        doacao.setLongitude(-34.9);
+        doacao.setDoador(doador);
+        doacao = doacaoRepository.save(doacao);
+
+        // Réplica com o mesmo esquema e dados, mas com o título alterado para distinguir as leituras
+        String copia = dir.resolve("copia.sql").toString().replace('\\', '/');
+        executar(URL_PRIMARIO, "SCRIPT TO '" + copia + "'");
+        executar(URL_REPLICA, "DROP ALL OBJECTS", "RUNSCRIPT FROM '" + copia + "'",
+                "CREATE TABLE atraso_replica (atraso INT)", "INSERT INTO atraso_replica VALUES (0)",
+                "UPDATE doacao SET titulo = 'Cópia da réplica'");
+        readReplicaConfig.verificarReplicas();
+
+        mockMvc.perform(get("/doacoes/proximas"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].titulo").value("Cópia da réplica"));
+
+        // Leituras somente leitura e depois a escrita, na mesma requisição: com open-in-view a
+        // primeira conexão (da réplica) ficaria presa ao EntityManager e receberia a escrita
+        mockMvc.perform(put("/doacoes/" + doacao.getId())
+                        .header("Authorization", "Bearer " + jwtUtil.gerarTokenAcesso(doador))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"titulo\":\"Editada\",\"cidade\":\"Recife\",\"endereco\":\"Rua A, 1\"}"))
+                .andExpect(status().isOk());
+
+        String sql = "SELECT titulo FROM doacao WHERE id_doacao = " + doacao.getId();
+        assertEquals("Editada", consultar(URL_PRIMARIO, sql));
+        assertEquals("Cópia da réplica", consultar(URL_REPLICA, sql));
+    }
+
+    private String lerOrigem(boolean somenteLeitura) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(somenteLeitura);
+        return template.execute(status ->
+                new JdbcTemplate(dataSource).queryForObject("SELECT nome FROM origem", String.class));
+    }
+
+    private static String consultar(String url, String sql) throws Exception {
+        try (Connection conexao = DriverManager.getConnection(url, "sa", "");
+             Statement stmt = conexao.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            return rs.next() ? rs.getString(1) : null;
+        }
+    }
+
+    private static void executar(String url, String... comandos) throws Exception {
+        try (Connection conexao = DriverManager.getConnection(url, "sa", "");
+             Statement stmt = conexao.createStatement()) {
+            for (String comando : comandos) {
+                stmt.execute(comando);
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.TCC.Prato_Justo.Controller;
+
+import com.TCC.Prato_Justo.Model.Usuario;
+import com.TCC.Prato_Justo.Security.LimiteTentativasLogin;
+import com.TCC.Prato_Justo.Service.AuthService;
+import com.TCC.Prato_Justo.Service.UsuarioService;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AuthUsuarioControllerTest {
+
+    @Test
+    void cadastrosPassaSenhaEEmailNaOrdemDoServicoERespeitaOLimite() {
+        UsuarioService usuarioService = mock(UsuarioService.class);
+        when(usuarioService.fazerCadastro(anyString(), anyString(), anyString())).thenReturn(new Usuario());
+        AuthUsuarioController controller = new AuthUsuarioController(usuarioService, mock(AuthService.class),
+                new LimiteTentativasLogin(30, 1));
+        Usuario cadastro = new Usuario();
+        cadastro.setNome("ana");
+        cadastro.setEmail("ana@teste.com");
+        cadastro.setPassword("segredo");
+
+        assertEquals(200, controller.cadastros(cadastro, new MockHttpServletRequest()).getStatusCode().value());
+        verify(usuarioService).fazerCadastro("ana", "segredo", "ana@teste.com");
+
+        // Segunda tentativa com o mesmo e-mail no mesmo minuto passa do limite de login
+        assertEquals(429, controller.cadastros(cadastro, new MockHttpServletRequest()).getStatusCode().value());
+        verify(usuarioService, times(1)).fazerCadastro(anyString(), anyString(), anyString());
+    }
+}
@@ -0,0 +1,91 @@
+package com.TCC.Prato_Justo.Controller;
+
+import com.TCC.Prato_Justo.Config.UserPrincipal;
+import com.TCC.Prato_Justo.Interface.AnthUsuarioRepository;
+import com.TCC.Prato_Justo.Interface.MensagemRepository;
+import com.TCC.Prato_Justo.Model.Mensagem;
+import com.TCC.Prato_Justo.Model.Usuario;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.util.MimeTypeUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.util.HashMap;
+import java.util.List;
+
+import static com.TCC.Prato_Justo.DadosTeste.usuario;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Frames SEND pelo canal de entrada do broker, como chegam de um cliente STOMP: o remetente vem do
+ * usuário da sessão (definido no CONNECT), não do SecurityContextHolder, que fica vazio nessas threads
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ChatWebSocketControllerTest {
+
+    @Autowired
+    @Qualifier("clientInboundChannel")
+    private MessageChannel clientInboundChannel;
+
+    @Autowired
+    private AnthUsuarioRepository usuarioRepository;
+
+    @Autowired
+    private MensagemRepository mensagemRepository;
+
+    @Test
+    void gravaAMensagemComORemetenteDaSessao() throws Exception {
+        Usuario remetente = usuarioRepository.save(usuario("remetente_stomp"));
+        Usuario destinatario = usuarioRepository.save(usuario("destinatario_stomp"));
+
+        enviar(new UserPrincipal(remetente.getId(), remetente.getEmail(), List.of()), destinatario.getId(), "Olá pelo STOMP");
+        enviar(null, destinatario.getId(), "Sem sessão autenticada");
+
+        assertTrue(aguardarMensagem(destinatario.getId()), "mensagem não gravada");
+        // Dá tempo de a mensagem sem usuário também ser processada antes de conferir que foi ignorada
+        Thread.sleep(200);
+        List<Mensagem> gravadas = recebidas(destinatario.getId());
+        assertEquals(1, gravadas.size());
+        assertEquals(remetente.getId(), gravadas.get(0).getRemetente().getId());
+        assertEquals("Olá pelo STOMP", gravadas.get(0).getConteudo());
+    }
+
+    private void enviar(Principal usuario, Long destinatarioId, String conteudo) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SEND);
+        accessor.setDestination("/app/chat.sendMessage");
+        accessor.setSessionId("sessao-teste");
+        accessor.setSessionAttributes(new HashMap<>());
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        accessor.setUser(usuario);
+        String corpo = "{\"destinatarioId\":" + destinatarioId + ",\"content\":\"" + conteudo + "\",\"type\":\"CHAT\"}";
+        Message<byte[]> frame = MessageBuilder.createMessage(corpo.getBytes(StandardCharsets.UTF_8), accessor.getMessageHeaders());
+        clientInboundChannel.send(frame);
+    }
+
+    // O canal de entrada entrega os frames num pool próprio
+    private boolean aguardarMensagem(Long destinatarioId) throws InterruptedException {
+        long limite = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < limite) {
+            if (!recebidas(destinatarioId).isEmpty()) return true;
+            Thread.sleep(50);
+        }
+        return false;
+    }
+
+    private List<Mensagem> recebidas(Long destinatarioId) {
+        return mensagemRepository.findAll().stream()
+                .filter(m -> m.getDestinatario().getId().equals(destinatarioId))
+                .toList();
+    }
+}
@@ -0,0 +1,78 @@
+package com.TCC.Prato_Justo.Controller;
+
+import com.TCC.Prato_Justo.Interface.AnthEstabelecimentoRepository;
+import com.TCC.Prato_Justo.Interface.AnthUsuarioRepository;
+import com.TCC.Prato_Justo.Interface.DoacaoRepository;
+import com.TCC.Prato_Justo.Model.Doacao;
+import com.TCC.Prato_Justo.Model.Estabelecimento;
+import com.TCC.Prato_Justo.Model.Usuario;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static com.TCC.Prato_Justo.DadosTeste.estabelecimento;
+import static com.TCC.Prato_Justo.DadosTeste.usuario;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * O ETag de GET /doacoes/{id} muda quando o estabelecimento de destino embutido na resposta é editado
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class DoacaoEtagTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AnthUsuarioRepository usuarioRepository;
+
+    @Autowired
+    private AnthEstabelecimentoRepository estabelecimentoRepository;
+
+    @Autowired
+    private DoacaoRepository doacaoRepository;
+
+    @Test
+    void edicaoDoEstabelecimentoInvalidaOEtagDaDoacao() throws Exception {
+        Usuario dono = usuarioRepository.save(usuario("dono_etag"));
+        Estabelecimento destino = estabelecimentoRepository.save(estabelecimento(dono, "mercado_etag"));
+
+        Doacao doacao = new Doacao();
+        doacao.setTitulo("Pães");
+        doacao.setDoador(dono);
+        doacao.setEstabelecimentoDestino(destino);
+        doacao = doacaoRepository.save(doacao);
+
+        String etag = mockMvc.perform(get("/doacoes/" + doacao.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+        mockMvc.perform(get("/doacoes/" + doacao.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        String corpo = "{\"nomeEstabelecimento\":\"Mercado Novo\",\"email\":\"mercado_etag@mercado.com\"," +
+                "\"senhaEstabelecimento\":\"x\",\"cnpj\":\"mercado_etag\",\"telefone\":\"81999990000\"," +
+                "\"enderecoCompleto\":\"Rua B, 2\",\"usuario\":{\"id\":" + dono.getId() + "}}";
+        mockMvc.perform(put("/auth/estabelecimento/" + destino.getId())
+                        .contentType(MediaType.APPLICATION_JSON).content(corpo))
+                .andExpect(status().isOk());
+
+        String novoEtag = mockMvc.perform(get("/doacoes/" + doacao.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.estabelecimentoDestino.nomeEstabelecimento").value("Mercado Novo"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, novoEtag);
+    }
+}
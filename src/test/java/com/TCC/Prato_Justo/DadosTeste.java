@@ -0,0 +1,41 @@
+package com.TCC.Prato_Justo;
+
+import com.TCC.Prato_Justo.Model.Estabelecimento;
+import com.TCC.Prato_Justo.Model.TipoUsuario;
+import com.TCC.Prato_Justo.Model.Usuario;
+
+/**
+ * Entidades com só os campos obrigatórios preenchidos, para os testes de integração salvarem
+ */
+public final class DadosTeste {
+
+    private DadosTeste() {
+    }
+
+    /**
+     * Usuário individual com e-mail nome@teste.com
+     */
+    public static Usuario usuario(String nome) {
+        Usuario usuario = new Usuario();
+        usuario.setNome(nome);
+        usuario.setEmail(nome + "@teste.com");
+        usuario.setSenhaUsuario("x");
+        usuario.setTipoUsuario(TipoUsuario.INDIVIDUAL);
+        return usuario;
+    }
+
+    /**
+     * Estabelecimento sem coordenadas com e-mail nome@mercado.com; o nome também serve de CNPJ (até 18 caracteres)
+     */
+    public static Estabelecimento estabelecimento(Usuario dono, String nome) {
+        Estabelecimento e = new Estabelecimento();
+        e.setNomeEstabelecimento(nome);
+        e.setEmail(nome + "@mercado.com");
+        e.setSenhaEstabelecimento("x");
+        e.setCnpj(nome);
+        e.setTelefone("81999990000");
+        e.setEnderecoCompleto("Rua A, 1");
+        e.setUsuario(dono);
+        return e;
+    }
+}
@@ -0,0 +1,348 @@
+package com.TCC.Prato_Justo.Interface;
+
+import com.TCC.Prato_Justo.Model.*;
+import com.TCC.Prato_Justo.Service.GradeGeografica;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.repository.support.Repositories;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+import static com.TCC.Prato_Justo.DadosTeste.estabelecimento;
+import static com.TCC.Prato_Justo.DadosTeste.usuario;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Executa cada consulta declarada nos repositórios sobre uma base semeada e confere,
+ * via EXPLAIN do H2, que nenhuma delas recorre a varredura completa de tabela.
+ */
+@SpringBootTest(properties = {
+        // Sem cache de segundo nível: toda consulta precisa chegar ao banco
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false"
+})
+@ActiveProfiles("test")
+class RepositoryQueryPlanTest {
+
+    // Varreduras inevitáveis, cada uma com o motivo
+    private static final Map<String, String> VARREDURAS_ACEITAS = Map.of(
+            "AnthProdutosRepository.streamNomes",
+            "leitura completa para reconstruir o índice de trigramas",
+            "AnthProdutosRepository.findByNameProdutoContainingIgnoreCaseOrderById",
+            "substituto do índice de trigramas só enquanto ele não está pronto"
+    );
+
+    private static final int USUARIOS = 60;
+    private static final int DOACOES = 600;
+
+    @Autowired private ApplicationContext context;
+    @Autowired private DataSource dataSource;
+    @Autowired private AnthUsuarioRepository usuarioRepository;
+    @Autowired private AnthEstabelecimentoRepository estabelecimentoRepository;
+    @Autowired private AnthProdutosRepository produtosRepository;
+    @Autowired private DoacaoRepository doacaoRepository;
+    @Autowired private SolicitacaoRepository solicitacaoRepository;
+    @Autowired private ChatRepository chatRepository;
+    @Autowired private MensagemRepository mensagemRepository;
+    @Autowired private AvaliacaoRepository avaliacaoRepository;
+    @Autowired private AvaliacaoSolicitacaoRepository avaliacaoSolicitacaoRepository;
+    @Autowired private UsuarioEstatisticaRepository estatisticaRepository;
+    @Autowired private ReputacaoUsuarioRepository reputacaoRepository;
+    @Autowired private DoacaoArquivadaRepository doacaoArquivadaRepository;
+    @Autowired private SolicitacaoArquivadaRepository solicitacaoArquivadaRepository;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    private final List<QueryInfo> capturadas = new CopyOnWriteArrayList<>();
+    private volatile boolean capturando;
+
+    @Test
+    void consultasDosRepositoriosUsamIndices() throws Exception {
+        ((ProxyDataSource) dataSource).getProxyConfig().getQueryListener().addListener(new Captura());
+
+        Base base = semear();
+        try (Connection conexao = dataSource.getConnection(); Statement stmt = conexao.createStatement()) {
+            stmt.execute("ANALYZE");
+        }
+
+        Map<String, Runnable> consultas = consultas(base);
+        assertEquals(consultasDeclaradas(), consultas.keySet(),
+                "Toda consulta dos repositórios precisa estar coberta por este teste");
+
+        List<String> falhas = new ArrayList<>();
+        for (Map.Entry<String, Runnable> consulta : consultas.entrySet()) {
+            capturadas.clear();
+            capturando = true;
+            try {
+                consulta.getValue().run();
+            } finally {
+                capturando = false;
+            }
+            assertFalse(capturadas.isEmpty(), "Nenhum SQL executado por " + consulta.getKey());
+            for (QueryInfo sql : capturadas) {
+                String plano = explicar(sql);
+                if (plano.contains(".tableScan") && !VARREDURAS_ACEITAS.containsKey(consulta.getKey())) {
+                    falhas.add(consulta.getKey() + "\n" + plano);
+                }
+            }
+        }
+        assertTrue(falhas.isEmpty(), "Consultas com varredura completa:\n\n" + String.join("\n\n", falhas));
+    }
+
+    private Map<String, Runnable> consultas(Base b) {
+        Usuario u = b.usuarios.get(1);
+        Usuario outro = b.usuarios.get(2);
+        Long doacaoId = b.doacao.getId();
+        Long solicitacaoId = b.solicitacao.getId();
+
+        Map<String, Runnable> c = new TreeMap<>();
+        c.put("AnthUsuarioRepository.findByNomeAndSenhaUsuarioAndEmail", () -> usuarioRepository.findByNomeAndSenhaUsuarioAndEmail(u.getNome(), "x", u.getEmail()));
+        c.put("AnthUsuarioRepository.findByEmail", () -> usuarioRepository.findByEmail(outro.getEmail()));
+        c.put("AnthEstabelecimentoRepository.findBynomeEstabelecimentoAndSenhaEstabelecimentoAndEmail", () -> estabelecimentoRepository.findBynomeEstabelecimentoAndSenhaEstabelecimentoAndEmail("Estab 1", "x", "estab1@teste.com"));
+        c.put("AnthEstabelecimentoRepository.findByEmail", () -> estabelecimentoRepository.findByEmail("estab1@teste.com"));
+        c.put("AnthEstabelecimentoRepository.findPagina", () -> estabelecimentoRepository.findPagina(PageRequest.of(1, 5)));
+        c.put("AnthEstabelecimentoRepository.findNaGrade", () -> {
+            GradeGeografica.Retangulo r = GradeGeografica.retangulo(-23.2, -46.2, 5);
+            estabelecimentoRepository.findNaGrade(GradeGeografica.celulasNoRaio(-23.2, -46.2, 5),
+                    r.getLatMin(), r.getLatMax(), r.getLngMin(), r.getLngMax());
+        });
+        c.put("AnthEstabelecimentoRepository.findUsuarioIdById", () -> estabelecimentoRepository.findUsuarioIdById(b.estabelecimento.getId()));
+        c.put("AnthProdutosRepository.findPagina", () -> produtosRepository.findPagina(PageRequest.of(1, 10)));
+        c.put("AnthProdutosRepository.findByNameProdutoContainingIgnoreCaseOrderById",
+                () -> produtosRepository.findByNameProdutoContainingIgnoreCaseOrderById("arroz", PageRequest.of(0, 10)));
+        c.put("AnthProdutosRepository.streamNomes", () -> new TransactionTemplate(transactionManager).executeWithoutResult(s -> {
+            try (Stream<Object[]> nomes = produtosRepository.streamNomes()) {
+                nomes.count();
+            }
+        }));
+        c.put("DoacaoRepository.findByAtivoTrue", () -> doacaoRepository.findByAtivoTrue());
+        c.put("DoacaoRepository.findByAtivoTrueAndTipoAlimentoContainingIgnoreCase", () -> doacaoRepository.findByAtivoTrueAndTipoAlimentoContainingIgnoreCase("fruta"));
+        c.put("DoacaoRepository.searchByCidade", () -> doacaoRepository.searchByCidade("Cidade 3"));
+        c.put("DoacaoRepository.findAllComCoordenadas", () -> doacaoRepository.findAllComCoordenadas());
+        c.put("DoacaoRepository.findCoordenadasAtivas", () -> doacaoRepository.findCoordenadasAtivas());
+        c.put("DoacaoRepository.findByDoadorId", () -> doacaoRepository.findByDoadorId(u.getId()));
+        c.put("DoacaoRepository.countByDoadorId", () -> doacaoRepository.countByDoadorId(u.getId()));
+        c.put("DoacaoRepository.countActiveByDoadorId", () -> doacaoRepository.countActiveByDoadorId(u.getId()));
+        c.put("DoacaoRepository.findVersoes", () -> doacaoRepository.findVersoes(doacaoId));
+        c.put("DoacaoRepository.findIdsParaArquivar", () -> doacaoRepository.findIdsParaArquivar(LocalDateTime.now().minusDays(1), PageRequest.of(0, 100)));
+        c.put("DoacaoArquivadaRepository.findByDoadorId", () -> doacaoArquivadaRepository.findByDoadorId(u.getId()));
+        c.put("DoacaoArquivadaRepository.countByDoadorId", () -> doacaoArquivadaRepository.countByDoadorId(u.getId()));
+        c.put("SolicitacaoRepository.findBySolicitanteId", () -> solicitacaoRepository.findBySolicitanteId(u.getId()));
+        c.put("SolicitacaoRepository.findByDoacaoId", () -> solicitacaoRepository.findByDoacaoId(doacaoId));
+        c.put("SolicitacaoRepository.findBySolicitanteIdAndStatus", () -> solicitacaoRepository.findBySolicitanteIdAndStatus(u.getId(), StatusSolicitacao.SOLICITADA));
+        c.put("SolicitacaoRepository.findByDoacaoIdAndSolicitanteId", () -> solicitacaoRepository.findByDoacaoIdAndSolicitanteId(doacaoId, b.solicitacao.getSolicitante().getId()));
+        c.put("SolicitacaoRepository.findByDoacaoDoadorId", () -> solicitacaoRepository.findByDoacaoDoadorId(u.getId()));
+        c.put("SolicitacaoRepository.findIdsParaArquivar", () -> solicitacaoRepository.findIdsParaArquivar(LocalDateTime.now().minusDays(1), PageRequest.of(0, 100)));
+        c.put("SolicitacaoArquivadaRepository.findBySolicitanteId", () -> solicitacaoArquivadaRepository.findBySolicitanteId(u.getId()));
+        c.put("ChatRepository.findByToken", () -> chatRepository.findByToken(b.chat.getToken()));
+        c.put("ChatRepository.findByUsuario", () -> chatRepository.findByUsuario(u));
+        c.put("ChatRepository.findChatEntreUsuarios", () -> chatRepository.findChatEntreUsuarios(u, b.usuarios.get(5)));
+        c.put("ChatRepository.findBySolicitacaoId", () -> chatRepository.findBySolicitacaoId(solicitacaoId));
+        c.put("MensagemRepository.conversaEntre", () -> mensagemRepository.conversaEntre(u, outro));
+        c.put("MensagemRepository.findContacts", () -> mensagemRepository.findContacts(u));
+        c.put("AvaliacaoRepository.findByEstabelecimento", () -> avaliacaoRepository.findByEstabelecimento(b.estabelecimento));
+        c.put("AvaliacaoRepository.mediaPorEstabelecimento", () -> avaliacaoRepository.mediaPorEstabelecimento(b.estabelecimento.getId()));
+        c.put("AvaliacaoRepository.getAverageRatingByUserId", () -> avaliacaoRepository.getAverageRatingByUserId(u.getId()));
+        c.put("AvaliacaoRepository.countByUserId", () -> avaliacaoRepository.countByUserId(u.getId()));
+        c.put("AvaliacaoRepository.sumNotasByUserId", () -> avaliacaoRepository.sumNotasByUserId(u.getId()));
+        c.put("AvaliacaoSolicitacaoRepository.findBySolicitacao", () -> avaliacaoSolicitacaoRepository.findBySolicitacao(b.solicitacao));
+        c.put("AvaliacaoSolicitacaoRepository.findByAvaliado", () -> avaliacaoSolicitacaoRepository.findByAvaliado(u));
+        c.put("AvaliacaoSolicitacaoRepository.findBySolicitacaoId", () -> avaliacaoSolicitacaoRepository.findBySolicitacaoId(solicitacaoId));
+        c.put("AvaliacaoSolicitacaoRepository.findByAvaliadoId", () -> avaliacaoSolicitacaoRepository.findByAvaliadoId(u.getId()));
+        c.put("AvaliacaoSolicitacaoRepository.findByAvaliadorId", () -> avaliacaoSolicitacaoRepository.findByAvaliadorId(u.getId()));
+        c.put("AvaliacaoSolicitacaoRepository.findBySolicitacaoIdAndAvaliadorId", () -> avaliacaoSolicitacaoRepository.findBySolicitacaoIdAndAvaliadorId(solicitacaoId, u.getId()));
+        c.put("AvaliacaoSolicitacaoRepository.mediaPorAvaliadoId", () -> avaliacaoSolicitacaoRepository.mediaPorAvaliadoId(u.getId()));
+        c.put("AvaliacaoSolicitacaoRepository.countByAvaliadoId", () -> avaliacaoSolicitacaoRepository.countByAvaliadoId(u.getId()));
+        c.put("AvaliacaoSolicitacaoRepository.findPaginaPorAvaliadoId", () -> avaliacaoSolicitacaoRepository.findPaginaPorAvaliadoId(u.getId(), PageRequest.of(0, 20)));
+        c.put("AvaliacaoSolicitacaoRepository.contarPorNota", () -> avaliacaoSolicitacaoRepository.contarPorNota(u.getId()));
+        c.put("ReputacaoUsuarioRepository.findVersao", () -> reputacaoRepository.findVersao(u.getId()));
+        c.put("UsuarioEstatisticaRepository.findPerfilComEstatisticas", () -> estatisticaRepository.findPerfilComEstatisticas(u.getId()));
+        return c;
+    }
+
+    // Métodos de consulta (não @Modifying) declarados diretamente em cada repositório
+    private Set<String> consultasDeclaradas() {
+        Set<String> nomes = new TreeSet<>();
+        Repositories repositories = new Repositories(context);
+        for (Class<?> dominio : repositories) {
+            Class<?> repositorio = repositories.getRequiredRepositoryInformation(dominio).getRepositoryInterface();
+            for (Method metodo : repositorio.getDeclaredMethods()) {
+                if (metodo.isDefault() || Modifier.isStatic(metodo.getModifiers()) || metodo.isAnnotationPresent(Modifying.class)) {
+                    continue;
+                }
+                nomes.add(repositorio.getSimpleName() + "." + metodo.getName());
+            }
+        }
+        return nomes;
+    }
+
+    private String explicar(QueryInfo sql) throws Exception {
+        try (Connection conexao = dataSource.getConnection();
+             PreparedStatement ps = conexao.prepareStatement("EXPLAIN " + sql.getQuery())) {
+            if (!sql.getParametersList().isEmpty()) {
+                for (ParameterSetOperation op : sql.getParametersList().get(0)) {
+                    op.getMethod().invoke(ps, op.getArgs());
+                }
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                StringBuilder plano = new StringBuilder();
+                while (rs.next()) {
+                    plano.append(rs.getString(1));
+                }
+                return plano.toString();
+            }
+        }
+    }
+
+    private Base semear() {
+        Base b = new Base();
+        for (int i = 0; i < USUARIOS; i++) {
+            b.usuarios.add(usuario("usuario" + i));
+        }
+        usuarioRepository.saveAll(b.usuarios);
+
+        List<Estabelecimento> estabelecimentos = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Estabelecimento e = estabelecimento(b.usuarios.get(i), "estab" + i);
+            e.setLatitude(-23.0 - 0.2 * i);
+            e.setLongitude(-46.0 - 0.2 * (i % 5));
+            e.setCelulaGrade(GradeGeografica.celula(e.getLatitude(), e.getLongitude()));
+            estabelecimentos.add(e);
+        }
+        estabelecimentoRepository.saveAll(estabelecimentos);
+        b.estabelecimento = estabelecimentos.get(1);
+
+        List<Produto> produtos = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            Produto p = new Produto();
+            p.setNameProduto((i % 2 == 0 ? "Arroz " : "Feijao ") + i);
+            produtos.add(p);
+        }
+        produtosRepository.saveAll(produtos);
+
+        List<Doacao> doacoes = new ArrayList<>();
+        for (int i = 0; i < DOACOES; i++) {
+            Doacao d = new Doacao();
+            d.setTitulo("Doacao " + i);
+            d.setTipoAlimento(i % 3 == 0 ? "fruta" : "graos");
+            d.setCidade("Cidade " + (i % 30));
+            d.setDoador(b.usuarios.get(i % USUARIOS));
+            // Maioria já encerrada, como numa base em produção
+            d.setAtivo(i % 10 == 0);
+            if (i % 4 == 0) {
+                d.setLatitude(-23.5 + i * 0.001);
+                d.setLongitude(-46.6 + i * 0.001);
+            }
+            doacoes.add(d);
+        }
+        doacaoRepository.saveAll(doacoes);
+        b.doacao = doacoes.get(10);
+
+        List<Solicitacao> solicitacoes = new ArrayList<>();
+        for (int i = 0; i < DOACOES; i++) {
+            Solicitacao s = new Solicitacao();
+            s.setDoacao(doacoes.get(i));
+            s.setSolicitante(b.usuarios.get((i + 1) % USUARIOS));
+            s.setStatus(StatusSolicitacao.values()[i % StatusSolicitacao.values().length]);
+            solicitacoes.add(s);
+        }
+        solicitacaoRepository.saveAll(solicitacoes);
+        b.solicitacao = solicitacoes.get(10);
+
+        List<Chat> chats = new ArrayList<>();
+        List<Mensagem> mensagens = new ArrayList<>();
+        List<AvaliacaoSolicitacao> avaliacoesSolicitacao = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            Solicitacao s = solicitacoes.get(i);
+            Chat chat = new Chat();
+            chat.setToken(Chat.gerarToken());
+            chat.setUsuario1(s.getDoacao().getDoador());
+            chat.setUsuario2(s.getSolicitante());
+            chat.setSolicitacao(s);
+            chat.setAtivo(i % 5 != 0);
+            chats.add(chat);
+
+            for (int j = 0; j < 3; j++) {
+                Mensagem m = new Mensagem();
+                m.setRemetente(j % 2 == 0 ? chat.getUsuario1() : chat.getUsuario2());
+                m.setDestinatario(j % 2 == 0 ? chat.getUsuario2() : chat.getUsuario1());
+                m.setConteudo("Mensagem " + j);
+                m.setCriadoEm(LocalDateTime.now().minusMinutes(i * 3L + j));
+                mensagens.add(m);
+            }
+
+            AvaliacaoSolicitacao a = new AvaliacaoSolicitacao();
+            a.setSolicitacao(s);
+            a.setAvaliador(s.getSolicitante());
+            a.setAvaliado(s.getDoacao().getDoador());
+            a.setNota(1 + i % 5);
+            a.setCriadoEm(LocalDateTime.now().minusHours(i));
+            avaliacoesSolicitacao.add(a);
+        }
+        chatRepository.saveAll(chats);
+        mensagemRepository.saveAll(mensagens);
+        avaliacaoSolicitacaoRepository.saveAll(avaliacoesSolicitacao);
+        b.chat = chats.get(1);
+
+        List<Avaliacao> avaliacoes = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            Avaliacao a = new Avaliacao();
+            a.setUsuario(b.usuarios.get(i % USUARIOS));
+            a.setEstabelecimento(estabelecimentos.get(i % estabelecimentos.size()));
+            a.setNota(1 + i % 5);
+            avaliacoes.add(a);
+        }
+        avaliacaoRepository.saveAll(avaliacoes);
+
+        reputacaoRepository.saveAll(b.usuarios.stream().map(u -> new ReputacaoUsuario(u.getId())).toList());
+        return b;
+    }
+
+    private static class Base {
+        final List<Usuario> usuarios = new ArrayList<>();
+        Estabelecimento estabelecimento;
+        Doacao doacao;
+        Solicitacao solicitacao;
+        Chat chat;
+    }
+
+    private class Captura implements QueryExecutionListener {
+
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            if (!capturando) return;
+            for (QueryInfo sql : queryInfoList) {
+                if (sql.getQuery().trim().toLowerCase(Locale.ROOT).startsWith("select")) {
+                    capturadas.add(sql);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.TCC.Prato_Justo.Security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Só o health do actuator é público; métricas respondem apenas aos endereços de monitoramento
+ */
+@SpringBootTest(properties = {
+        "app.management.allowed-ips=10.0.0.0/8"
+})
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class ActuatorAcessoTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void metricasSoParaARedeDeMonitoramento() throws Exception {
+        mockMvc.perform(get("/actuator/metrics").with(origem("203.0.113.7"))).andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/prometheus").with(origem("203.0.113.7"))).andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/metrics").with(origem("10.1.2.3"))).andExpect(status().isOk());
+    }
+
+    @Test
+    void healthContinuaPublico() throws Exception {
+        mockMvc.perform(get("/actuator/health").with(origem("203.0.113.7"))).andExpect(status().isOk());
+    }
+
+    private static RequestPostProcessor origem(String ip) {
+        return request -> {
+            request.setRemoteAddr(ip);
+            return request;
+        };
+    }
+}
@@ -0,0 +1,80 @@
+package com.TCC.Prato_Justo.Security;
+
+import com.TCC.Prato_Justo.Model.TipoUsuario;
+import com.TCC.Prato_Justo.Model.Usuario;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JwtUtilTest {
+
+    private RevogacaoTokens revogacao;
+    private JwtUtil jwtUtil;
+    private Usuario usuario;
+
+    @BeforeEach
+    void preparar() {
+        revogacao = new RevogacaoTokens();
+        ReflectionTestUtils.setField(revogacao, "maiorValidadeMs", 604_800_000L);
+        jwtUtil = new JwtUtil(revogacao, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(jwtUtil, "secret", "chave-de-teste-com-pelo-menos-32-bytes!!");
+        ReflectionTestUtils.setField(jwtUtil, "expiracaoAcessoMs", 900_000L);
+        ReflectionTestUtils.setField(jwtUtil, "expiracaoRenovacaoMs", 604_800_000L);
+
+        usuario = new Usuario();
+        usuario.setId(42L);
+        usuario.setEmail("ana@exemplo.com");
+        usuario.setTipoUsuario(TipoUsuario.INDIVIDUAL);
+    }
+
+    @Test
+    void tokenDeAcessoCarregaIdPapelEStatus() {
+        JwtUtil.DadosToken dados = jwtUtil.lerAcesso(jwtUtil.gerarTokenAcesso(usuario)).orElseThrow();
+
+        assertTrue(dados.isAutocontido());
+        assertEquals(42L, dados.getUsuarioId());
+        assertEquals("INDIVIDUAL", dados.getPapel());
+        assertEquals("ana@exemplo.com", dados.getEmail());
+    }
+
+    @Test
+    void tokenDeRenovacaoNaoAutenticaRequisicoes() {
+        String renovacao = jwtUtil.gerarTokenRenovacao(usuario);
+
+        assertTrue(jwtUtil.ler(renovacao).orElseThrow().isRenovacao());
+        assertFalse(jwtUtil.validateToken(renovacao));
+    }
+
+    @Test
+    void usuarioInativoNaoAutentica() {
+        usuario.setStatusAtivo(false);
+
+        assertFalse(jwtUtil.validateToken(jwtUtil.gerarTokenAcesso(usuario)));
+    }
+
+    @Test
+    void revogacaoPorTokenEPorUsuario() {
+        String primeiro = jwtUtil.gerarTokenAcesso(usuario);
+        String segundo = jwtUtil.gerarTokenAcesso(usuario);
+
+        revogacao.revogar(jwtUtil.ler(primeiro).orElseThrow());
+        assertFalse(jwtUtil.validateToken(primeiro));
+        assertTrue(jwtUtil.validateToken(segundo));
+
+        revogacao.revogarUsuario(42L);
+        assertFalse(jwtUtil.validateToken(segundo));
+    }
+
+    @Test
+    void tokenAdulteradoEhRejeitado() {
+        String token = jwtUtil.gerarTokenAcesso(usuario);
+
+        assertFalse(jwtUtil.validateToken(token.substring(0, token.length() - 2) + "xx"));
+        assertTrue(jwtUtil.ler("nao-e-um-jwt").isEmpty());
+    }
+}
@@ -0,0 +1,58 @@
+package com.TCC.Prato_Justo.Security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LimitadorTaxaTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private LimitadorTaxa limitador(int maxChaves) {
+        // auth 60/min rajada 3, doações 30/10, upload 10/2, chat 60/20
+        return new LimitadorTaxa(registry, true, maxChaves, 60, 3, 30, 10, 10, 2, 60, 20);
+    }
+
+    @Test
+    void escolheARegraPelaRotaEMetodo() {
+        LimitadorTaxa limitador = limitador(1000);
+
+        assertEquals("upload", limitador.regraPara(LimitadorTaxa.CANAL_HTTP, "POST", "/doacoes/upload-image").getNome());
+        assertEquals("donation-write", limitador.regraPara(LimitadorTaxa.CANAL_HTTP, "PUT", "/doacoes/7").getNome());
+        assertEquals("chat", limitador.regraPara(LimitadorTaxa.CANAL_STOMP, "SEND", "/app/chat.sendMessage").getNome());
+        assertNull(limitador.regraPara(LimitadorTaxa.CANAL_HTTP, "GET", "/doacoes/7"));
+        assertNull(limitador.regraPara(LimitadorTaxa.CANAL_HTTP, "POST", "/api/chat/outra"));
+    }
+
+    @Test
+    void liberaARajadaEDepoisBloqueiaPorChave() {
+        LimitadorTaxa limitador = limitador(1000);
+        LimitadorTaxa.Regra auth = limitador.regraPara(LimitadorTaxa.CANAL_HTTP, "POST", "/auth/login");
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limitador.consumir(auth, "ip:1.1.1.1"));
+        }
+        long espera = limitador.consumir(auth, "ip:1.1.1.1");
+        assertTrue(espera > 0 && espera <= 1000, "espera de até um intervalo (1 s), foi " + espera);
+        assertEquals(0, limitador.consumir(auth, "ip:2.2.2.2"));
+        assertEquals(1.0, registry.get("ratelimit.requests").tags("channel", "http", "rule", "auth", "result", "rejected").counter().count());
+    }
+
+    @Test
+    void chavesAlemDoTetoDividemOBaldeDeTransbordo() {
+        LimitadorTaxa limitador = limitador(16);
+        LimitadorTaxa.Regra upload = limitador.regraPara(LimitadorTaxa.CANAL_HTTP, "POST", "/doacoes/upload-image");
+
+        int bloqueadas = 0;
+        for (int i = 0; i < 500; i++) {
+            if (limitador.consumir(upload, "u:" + i) > 0) bloqueadas++;
+        }
+
+        assertTrue(limitador.totalChaves() <= 16, "chaves em memória: " + limitador.totalChaves());
+        assertTrue(bloqueadas > 0, "o transbordo compartilhado também precisa limitar");
+        assertTrue(registry.get("ratelimit.overflow").counter().count() > 0);
+    }
+}
@@ -0,0 +1,49 @@
+package com.TCC.Prato_Justo.Security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LimiteTentativasLoginTest {
+
+    // Início de uma janela de um minuto
+    private static final long JANELA = 1_700_000_040_000L;
+
+    @Test
+    void bloqueiaPorEmailAteOFimDaJanela() {
+        LimiteTentativasLogin limite = new LimiteTentativasLogin(30, 2);
+
+        assertEquals(0, limite.registrarTentativa("1.1.1.1", "Ana@Teste.com", JANELA));
+        assertEquals(0, limite.registrarTentativa("2.2.2.2", " ana@teste.com ", JANELA + 1_000));
+        // Terceira no mesmo e-mail (sem diferenciar maiúsculas e espaços), vinda de outro IP: espera até a virada
+        assertEquals(50, limite.registrarTentativa("3.3.3.3", "ANA@teste.com", JANELA + 10_000));
+        assertEquals(1, limite.registrarTentativa("3.3.3.3", "ana@teste.com", JANELA + 59_500));
+        // Outro e-mail continua liberado
+        assertEquals(0, limite.registrarTentativa("3.3.3.3", "bia@teste.com", JANELA + 10_000));
+    }
+
+    @Test
+    void bloqueiaPorIpComEmailsDiferentes() {
+        LimiteTentativasLogin limite = new LimiteTentativasLogin(3, 10);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limite.registrarTentativa("1.1.1.1", "usuario" + i + "@teste.com", JANELA));
+        }
+        assertEquals(60, limite.registrarTentativa("1.1.1.1", "outro@teste.com", JANELA));
+        assertEquals(0, limite.registrarTentativa("2.2.2.2", "outro@teste.com", JANELA));
+    }
+
+    @Test
+    void liberaNaJanelaSeguinteEDescartaAsVencidas() {
+        LimiteTentativasLogin limite = new LimiteTentativasLogin(1, 1);
+
+        assertEquals(0, limite.registrarTentativa("1.1.1.1", "ana@teste.com", JANELA));
+        assertEquals(60, limite.registrarTentativa("1.1.1.1", "ana@teste.com", JANELA));
+        assertEquals(0, limite.registrarTentativa("1.1.1.1", "ana@teste.com", JANELA + 60_000));
+
+        limite.registrarTentativa("2.2.2.2", null, JANELA);
+        assertEquals(3, limite.getJanelasAtivas());
+        limite.limparJanelasVencidas(JANELA + 60_000);
+        assertEquals(2, limite.getJanelasAtivas());
+    }
+}
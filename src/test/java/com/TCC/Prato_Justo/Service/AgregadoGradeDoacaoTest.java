@@ -0,0 +1,173 @@
+package com.TCC.Prato_Justo.Service;
+
+import com.TCC.Prato_Justo.Interface.DoacaoRepository;
+import com.TCC.Prato_Justo.Model.Doacao;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AgregadoGradeDoacaoTest {
+
+    private AgregadoGradeDoacao agregado;
+    private final Map<Long, double[]> ativas = new LinkedHashMap<>();
+
+    @BeforeEach
+    void preparar() {
+        Random random = new Random(3);
+        List<Object[]> coordenadas = new ArrayList<>();
+        for (long id = 1; id <= 5000; id++) {
+            double latitude = -33 + 38 * random.nextDouble();
+            double longitude = -73 + 39 * random.nextDouble();
+            coordenadas.add(new Object[]{id, latitude, longitude});
+            ativas.put(id, new double[]{latitude, longitude});
+        }
+        DoacaoRepository repository = mock(DoacaoRepository.class);
+        when(repository.findCoordenadasAtivas()).thenReturn(coordenadas);
+        agregado = new AgregadoGradeDoacao(repository);
+        agregado.reconstruir();
+    }
+
+    @Test
+    void tilesDeUmZoomRepartemTodasAsDoacoes() {
+        assertEquals(5000, agregado.tile(0, 0, 0).total());
+        for (int z = 1; z <= 8; z++) {
+            long n = 1L << z;
+            long soma = 0;
+            for (int x = 0; x < n; x++) {
+                for (int y = 0; y < n; y++) {
+                    AgregadoGradeDoacao.TileMapa tile = agregado.tile(z, x, y);
+                    assertTrue(tile.grupos().size() <= AgregadoGradeDoacao.DIVISOES_TILE * AgregadoGradeDoacao.DIVISOES_TILE);
+                    assertEquals(tile.total(), tile.grupos().stream().mapToLong(AgregadoGradeDoacao.GrupoMapa::quantidade).sum());
+                    soma += tile.total();
+                }
+            }
+            assertEquals(5000, soma, "zoom " + z);
+        }
+    }
+
+    @Test
+    void escritasMovemInativamERemovem() {
+        long versao = agregado.getVersao();
+        // Fernando de Noronha, fora da área sorteada: tile z=10 x=419 y=522, mesma célula da grade
+        agregado.atualizar(doacao(1L, true, -3.83, -32.41));
+        agregado.atualizar(doacao(6000L, true, -3.87, -32.45));
+        AgregadoGradeDoacao.TileMapa noronha = agregado.tile(10, 419, 522);
+        assertEquals(2, noronha.total());
+        assertEquals(1, noronha.grupos().size());
+        assertEquals(-3.85, noronha.grupos().get(0).latitude(), 1e-9);
+        assertEquals(-32.43, noronha.grupos().get(0).longitude(), 1e-9);
+
+        agregado.atualizar(doacao(6000L, false, -3.87, -32.45));
+        agregado.remover(1L);
+        assertEquals(0, agregado.tile(10, 419, 522).total());
+        assertEquals(4999, agregado.tile(0, 0, 0).total());
+        assertTrue(agregado.getVersao() > versao);
+    }
+
+    @Test
+    void proximasAcompanhaAsEscritas() {
+        Random random = new Random(11);
+        for (int i = 0; i < 2000; i++) {
+            long id = 1 + random.nextInt(6000);
+            double latitude = -33 + 38 * random.nextDouble();
+            double longitude = -73 + 39 * random.nextDouble();
+            switch (random.nextInt(3)) {
+                case 0 -> {
+                    // Nova ou movida
+                    agregado.atualizar(doacao(id, true, latitude, longitude));
+                    ativas.put(id, new double[]{latitude, longitude});
+                }
+                case 1 -> {
+                    agregado.atualizar(doacao(id, false, latitude, longitude));
+                    ativas.remove(id);
+                }
+                default -> {
+                    agregado.remover(id);
+                    ativas.remove(id);
+                }
+            }
+        }
+        assertTrue(agregado.isPronto());
+
+        // Mesmo resultado de um motor montado do zero com as doações que sobraram
+        List<Long> ids = new ArrayList<>(ativas.keySet());
+        double[] latitudes = new double[ids.size()];
+        double[] longitudes = new double[ids.size()];
+        for (int i = 0; i < ids.size(); i++) {
+            latitudes[i] = ativas.get(ids.get(i))[0];
+            longitudes[i] = ativas.get(ids.get(i))[1];
+        }
+        MotorDistancia referencia = new MotorDistancia(latitudes, longitudes, ids.size());
+        for (double[] ponto : new double[][]{{-23.55, -46.63}, {-8.05, -34.9}, {0, -60}}) {
+            for (double raio : new double[]{0, 50, 300, 2000}) {
+                List<Long> esperado = Arrays.stream(referencia.dentroDoRaio(ponto[0], ponto[1], raio))
+                        .mapToObj(ids::get).toList();
+                assertEquals(esperado, agregado.proximas(ponto[0], ponto[1], raio), ponto[0] + "," + ponto[1] + " raio " + raio);
+            }
+        }
+    }
+
+    @Test
+    void reconstrucaoConcorrenteNaoPerdeEscritas() throws Exception {
+        DoacaoRepository repository = mock(DoacaoRepository.class);
+        CountDownLatch lendo = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        when(repository.findCoordenadasAtivas()).thenAnswer(inv -> {
+            lendo.countDown();
+            liberar.await(10, TimeUnit.SECONDS);
+            return List.<Object[]>of(new Object[]{1L, -8.05, -34.90});
+        });
+        AgregadoGradeDoacao novo = new AgregadoGradeDoacao(repository);
+
+        CompletableFuture<Void> primeira = CompletableFuture.runAsync(novo::reconstruir);
+        assertTrue(lendo.await(10, TimeUnit.SECONDS));
+        // Reconstrução agendada e escrita chegam durante a da subida
+        CompletableFuture.runAsync(novo::reconstruir).get(10, TimeUnit.SECONDS);
+        novo.atualizar(doacao(2L, true, -8.06, -34.90));
+        liberar.countDown();
+        primeira.get(10, TimeUnit.SECONDS);
+
+        assertTrue(novo.isPronto());
+        assertEquals(List.of(1L, 2L), novo.proximas(-8.05, -34.90, 5));
+        assertEquals(2, novo.tile(0, 0, 0).total());
+        verify(repository, times(1)).findCoordenadasAtivas();
+
+        // Uma reconstrução que falha mantém o agregado e as escritas seguintes
+        when(repository.findCoordenadasAtivas()).thenThrow(new IllegalStateException("banco fora"));
+        novo.reconstruir();
+        novo.remover(1L);
+        assertEquals(List.of(2L), novo.proximas(-8.05, -34.90, 5));
+    }
+
+    @Test
+    void rejeitaTileForaDoZoom() {
+        assertThrows(IllegalArgumentException.class, () -> agregado.tile(2, 4, 0));
+        assertThrows(IllegalArgumentException.class, () -> agregado.tile(AgregadoGradeDoacao.ZOOM_MAXIMO + 1, 0, 0));
+    }
+
+    private static Doacao doacao(Long id, boolean ativa, double latitude, double longitude) {
+        Doacao d = new Doacao();
+        d.setId(id);
+        d.setAtivo(ativa);
+        d.setLatitude(latitude);
+        d.setLongitude(longitude);
+        return d;
+    }
+}
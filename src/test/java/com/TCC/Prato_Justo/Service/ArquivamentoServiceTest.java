@@ -0,0 +1,140 @@
+package com.TCC.Prato_Justo.Service;
+
+import com.TCC.Prato_Justo.Interface.AnthUsuarioRepository;
+import com.TCC.Prato_Justo.Interface.ChatRepository;
+import com.TCC.Prato_Justo.Interface.DoacaoArquivadaRepository;
+import com.TCC.Prato_Justo.Interface.DoacaoRepository;
+import com.TCC.Prato_Justo.Interface.SolicitacaoArquivadaRepository;
+import com.TCC.Prato_Justo.Interface.SolicitacaoRepository;
+import com.TCC.Prato_Justo.Model.Chat;
+import com.TCC.Prato_Justo.Model.Doacao;
+import com.TCC.Prato_Justo.Model.Solicitacao;
+import com.TCC.Prato_Justo.Model.StatusSolicitacao;
+import com.TCC.Prato_Justo.Model.Usuario;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+
+import static com.TCC.Prato_Justo.DadosTeste.usuario;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Arquivamento contra o banco: cópia seguida de remoção, solicitações antes das doações,
+ * idade contada da última alteração e linhas ainda referenciadas mantidas
+ */
+@SpringBootTest(properties = {
+        "app.archive.enabled=false"
+})
+@ActiveProfiles("test")
+class ArquivamentoServiceTest {
+
+    private static final LocalDateTime ANTIGO = LocalDateTime.now().minusDays(400);
+
+    @Autowired
+    private ArquivamentoService arquivamentoService;
+
+    @Autowired
+    private AnthUsuarioRepository usuarioRepository;
+
+    @Autowired
+    private DoacaoRepository doacaoRepository;
+
+    @Autowired
+    private SolicitacaoRepository solicitacaoRepository;
+
+    @Autowired
+    private ChatRepository chatRepository;
+
+    @Autowired
+    private DoacaoArquivadaRepository doacaoArquivadaRepository;
+
+    @Autowired
+    private SolicitacaoArquivadaRepository solicitacaoArquivadaRepository;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void arquivaPelaUltimaAlteracaoESoOQueNaoEstaReferenciado() {
+        Usuario doador = usuarioRepository.save(usuario("doador_arquivo"));
+        Usuario solicitante = usuarioRepository.save(usuario("solicitante_arquivo"));
+
+        // Inativa antiga com solicitação concluída antiga: a solicitação sai primeiro e libera a doação na mesma execução
+        Doacao encerrada = doacao(doador, "Encerrada");
+        Solicitacao concluida = solicitacao(encerrada, solicitante, StatusSolicitacao.CONCLUIDA);
+        envelhecer(encerrada, ANTIGO, ANTIGO);
+        jdbc.update("UPDATE solicitacao SET data_solicitacao = ?, data_atualizacao = ? WHERE id_solicitacao = ?",
+                ANTIGO, ANTIGO, concluida.getId());
+
+        // Criada há muito tempo, mas inativada agora: ainda não tem idade para o arquivo
+        Doacao inativadaAgora = doacao(doador, "Inativada agora");
+        envelhecer(inativadaAgora, ANTIGO, LocalDateTime.now());
+
+        // Solicitação antiga com chat: fica, e com ela a sua doação
+        Doacao comChat = doacao(doador, "Com chat");
+        Solicitacao conversada = solicitacao(comChat, solicitante, StatusSolicitacao.CONCLUIDA);
+        Chat chat = new Chat();
+        chat.setToken(Chat.gerarToken());
+        chat.setUsuario1(doador);
+        chat.setUsuario2(solicitante);
+        chat.setSolicitacao(conversada);
+        chatRepository.save(chat);
+        envelhecer(comChat, ANTIGO, ANTIGO);
+        jdbc.update("UPDATE solicitacao SET data_solicitacao = ?, data_atualizacao = ? WHERE id_solicitacao = ?",
+                ANTIGO, ANTIGO, conversada.getId());
+
+        // Inativada pela entidade (sem data de atualização explícita): a data vem do @PreUpdate
+        Doacao recemInativada = doacao(doador, "Recém inativada");
+        recemInativada.setAtivo(false);
+        recemInativada = doacaoRepository.save(recemInativada);
+        assertTrue(recemInativada.getAtualizadoEm().isAfter(LocalDateTime.now().minusMinutes(1)));
+
+        ArquivamentoService.Resultado resultado = arquivamentoService.arquivar(LocalDateTime.now().minusDays(180));
+
+        assertEquals(1, resultado.getSolicitacoes());
+        assertEquals(1, resultado.getDoacoes());
+        // Copiadas para o arquivo com o mesmo id e removidas da tabela principal
+        assertTrue(solicitacaoArquivadaRepository.findById(concluida.getId()).isPresent());
+        assertFalse(solicitacaoRepository.existsById(concluida.getId()));
+        assertTrue(doacaoArquivadaRepository.findById(encerrada.getId()).isPresent());
+        assertFalse(doacaoRepository.existsById(encerrada.getId()));
+        // O restante continua na tabela principal
+        assertTrue(doacaoRepository.existsById(inativadaAgora.getId()));
+        assertTrue(doacaoRepository.existsById(recemInativada.getId()));
+        assertTrue(solicitacaoRepository.existsById(conversada.getId()));
+        assertTrue(doacaoRepository.existsById(comChat.getId()));
+        assertFalse(doacaoArquivadaRepository.findById(comChat.getId()).isPresent());
+
+        // Nada mais elegível: uma segunda execução não move nada
+        ArquivamentoService.Resultado repetido = arquivamentoService.arquivar(LocalDateTime.now().minusDays(180));
+        assertEquals(0, repetido.getSolicitacoes());
+        assertEquals(0, repetido.getDoacoes());
+    }
+
+    private Doacao doacao(Usuario doador, String titulo) {
+        Doacao d = new Doacao();
+        d.setTitulo(titulo);
+        d.setDoador(doador);
+        return doacaoRepository.save(d);
+    }
+
+    private Solicitacao solicitacao(Doacao doacao, Usuario solicitante, StatusSolicitacao status) {
+        Solicitacao s = new Solicitacao();
+        s.setDoacao(doacao);
+        s.setSolicitante(solicitante);
+        s.setStatus(status);
+        return solicitacaoRepository.save(s);
+    }
+
+    // Datas gravadas direto na tabela: pela entidade, o @PreUpdate as sobrescreveria
+    private void envelhecer(Doacao doacao, LocalDateTime criadoEm, LocalDateTime atualizadoEm) {
+        jdbc.update("UPDATE doacao SET ativo = false, criado_em = ?, atualizado_em = ? WHERE id_doacao = ?",
+                criadoEm, atualizadoEm, doacao.getId());
+    }
+}
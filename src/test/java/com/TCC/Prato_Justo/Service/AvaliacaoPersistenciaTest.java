@@ -0,0 +1,128 @@
+package com.TCC.Prato_Justo.Service;
+
+import com.TCC.Prato_Justo.Controller.AvaliacaoController;
+import com.TCC.Prato_Justo.Interface.AnthEstabelecimentoRepository;
+import com.TCC.Prato_Justo.Interface.AnthUsuarioRepository;
+import com.TCC.Prato_Justo.Interface.AvaliacaoRepository;
+import com.TCC.Prato_Justo.Interface.AvaliacaoSolicitacaoRepository;
+import com.TCC.Prato_Justo.Interface.DoacaoRepository;
+import com.TCC.Prato_Justo.Interface.SolicitacaoRepository;
+import com.TCC.Prato_Justo.Model.Avaliacao;
+import com.TCC.Prato_Justo.Model.AvaliacaoSolicitacao;
+import com.TCC.Prato_Justo.Model.Doacao;
+import com.TCC.Prato_Justo.Model.Estabelecimento;
+import com.TCC.Prato_Justo.Model.Solicitacao;
+import com.TCC.Prato_Justo.Model.StatusSolicitacao;
+import com.TCC.Prato_Justo.Model.Usuario;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.NoSuchElementException;
+
+import static com.TCC.Prato_Justo.DadosTeste.estabelecimento;
+import static com.TCC.Prato_Justo.DadosTeste.usuario;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Avaliações gravadas contra o banco: as referências para entidades versionadas precisam ser gerenciadas
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class AvaliacaoPersistenciaTest {
+
+    @Autowired
+    private AvaliacaoService avaliacaoService;
+
+    @Autowired
+    private AvaliacaoController avaliacaoController;
+
+    @Autowired
+    private AnthUsuarioRepository usuarioRepository;
+
+    @Autowired
+    private AnthEstabelecimentoRepository estabelecimentoRepository;
+
+    @Autowired
+    private AvaliacaoRepository avaliacaoRepository;
+
+    @Autowired
+    private AvaliacaoSolicitacaoService avaliacaoSolicitacaoService;
+
+    @Autowired
+    private AvaliacaoSolicitacaoRepository avaliacaoSolicitacaoRepository;
+
+    @Autowired
+    private DoacaoRepository doacaoRepository;
+
+    @Autowired
+    private SolicitacaoRepository solicitacaoRepository;
+
+    @Test
+    void gravaAvaliacaoDeEstabelecimento() {
+        Usuario cliente = usuarioRepository.save(usuario("cliente_estab"));
+        Usuario dono = usuarioRepository.save(usuario("dono_estab"));
+        Estabelecimento estabelecimento = estabelecimentoRepository.save(estabelecimento(dono, "mercado_estab"));
+
+        Avaliacao salva = avaliacaoService.avaliar(cliente.getId(), estabelecimento.getId(), 4, "Bom");
+
+        assertNotNull(salva.getId());
+        Avaliacao lida = avaliacaoRepository.findById(salva.getId()).orElseThrow();
+        assertEquals(4, lida.getNota());
+        assertEquals(4.0, avaliacaoService.media(estabelecimento.getId()));
+    }
+
+    @Test
+    void usuarioOuEstabelecimentoInexistenteDa404() {
+        Usuario cliente = usuarioRepository.save(usuario("cliente_404"));
+        Usuario dono = usuarioRepository.save(usuario("dono_404"));
+        Estabelecimento estabelecimento = estabelecimentoRepository.save(estabelecimento(dono, "mercado_404"));
+
+        assertThrows(NoSuchElementException.class,
+                () -> avaliacaoService.avaliar(-1L, estabelecimento.getId(), 5, null));
+        assertEquals(404, avaliacaoController.avaliar(requisicao(cliente.getId(), -1L, 5)).getStatusCode().value());
+        assertEquals(404, avaliacaoController.avaliar(requisicao(-1L, estabelecimento.getId(), 5)).getStatusCode().value());
+        assertEquals(400, avaliacaoController.avaliar(requisicao(cliente.getId(), estabelecimento.getId(), 6)).getStatusCode().value());
+    }
+
+    @Test
+    void gravaSolicitacaoNovaEAvaliacaoDela() {
+        Usuario doador = usuarioRepository.save(usuario("doador_sol"));
+        Usuario solicitante = usuarioRepository.save(usuario("solicitante_sol"));
+        Doacao doacao = new Doacao();
+        doacao.setTitulo("Pães");
+        doacao.setDoador(doador);
+        doacao = doacaoRepository.save(doacao);
+
+        Solicitacao nova = new Solicitacao();
+        nova.setDoacao(doacao);
+        nova.setSolicitante(solicitante);
+        nova.setStatus(StatusSolicitacao.CONCLUIDA);
+        // Entidade nova (versão nula) é persistida, não mesclada: a mesma instância recebe id e versão 0
+        Solicitacao salva = solicitacaoRepository.save(nova);
+        assertSame(nova, salva);
+        assertNotNull(salva.getId());
+        assertEquals(0L, salva.getVersao());
+
+        AvaliacaoSolicitacao avaliacao = avaliacaoSolicitacaoService.criar(
+                salva.getId(), solicitante.getId(), doador.getId(), 5, "Tudo certo");
+
+        assertNotNull(avaliacao.getId());
+        AvaliacaoSolicitacao lida = avaliacaoSolicitacaoRepository.findById(avaliacao.getId()).orElseThrow();
+        assertEquals(salva.getId(), lida.getSolicitacao().getId());
+        assertEquals(doador.getId(), lida.getAvaliado().getId());
+        assertEquals(1L, avaliacaoSolicitacaoService.contarPorAvaliado(doador.getId()));
+    }
+
+    private static AvaliacaoController.AvaliarRequest requisicao(Long usuarioId, Long estabelecimentoId, int nota) {
+        AvaliacaoController.AvaliarRequest req = new AvaliacaoController.AvaliarRequest();
+        req.usuarioId = usuarioId;
+        req.estabelecimentoId = estabelecimentoId;
+        req.nota = nota;
+        return req;
+    }
+}
@@ -0,0 +1,60 @@
+package com.TCC.Prato_Justo.Service;
+
+import com.TCC.Prato_Justo.Interface.DoacaoRepository;
+import com.TCC.Prato_Justo.Model.Doacao;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DoacaoServiceProximasTest {
+
+    private DoacaoRepository repository;
+    private DoacaoService doacaoService;
+
+    @BeforeEach
+    void preparar() {
+        Doacao perto = doacao(1L, -23.56, -46.64);
+        Doacao longe = doacao(2L, -22.90, -43.20);
+        Doacao maisPerto = doacao(3L, -23.5505, -46.6334);
+        repository = mock(DoacaoRepository.class);
+        when(repository.findCoordenadasAtivas()).thenReturn(List.of(
+                new Object[]{1L, -23.56, -46.64}, new Object[]{2L, -22.90, -43.20}, new Object[]{3L, -23.5505, -46.6334}));
+        when(repository.findAllById(anyIterable())).thenReturn(List.of(perto, longe, maisPerto));
+        AgregadoGradeDoacao agregado = new AgregadoGradeDoacao(repository);
+        agregado.reconstruir();
+        doacaoService = new DoacaoService(repository, null, null, null, null, agregado);
+    }
+
+    @Test
+    void usaOMotorDoAgregadoSemLerTodasAsCoordenadas() {
+        List<Doacao> proximas = doacaoService.proximas(-23.5505, -46.6333, 10.0);
+
+        assertEquals(List.of(3L, 1L), proximas.stream().map(Doacao::getId).toList());
+        verify(repository, never()).findAllComCoordenadas();
+    }
+
+    @Test
+    void rejeitaValoresNaoFinitos() {
+        assertThrows(IllegalArgumentException.class, () -> doacaoService.proximas(-23.55, -46.63, Double.NaN));
+        assertThrows(IllegalArgumentException.class, () -> doacaoService.proximas(-23.55, -46.63, Double.POSITIVE_INFINITY));
+        assertThrows(IllegalArgumentException.class, () -> doacaoService.proximas(Double.NaN, -46.63, 10.0));
+    }
+
+    private static Doacao doacao(Long id, double latitude, double longitude) {
+        Doacao d = new Doacao();
+        d.setId(id);
+        d.setAtivo(true);
+        d.setLatitude(latitude);
+        d.setLongitude(longitude);
+        return d;
+    }
+}
@@ -0,0 +1,80 @@
+package com.TCC.Prato_Justo.Service;
+
+import com.TCC.Prato_Justo.Config.MigracaoCelulaGrade;
+import com.TCC.Prato_Justo.Interface.AnthEstabelecimentoRepository;
+import com.TCC.Prato_Justo.Interface.AnthUsuarioRepository;
+import com.TCC.Prato_Justo.Model.Estabelecimento;
+import com.TCC.Prato_Justo.Model.Usuario;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static com.TCC.Prato_Justo.DadosTeste.estabelecimento;
+import static com.TCC.Prato_Justo.DadosTeste.usuario;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Busca por raio contra o banco, com estabelecimentos antigos (sem celula_grade) preenchidos pela migração
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class EstabelecimentoProximosTest {
+
+    // Ponto de consulta colado à divisa de colunas da grade em -34,9° de longitude
+    private static final double LAT = -8.05;
+    private static final double LNG = -34.902;
+
+    @Autowired
+    private EstabelecimentoService estabelecimentoService;
+
+    @Autowired
+    private MigracaoCelulaGrade migracaoCelulaGrade;
+
+    @Autowired
+    private AnthEstabelecimentoRepository estabelecimentoRepository;
+
+    @Autowired
+    private AnthUsuarioRepository usuarioRepository;
+
+    @Test
+    void encontraAntigosPreenchidosOrdenadosEDentroDoRaio() {
+        Usuario dono = usuarioRepository.save(usuario("dono_proximos"));
+
+        // Gravados direto pelo repositório, como as linhas de antes da coluna: célula nula
+        Estabelecimento vizinho = antigo(dono, "vizinho", LAT, -34.898);
+        Estabelecimento medio = antigo(dono, "medio", -8.07, -34.92);
+        Estabelecimento longe = antigo(dono, "longe", -8.09, -34.95);
+        antigo(dono, "fora_do_raio", -8.30, -34.90);
+        antigo(dono, "sem_coordenadas", null, null);
+        assertNotEquals(GradeGeografica.celula(LAT, LNG), GradeGeografica.celula(vizinho.getLatitude(), vizinho.getLongitude()));
+        assertTrue(estabelecimentoService.proximos(LAT, LNG, 10, 0, 10).isEmpty());
+
+        assertEquals(4, migracaoCelulaGrade.preencher());
+        assertEquals(0, migracaoCelulaGrade.preencher());
+
+        Page<EstabelecimentoService.EstabelecimentoProximo> pagina = estabelecimentoService.proximos(LAT, LNG, 10, 0, 10);
+        assertEquals(List.of(vizinho.getId(), medio.getId(), longe.getId()),
+                pagina.getContent().stream().map(p -> p.getEstabelecimento().getId()).toList());
+        assertEquals(3, pagina.getTotalElements());
+        for (EstabelecimentoService.EstabelecimentoProximo p : pagina.getContent()) {
+            assertTrue(p.getDistanciaKm() <= 10);
+        }
+
+        // Paginação sobre a lista ordenada
+        assertEquals(List.of(medio.getId()), estabelecimentoService.proximos(LAT, LNG, 10, 1, 1).getContent().stream()
+                .map(p -> p.getEstabelecimento().getId()).toList());
+    }
+
+    private Estabelecimento antigo(Usuario dono, String nome, Double latitude, Double longitude) {
+        Estabelecimento e = estabelecimento(dono, nome);
+        e.setLatitude(latitude);
+        e.setLongitude(longitude);
+        return estabelecimentoRepository.save(e);
+    }
+}
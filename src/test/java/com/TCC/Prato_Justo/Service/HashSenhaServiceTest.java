@@ -0,0 +1,107 @@
+package com.TCC.Prato_Justo.Service;
+
+import com.TCC.Prato_Justo.Controller.AuthUsuarioController;
+import com.TCC.Prato_Justo.Security.LimiteTentativasLogin;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Admissão do pool de hash: com a única thread ocupada e a fila cheia, a próxima tarefa é recusada e vira 503
+ */
+class HashSenhaServiceTest {
+
+    // Codificador identidade: o teste mede só a admissão do pool, não o custo do hash
+    private static final PasswordEncoder IDENTIDADE = new PasswordEncoder() {
+        @Override
+        public String encode(CharSequence senha) {
+            return senha.toString();
+        }
+
+        @Override
+        public boolean matches(CharSequence senha, String codificada) {
+            return senha.toString().equals(codificada);
+        }
+    };
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final HashSenhaService hashSenha = new HashSenhaService(IDENTIDADE, registry, 1, 1, 5000);
+    private final CountDownLatch liberar = new CountDownLatch(1);
+
+    @AfterEach
+    void encerrar() {
+        liberar.countDown();
+        hashSenha.encerrar();
+    }
+
+    @Test
+    void recusaComAFilaCheiaEVoltaAAceitarDepois() throws Exception {
+        CountDownLatch ocupada = new CountDownLatch(1);
+        CompletableFuture<Boolean> emExecucao = hashSenha.submeter("verify", () -> {
+            ocupada.countDown();
+            return aguardar(liberar);
+        });
+        assertTrue(ocupada.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> naFila = hashSenha.submeter("verify", () -> true);
+        assertEquals(1, hashSenha.getTamanhoFila());
+
+        assertThrows(RejectedExecutionException.class, () -> hashSenha.codificar("senha"));
+        assertEquals(1.0, registry.get("bcrypt.rejected").counter().count());
+
+        liberar.countDown();
+        assertTrue(emExecucao.get(5, TimeUnit.SECONDS));
+        assertTrue(naFila.get(5, TimeUnit.SECONDS));
+        assertEquals("senha", hashSenha.codificar("senha"));
+    }
+
+    @Test
+    void cadastroComOPoolLotadoResponde503() throws Exception {
+        CountDownLatch ocupada = new CountDownLatch(1);
+        hashSenha.submeter("encode", () -> {
+            ocupada.countDown();
+            return aguardar(liberar);
+        });
+        assertTrue(ocupada.await(5, TimeUnit.SECONDS));
+        hashSenha.submeter("encode", () -> true);
+
+        UsuarioService usuarioService = mock(UsuarioService.class);
+        when(usuarioService.cadastrarNovoUsuario(any(AuthUsuarioController.CadastroRequest.class))).thenAnswer(inv -> {
+            hashSenha.codificar("senha");
+            return null;
+        });
+        AuthUsuarioController controller = new AuthUsuarioController(usuarioService, mock(AuthService.class),
+                new LimiteTentativasLogin(30, 10));
+        AuthUsuarioController.CadastroRequest request = new AuthUsuarioController.CadastroRequest();
+        request.setEmail("ana@teste.com");
+
+        ResponseEntity<?> resposta = controller.registro(request, new MockHttpServletRequest());
+
+        assertEquals(503, resposta.getStatusCode().value());
+        assertEquals("1", resposta.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+
+    private static boolean aguardar(CountDownLatch latch) {
+        try {
+            return latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.TCC.Prato_Justo.Service;
+
+import com.TCC.Prato_Justo.Interface.DoacaoRepository;
+import com.TCC.Prato_Justo.Model.Doacao;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IndiceBuscaDoacaoTest {
+
+    private IndiceBuscaDoacao indice;
+    private List<Doacao> ativas;
+
+    @BeforeEach
+    void preparar() {
+        DoacaoRepository repository = mock(DoacaoRepository.class);
+        ativas = new ArrayList<>(List.of(
+                doacao(1L, "Pães franceses do dia", "Sobras da padaria", "Padaria", "São Paulo", -23.55, -46.63),
+                doacao(2L, "Cesta de legumes", "Tomate, cenoura e batata", "Hortifruti", "Campinas", -22.90, -47.06),
+                doacao(3L, "Feijão e arroz", "Pacotes fechados de feijão", "Grãos", "São Paulo", -23.60, -46.70),
+                doacao(4L, "Marmitas", "Arroz, feijão e frango", "Refeições", "Sao Paulo", -23.50, -46.60)));
+        when(repository.findByAtivoTrue()).thenReturn(List.copyOf(ativas));
+        indice = new IndiceBuscaDoacao(repository);
+        indice.reconstruir();
+    }
+
+    @Test
+    void ignoraAcentosEPlural() {
+        assertEquals(List.of(1L), indice.buscar("pao", IndiceBuscaDoacao.TODOS_OS_CAMPOS, null, 0));
+        assertEquals(List.of(2L), indice.buscar("LEGUME", IndiceBuscaDoacao.TODOS_OS_CAMPOS, null, 0));
+    }
+
+    @Test
+    void ordenaPorRelevancia() {
+        // Feijão no título e duas vezes na doação 3; só na descrição da 4
+        assertEquals(List.of(3L, 4L), indice.buscar("feijão", IndiceBuscaDoacao.TODOS_OS_CAMPOS, null, 0));
+    }
+
+    @Test
+    void aceitaPrefixoEErroDeDigitacao() {
+        assertEquals(List.of(2L), indice.buscar("cenou", IndiceBuscaDoacao.TODOS_OS_CAMPOS, null, 0));
+        assertEquals(List.of(2L), indice.buscar("batatta", IndiceBuscaDoacao.TODOS_OS_CAMPOS, null, 0));
+    }
+
+    @Test
+    void exigeTodosOsTermos() {
+        assertEquals(List.of(4L), indice.buscar("arroz frango", IndiceBuscaDoacao.TODOS_OS_CAMPOS, null, 0));
+        assertTrue(indice.buscar("arroz chocolate", IndiceBuscaDoacao.TODOS_OS_CAMPOS, null, 0).isEmpty());
+    }
+
+    @Test
+    void combinaComCidadeERaio() {
+        IndiceBuscaDoacao.Filtro cidade = new IndiceBuscaDoacao.Filtro("sao paulo", null, null, null);
+        assertEquals(List.of(3L, 4L), indice.buscar("arroz", IndiceBuscaDoacao.TODOS_OS_CAMPOS, cidade, 0));
+
+        IndiceBuscaDoacao.Filtro raio = new IndiceBuscaDoacao.Filtro(null, -23.50, -46.60, 2.0);
+        assertEquals(List.of(4L), indice.buscar("arroz", IndiceBuscaDoacao.TODOS_OS_CAMPOS, raio, 0));
+    }
+
+    @Test
+    void atualizacaoIncremental() {
+        indice.atualizar(doacao(5L, "Frutas variadas", "Banana e maçã", "Hortifruti", "Campinas", null, null));
+        assertEquals(List.of(5L), indice.buscar("maca", IndiceBuscaDoacao.TODOS_OS_CAMPOS, null, 0));
+        assertEquals(List.of(5L, 2L), indice.buscar("hortifruti", IndiceBuscaDoacao.SOMENTE_TIPO, null, 0));
+
+        Doacao inativa = doacao(2L, "Cesta de legumes", "", "Hortifruti", "Campinas", null, null);
+        inativa.setAtivo(false);
+        indice.atualizar(inativa);
+        indice.remover(5L);
+        assertTrue(indice.buscar("hortifruti", IndiceBuscaDoacao.TODOS_OS_CAMPOS, null, 0).isEmpty());
+    }
+
+    @Test
+    void filtroPorTipoIgualAoFiltroDoBanco() {
+        Doacao comStopword = doacao(5L, "Lanche", "", "Pão de queijo", "são paulo", null, null);
+        indice.atualizar(comStopword);
+        ativas.add(comStopword);
+
+        // Pedaços de palavra, só stopword, maiúsculas e acentos: mesmo resultado do filtro antigo
+        for (String trecho : List.of("pad", "HORTI", "ões", "de", "a", "grãos", "graos", "queijo", "xyz")) {
+            for (String cidade : Arrays.asList(null, "SÃO PAULO", "sao paulo", "Campinas")) {
+                List<Long> esperado = ativas.stream()
+                        .filter(d -> d.getTipoAlimento() != null && d.getTipoAlimento().toLowerCase().contains(trecho.toLowerCase()))
+                        .filter(d -> cidade == null || (d.getCidade() != null && d.getCidade().equalsIgnoreCase(cidade)))
+                        .map(Doacao::getId)
+                        .sorted()
+                        .collect(Collectors.toList());
+                List<Long> obtido = new ArrayList<>(indice.filtrarPorTipo(trecho, cidade));
+                obtido.sort(null);
+                assertEquals(esperado, obtido, trecho + " / " + cidade);
+            }
+        }
+        assertEquals(List.of(5L), indice.filtrarPorTipo("de", null));
+        assertEquals(List.of(1L), indice.filtrarPorTipo("pad", null));
+    }
+
+    @Test
+    void reconstrucaoConcorrenteNaoPerdeEscritas() throws Exception {
+        DoacaoRepository repository = mock(DoacaoRepository.class);
+        CountDownLatch lendo = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        when(repository.findByAtivoTrue()).thenAnswer(inv -> {
+            lendo.countDown();
+            liberar.await(10, TimeUnit.SECONDS);
+            return List.of(doacao(1L, "Arroz", "", "Grãos", "Recife", null, null));
+        });
+        IndiceBuscaDoacao novo = new IndiceBuscaDoacao(repository);
+
+        CompletableFuture<Void> primeira = CompletableFuture.runAsync(novo::reconstruir);
+        assertTrue(lendo.await(10, TimeUnit.SECONDS));
+        // Reconstrução agendada e escrita chegam durante a da subida
+        CompletableFuture.runAsync(novo::reconstruir).get(10, TimeUnit.SECONDS);
+        novo.atualizar(doacao(2L, "Arroz integral", "", "Grãos", "Recife", null, null));
+        liberar.countDown();
+        primeira.get(10, TimeUnit.SECONDS);
+
+        assertTrue(novo.isPronto());
+        assertEquals(List.of(1L, 2L), novo.filtrarPorTipo("grãos", null).stream().sorted().toList());
+        verify(repository, times(1)).findByAtivoTrue();
+
+        // Uma reconstrução que falha mantém o índice e as escritas seguintes
+        when(repository.findByAtivoTrue()).thenThrow(new IllegalStateException("banco fora"));
+        novo.reconstruir();
+        novo.remover(1L);
+        assertEquals(List.of(2L), novo.filtrarPorTipo("grãos", null));
+    }
+
+    private static Doacao doacao(Long id, String titulo, String descricao, String tipo, String cidade,
+                                 Double lat, Double lng) {
+        Doacao d = new Doacao();
+        d.setId(id);
+        d.setTitulo(titulo);
+        d.setDescricao(descricao);
+        d.setTipoAlimento(tipo);
+        d.setCidade(cidade);
+        d.setLatitude(lat);
+        d.setLongitude(lng);
+        d.setAtivo(true);
+        d.setCriadoEm(LocalDateTime.of(2024, 1, 1, 0, 0).plusDays(id));
+        return d;
+    }
+}
@@ -0,0 +1,95 @@
+package com.TCC.Prato_Justo.Service;
+
+import com.TCC.Prato_Justo.Interface.AnthProdutosRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IndiceTrigramaProdutoTest {
+
+    private IndiceTrigramaProduto indice;
+
+    @BeforeEach
+    void preparar() {
+        AnthProdutosRepository repository = mock(AnthProdutosRepository.class);
+        when(repository.streamNomes()).thenReturn(Stream.of(
+                new Object[]{1L, "Arroz integral"},
+                new Object[]{2L, "Feijão carioca"},
+                new Object[]{3L, "Farinha de arroz"},
+                new Object[]{4L, "Arroz"},
+                new Object[]{5L, null}));
+        indice = new IndiceTrigramaProduto(repository, mock(PlatformTransactionManager.class));
+        indice.reconstruir();
+    }
+
+    @Test
+    void buscaPorTrechoEmQualquerPosicao() {
+        // Começa pelo trecho primeiro, depois nomes mais curtos
+        assertEquals(List.of(4L, 1L, 3L), indice.buscar("arroz"));
+        assertEquals(List.of(1L), indice.buscar("tegra"));
+        assertEquals(List.of(2L), indice.buscar("FEIJAO"));
+        assertTrue(indice.buscar("arroz doce").isEmpty());
+    }
+
+    @Test
+    void autocompletaComPoucasLetras() {
+        assertEquals(List.of(2L, 3L), indice.buscar("f"));
+        assertEquals(List.of(2L), indice.buscar("ca"));
+        assertEquals(List.of("Arroz", "Arroz integral"), indice.sugerir("arr", 2));
+    }
+
+    @Test
+    void atualizacaoIncremental() {
+        indice.atualizar(6L, "Arroz parboilizado");
+        indice.atualizar(4L, "Macarrão");
+        indice.remover(1L);
+        assertEquals(List.of(6L, 3L), indice.buscar("arroz"));
+        assertEquals(List.of(4L), indice.buscar("macarrao"));
+        assertEquals(5, indice.total());
+    }
+
+    @Test
+    void reconstrucaoConcorrenteNaoDuplicaNemPerdeEscritas() throws Exception {
+        AnthProdutosRepository repository = mock(AnthProdutosRepository.class);
+        CountDownLatch lendo = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        when(repository.streamNomes()).thenReturn(Stream.<Object[]>of(new Object[]{1L, "Arroz"}).peek(l -> {
+            lendo.countDown();
+            try {
+                liberar.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        IndiceTrigramaProduto novo = new IndiceTrigramaProduto(repository, mock(PlatformTransactionManager.class));
+        assertFalse(novo.isPronto());
+        // Sem índice pronto a busca não dispara reconstrução: quem chama consulta o banco
+        assertTrue(novo.buscar("arroz").isEmpty());
+
+        CompletableFuture<Void> primeira = CompletableFuture.runAsync(novo::reconstruir);
+        assertTrue(lendo.await(10, TimeUnit.SECONDS));
+        // Segunda reconstrução e escrita chegam durante a primeira
+        novo.reconstruir();
+        novo.atualizar(2L, "Arroz doce");
+        liberar.countDown();
+        primeira.get(10, TimeUnit.SECONDS);
+
+        assertTrue(novo.isPronto());
+        assertEquals(List.of(1L, 2L), novo.buscar("arroz"));
+        verify(repository, times(1)).streamNomes();
+    }
+}
@@ -0,0 +1,61 @@
+package com.TCC.Prato_Justo.Service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MotorDistanciaTest {
+
+    @Test
+    void mesmoResultadoQueHaversineComOrdenacao() {
+        Random random = new Random(7);
+        int n = 20_000;
+        double[] latitudes = new double[n];
+        double[] longitudes = new double[n];
+        for (int i = 0; i < n; i++) {
+            latitudes[i] = -90 + 180 * random.nextDouble();
+            longitudes[i] = -180 + 360 * random.nextDouble();
+        }
+        MotorDistancia motor = new MotorDistancia(latitudes, longitudes, n);
+
+        // São Paulo, antimeridiano, perto do polo; raios pequenos, grandes e maiores que meia volta
+        double[][] pontos = {{-23.55, -46.63}, {10, 179.9}, {89.5, 0}, {-60, -170}};
+        double[] raios = {0, 100, 1500, 8000, 25000};
+        for (double[] ponto : pontos) {
+            for (double raio : raios) {
+                List<Integer> esperado = new ArrayList<>();
+                for (int i = 0; i < n; i++) {
+                    double d = GradeGeografica.distanciaKm(ponto[0], ponto[1], latitudes[i], longitudes[i]);
+                    // Fora da faixa de arredondamento entre as duas fórmulas
+                    if (Math.abs(d - raio) < 1e-6) continue;
+                    if (d <= raio) esperado.add(i);
+                }
+
+                int[] obtido = IntStream.of(motor.dentroDoRaio(ponto[0], ponto[1], raio))
+                        .filter(i -> Math.abs(GradeGeografica.distanciaKm(ponto[0], ponto[1], latitudes[i], longitudes[i]) - raio) >= 1e-6)
+                        .toArray();
+                String caso = "ponto " + ponto[0] + "," + ponto[1] + " raio " + raio;
+                assertEquals(esperado, IntStream.of(obtido).sorted().boxed().toList(), caso);
+                // Ordem crescente, a menos da precisão da chave (1e-6 relativo)
+                double anterior = 0;
+                for (int i : obtido) {
+                    double d = GradeGeografica.distanciaKm(ponto[0], ponto[1], latitudes[i], longitudes[i]);
+                    assertTrue(d >= anterior * (1 - 1e-6), caso);
+                    anterior = Math.max(anterior, d);
+                }
+            }
+        }
+    }
+
+    @Test
+    void raioNegativoSoAceitaOMesmoPonto() {
+        MotorDistancia motor = new MotorDistancia(new double[]{-8.05, -8.06}, new double[]{-34.9, -34.9}, 2);
+        assertEquals(1, motor.dentroDoRaio(-8.05, -34.9, -5).length);
+    }
+}
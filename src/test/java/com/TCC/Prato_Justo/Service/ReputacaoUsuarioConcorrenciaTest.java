@@ -0,0 +1,116 @@
+package com.TCC.Prato_Justo.Service;
+
+import com.TCC.Prato_Justo.Interface.AnthUsuarioRepository;
+import com.TCC.Prato_Justo.Interface.DoacaoRepository;
+import com.TCC.Prato_Justo.Interface.ReputacaoUsuarioRepository;
+import com.TCC.Prato_Justo.Interface.SolicitacaoRepository;
+import com.TCC.Prato_Justo.Model.Doacao;
+import com.TCC.Prato_Justo.Model.ReputacaoUsuario;
+import com.TCC.Prato_Justo.Model.Solicitacao;
+import com.TCC.Prato_Justo.Model.StatusSolicitacao;
+import com.TCC.Prato_Justo.Model.Usuario;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.TCC.Prato_Justo.DadosTeste.usuario;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Primeiras avaliações simultâneas de um usuário sem agregado de reputação: todas entram na linha
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.hikari.maximum-pool-size=20"
+})
+@ActiveProfiles("test")
+class ReputacaoUsuarioConcorrenciaTest {
+
+    private static final int RODADAS = 5;
+    private static final int CONCORRENTES = 16;
+
+    @Autowired
+    private AvaliacaoSolicitacaoService avaliacaoService;
+
+    @Autowired
+    private AnthUsuarioRepository usuarioRepository;
+
+    @Autowired
+    private DoacaoRepository doacaoRepository;
+
+    @Autowired
+    private SolicitacaoRepository solicitacaoRepository;
+
+    @Autowired
+    private ReputacaoUsuarioRepository reputacaoRepository;
+
+    @Test
+    void primeirasAvaliacoesSimultaneasEntramTodas() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(CONCORRENTES);
+        try {
+            for (int rodada = 0; rodada < RODADAS; rodada++) {
+                Usuario doador = usuarioRepository.save(usuario("doador_reputacao" + rodada));
+                Doacao doacao = new Doacao();
+                doacao.setTitulo("Doação " + rodada);
+                doacao.setDoador(doador);
+                doacao = doacaoRepository.save(doacao);
+
+                List<Solicitacao> solicitacoes = new ArrayList<>();
+                for (int i = 0; i < CONCORRENTES; i++) {
+                    Solicitacao s = new Solicitacao();
+                    s.setDoacao(doacao);
+                    s.setSolicitante(usuarioRepository.save(usuario("solicitante_reputacao" + rodada + "_" + i)));
+                    s.setStatus(StatusSolicitacao.CONCLUIDA);
+                    solicitacoes.add(solicitacaoRepository.save(s));
+                }
+
+                CountDownLatch largada = new CountDownLatch(1);
+                List<Future<RuntimeException>> resultados = new ArrayList<>();
+                for (int i = 0; i < CONCORRENTES; i++) {
+                    Solicitacao s = solicitacoes.get(i);
+                    int nota = 1 + i % 5;
+                    resultados.add(executor.submit(() -> {
+                        largada.await();
+                        try {
+                            avaliacaoService.criar(s.getId(), s.getSolicitante().getId(), doador.getId(), nota, null);
+                            return null;
+                        } catch (RuntimeException e) {
+                            return e;
+                        }
+                    }));
+                }
+                largada.countDown();
+                for (Future<RuntimeException> resultado : resultados) {
+                    assertNull(resultado.get(60, TimeUnit.SECONDS));
+                }
+
+                ReputacaoUsuario mantida = reputacaoRepository.findById(doador.getId()).orElseThrow();
+                ReputacaoUsuario recalculada = avaliacaoService.recalcular(doador.getId());
+                assertEquals(CONCORRENTES, mantida.getTotalAvaliacoes(), "rodada " + rodada);
+                assertEquals(recalculada.getSomaNotas(), mantida.getSomaNotas(), "rodada " + rodada);
+                assertEquals(recalculada.getHistograma(), mantida.getHistograma(), "rodada " + rodada);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void leituraNaoCriaLinha() {
+        Usuario semAvaliacoes = usuarioRepository.save(usuario("sem_avaliacoes"));
+        assertEquals(0L, avaliacaoService.contarPorAvaliado(semAvaliacoes.getId()));
+        assertEquals(0.0, avaliacaoService.mediaPorAvaliado(-42L));
+        assertTrue(reputacaoRepository.findById(semAvaliacoes.getId()).isEmpty());
+        assertTrue(reputacaoRepository.findById(-42L).isEmpty());
+    }
+}
@@ -0,0 +1,175 @@
+package com.TCC.Prato_Justo.Service;
+
+import com.TCC.Prato_Justo.Interface.AnthUsuarioRepository;
+import com.TCC.Prato_Justo.Interface.ChatRepository;
+import com.TCC.Prato_Justo.Interface.DoacaoRepository;
+import com.TCC.Prato_Justo.Interface.SolicitacaoRepository;
+import com.TCC.Prato_Justo.Model.Doacao;
+import com.TCC.Prato_Justo.Model.Solicitacao;
+import com.TCC.Prato_Justo.Model.StatusSolicitacao;
+import com.TCC.Prato_Justo.Model.Usuario;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.TCC.Prato_Justo.DadosTeste.usuario;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Vários aceites simultâneos para a mesma doação: apenas um pode vencer. Pedidos repetidos
+ * simultâneos do mesmo solicitante: apenas um é criado.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.hikari.maximum-pool-size=20"
+})
+@ActiveProfiles("test")
+class SolicitacaoServiceConcorrenciaTest {
+
+    private static final int RODADAS = 5;
+    private static final int CONCORRENTES = 16;
+
+    @Autowired
+    private SolicitacaoService solicitacaoService;
+
+    @Autowired
+    private AnthUsuarioRepository usuarioRepository;
+
+    @Autowired
+    private DoacaoRepository doacaoRepository;
+
+    @Autowired
+    private SolicitacaoRepository solicitacaoRepository;
+
+    @Autowired
+    private ChatRepository chatRepository;
+
+    @Test
+    void apenasUmAceiteVencePorDoacao() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(CONCORRENTES);
+        try {
+            for (int rodada = 0; rodada < RODADAS; rodada++) {
+                Usuario doador = usuarioRepository.save(usuario("doador" + rodada));
+                Doacao doacao = new Doacao();
+                doacao.setTitulo("Doação " + rodada);
+                doacao.setDoador(doador);
+                doacao = doacaoRepository.save(doacao);
+
+                List<Long> solicitacoes = new ArrayList<>();
+                for (int i = 0; i < CONCORRENTES; i++) {
+                    Solicitacao s = new Solicitacao();
+                    s.setDoacao(doacao);
+                    s.setSolicitante(usuarioRepository.save(usuario("solicitante" + rodada + "_" + i)));
+                    solicitacoes.add(solicitacaoRepository.save(s).getId());
+                }
+
+                CountDownLatch largada = new CountDownLatch(1);
+                List<Future<RuntimeException>> resultados = new ArrayList<>();
+                for (Long solicitacaoId : solicitacoes) {
+                    resultados.add(executor.submit(() -> {
+                        largada.await();
+                        try {
+                            solicitacaoService.aceitar(solicitacaoId, doador.getId());
+                            return null;
+                        } catch (RuntimeException e) {
+                            return e;
+                        }
+                    }));
+                }
+                largada.countDown();
+
+                int vencedores = 0;
+                for (Future<RuntimeException> resultado : resultados) {
+                    RuntimeException falha = resultado.get(60, TimeUnit.SECONDS);
+                    if (falha == null) {
+                        vencedores++;
+                    } else {
+                        // Perdedores recebem conflito limpo, sem deadlock nem erro de banco
+                        assertTrue(falha instanceof IllegalStateException || falha instanceof IllegalArgumentException,
+                                String.valueOf(falha));
+                    }
+                }
+                assertEquals(1, vencedores, "rodada " + rodada);
+
+                List<Solicitacao> finais = solicitacaoRepository.findByDoacaoId(doacao.getId());
+                long emAndamento = finais.stream().filter(s -> s.getStatus() == StatusSolicitacao.EM_ANDAMENTO).count();
+                long canceladas = finais.stream().filter(s -> s.getStatus() == StatusSolicitacao.CANCELADA).count();
+                assertEquals(1, emAndamento);
+                assertEquals(CONCORRENTES - 1, canceladas);
+
+                Solicitacao aceita = finais.stream().filter(s -> s.getStatus() == StatusSolicitacao.EM_ANDAMENTO).findFirst().orElseThrow();
+                assertTrue(chatRepository.findBySolicitacaoId(aceita.getId()).isPresent());
+                assertEquals(1, finais.stream().filter(s -> chatRepository.findBySolicitacaoId(s.getId()).isPresent()).count());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void pedidosRepetidosSimultaneosCriamUmSo() throws Exception {
+        Usuario doador = usuarioRepository.save(usuario("doador_repetido"));
+        Usuario solicitante = usuarioRepository.save(usuario("solicitante_repetido"));
+        Doacao doacao = new Doacao();
+        doacao.setTitulo("Doação repetida");
+        doacao.setDoador(doador);
+        Doacao salva = doacaoRepository.save(doacao);
+
+        ExecutorService executor = Executors.newFixedThreadPool(CONCORRENTES);
+        try {
+            CountDownLatch largada = new CountDownLatch(1);
+            List<Future<RuntimeException>> resultados = new ArrayList<>();
+            for (int i = 0; i < CONCORRENTES; i++) {
+                resultados.add(executor.submit(() -> {
+                    largada.await();
+                    try {
+                        solicitacaoService.criar(salva, solicitante);
+                        return null;
+                    } catch (RuntimeException e) {
+                        return e;
+                    }
+                }));
+            }
+            largada.countDown();
+
+            int criadas = 0;
+            for (Future<RuntimeException> resultado : resultados) {
+                RuntimeException falha = resultado.get(60, TimeUnit.SECONDS);
+                if (falha == null) {
+                    criadas++;
+                } else {
+                    assertEquals("Você já solicitou esta doação", falha.getMessage());
+                }
+            }
+            assertEquals(1, criadas);
+            assertEquals(1, solicitacaoRepository.findByDoacaoId(salva.getId()).size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void outraViolacaoNaoViraPedidoRepetido() {
+        Usuario doador = usuarioRepository.save(usuario("doador_removida"));
+        Doacao doacao = new Doacao();
+        doacao.setTitulo("Doação removida");
+        doacao.setDoador(doador);
+        Doacao removida = doacaoRepository.save(doacao);
+        doacaoRepository.deleteById(removida.getId());
+
+        // Chave estrangeira para uma doação que não existe mais: não é a restrição (doação, solicitante)
+        assertThrows(DataIntegrityViolationException.class,
+                () -> solicitacaoService.criar(removida, usuarioRepository.save(usuario("solicitante_removida"))));
+    }
+}
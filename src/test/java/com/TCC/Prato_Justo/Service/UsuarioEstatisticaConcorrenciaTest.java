@@ -0,0 +1,109 @@
+package com.TCC.Prato_Justo.Service;
+
+import com.TCC.Prato_Justo.Interface.AnthEstabelecimentoRepository;
+import com.TCC.Prato_Justo.Interface.AnthUsuarioRepository;
+import com.TCC.Prato_Justo.Interface.UsuarioEstatisticaRepository;
+import com.TCC.Prato_Justo.Model.Doacao;
+import com.TCC.Prato_Justo.Model.Estabelecimento;
+import com.TCC.Prato_Justo.Model.Usuario;
+import com.TCC.Prato_Justo.Model.UsuarioEstatistica;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.TCC.Prato_Justo.DadosTeste.estabelecimento;
+import static com.TCC.Prato_Justo.DadosTeste.usuario;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Primeiras escritas simultâneas para um usuário sem linha de estatísticas: uma semeia, as outras somam
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.hikari.maximum-pool-size=20"
+})
+@ActiveProfiles("test")
+class UsuarioEstatisticaConcorrenciaTest {
+
+    private static final int RODADAS = 5;
+    private static final int CONCORRENTES = 16;
+
+    @Autowired
+    private UsuarioEstatisticaService estatisticaService;
+
+    @Autowired
+    private DoacaoService doacaoService;
+
+    @Autowired
+    private AvaliacaoService avaliacaoService;
+
+    @Autowired
+    private AnthUsuarioRepository usuarioRepository;
+
+    @Autowired
+    private AnthEstabelecimentoRepository estabelecimentoRepository;
+
+    @Autowired
+    private UsuarioEstatisticaRepository estatisticaRepository;
+
+    @Test
+    void primeirasEscritasSimultaneasSomamTodas() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(CONCORRENTES);
+        try {
+            for (int rodada = 0; rodada < RODADAS; rodada++) {
+                Usuario dono = usuarioRepository.save(usuario("dono" + rodada));
+                Usuario cliente = usuarioRepository.save(usuario("cliente" + rodada));
+                Estabelecimento estabelecimento = estabelecimentoRepository.save(estabelecimento(dono, "mercado" + rodada));
+
+                // Leitura antes de qualquer escrita não cria a linha
+                assertEquals(0, estatisticaService.obter(dono.getId()).getTotalDoacoes());
+                assertTrue(estatisticaRepository.findById(dono.getId()).isEmpty());
+
+                CountDownLatch largada = new CountDownLatch(1);
+                List<Future<RuntimeException>> resultados = new ArrayList<>();
+                for (int i = 0; i < CONCORRENTES; i++) {
+                    int n = i;
+                    resultados.add(executor.submit(() -> {
+                        largada.await();
+                        try {
+                            if (n % 2 == 0) {
+                                Doacao doacao = new Doacao();
+                                doacao.setTitulo("Doação " + n);
+                                doacaoService.criar(doacao, dono);
+                            } else {
+                                avaliacaoService.avaliar(cliente.getId(), estabelecimento.getId(), 1 + n % 5, null);
+                            }
+                            return null;
+                        } catch (RuntimeException e) {
+                            return e;
+                        }
+                    }));
+                }
+                largada.countDown();
+                for (Future<RuntimeException> resultado : resultados) {
+                    assertNull(resultado.get(60, TimeUnit.SECONDS));
+                }
+
+                UsuarioEstatistica mantida = estatisticaRepository.findById(dono.getId()).orElseThrow();
+                UsuarioEstatistica recalculada = estatisticaService.recalcular(dono.getId());
+                assertEquals(CONCORRENTES / 2, mantida.getTotalDoacoes(), "rodada " + rodada);
+                assertEquals(CONCORRENTES / 2, mantida.getTotalAvaliacoes(), "rodada " + rodada);
+                assertTrue(estatisticaService.consistente(mantida, recalculada), "rodada " + rodada);
+                assertFalse(estatisticaRepository.findById(cliente.getId()).isPresent());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}